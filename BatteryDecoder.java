@@ -0,0 +1,42 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// BatteryDecoder: sensor_msgs/BatteryState -> 배터리 퍼센트(0~100), 전압
+//  - percentage 가 없으면(NaN) 전압을 방전 곡선으로 변환
+// ============================================================
+final class BatteryDecoder implements TopicDecoder {
+
+    private static final String[] PERCENTAGE = {"percentage"};
+    private static final String[] VOLTAGE = {"voltage"};
+
+    private final BatteryListener listener;
+    private final DischargeCurve curve;
+
+    BatteryDecoder(BatteryListener listener) {
+        this(listener, DischargeCurve.LIION_3S);
+    }
+
+    BatteryDecoder(BatteryListener listener, DischargeCurve curve) {
+        this.listener = listener;
+        this.curve = curve;
+    }
+
+    @Override
+    public void decode(MessageReader msg) {
+        double v = msg.getDouble(VOLTAGE, Double.NaN);
+        double percentage = msg.getDouble(PERCENTAGE, Double.NaN);
+        if (!Double.isNaN(percentage) && percentage >= 0) {
+            // 이미 0~100 범위라면 100 이상이면 1.0으로 보정
+            if (percentage > 1.0) {
+                percentage = percentage / 100.0;
+            }
+        } else {
+            double p = curve.percent(v); // 전압 -> 방전 곡선
+            percentage = Double.isNaN(p) ? 0.0 : p / 100.0;
+        }
+
+        // 안전하게 0~1 범위로 클램프
+        percentage = Math.max(0.0, Math.min(1.0, percentage));
+        listener.onBattery((int) Math.round(percentage * 100.0), v);
+    }
+}
@@ -0,0 +1,8 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// BatteryListener: /battery_state (sensor_msgs/BatteryState) 수신 콜백 (디코드 워커 스레드)
+// ============================================================
+interface BatteryListener {
+    void onBattery(int pct, double voltage); // 0~100 퍼센트, 팩 전압(V, 없으면 NaN)
+}
@@ -0,0 +1,162 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// BatteryMonitor: 배터리 상태 기계 + 남은 주행 시간 추정
+//  - 단계: OK / LOW / CRITICAL, 히스테리시스 구간으로 경계에서 깜빡이지 않음
+//      LOW 진입 <= 20%, 해제 >= 25% / CRITICAL 진입 <= 10%, 해제 >= 13%
+//  - 단계가 바뀔 때 한 번만 Listener 호출 (메시지마다 정지 명령/토스트 반복하지 않음)
+//  - 최근 10분 (시각, 잔량) 링 버퍼에 대한 최소제곱 직선 (누적합 갱신, 샘플당 O(1))
+//    -> 방전 속도(%/분) 와 CRITICAL(예비량) 까지 남은 주행 시간(분)
+//  - MotionGate: OK 단계이고 남은 시간이 충분할 때만 주행 명령 허용
+//  - 디코드 워커가 onBattery, UI/명령 스레드가 getter (synchronized)
+// ============================================================
+final class BatteryMonitor implements BatteryListener, MotionGate {
+
+    enum Level { OK, LOW, CRITICAL }
+
+    // 단계가 바뀔 때 한 번 (디코드 워커 스레드)
+    interface Listener {
+        void onLevelChanged(Level previous, Level current);
+    }
+
+    static final int LOW_ENTER_PCT = 20;
+    static final int LOW_EXIT_PCT = 25;
+    static final int CRITICAL_ENTER_PCT = 10;
+    static final int CRITICAL_EXIT_PCT = 13;
+    static final double MIN_RUNTIME_MINUTES = 3.0; // 이보다 짧게 남으면 새 주행 명령 거부
+    static final long WINDOW_NANOS = 10 * 60 * 1_000_000_000L; // 회귀 창 10분
+    static final int WINDOW_CAPACITY = 1024; // 창 최대 샘플 수 (1Hz 기준 충분)
+    static final int MIN_SAMPLES = 10; // 추정에 필요한 최소 샘플 수
+    static final double MIN_SPAN_S = 30.0; // 추정에 필요한 최소 시간 폭
+    static final double MIN_DRAIN_PCT_PER_S = 1e-4; // 이보다 느리면 방전 중이 아님 (충전/대기)
+
+    private final Listener listener;
+    private final long originNanos = System.nanoTime(); // 시각 기준점 (누적합 정밀도)
+
+    // --- 회귀 창 (링 버퍼 + 누적합) ---
+    private final double[] ts = new double[WINDOW_CAPACITY]; // 초 (originNanos 기준)
+    private final double[] ps = new double[WINDOW_CAPACITY]; // 잔량 %
+    private int head, size;
+    private double sumT, sumP, sumTT, sumTP;
+
+    private Level level = Level.OK;
+    private int pct = -1; // 마지막 잔량 (-1 = 아직 없음)
+    private double voltage = Double.NaN;
+    private double drainPctPerS = Double.NaN; // 방전 속도 (양수 = 방전), NaN = 추정 전
+
+    BatteryMonitor(Listener listener) {
+        this.listener = listener;
+    }
+
+    // ----------------------------------------------------------
+    // 배터리 메시지 (디코드 워커)
+    // ----------------------------------------------------------
+    @Override
+    public void onBattery(int pct, double voltage) {
+        update(pct, voltage, System.nanoTime());
+    }
+
+    void update(int pct, double voltage, long nowNanos) {
+        Level previous, current;
+        synchronized (this) {
+            this.pct = pct;
+            this.voltage = voltage;
+            addSample((nowNanos - originNanos) * 1e-9, pct);
+            previous = level;
+            level = nextLevel(level, pct);
+            current = level;
+        }
+        if (current != previous && listener != null) listener.onLevelChanged(previous, current);
+    }
+
+    // 히스테리시스: 내려갈 때는 ENTER, 올라올 때는 EXIT 기준
+    static Level nextLevel(Level level, int pct) {
+        if (pct < 0) return level;
+        switch (level) {
+            case OK:
+                if (pct <= CRITICAL_ENTER_PCT) return Level.CRITICAL;
+                return pct <= LOW_ENTER_PCT ? Level.LOW : Level.OK;
+            case LOW:
+                if (pct <= CRITICAL_ENTER_PCT) return Level.CRITICAL;
+                return pct >= LOW_EXIT_PCT ? Level.OK : Level.LOW;
+            default: // CRITICAL
+                if (pct >= LOW_EXIT_PCT) return Level.OK;
+                return pct >= CRITICAL_EXIT_PCT ? Level.LOW : Level.CRITICAL;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 읽기
+    // ----------------------------------------------------------
+    synchronized Level level() {
+        return level;
+    }
+
+    synchronized int percent() {
+        return pct;
+    }
+
+    synchronized double voltage() {
+        return voltage;
+    }
+
+    // 방전 속도 (%/분), 추정 전이면 NaN
+    synchronized double drainPercentPerMinute() {
+        return drainPctPerS * 60;
+    }
+
+    // CRITICAL 예비량까지 남은 주행 시간 (분): NaN = 추정 전, 무한대 = 방전 중 아님
+    synchronized double minutesRemaining() {
+        if (pct < 0 || Double.isNaN(drainPctPerS)) return Double.NaN;
+        if (drainPctPerS < MIN_DRAIN_PCT_PER_S) return Double.POSITIVE_INFINITY;
+        return Math.max(0, pct - CRITICAL_ENTER_PCT) / drainPctPerS / 60.0;
+    }
+
+    // MotionGate: 새 주행 명령 허용 여부 (정지/긴급정지는 항상 허용)
+    @Override
+    public synchronized boolean allowsMotion() {
+        if (level != Level.OK) return false;
+        double minutes = minutesRemaining();
+        return Double.isNaN(minutes) || minutes >= MIN_RUNTIME_MINUTES;
+    }
+
+    // ----------------------------------------------------------
+    // 회귀 창: 오래된 샘플 제거 + 새 샘플 추가 후 기울기 갱신
+    // ----------------------------------------------------------
+    private void addSample(double t, double p) {
+        double windowS = WINDOW_NANOS * 1e-9;
+        while (size > 0 && (size == WINDOW_CAPACITY || t - ts[tail()] > windowS)) removeOldest();
+        ts[head] = t;
+        ps[head] = p;
+        head = (head + 1) % WINDOW_CAPACITY;
+        size++;
+        sumT += t;
+        sumP += p;
+        sumTT += t * t;
+        sumTP += t * p;
+
+        double span = t - ts[tail()];
+        if (size < MIN_SAMPLES || span < MIN_SPAN_S) {
+            drainPctPerS = Double.NaN;
+            return;
+        }
+        double n = size;
+        double sxx = sumTT - sumT * sumT / n;
+        double sxy = sumTP - sumT * sumP / n;
+        drainPctPerS = sxx <= 0 ? Double.NaN : -sxy / sxx; // 기울기 부호 반전 = 방전 속도
+    }
+
+    private void removeOldest() {
+        int i = tail();
+        sumT -= ts[i];
+        sumP -= ps[i];
+        sumTT -= ts[i] * ts[i];
+        sumTP -= ts[i] * ps[i];
+        size--;
+    }
+
+    private int tail() {
+        int i = head - size;
+        return i < 0 ? i + WINDOW_CAPACITY : i;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // cbor-raw CDR 바이트
+import java.nio.ByteOrder;
+
+// ============================================================
+// CameraDecoder: sensor_msgs/Image -> 원시 픽셀 바이트
+//  - JSON: base64 data 를 재사용 버퍼에 바로 디코드
+//  - CBOR: byte string 을 재사용 버퍼로 복사
+//  - cbor-raw: CDR 직렬화 바이트에서 필드를 순서대로 읽음
+//  - listener 는 호출 동안만 data 를 사용해야 함 (다음 프레임에 덮어씀)
+// ============================================================
+final class CameraDecoder implements RawTopicDecoder {
+
+    // 지원하는 인코딩 (상수 비교로 문자열 할당 회피)
+    static final String[] ENCODINGS = {"rgb8", "bgr8", "mono8", "yuv422", "yuv422_yuy2", "rgba8", "bgra8"};
+
+    private static final String[] WIDTH = {"width"};
+    private static final String[] HEIGHT = {"height"};
+    private static final String[] ENCODING = {"encoding"};
+    private static final String[] DATA = {"data"};
+
+    private final ImageListener listener;
+    private byte[] buffer; // 재사용 디코드 버퍼
+
+    CameraDecoder(ImageListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void decode(MessageReader msg) {
+        int width = msg.getInt(WIDTH, 0);
+        int height = msg.getInt(HEIGHT, 0);
+        if (width <= 0 || height <= 0) return;
+        String encoding = msg.getKnownString(ENCODING, ENCODINGS);
+        if (encoding == null) return; // 지원하지 않는 인코딩
+
+        buffer = msg.getBytes(DATA, buffer);
+        int length = msg.byteCount();
+        if (length == 0) return;
+        listener.onImage(width, height, encoding, buffer, length);
+    }
+
+    // ----------------------------------------------------------
+    // cbor-raw: CDR 직렬화된 sensor_msgs/msg/Image 디코드
+    //  header(stamp.sec, stamp.nanosec, frame_id) height width encoding
+    //  is_bigendian step data 순서, 정렬은 캡슐화 헤더(4바이트) 이후 기준
+    // ----------------------------------------------------------
+    @Override
+    public void decodeRaw(ByteBuffer buf, int offset, int length) {
+        if (length < 4) return;
+        ByteBuffer cdr = buf.duplicate();
+        cdr.limit(offset + length);
+        // 캡슐화 헤더 두 번째 바이트: 1 = 리틀엔디안, 0 = 빅엔디안
+        cdr.order(buf.get(offset + 1) == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int base = offset + 4;
+        int pos = base;
+
+        pos += 8; // stamp.sec(int32) + stamp.nanosec(uint32)
+        pos = skipCdrString(cdr, pos, base); // frame_id
+        pos = align4(pos, base);
+        int height = cdr.getInt(pos);
+        int width = cdr.getInt(pos + 4);
+        pos += 8;
+        String encoding = readKnownCdrString(cdr, pos, base);
+        pos = skipCdrString(cdr, pos, base);
+        pos += 1; // is_bigendian(uint8)
+        pos = align4(pos, base) + 4; // step(uint32)
+        int dataLength = cdr.getInt(pos);
+        pos += 4;
+        if (encoding == null || width <= 0 || height <= 0) return;
+        if (dataLength <= 0 || pos + dataLength > offset + length) return; // 잘린 프레임
+
+        if (buffer == null || buffer.length < dataLength) buffer = new byte[dataLength];
+        cdr.position(pos);
+        cdr.get(buffer, 0, dataLength);
+        listener.onImage(width, height, encoding, buffer, dataLength);
+    }
+
+    private static int align4(int pos, int base) {
+        return base + ((pos - base + 3) & ~3);
+    }
+
+    // CDR 문자열: uint32 길이(NUL 포함) + 바이트
+    private static int skipCdrString(ByteBuffer cdr, int pos, int base) {
+        pos = align4(pos, base);
+        return pos + 4 + cdr.getInt(pos);
+    }
+
+    private static String readKnownCdrString(ByteBuffer cdr, int pos, int base) {
+        pos = align4(pos, base);
+        int len = cdr.getInt(pos) - 1; // NUL 제외
+        for (String c : ENCODINGS) {
+            if (c.length() != len) continue;
+            boolean same = true;
+            for (int i = 0; i < len && same; i++) same = cdr.get(pos + 4 + i) == (byte) c.charAt(i);
+            if (same) return c;
+        }
+        return null;
+    }
+}
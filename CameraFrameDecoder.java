@@ -0,0 +1,173 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import android.graphics.Bitmap; // 재사용 비트맵
+import android.graphics.BitmapFactory; // JPEG/PNG -> 풀 비트맵 (inBitmap)
+
+import java.util.ArrayDeque;
+
+// ============================================================
+// CameraFrameDecoder: 카메라 프레임 -> 재사용 비트맵 (풀 + 최신 프레임 우편함)
+//  - 해상도별로 고정 개수(표시 중/대기/디코드 중)의 int[] + Bitmap 풀 사용
+//  - 프레임마다 byte[]/int[]/Bitmap 을 새로 만들지 않음 (GC 정지 방지)
+//  - UI 가 늦으면 대기 프레임을 최신 것으로 교체 (uiHandler.post 누적 없음)
+//  - 압축 프레임(onCompressedImage)은 BitmapFactory 로 풀 비트맵에 바로 디코드 (inBitmap)
+//  - onImage/onCompressedImage 는 디코드 스레드 하나, takeBitmap 은 UI 스레드에서 호출
+// ============================================================
+final class CameraFrameDecoder implements ImageListener, CompressedImageListener {
+
+    private static final int FRAMES_PER_RESOLUTION = 3; // 표시 중 + 대기 + 디코드 중
+
+    static final class Frame {
+        final int width;
+        final int height;
+        int[] pixels; // 변환 버퍼 (원시 Image 경로에서 처음 쓸 때 할당)
+        final Bitmap bitmap; // 표시용 비트맵
+
+        Frame(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+    }
+
+    private final FrameMailbox<Frame> mailbox = new FrameMailbox<>();
+    private final Runnable onFrameReady; // 우편함이 비어 있다가 채워질 때 한 번 호출
+
+    // 풀 상태 (lock = this)
+    private final ArrayDeque<Frame> free = new ArrayDeque<>();
+    private int poolWidth, poolHeight; // 현재 풀 해상도
+    private int allocated; // 현재 해상도로 만든 프레임 수
+    private long busyDrops; // 빈 버퍼가 없어 버린 프레임 수
+    private boolean closed;
+
+    private final BitmapFactory.Options boundsOptions = new BitmapFactory.Options(); // 디코드 스레드 전용
+    private final BitmapFactory.Options decodeOptions = new BitmapFactory.Options();
+
+    private Frame displayed; // 현재 ImageView 에 걸린 프레임 (UI 스레드 전용)
+    private volatile LatencyHistogram convertHistogram; // 픽셀 변환 시간 계측 (null = 끔)
+
+    CameraFrameDecoder(Runnable onFrameReady) {
+        this.onFrameReady = onFrameReady;
+        boundsOptions.inJustDecodeBounds = true;
+        decodeOptions.inMutable = true; // inBitmap 재사용 조건
+        decodeOptions.inPreferredConfig = Bitmap.Config.ARGB_8888;
+    }
+
+    // ----------------------------------------------------------
+    // 디코드 스레드: 원시 바이트를 풀 버퍼로 변환 후 우편함에 넣음
+    // ----------------------------------------------------------
+    @Override
+    public void onImage(int width, int height, String encoding, byte[] data, int length) {
+        Frame frame = acquire(width, height);
+        if (frame == null) return; // 모든 버퍼 사용 중 -> 이번 프레임은 버림
+
+        long start = System.nanoTime();
+        if (frame.pixels == null) frame.pixels = new int[width * height];
+        if (!PixelConverter.convert(encoding, data, length, width, height, frame.pixels)) {
+            release(frame);
+            return;
+        }
+        frame.bitmap.setPixels(frame.pixels, 0, width, 0, 0, width, height);
+        LatencyHistogram h = convertHistogram;
+        if (h != null) h.recordSince(start);
+        publish(frame);
+    }
+
+    // ----------------------------------------------------------
+    // 디코드 스레드: JPEG/PNG 를 풀 비트맵에 바로 디코드 (프레임마다 Bitmap 할당 없음)
+    //  - 먼저 헤더만 읽어 크기를 알아낸 뒤 같은 해상도 풀에서 비트맵을 빌림
+    // ----------------------------------------------------------
+    @Override
+    public void onCompressedImage(String format, byte[] data, int length) {
+        boundsOptions.outWidth = boundsOptions.outHeight = 0;
+        BitmapFactory.decodeByteArray(data, 0, length, boundsOptions);
+        int width = boundsOptions.outWidth, height = boundsOptions.outHeight;
+        if (width <= 0 || height <= 0) return; // 깨진 프레임
+        Frame frame = acquire(width, height);
+        if (frame == null) return;
+
+        long start = System.nanoTime();
+        decodeOptions.inBitmap = frame.bitmap;
+        Bitmap decoded;
+        try {
+            decoded = BitmapFactory.decodeByteArray(data, 0, length, decodeOptions);
+        } catch (IllegalArgumentException e) { // inBitmap 으로 쓸 수 없는 형식
+            decoded = null;
+        }
+        decodeOptions.inBitmap = null;
+        if (decoded != frame.bitmap) { // 실패 또는 새 비트맵이 만들어짐 -> 이번 프레임은 버림
+            if (decoded != null) decoded.recycle();
+            release(frame);
+            return;
+        }
+        LatencyHistogram h = convertHistogram;
+        if (h != null) h.recordSince(start);
+        publish(frame);
+    }
+
+    private void publish(Frame frame) {
+        Frame stale = mailbox.offer(frame);
+        if (stale != null) release(stale); // UI 가 아직 못 가져간 이전 프레임 -> 재사용
+        else onFrameReady.run(); // 대기 프레임이 없었으면 UI 에 한 번만 알림
+    }
+
+    // 픽셀 변환(+ setPixels) 또는 JPEG 디코드 시간 계측 (null = 끔)
+    void setConvertHistogram(LatencyHistogram histogram) {
+        this.convertHistogram = histogram;
+    }
+
+    // ----------------------------------------------------------
+    // UI 스레드: 최신 프레임의 비트맵을 꺼내고 이전 표시 프레임은 풀로 반환
+    //  - 새 프레임이 없으면 null
+    // ----------------------------------------------------------
+    Bitmap takeBitmap() {
+        Frame frame = mailbox.take();
+        if (frame == null) return null;
+        if (displayed != null) release(displayed);
+        displayed = frame;
+        return frame.bitmap;
+    }
+
+    // 버려진 프레임 수 (UI 지연으로 교체된 것 + 버퍼 부족)
+    synchronized long droppedFrames() {
+        return mailbox.droppedCount() + busyDrops;
+    }
+
+    // ----------------------------------------------------------
+    // 풀 관리
+    // ----------------------------------------------------------
+    private synchronized Frame acquire(int width, int height) {
+        if (closed) return null;
+        if (width != poolWidth || height != poolHeight) { // 해상도 변경 -> 풀 교체
+            for (Frame f : free) f.bitmap.recycle();
+            free.clear();
+            poolWidth = width;
+            poolHeight = height;
+            allocated = 0;
+        }
+        Frame frame = free.poll();
+        if (frame == null && allocated < FRAMES_PER_RESOLUTION) {
+            frame = new Frame(width, height);
+            allocated++;
+        }
+        if (frame == null) busyDrops++;
+        return frame;
+    }
+
+    private synchronized void release(Frame frame) {
+        if (closed || frame.width != poolWidth || frame.height != poolHeight) {
+            frame.bitmap.recycle(); // 이전 해상도 프레임은 폐기
+        } else {
+            free.push(frame);
+        }
+    }
+
+    // 액티비티 종료 시: 대기/여유 비트맵 정리 (표시 중인 것은 뷰가 해제)
+    synchronized void close() {
+        closed = true;
+        Frame pending = mailbox.take();
+        if (pending != null) pending.bitmap.recycle();
+        for (Frame f : free) f.bitmap.recycle();
+        free.clear();
+    }
+}
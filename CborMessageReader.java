@@ -0,0 +1,260 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // 바이너리 프레임 (복사 없이 읽음)
+import java.nio.charset.StandardCharsets;
+
+// ============================================================
+// CborMessageReader: rosbridge CBOR 바이너리 프레임 리더
+//  - compression "cbor"/"cbor-raw" 구독의 바이너리 프레임을 트리 없이 읽음
+//  - ByteBuffer 절대 위치 접근만 사용 (position/limit 변경 없음)
+//  - uint8[] 는 byte string, 그 외 숫자 배열은 RFC 8746 typed array 태그
+//  - 한 인스턴스를 재사용 (스레드 하나 전용, 동기화 없음)
+// ============================================================
+final class CborMessageReader implements MessageReader {
+
+    private static final int MAJOR_UINT = 0;
+    private static final int MAJOR_NEGINT = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    private static final long INDEFINITE = -1; // 길이 미지정(0x1f) 표시
+
+    private ByteBuffer buf; // 현재 프레임
+    private int start; // 프레임 시작 위치
+    private int end; // 프레임 끝 위치 (limit)
+    private int root; // 경로 탐색 기준 맵 위치
+    private int byteCount; // 마지막 getBytes() 결과 길이
+
+    // readHead() 결과 (재사용 필드, 할당 없음)
+    private int headMajor;
+    private int headInfo;
+    private long headArg;
+
+    // ----------------------------------------------------------
+    // 새 프레임으로 초기화 (기준 맵 = 최상위 맵)
+    // ----------------------------------------------------------
+    void reset(ByteBuffer frame) {
+        this.buf = frame;
+        this.start = frame.position();
+        this.end = frame.limit();
+        this.root = start;
+        this.byteCount = 0;
+    }
+
+    ByteBuffer buffer() {
+        return buf;
+    }
+
+    void setRoot(int mapStart) {
+        this.root = mapStart;
+    }
+
+    int findTopLevel(String field) {
+        return findField(start, field);
+    }
+
+    int find(String[] path) {
+        int pos = root;
+        for (String key : path) {
+            pos = findField(pos, key);
+            if (pos < 0) return -1;
+        }
+        return pos;
+    }
+
+    // ----------------------------------------------------------
+    // pos 위치의 텍스트 문자열이 expected(ASCII) 와 같은지
+    // ----------------------------------------------------------
+    boolean stringEquals(int pos, String expected) {
+        if (pos < 0) return false;
+        int p = readHead(pos);
+        if (headMajor != MAJOR_TEXT || headArg != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (buf.get(p + i) != (byte) expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // pos 위치가 byte string 이면 데이터 시작 위치, 아니면 -1 (길이는 byteCount())
+    int byteStringAt(int pos) {
+        byteCount = 0;
+        if (pos < 0) return -1;
+        int p = readHead(pos);
+        while (headMajor == MAJOR_TAG) p = readHead(p); // typed array 태그 등은 건너뜀
+        if (headMajor != MAJOR_BYTES || headArg == INDEFINITE) return -1;
+        byteCount = (int) headArg;
+        return p;
+    }
+
+    // ----------------------------------------------------------
+    // 경로 기반 값 읽기
+    // ----------------------------------------------------------
+    @Override
+    public double getDouble(String[] path, double def) {
+        int pos = find(path);
+        return pos < 0 ? def : readNumber(pos, def);
+    }
+
+    @Override
+    public int getInt(String[] path, int def) {
+        int pos = find(path);
+        return pos < 0 ? def : (int) readNumber(pos, def);
+    }
+
+    @Override
+    public String getKnownString(String[] path, String[] candidates) {
+        int pos = find(path);
+        if (pos < 0) return null;
+        for (String c : candidates) {
+            if (stringEquals(pos, c)) return c;
+        }
+        return null;
+    }
+
+    @Override
+    public String getString(String[] path) {
+        int pos = find(path);
+        if (pos < 0) return null;
+        int p = readHead(pos);
+        if (headMajor != MAJOR_TEXT || headArg == INDEFINITE) return null;
+        byte[] chars = new byte[(int) headArg];
+        for (int i = 0; i < chars.length; i++) chars[i] = buf.get(p + i);
+        return new String(chars, StandardCharsets.UTF_8);
+    }
+
+    // ----------------------------------------------------------
+    // byte string 을 재사용 버퍼로 복사 (base64 디코드 없음)
+    // ----------------------------------------------------------
+    @Override
+    public byte[] getBytes(String[] path, byte[] reuse) {
+        int p = byteStringAt(find(path));
+        if (p < 0) return reuse;
+        int len = byteCount;
+        byte[] dst = (reuse != null && reuse.length >= len) ? reuse : new byte[len];
+        ByteBuffer view = buf.duplicate(); // 절대 위치 bulk get 용 (객체 1개)
+        view.limit(p + len).position(p);
+        view.get(dst, 0, len);
+        return dst;
+    }
+
+    @Override
+    public int byteCount() {
+        return byteCount;
+    }
+
+    // ----------------------------------------------------------
+    // 맵(mapStart)의 텍스트 키 중 name 값의 시작 위치
+    // ----------------------------------------------------------
+    int findField(int mapStart, String name) {
+        if (mapStart < 0 || mapStart >= end) return -1;
+        int pos = readHead(mapStart);
+        if (headMajor != MAJOR_MAP) return -1;
+        long pairs = headArg;
+        for (long i = 0; pairs == INDEFINITE || i < pairs; i++) {
+            if (pos >= end) return -1;
+            if (pairs == INDEFINITE && (buf.get(pos) & 0xFF) == 0xFF) return -1; // break
+            boolean match = stringEquals(pos, name);
+            pos = skipValue(pos); // 키
+            if (match) return pos;
+            pos = skipValue(pos); // 값
+        }
+        return -1;
+    }
+
+    // ----------------------------------------------------------
+    // 항목 하나를 건너뛰고 그 다음 위치를 반환
+    // ----------------------------------------------------------
+    int skipValue(int pos) {
+        if (pos >= end) return end;
+        int p = readHead(pos);
+        long arg = headArg;
+        switch (headMajor) {
+            case MAJOR_BYTES:
+            case MAJOR_TEXT:
+                if (arg != INDEFINITE) return p + (int) arg;
+                while (p < end && (buf.get(p) & 0xFF) != 0xFF) p = skipValue(p); // 청크들
+                return p + 1;
+            case MAJOR_ARRAY:
+            case MAJOR_MAP: {
+                long items = headMajor == MAJOR_MAP && arg != INDEFINITE ? arg * 2 : arg;
+                if (items == INDEFINITE) {
+                    while (p < end && (buf.get(p) & 0xFF) != 0xFF) p = skipValue(p);
+                    return p + 1;
+                }
+                for (long i = 0; i < items; i++) p = skipValue(p);
+                return p;
+            }
+            case MAJOR_TAG:
+                return skipValue(p);
+            default: // 정수, float, simple 값은 헤더에 값이 포함됨
+                return p;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 헤더 파싱: headMajor/headInfo/headArg 설정 후 다음 위치 반환
+    // ----------------------------------------------------------
+    private int readHead(int pos) {
+        int ib = buf.get(pos) & 0xFF;
+        headMajor = ib >>> 5;
+        headInfo = ib & 0x1F;
+        pos++;
+        switch (headInfo) {
+            case 24:
+                headArg = buf.get(pos) & 0xFF;
+                return pos + 1;
+            case 25:
+                headArg = buf.getShort(pos) & 0xFFFF; // CBOR 은 빅엔디안 (ByteBuffer 기본값)
+                return pos + 2;
+            case 26:
+                headArg = buf.getInt(pos) & 0xFFFFFFFFL;
+                return pos + 4;
+            case 27:
+                headArg = buf.getLong(pos);
+                return pos + 8;
+            case 31:
+                headArg = INDEFINITE;
+                return pos;
+            default:
+                headArg = headInfo;
+                return pos;
+        }
+    }
+
+    // 정수/부동소수 값 읽기
+    private double readNumber(int pos, double def) {
+        readHead(pos);
+        switch (headMajor) {
+            case MAJOR_UINT:
+                return headArg;
+            case MAJOR_NEGINT:
+                return -1.0 - headArg;
+            case MAJOR_SIMPLE:
+                switch (headInfo) {
+                    case 20: return 0.0; // false
+                    case 21: return 1.0; // true
+                    case 25: return halfToDouble((int) headArg);
+                    case 26: return Float.intBitsToFloat((int) headArg);
+                    case 27: return Double.longBitsToDouble(headArg);
+                    default: return def; // null, undefined
+                }
+            default:
+                return def;
+        }
+    }
+
+    // IEEE 754 half precision -> double
+    private static double halfToDouble(int h) {
+        int exp = (h >>> 10) & 0x1F;
+        int mant = h & 0x3FF;
+        double v;
+        if (exp == 0) v = mant * Math.pow(2, -24);
+        else if (exp == 31) v = mant == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        else v = (mant + 1024) * Math.pow(2, exp - 25);
+        return (h & 0x8000) != 0 ? -v : v;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// CharFormatter: 할당 없는 텍스트 조립 (String.format 대체, UI 스레드 전용)
+//  - 고정 char[] 버퍼에 문자열 조각과 고정 소수점 숫자를 이어 붙임
+//  - TextView.setText(char[], start, len) 로 바로 넘김 (로케일 영향 없음, 소수점은 항상 '.')
+//  - 버퍼를 넘는 내용은 잘림
+//  - TextView 는 넘긴 배열을 복사하지 않고 참조함 -> TextView 하나에 CharFormatter 하나
+// ============================================================
+final class CharFormatter {
+
+    private static final long[] POW10 = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+    private final char[] buf;
+    private int len;
+
+    CharFormatter(int capacity) {
+        this.buf = new char[capacity];
+    }
+
+    CharFormatter reset() {
+        len = 0;
+        return this;
+    }
+
+    char[] chars() {
+        return buf;
+    }
+
+    int length() {
+        return len;
+    }
+
+    CharFormatter append(char c) {
+        if (len < buf.length) buf[len++] = c;
+        return this;
+    }
+
+    CharFormatter append(String s) {
+        int n = Math.min(s.length(), buf.length - len);
+        s.getChars(0, n, buf, len);
+        len += n;
+        return this;
+    }
+
+    CharFormatter append(long v) {
+        if (v < 0) {
+            append('-');
+            if (v == Long.MIN_VALUE) return append("9223372036854775808");
+            v = -v;
+        }
+        int start = len;
+        do {
+            append((char) ('0' + (v % 10)));
+            v /= 10;
+        } while (v != 0);
+        reverse(start, len - 1);
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // 고정 소수점 (decimals 0~6 자리, 반올림)
+    // ----------------------------------------------------------
+    CharFormatter append(double v, int decimals) {
+        if (Double.isNaN(v)) return append("NaN");
+        if (Double.isInfinite(v)) return append(v > 0 ? "Inf" : "-Inf");
+        decimals = Math.max(0, Math.min(decimals, POW10.length - 1));
+        long scale = POW10[decimals];
+        long scaled = Math.round(Math.abs(v) * scale);
+        if (v < 0 && scaled != 0) append('-'); // -0.0 은 0.0 으로
+        append(scaled / scale);
+        if (decimals == 0) return this;
+        append('.');
+        long frac = scaled % scale;
+        for (long p = scale / 10; p > 0; p /= 10) { // 앞자리 0 포함
+            append((char) ('0' + (frac / p) % 10));
+        }
+        return this;
+    }
+
+    private void reverse(int i, int j) {
+        while (i < j) {
+            char t = buf[i];
+            buf[i++] = buf[j];
+            buf[j--] = t;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, len);
+    }
+}
@@ -0,0 +1,287 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONObject; // 문자열 값 이스케이프 (JSONObject.quote)
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// ============================================================
+// CommandPublisher: 명령 토픽 퍼블리시 전담 (전용 송신 스레드)
+//  - 연결될 때마다 토픽별 advertise 를 한 번 보냄
+//  - 메시지는 미리 만든 JSON 앞/뒤 조각에 값만 끼워 넣음 (JSONObject 트리 없음)
+//  - 토픽별 최소 전송 간격: cmd_vel/goal_pose 는 최신 값만, cmd_drive/lane_change 는
+//    같은 명령 반복만 합침 (서로 다른 명령은 순서대로 전송)
+//  - /emergency_stop 은 우선 경로: 대기 중인 명령을 모두 버리고 호출 스레드에서 즉시 전송
+//  - 송신 스케줄러는 전용 스레드 또는 여러 로봇이 나눠 쓰는 공유 스케줄러 (플릿 모드)
+//  - 계측(setMetrics): 토픽별 보낸 메시지/바이트 + 큐 대기(enqueue -> 소켓) 시간
+// ============================================================
+final class CommandPublisher {
+
+    static final String TOPIC_CMD_VEL = "/cmd_vel";
+    static final String TOPIC_CMD_DRIVE = "/cmd_drive"; // command_executor에서 구독 중인 토픽
+    static final String TOPIC_LANE_CHANGE = "/lane_change_cmd";
+    static final String TOPIC_GOAL_POSE = "/goal_pose";
+    static final String TOPIC_EMERGENCY = "/emergency_stop"; // ROS 노드에서 구독하는 토픽
+
+    private static final int MAX_PENDING = 8; // 채널별 대기 명령 최대 수
+
+    // ----------------------------------------------------------
+    // 토픽 하나의 전송 채널
+    // ----------------------------------------------------------
+    private static final class Channel {
+        final String topic;
+        final long minIntervalMs; // 최소 전송 간격
+        final boolean latestOnly; // true = 대기 중 값을 새 값으로 교체
+        final String advertiseJson; // 미리 만든 advertise 요청
+        final String unadvertiseJson; // 미리 만든 unadvertise 요청
+        final String publishPrefix; // {"op":"publish","topic":"...","msg": 까지
+        final ArrayDeque<String> pending = new ArrayDeque<>();
+        String lastSent; // 마지막으로 보낸 메시지
+        long pendingSinceNanos; // 대기열 맨 앞 메시지가 들어온 시각 (계측용)
+        TelemetryMetrics.TopicStats stats; // 계측 (null = 끔)
+        long lastSentMs = Long.MIN_VALUE / 2;
+
+        Channel(String topic, String type, long minIntervalMs, boolean latestOnly) {
+            this.topic = topic;
+            this.minIntervalMs = minIntervalMs;
+            this.latestOnly = latestOnly;
+            this.advertiseJson = "{\"op\":\"advertise\",\"id\":\"adv" + topic.replace('/', '_')
+                    + "\",\"topic\":\"" + topic + "\",\"type\":\"" + type + "\"}";
+            this.unadvertiseJson = "{\"op\":\"unadvertise\",\"id\":\"adv" + topic.replace('/', '_')
+                    + "\",\"topic\":\"" + topic + "\"}";
+            this.publishPrefix = "{\"op\":\"publish\",\"topic\":\"" + topic + "\",\"msg\":";
+        }
+    }
+
+    private final Object lock = new Object(); // 채널/연결 상태 보호
+    private final Channel cmdVel, drive, laneChange, goal, emergency;
+    private final Channel[] channels;
+    private final String emergencyJson; // 긴급정지 메시지 (완전히 미리 직렬화)
+
+    private final ScheduledExecutorService executor; // drain 예약
+    private final boolean ownsExecutor; // true = 전용 송신 스레드 (shutdown 에서 종료)
+    private final Runnable drainTask = this::drain;
+    private long drainAtMs = Long.MAX_VALUE; // 예약된 가장 이른 drain 시각
+
+    private MessageSender sender; // 현재 연결 (없으면 null)
+    private long sent, coalesced, dropped; // 카운터 (lock 보호)
+
+    // ----------------------------------------------------------
+    // teleopIntervalMs: cmd_vel/goal_pose 최소 간격, driveIntervalMs: 버튼 명령 최소 간격
+    // ----------------------------------------------------------
+    CommandPublisher(long teleopIntervalMs, long driveIntervalMs) {
+        this(teleopIntervalMs, driveIntervalMs, null);
+    }
+
+    // executor: 공유 스케줄러 (null = 전용 송신 스레드 생성), 공유 스케줄러는 소유자가 종료
+    CommandPublisher(long teleopIntervalMs, long driveIntervalMs, ScheduledExecutorService executor) {
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "command-publisher");
+            t.setDaemon(true);
+            return t;
+        });
+        cmdVel = new Channel(TOPIC_CMD_VEL, "geometry_msgs/msg/Twist", teleopIntervalMs, true);
+        drive = new Channel(TOPIC_CMD_DRIVE, "std_msgs/msg/String", driveIntervalMs, false);
+        laneChange = new Channel(TOPIC_LANE_CHANGE, "std_msgs/msg/String", driveIntervalMs, false);
+        goal = new Channel(TOPIC_GOAL_POSE, "geometry_msgs/msg/PoseStamped", teleopIntervalMs, true);
+        emergency = new Channel(TOPIC_EMERGENCY, "std_msgs/msg/Bool", 0, false);
+        channels = new Channel[]{emergency, cmdVel, drive, laneChange, goal};
+        emergencyJson = emergency.publishPrefix + "{\"data\":true}}"; // true = 긴급정지 신호
+    }
+
+    // ----------------------------------------------------------
+    // 연결 설정: 새 연결이면 모든 토픽 advertise, 끊기면 대기 명령 폐기
+    // ----------------------------------------------------------
+    void setSender(MessageSender sender) {
+        synchronized (lock) {
+            this.sender = sender;
+            if (sender == null) {
+                clearPending(channels); // 오래된 명령을 재연결 후 보내지 않음
+                return;
+            }
+            for (Channel ch : channels) sender.send(ch.advertiseJson);
+        }
+    }
+
+    boolean isConnected() {
+        synchronized (lock) {
+            return sender != null;
+        }
+    }
+
+    // 계측 (null = 끔)
+    void setMetrics(TelemetryMetrics metrics) {
+        synchronized (lock) {
+            for (Channel ch : channels) ch.stats = metrics != null ? metrics.outbound(ch.topic) : null;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 명령별 퍼블리시 (어느 스레드에서든 호출 가능, 비블로킹)
+    // ----------------------------------------------------------
+    // geometry_msgs/Twist: 선속도 x, 각속도 z(yaw)
+    boolean publishCmdVel(double linear, double angular) {
+        return enqueue(cmdVel, cmdVel.publishPrefix + "{\"linear\":{\"x\":" + num(linear)
+                + ",\"y\":0.0,\"z\":0.0},\"angular\":{\"x\":0.0,\"y\":0.0,\"z\":" + num(angular) + "}}}");
+    }
+
+    // std_msgs/String: "start", "stop", "up", "down"
+    boolean publishDriveCommand(String command) {
+        return enqueue(drive, drive.publishPrefix + "{\"data\":" + JSONObject.quote(command) + "}}");
+    }
+
+    // std_msgs/String: "left", "right"
+    boolean publishLaneChange(String direction) {
+        return enqueue(laneChange, laneChange.publishPrefix + "{\"data\":" + JSONObject.quote(direction) + "}}");
+    }
+
+    // geometry_msgs/PoseStamped (map 프레임, 보내는 시각 stamp), yaw 는 라디안
+    boolean publishPoseStamped(double x, double y, double yaw) {
+        double halfYaw = yaw / 2.0; // yaw -> 쿼터니언
+        long ms = System.currentTimeMillis();
+        return enqueue(goal, goal.publishPrefix + "{\"header\":{\"stamp\":{\"sec\":" + ms / 1000
+                + ",\"nanosec\":" + (ms % 1000) * 1_000_000 + "},\"frame_id\":\"map\"},\"pose\":{\"position\":{\"x\":"
+                + num(x) + ",\"y\":" + num(y) + ",\"z\":0.0},\"orientation\":{\"x\":0.0,\"y\":0.0,\"z\":"
+                + num(Math.sin(halfYaw)) + ",\"w\":" + num(Math.cos(halfYaw)) + "}}}}");
+    }
+
+    // ----------------------------------------------------------
+    // 긴급정지: 대기 중인 주행/조향 명령을 모두 버리고 즉시 전송
+    //  - 락 안에서 보내므로 이후 송신 스레드가 이전 명령을 보낼 수 없음
+    // ----------------------------------------------------------
+    boolean publishEmergency() {
+        synchronized (lock) {
+            clearPending(channels);
+            if (sender == null) return false;
+            long start = System.nanoTime();
+            boolean ok = sender.send(emergencyJson);
+            if (ok) sent++;
+            if (ok && emergency.stats != null) emergency.stats.record(emergencyJson.length(), start);
+            emergency.lastSent = emergencyJson;
+            emergency.lastSentMs = nowMs();
+            return ok;
+        }
+    }
+
+    // 종료: unadvertise 후 송신 스레드 정지
+    void shutdown() {
+        synchronized (lock) {
+            if (sender != null) {
+                for (Channel ch : channels) sender.send(ch.unadvertiseJson);
+            }
+            sender = null;
+            clearPending(channels);
+        }
+        if (ownsExecutor) executor.shutdownNow();
+    }
+
+    // ----------------------------------------------------------
+    // 카운터 (보낸 수 / 합쳐진 수 / 버린 수)
+    // ----------------------------------------------------------
+    long sentCount() {
+        synchronized (lock) {
+            return sent;
+        }
+    }
+
+    long coalescedCount() {
+        synchronized (lock) {
+            return coalesced;
+        }
+    }
+
+    long droppedCount() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 채널 대기열에 넣고 전송 시각에 맞춰 drain 예약
+    // ----------------------------------------------------------
+    private boolean enqueue(Channel ch, String json) {
+        synchronized (lock) {
+            if (sender == null) { // 연결 안 됨
+                dropped++;
+                return false;
+            }
+            long now = nowMs();
+            if (ch.latestOnly) {
+                if (!ch.pending.isEmpty()) { // 아직 못 보낸 이전 값은 최신 값으로 교체
+                    ch.pending.clear();
+                    coalesced++;
+                }
+            } else {
+                String last = ch.pending.isEmpty()
+                        ? (now - ch.lastSentMs < ch.minIntervalMs ? ch.lastSent : null)
+                        : ch.pending.peekLast();
+                if (json.equals(last)) { // 같은 명령 반복 (버튼 연타)
+                    coalesced++;
+                    return true;
+                }
+                if (ch.pending.size() >= MAX_PENDING) {
+                    dropped++;
+                    return false;
+                }
+            }
+            if (ch.latestOnly || ch.pending.isEmpty()) ch.pendingSinceNanos = System.nanoTime();
+            ch.pending.add(json);
+            scheduleDrain(Math.max(now, ch.lastSentMs + ch.minIntervalMs), now);
+            return true;
+        }
+    }
+
+    // 송신 스레드: 전송 시각이 된 채널마다 한 건씩 전송
+    private void drain() {
+        synchronized (lock) {
+            drainAtMs = Long.MAX_VALUE;
+            long now = nowMs();
+            long nextDue = Long.MAX_VALUE;
+            for (Channel ch : channels) {
+                if (ch.pending.isEmpty()) continue;
+                long due = ch.lastSentMs + ch.minIntervalMs;
+                if (now < due) {
+                    nextDue = Math.min(nextDue, due);
+                    continue;
+                }
+                String json = ch.pending.poll();
+                if (sender != null && sender.send(json)) {
+                    sent++;
+                    if (ch.stats != null) ch.stats.record(json.length(), ch.pendingSinceNanos);
+                } else {
+                    dropped++;
+                }
+                ch.pendingSinceNanos = System.nanoTime(); // 다음 대기 메시지는 지금부터 (근사)
+                ch.lastSent = json;
+                ch.lastSentMs = now;
+                if (!ch.pending.isEmpty()) nextDue = Math.min(nextDue, now + ch.minIntervalMs);
+            }
+            if (nextDue != Long.MAX_VALUE) scheduleDrain(nextDue, now);
+        }
+    }
+
+    private void scheduleDrain(long atMs, long now) {
+        if (atMs >= drainAtMs || executor.isShutdown()) return; // 더 이른 drain 이 이미 예약됨
+        drainAtMs = atMs;
+        executor.schedule(drainTask, Math.max(0, atMs - now), TimeUnit.MILLISECONDS);
+    }
+
+    private void clearPending(Channel[] chs) {
+        for (Channel ch : chs) {
+            dropped += ch.pending.size();
+            ch.pending.clear();
+        }
+    }
+
+    // JSON 숫자 (NaN/Infinity 는 JSON 이 아니므로 0)
+    private static String num(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "0.0" : Double.toString(v);
+    }
+
+    private static long nowMs() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
@@ -0,0 +1,143 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// ============================================================
+// CompressedFrameStage: 압축 프레임 수신 스레드와 JPEG 디코드를 분리하는 1칸 디코드 단계
+//  - 수신 쪽(MJPEG 리더, rosbridge 디코드 워커)은 onCompressedImage 에서 복사 후 바로 반환
+//  - 대기 칸은 하나: 디코드가 늦으면 아직 디코드 안 된 이전 프레임을 버리고 최신 것만 남김
+//    (늦은 프레임은 디코드 비용을 쓰기 전에 버림, 지연이 쌓이지 않음)
+//  - 바이트 버퍼는 3개 재사용 (디코드 중 + 대기 + 채우는 중), 가장 큰 프레임까지만 커짐
+//  - 디코드(target)는 전용 스레드 하나에서 순서대로 호출
+// ============================================================
+final class CompressedFrameStage implements CompressedImageListener {
+
+    private static final Logger LOG = Logger.getLogger("CompressedFrameStage");
+    private static final int BUFFERS = 3; // 디코드 중 + 대기 + 채우는 중
+
+    private static final class Packet {
+        byte[] data = new byte[0];
+        int length;
+        String format;
+        long receivedNanos; // 수신 시각 (대기 시간 계측)
+    }
+
+    private final CompressedImageListener target; // 실제 디코더 (디코드 스레드)
+    private final String threadName;
+    private final FrameMailbox<Packet> mailbox = new FrameMailbox<>();
+    private final ArrayDeque<Packet> free = new ArrayDeque<>(BUFFERS); // lock = this
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong decoded = new AtomicLong();
+    private volatile LatencyHistogram waitHistogram; // 수신 -> 디코드 시작 (null = 끔)
+    private Thread worker;
+    private volatile boolean running;
+
+    CompressedFrameStage(CompressedImageListener target, String threadName) {
+        this.target = target;
+        this.threadName = threadName;
+        for (int i = 0; i < BUFFERS; i++) free.push(new Packet());
+    }
+
+    // ----------------------------------------------------------
+    // 시작/정지
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::runLoop, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        worker.interrupt();
+        worker = null;
+        Packet pending = mailbox.take();
+        if (pending != null) free.push(pending);
+    }
+
+    // ----------------------------------------------------------
+    // 수신 스레드: 빈 버퍼에 복사해 대기 칸에 넣음 (이전 대기 프레임은 버림)
+    // ----------------------------------------------------------
+    @Override
+    public void onCompressedImage(String format, byte[] data, int length) {
+        received.incrementAndGet();
+        Packet p;
+        synchronized (this) {
+            if (!running) return;
+            p = free.poll();
+        }
+        if (p == null) return; // 버퍼 3개가 모두 사용 중일 수 없음 (수신 스레드 하나)
+        if (p.data.length < length) p.data = new byte[length + length / 4]; // 다음 큰 프레임 대비 여유
+        System.arraycopy(data, 0, p.data, 0, length);
+        p.length = length;
+        p.format = format;
+        p.receivedNanos = System.nanoTime();
+        Packet stale = mailbox.offer(p);
+        if (stale != null) {
+            recycle(stale); // 디코드 전에 밀려난 늦은 프레임
+        } else {
+            synchronized (this) {
+                notifyAll(); // 대기 칸이 비어 있었음 -> 디코드 스레드 깨움
+            }
+        }
+    }
+
+    // 대기 시간(수신 -> 디코드 시작) 계측 (null = 끔)
+    void setWaitHistogram(LatencyHistogram histogram) {
+        this.waitHistogram = histogram;
+    }
+
+    // ----------------------------------------------------------
+    // 디코드 스레드
+    // ----------------------------------------------------------
+    private void runLoop() {
+        try {
+            while (running) {
+                Packet p = mailbox.take();
+                if (p == null) {
+                    synchronized (this) {
+                        while (running && mailbox.isEmpty()) wait();
+                    }
+                    continue;
+                }
+                LatencyHistogram h = waitHistogram;
+                if (h != null) h.recordSince(p.receivedNanos);
+                try {
+                    target.onCompressedImage(p.format, p.data, p.length);
+                    decoded.incrementAndGet();
+                } catch (RuntimeException e) { // 깨진 JPEG 하나로 스레드가 죽지 않도록
+                    LOG.log(Level.WARNING, "compressed frame decode failed", e);
+                }
+                recycle(p);
+            }
+        } catch (InterruptedException ignored) {
+            // stop() 으로 종료
+        }
+    }
+
+    private synchronized void recycle(Packet p) {
+        free.push(p);
+    }
+
+    // ----------------------------------------------------------
+    // 카운터
+    // ----------------------------------------------------------
+    long receivedCount() {
+        return received.get();
+    }
+
+    long decodedCount() {
+        return decoded.get();
+    }
+
+    // 디코드가 늦어 버린 프레임 수
+    long droppedCount() {
+        return mailbox.droppedCount();
+    }
+}
@@ -0,0 +1,100 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // cbor-raw CDR 바이트
+import java.nio.ByteOrder;
+
+// ============================================================
+// CompressedImageDecoder: sensor_msgs/CompressedImage -> JPEG/PNG 바이트
+//  - JSON: base64 data 를 재사용 버퍼에 바로 디코드 (원시 Image 보다 훨씬 짧음)
+//  - CBOR: byte string 을 재사용 버퍼로 복사
+//  - cbor-raw: CDR 직렬화 바이트에서 header, format, data 순서로 읽음
+//  - format 은 "jpeg"/"png" 상수로 정규화 (image_transport 의 "bgr8; jpeg compressed bgr8" 도 허용)
+//  - listener 는 호출 동안만 data 를 사용해야 함 (다음 프레임에 덮어씀)
+// ============================================================
+final class CompressedImageDecoder implements RawTopicDecoder {
+
+    static final String JPEG = "jpeg";
+    static final String PNG = "png";
+    private static final String[] FORMATS = {JPEG, PNG, "jpg"};
+
+    private static final String[] FORMAT = {"format"};
+    private static final String[] DATA = {"data"};
+
+    private final CompressedImageListener listener;
+    private byte[] buffer; // 재사용 디코드 버퍼
+
+    CompressedImageDecoder(CompressedImageListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void decode(MessageReader msg) {
+        String format = msg.getKnownString(FORMAT, FORMATS); // 보통 "jpeg" (할당 없음)
+        if (format == null) format = normalize(msg.getString(FORMAT)); // image_transport 형식
+        else if (format.equals("jpg")) format = JPEG;
+        if (format == null) return; // 지원하지 않는 형식
+
+        buffer = msg.getBytes(DATA, buffer);
+        int length = msg.byteCount();
+        if (length == 0) return;
+        listener.onCompressedImage(format, buffer, length);
+    }
+
+    // ----------------------------------------------------------
+    // cbor-raw: CDR 직렬화된 sensor_msgs/msg/CompressedImage 디코드
+    //  header(stamp.sec, stamp.nanosec, frame_id) format data 순서
+    // ----------------------------------------------------------
+    @Override
+    public void decodeRaw(ByteBuffer buf, int offset, int length) {
+        if (length < 4) return;
+        ByteBuffer cdr = buf.duplicate();
+        cdr.limit(offset + length);
+        cdr.order(buf.get(offset + 1) == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int base = offset + 4;
+        int pos = base + 8; // stamp.sec(int32) + stamp.nanosec(uint32)
+        pos = align4(pos, base);
+        pos += 4 + cdr.getInt(pos); // frame_id
+        pos = align4(pos, base);
+        int formatLength = cdr.getInt(pos) - 1; // NUL 제외
+        String format = formatOf(cdr, pos + 4, formatLength);
+        pos += 4 + formatLength + 1;
+        pos = align4(pos, base);
+        int dataLength = cdr.getInt(pos);
+        pos += 4;
+        if (format == null || dataLength <= 0 || pos + dataLength > offset + length) return; // 잘린 프레임
+
+        if (buffer == null || buffer.length < dataLength) buffer = new byte[dataLength];
+        cdr.position(pos);
+        cdr.get(buffer, 0, dataLength);
+        listener.onCompressedImage(format, buffer, dataLength);
+    }
+
+    // "jpeg", "png", "bgr8; jpeg compressed bgr8" -> JPEG/PNG 상수
+    static String normalize(String format) {
+        if (format == null) return null;
+        if (format.contains("png")) return PNG;
+        if (format.contains("jpeg") || format.contains("jpg")) return JPEG;
+        return null;
+    }
+
+    private static int align4(int pos, int base) {
+        return base + ((pos - base + 3) & ~3);
+    }
+
+    // CDR 문자열 바이트에서 png/jpeg 찾기 (String 할당 없음)
+    private static String formatOf(ByteBuffer cdr, int start, int length) {
+        if (length <= 0) return null;
+        if (contains(cdr, start, length, PNG)) return PNG;
+        if (contains(cdr, start, length, JPEG) || contains(cdr, start, length, "jpg")) return JPEG;
+        return null;
+    }
+
+    private static boolean contains(ByteBuffer cdr, int start, int length, String word) {
+        for (int i = 0; i + word.length() <= length; i++) {
+            int j = 0;
+            while (j < word.length() && cdr.get(start + i + j) == (byte) word.charAt(j)) j++;
+            if (j == word.length()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// CompressedImageListener: 압축 카메라 프레임 (JPEG/PNG) 수신 콜백
+//  - sensor_msgs/CompressedImage (rosbridge) 와 HTTP MJPEG 스트림이 같은 콜백 사용
+//  - format: "jpeg", "png" 등 (CompressedImage.format 의 첫 단어, MJPEG 는 Content-Type)
+//  - data 는 호출 동안만 유효 (다음 프레임에 재사용됨)
+// ============================================================
+interface CompressedImageListener {
+    void onCompressedImage(String format, byte[] data, int length);
+}
@@ -0,0 +1,11 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ConnectionListener: rosbridge 연결 상태 콜백 (연결 타이머/OkHttp 스레드에서 호출)
+//  - RosBridgeClient.setConnectionListener 로 등록 (OkHttp 없이 컴파일되도록 별도 파일)
+// ============================================================
+interface ConnectionListener {
+    void onConnected(); // 구독/advertise 재전송 후 호출
+
+    void onDisconnected(Throwable cause, long retryDelayMs); // cause null = 서버가 정상 종료
+}
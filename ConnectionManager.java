@@ -0,0 +1,316 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// --- OkHttp (WebSocket 통신용) 임포트 ---
+import okhttp3.Dispatcher; // 동시 연결 수 제한
+import okhttp3.OkHttpClient; // 공유 OkHttp 클라이언트
+import okhttp3.Request; // HTTP/WS 요청 빌더
+import okhttp3.Response; // 응답 객체 (콜백에서 사용)
+import okhttp3.WebSocket; // WebSocket 인터페이스
+import okhttp3.WebSocketListener; // WebSocket 이벤트 리스너
+import okio.ByteString; // 바이너리(CBOR) 프레임
+
+// ============================================================
+// ConnectionManager: rosbridge WebSocket 연결 유지 관리
+//  - OkHttpClient 하나를 계속 재사용 (재연결마다 새 클라이언트/스레드풀 만들지 않음)
+//  - pingInterval 로 반쯤 끊긴(half-open) 연결 감지 -> onFailure
+//  - 재연결은 지터를 넣은 지수 백오프 (성공하면 초기화)
+//  - 핸드셰이크 시간과 rosapi 호출 왕복시간(RTT) 측정
+//  - 연결될 때마다 listener.onOpen 으로 구독/advertise 재전송 기회를 줌
+//  - 이전 연결의 늦은 콜백은 세대(generation) 번호로 무시
+//  - 타이머는 전용 스레드 또는 여러 연결이 나눠 쓰는 공유 스케줄러 (플릿 모드)
+// ============================================================
+final class ConnectionManager implements MessageSender {
+
+    interface Listener {
+        void onOpen(MessageSender sender); // 연결됨: 활성 구독/advertise 재전송
+
+        void onText(String text); // 텍스트 프레임 (OkHttp 리더 스레드)
+
+        void onBinary(ByteString bytes); // 바이너리 프레임 (OkHttp 리더 스레드)
+
+        void onClosed(Throwable cause, long retryDelayMs); // cause null = 서버가 정상 종료, retryDelayMs 후 재연결
+    }
+
+    // --- 기본 설정 ---
+    static final long PING_INTERVAL_MS = 2000; // WebSocket ping 주기 (pong 이 없으면 연결 실패 처리)
+    static final long CONNECT_TIMEOUT_MS = 3000; // 연결 타임아웃
+    static final long WRITE_TIMEOUT_MS = 5000; // 쓰기 타임아웃
+    static final long BACKOFF_BASE_MS = 250; // 첫 재연결 지연 상한
+    static final long BACKOFF_MAX_MS = 8000; // 재연결 지연 최대값
+    static final long RTT_PROBE_INTERVAL_MS = 2000; // RTT 측정 주기
+    private static final int RTT_RESPONSE_MAX_CHARS = 512; // RTT 응답 검사 대상 프레임 최대 길이
+    private static final String RTT_ID_PREFIX = "rtt_";
+
+    private final OkHttpClient client; // 공유 클라이언트
+    private final String uri; // rosbridge websocket URI
+    private final Listener listener;
+    private final ScheduledExecutorService timer; // 재연결/RTT 타이머
+    private final boolean ownsTimer; // true = 전용 타이머 (stop 에서 종료)
+    private final JsonMessageReader rttReader = new JsonMessageReader(); // 리더 스레드 전용
+
+    // --- 연결 상태 (lock = this) ---
+    private WebSocket socket; // 열린 연결 (없으면 null)
+    private volatile int generation; // 연결 시도 번호 (이전 연결 콜백 무시용, OkHttp 스레드에서 잠금 없이 읽음)
+    private int attempt; // 연속 실패 횟수
+    private boolean running; // start() 후 stop() 전
+    private ScheduledFuture<?> reconnectFuture;
+    private ScheduledFuture<?> rttFuture;
+    private long connectStartNanos;
+
+    // --- 측정값 ---
+    private volatile long handshakeMs = -1; // 마지막 연결 핸드셰이크 시간
+    private volatile long lastRttMs = -1; // 마지막 RTT
+    private volatile double smoothedRttMs = -1; // RTT 지수 이동 평균
+    private volatile long connectCount; // 성공한 연결 수
+    private volatile long failureCount; // 실패/끊김 수
+    private volatile String pendingRttId; // 응답을 기다리는 RTT 요청 id
+    private volatile long pendingRttNanos;
+    private volatile LatencyHistogram rttHistogram; // 계측 (null = 끔)
+    private int rttSeq;
+
+    // ----------------------------------------------------------
+    // 공유 OkHttpClient 생성 (여러 연결이 같은 스레드풀/커넥션 풀을 사용)
+    // ----------------------------------------------------------
+    static OkHttpClient newSharedClient() {
+        return new OkHttpClient.Builder()
+                .pingInterval(PING_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(0, TimeUnit.MILLISECONDS) // WebSocket 은 ping 으로 감시
+                .writeTimeout(WRITE_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    // 로봇 여러 대용: WebSocket 은 연결이 끝날 때까지 요청 하나로 계산되므로
+    //  OkHttp 기본 동시 요청 제한(전체 64, 호스트당 5)을 세션 수에 맞춰 올림
+    static OkHttpClient newSharedClient(int maxSessions) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(64, maxSessions + 8)); // 세션 + 일반 HTTP 여유
+        dispatcher.setMaxRequestsPerHost(Math.max(5, maxSessions)); // 같은 호스트의 여러 포트/대역 서버
+        return newSharedClient().newBuilder()
+                .dispatcher(dispatcher)
+                .build();
+    }
+
+    ConnectionManager(OkHttpClient client, String uri, Listener listener) {
+        this(client, uri, listener, null);
+    }
+
+    // timer: 공유 스케줄러 (null = 전용 타이머 스레드 생성), 공유 스케줄러는 소유자가 종료
+    ConnectionManager(OkHttpClient client, String uri, Listener listener, ScheduledExecutorService timer) {
+        this.client = client;
+        this.uri = uri;
+        this.listener = listener;
+        this.ownsTimer = timer == null;
+        this.timer = timer != null ? timer : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rosbridge-connection");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ----------------------------------------------------------
+    // 시작/정지
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        attempt = 0;
+        connect();
+    }
+
+    // 정상 종료: 재연결 중지, 소켓 닫기, 타이머 종료 (공유 클라이언트는 소유자가 정리)
+    void stop() {
+        WebSocket s;
+        synchronized (this) {
+            running = false;
+            generation++; // 이후 콜백 무시
+            cancel(reconnectFuture);
+            cancel(rttFuture);
+            s = socket;
+            socket = null;
+        }
+        if (s != null) s.close(1000, "client stopped");
+        if (ownsTimer) timer.shutdownNow();
+    }
+
+    // ----------------------------------------------------------
+    // MessageSender: 현재 열린 연결로 전송 (없으면 false)
+    // ----------------------------------------------------------
+    @Override
+    public boolean send(String text) {
+        WebSocket s;
+        synchronized (this) {
+            s = socket;
+        }
+        return s != null && s.send(text);
+    }
+
+    synchronized boolean isConnected() {
+        return socket != null;
+    }
+
+    // 연결 타이머 스레드에서 한 번 실행 (세션 단위 감시 작업용, 정지 후에는 무시)
+    ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        synchronized (this) {
+            if (!running) return null;
+        }
+        if (timer.isShutdown()) return null;
+        return timer.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ----------------------------------------------------------
+    // 연결 시도 (lock 보유 상태에서 호출)
+    // ----------------------------------------------------------
+    private void connect() {
+        if (!running) return;
+        final int gen = ++generation;
+        connectStartNanos = System.nanoTime();
+        Request request = new Request.Builder().url(uri).build();
+        client.newWebSocket(request, new WebSocketListener() {
+            @Override public void onOpen(WebSocket webSocket, Response response) {
+                if (!opened(gen, webSocket)) {
+                    webSocket.close(1000, "stale connection");
+                    return;
+                }
+                listener.onOpen(ConnectionManager.this); // 구독/advertise 재전송
+            }
+
+            @Override public void onMessage(WebSocket webSocket, String text) {
+                if (gen != generation) return;
+                if (text.length() <= RTT_RESPONSE_MAX_CHARS && handleRttResponse(text)) return;
+                listener.onText(text);
+            }
+
+            @Override public void onMessage(WebSocket webSocket, ByteString bytes) {
+                if (gen != generation) return;
+                listener.onBinary(bytes);
+            }
+
+            @Override public void onClosing(WebSocket webSocket, int code, String reason) {
+                webSocket.close(1000, null); // 서버가 닫으면 우리도 닫음
+            }
+
+            @Override public void onClosed(WebSocket webSocket, int code, String reason) {
+                lost(gen, null);
+            }
+
+            @Override public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                lost(gen, t);
+            }
+        });
+    }
+
+    private synchronized boolean opened(int gen, WebSocket webSocket) {
+        if (gen != generation || !running) return false;
+        socket = webSocket;
+        attempt = 0; // 백오프 초기화
+        connectCount++;
+        handshakeMs = (System.nanoTime() - connectStartNanos) / 1_000_000L;
+        pendingRttId = null;
+        cancel(rttFuture);
+        rttFuture = timer.scheduleWithFixedDelay(this::sendRttProbe,
+                0, RTT_PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    // 연결 끊김/실패: 소켓 정리 후 백오프 지연으로 재연결 예약
+    private void lost(int gen, Throwable cause) {
+        long delay;
+        synchronized (this) {
+            if (gen != generation) return; // 이미 다른 연결로 넘어감
+            generation++; // 같은 연결의 중복 콜백(onFailure + onClosed) 무시
+            socket = null;
+            failureCount++;
+            cancel(rttFuture);
+            if (!running) return;
+            delay = nextBackoffMs();
+            cancel(reconnectFuture);
+            reconnectFuture = timer.schedule(() -> {
+                synchronized (ConnectionManager.this) {
+                    connect();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        listener.onClosed(cause, delay);
+    }
+
+    // ----------------------------------------------------------
+    // 지터 포함 지수 백오프: [base/2, min(max, base * 2^attempt)] 사이 랜덤
+    // ----------------------------------------------------------
+    private long nextBackoffMs() {
+        long cap = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt, 16));
+        attempt++;
+        long floor = BACKOFF_BASE_MS / 2;
+        return floor + ThreadLocalRandom.current().nextLong(Math.max(1, cap - floor + 1));
+    }
+
+    // ----------------------------------------------------------
+    // RTT: rosapi 서비스 호출 왕복 시간 (서비스가 없어도 에러 응답으로 측정됨)
+    // ----------------------------------------------------------
+    private void sendRttProbe() {
+        String id = RTT_ID_PREFIX + (++rttSeq);
+        pendingRttNanos = System.nanoTime();
+        pendingRttId = id; // 응답이 없던 이전 요청은 버림
+        send("{\"op\":\"call_service\",\"id\":\"" + id + "\",\"service\":\"/rosapi/get_time\",\"args\":{}}");
+    }
+
+    // 리더 스레드: 작은 프레임 중 RTT 응답이면 처리하고 true
+    private boolean handleRttResponse(String text) {
+        String expected = pendingRttId;
+        if (expected == null) return false;
+        JsonMessageReader r = rttReader;
+        r.reset(text);
+        if (!r.stringEquals(r.findTopLevel("id"), expected)) return false;
+        long rttNanos = System.nanoTime() - pendingRttNanos;
+        long rtt = rttNanos / 1_000_000L;
+        pendingRttId = null;
+        LatencyHistogram h = rttHistogram;
+        if (h != null) h.recordNanos(rttNanos);
+        lastRttMs = rtt;
+        double prev = smoothedRttMs;
+        smoothedRttMs = prev < 0 ? rtt : prev * 0.8 + rtt * 0.2;
+        return true;
+    }
+
+    private static void cancel(ScheduledFuture<?> f) {
+        if (f != null) f.cancel(false);
+    }
+
+    // RTT 분포 기록 (null = 끔)
+    void setRttHistogram(LatencyHistogram histogram) {
+        this.rttHistogram = histogram;
+    }
+
+    // ----------------------------------------------------------
+    // 측정값
+    // ----------------------------------------------------------
+    long handshakeMs() {
+        return handshakeMs;
+    }
+
+    long lastRttMs() {
+        return lastRttMs;
+    }
+
+    double smoothedRttMs() {
+        return smoothedRttMs;
+    }
+
+    long connectCount() {
+        return connectCount;
+    }
+
+    long reconnectCount() {
+        return Math.max(0, connectCount - 1);
+    }
+
+    long failureCount() {
+        return failureCount;
+    }
+}
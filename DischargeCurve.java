@@ -0,0 +1,35 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// DischargeCurve: 팩 전압 -> 잔량(%) 변환 (리튬이온 셀 방전 곡선, 구간 선형 보간)
+//  - 전압과 잔량은 직선 관계가 아님: 4.2V/셀 = 100%, 3.0V/셀 = 0%, 대부분의 용량은 3.6~4.0V
+//    (이전의 v / 12.6 은 다 닳은 3S 팩(약 10V)을 80% 로 표시했음)
+//  - 부하 중 전압 강하는 BatteryMonitor 의 추세/히스테리시스로 흡수
+// ============================================================
+final class DischargeCurve {
+
+    // 셀 전압(V) -> 잔량(%), 전압 오름차순
+    private static final double[] CELL_VOLTS = {3.00, 3.30, 3.50, 3.60, 3.65, 3.70, 3.75, 3.80, 3.90, 4.00, 4.10, 4.20};
+    private static final double[] PERCENT = {0, 1, 5, 11, 17, 27, 38, 48, 63, 78, 90, 100};
+
+    static final DischargeCurve LIION_3S = new DischargeCurve(3); // 12.6V 팩 (기본)
+
+    private final int cells;
+
+    DischargeCurve(int cells) {
+        this.cells = cells;
+    }
+
+    // 팩 전압 -> 0~100 (NaN 이면 NaN)
+    double percent(double packVolts) {
+        if (Double.isNaN(packVolts)) return Double.NaN;
+        double v = packVolts / cells;
+        if (v <= CELL_VOLTS[0]) return 0;
+        int last = CELL_VOLTS.length - 1;
+        if (v >= CELL_VOLTS[last]) return 100;
+        int i = 1;
+        while (v > CELL_VOLTS[i]) i++;
+        double f = (v - CELL_VOLTS[i - 1]) / (CELL_VOLTS[i] - CELL_VOLTS[i - 1]);
+        return PERCENT[i - 1] + f * (PERCENT[i] - PERCENT[i - 1]);
+    }
+}
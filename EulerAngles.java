@@ -0,0 +1,27 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// EulerAngles: 재사용하는 가변 오일러 각 (라디안, roll/pitch/yaw)
+// ============================================================
+final class EulerAngles {
+
+    double roll, pitch, yaw;
+
+    EulerAngles set(double roll, double pitch, double yaw) {
+        this.roll = roll;
+        this.pitch = pitch;
+        this.yaw = yaw;
+        return this;
+    }
+
+    EulerAngles set(EulerAngles other) {
+        return set(other.roll, other.pitch, other.yaw);
+    }
+
+    // 각도를 (-pi, pi] 로
+    static double wrap(double a) {
+        while (a > Math.PI) a -= 2 * Math.PI;
+        while (a <= -Math.PI) a += 2 * Math.PI;
+        return a;
+    }
+}
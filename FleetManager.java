@@ -0,0 +1,189 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.OkHttpClient; // 공유 OkHttp 클라이언트
+
+// ============================================================
+// FleetManager: 로봇 여러 대를 한 프로세스에서 동시에 연결/감시/명령
+//  - RobotRegistry 의 로봇마다 RosBridgeClient 하나 (세션)
+//  - 모든 세션이 OkHttpClient(커넥션 풀/디스패처) 와 SessionExecutors(타이머/워커) 공유
+//    -> 로봇 수가 늘어도 스레드 수는 OkHttp 리더 + 고정 풀
+//  - 로봇별 상태는 RobotState (최신 값만), 디코드 큐도 짧게 -> 로봇당 메모리 상한 고정
+//  - 카메라는 기본 구독 안 함: 화면에 띄울 로봇만 client(id).subscribeImage(...)
+//  - 브로드캐스트 명령(긴급정지 등)은 호출 스레드에서 로봇별로 바로 전송 (OkHttp 송신 큐에 넣기만 해서
+//    블록하지 않음, 디코드 워커가 밀려도 늦어지지 않음)
+//  - 계측(TelemetryMetrics)은 모든 세션이 하나를 공유 -> 플릿 합계 (metrics())
+// ============================================================
+final class FleetManager {
+
+    // 목록 화면용 구독 전송률 (단일 로봇 화면보다 낮춤)
+    static final int BATTERY_THROTTLE_MS = 2000;
+    static final int ODOM_THROTTLE_MS = 200;
+    static final int IMU_THROTTLE_MS = 500;
+    static final int DECODE_QUEUE_CAPACITY = 8; // 로봇당 디코드 대기 프레임 최대 수
+
+    private static final Logger LOG = Logger.getLogger("FleetManager");
+
+    // 브로드캐스트 명령 (로봇 하나에 보내고 전송 성공 여부)
+    interface Command {
+        boolean send(RosBridgeClient client);
+    }
+
+    // 로봇 하나의 세션
+    private static final class Robot {
+        final RobotRegistry.Endpoint endpoint;
+        final RosBridgeClient client;
+        final RobotState state;
+
+        Robot(RobotRegistry.Endpoint endpoint, RosBridgeClient client, RobotState state) {
+            this.endpoint = endpoint;
+            this.client = client;
+            this.state = state;
+        }
+    }
+
+    private final OkHttpClient http;
+    private final SessionExecutors executors;
+    private final boolean ownsShared; // true = close() 에서 공유 자원까지 정리
+    private final Map<String, Robot> robots = new LinkedHashMap<>(); // 등록 순서
+    private final TelemetryMetrics metrics = new TelemetryMetrics(); // 플릿 전체 계측
+    private boolean started, closed;
+
+    // ----------------------------------------------------------
+    // 공유 클라이언트/실행기를 직접 만들어 소유
+    // ----------------------------------------------------------
+    FleetManager(RobotRegistry registry) {
+        this(registry, ConnectionManager.newSharedClient(RobotRegistry.MAX_ROBOTS), new SessionExecutors(), true);
+    }
+
+    // http/executors: 호출한 쪽이 소유 (여러 FleetManager 나 단일 로봇 화면과 공유)
+    FleetManager(RobotRegistry registry, OkHttpClient http, SessionExecutors executors) {
+        this(registry, http, executors, false);
+    }
+
+    private FleetManager(RobotRegistry registry, OkHttpClient http, SessionExecutors executors, boolean ownsShared) {
+        this.http = http;
+        this.executors = executors;
+        this.ownsShared = ownsShared;
+        for (RobotRegistry.Endpoint e : registry.endpoints()) add(e);
+    }
+
+    // ----------------------------------------------------------
+    // 로봇 추가/제거 (실행 중에도 가능)
+    // ----------------------------------------------------------
+    synchronized void add(RobotRegistry.Endpoint endpoint) {
+        if (closed) return;
+        if (robots.containsKey(endpoint.id)) remove(endpoint.id); // 주소 변경
+        RobotState state = new RobotState(endpoint.id);
+        RosBridgeClient client = new RosBridgeClient(endpoint.uri, http, executors, DECODE_QUEUE_CAPACITY)
+                .subscribeBattery(state, BATTERY_THROTTLE_MS)
+                .subscribeOdom(state, ODOM_THROTTLE_MS)
+                .subscribeImu(state, IMU_THROTTLE_MS)
+                .setConnectionListener(state)
+                .setMetrics(metrics);
+        robots.put(endpoint.id, new Robot(endpoint, client, state));
+        if (started) client.start();
+    }
+
+    synchronized void remove(String id) {
+        Robot r = robots.remove(id);
+        if (r != null) r.client.close();
+    }
+
+    // ----------------------------------------------------------
+    // 생명주기
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (started || closed) return;
+        started = true;
+        for (Robot r : robots.values()) r.client.start(); // 연결은 비동기, 서로 기다리지 않음
+    }
+
+    void close() {
+        List<Robot> all;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            all = new ArrayList<>(robots.values());
+            robots.clear();
+        }
+        for (Robot r : all) r.client.close();
+        if (ownsShared) {
+            executors.shutdown();
+            http.dispatcher().executorService().shutdown(); // OkHttp 스레드풀 종료
+            http.connectionPool().evictAll(); // 남은 소켓 정리
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 조회
+    // ----------------------------------------------------------
+    synchronized RosBridgeClient client(String id) {
+        Robot r = robots.get(id);
+        return r == null ? null : r.client;
+    }
+
+    synchronized RobotState state(String id) {
+        Robot r = robots.get(id);
+        return r == null ? null : r.state;
+    }
+
+    synchronized List<RobotState> states() {
+        List<RobotState> list = new ArrayList<>(robots.size());
+        for (Robot r : robots.values()) list.add(r.state);
+        return list;
+    }
+
+    TelemetryMetrics metrics() {
+        return metrics;
+    }
+
+    synchronized int size() {
+        return robots.size();
+    }
+
+    synchronized int connectedCount() {
+        int n = 0;
+        for (Robot r : robots.values()) if (r.client.isConnected()) n++;
+        return n;
+    }
+
+    // ----------------------------------------------------------
+    // 브로드캐스트 명령: 결과는 전송하지 못한 로봇 id 목록 (빈 목록 = 전체 성공)
+    // ----------------------------------------------------------
+    List<String> emergencyStopAll() {
+        List<String> failed = broadcast(RosBridgeClient::publishEmergency);
+        if (!failed.isEmpty()) LOG.warning("Emergency stop not delivered to " + failed);
+        return failed;
+    }
+
+    List<String> broadcastDrive(RosBridgeClient.Drive command) {
+        return broadcast(c -> c.publishDrive(command));
+    }
+
+    // 로봇별로 바로 전송 (send 는 송신 큐에 넣기만 함: 느린/끊긴 로봇이 다른 로봇 전송을 막지 않음)
+    //  - 예외가 난 로봇도 실패로 보고 나머지 로봇에는 계속 전송
+    List<String> broadcast(Command command) {
+        List<Robot> targets;
+        synchronized (this) {
+            targets = new ArrayList<>(robots.values());
+        }
+        List<String> failed = new ArrayList<>();
+        for (Robot r : targets) {
+            boolean sent = false;
+            try {
+                sent = command.send(r.client);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "broadcast to " + r.endpoint.id + " failed", e);
+            }
+            if (!sent) failed.add(r.endpoint.id);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,156 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// FragmentAssembler: rosbridge op "fragment" 조각을 원래 JSON 메시지로 복원
+//  - 구독의 fragment_size 보다 큰 메시지는 {"op": "fragment", "id", "data", "num", "total"} 여러 개로 옴
+//    (data = 원래 JSON 텍스트를 잘라낸 연속 구간, 같은 세트는 num 순서대로 도착)
+//  - 세트 칸마다 조립 버퍼(char[])를 재사용, 가장 큰 메시지까지만 커짐
+//  - 동시에 조립하는 세트는 MAX_SETS 개까지 (넘치면 가장 오래된 세트를 버림)
+//  - 조각이 빠지면(디코드 큐 초과로 버려짐) 그 세트를 바로 버리고 남은 조각은 무시
+//  - 마지막 조각 이후 TIMEOUT_MS 동안 완성되지 않은 세트도 버림
+//  - 디코드 워커 하나에서만 사용 (동기화 없음)
+// ============================================================
+final class FragmentAssembler {
+
+    static final long TIMEOUT_MS = 1000; // 조각 사이 최대 간격
+    static final int MAX_SETS = 2; // 동시에 조립하는 세트 수
+    static final int MAX_MESSAGE_CHARS = 32 * 1024 * 1024; // 이보다 큰 메시지는 버림
+
+    private static final String[] P_NUM = {"num"};
+    private static final String[] P_TOTAL = {"total"};
+
+    private static final class Set {
+        String id; // "id" 값 원문 (따옴표 포함), null = 빈 칸
+        int total; // 전체 조각 수
+        int next; // 다음에 와야 할 조각 번호
+        char[] buf = new char[0]; // 조립 버퍼 (칸마다 재사용)
+        int length;
+        long lastNanos; // 마지막 조각 수신 시각
+        boolean broken; // 빠진 조각: 이 id 의 남은 조각은 무시
+    }
+
+    private final Set[] sets = new Set[MAX_SETS];
+    private final long timeoutNanos;
+
+    // --- 카운터 (디코드 워커만 씀) ---
+    private volatile long completed; // 복원한 메시지
+    private volatile long dropped; // 버린 세트 (빠진 조각, 시간 초과, 칸 부족, 크기 초과)
+    private volatile long malformed; // 형식 오류 조각
+
+    FragmentAssembler() {
+        this(TIMEOUT_MS);
+    }
+
+    FragmentAssembler(long timeoutMs) {
+        this.timeoutNanos = timeoutMs * 1_000_000L;
+        for (int i = 0; i < sets.length; i++) sets[i] = new Set();
+    }
+
+    // ----------------------------------------------------------
+    // 조각 하나 (r 은 op "fragment" 프레임으로 reset 된 상태)
+    //  - 마지막 조각이면 복원한 메시지, 아니면 null
+    // ----------------------------------------------------------
+    String accept(JsonMessageReader r) {
+        int idPos = r.findTopLevel("id");
+        int dataPos = r.findTopLevel("data");
+        int num = r.getInt(P_NUM, -1);
+        int total = r.getInt(P_TOTAL, -1);
+        int raw = r.rawStringLength(dataPos);
+        if (idPos < 0 || raw < 0 || total <= 0 || num < 0 || num >= total) {
+            malformed++;
+            return null;
+        }
+        long now = System.nanoTime();
+        expire(now);
+
+        Set s = find(r, idPos);
+        if (s == null || (s.broken && num == 0)) { // 새 세트 (같은 id 로 다시 시작하는 경우 포함)
+            if (s == null) s = claim();
+            s.id = r.text().substring(idPos, r.skipValue(idPos));
+            s.total = total;
+            s.next = 0;
+            s.length = 0;
+            s.broken = false;
+        }
+        s.lastNanos = now;
+        if (s.broken) return null; // 이미 버린 세트의 나머지
+        if (num != s.next || total != s.total) { // 앞 조각이 빠짐
+            drop(s);
+            return null;
+        }
+        int needed = s.length + raw;
+        if (needed > MAX_MESSAGE_CHARS) {
+            drop(s);
+            return null;
+        }
+        if (s.buf.length < needed) { // 첫 조각 크기로 전체 크기를 어림해 한 번에 키움
+            s.buf = java.util.Arrays.copyOf(s.buf, Math.min(MAX_MESSAGE_CHARS, Math.max(needed, raw * total)));
+        }
+        s.length += r.copyString(dataPos, s.buf, s.length);
+        if (++s.next < s.total) return null;
+
+        String message = new String(s.buf, 0, s.length); // 디스패처는 String 을 읽음 (원래 한 프레임일 때와 같은 할당)
+        s.id = null; // 칸 비움 (버퍼는 유지)
+        completed++;
+        return message;
+    }
+
+    // ----------------------------------------------------------
+    // 세트 칸 관리
+    // ----------------------------------------------------------
+    private Set find(JsonMessageReader r, int idPos) {
+        int idEnd = r.skipValue(idPos);
+        String text = r.text();
+        for (Set s : sets) {
+            if (s.id != null && s.id.length() == idEnd - idPos && text.regionMatches(idPos, s.id, 0, s.id.length())) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    // 빈 칸, 없으면 가장 오래 조각이 안 온 세트를 버리고 사용
+    private Set claim() {
+        Set oldest = null;
+        for (Set s : sets) {
+            if (s.id == null) return s;
+            if (oldest == null || s.lastNanos < oldest.lastNanos) oldest = s;
+        }
+        if (!oldest.broken) dropped++;
+        return oldest;
+    }
+
+    // 시간 초과 세트는 버린 세트로 표시 (늦게 온 나머지 조각을 한 번 더 TIMEOUT 동안 무시), 그 뒤 칸 비움
+    private void expire(long now) {
+        for (Set s : sets) {
+            if (s.id == null || now - s.lastNanos < timeoutNanos) continue;
+            if (s.broken) {
+                s.id = null;
+            } else {
+                drop(s);
+                s.lastNanos = now;
+            }
+        }
+    }
+
+    private void drop(Set s) {
+        s.broken = true;
+        s.length = 0;
+        dropped++;
+    }
+
+    // ----------------------------------------------------------
+    // 카운터
+    // ----------------------------------------------------------
+    long completedCount() {
+        return completed;
+    }
+
+    long droppedCount() {
+        return dropped;
+    }
+
+    long malformedCount() {
+        return malformed;
+    }
+}
@@ -0,0 +1,37 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// ============================================================
+// FrameMailbox: "최신 프레임만 남기는" 1칸 우편함
+//  - 생산자(디코드 스레드)는 offer(), 소비자(UI 스레드)는 take()
+//  - UI 가 늦으면 이전 프레임은 버려지고(dropped) 호출자에게 돌려줘서 재사용
+// ============================================================
+final class FrameMailbox<T> {
+
+    private final AtomicReference<T> slot = new AtomicReference<>();
+    private final AtomicLong dropped = new AtomicLong(); // 표시되지 못하고 버려진 프레임 수
+
+    // ----------------------------------------------------------
+    // 새 프레임을 넣고, 아직 안 가져간 이전 프레임이 있으면 반환 (재사용용)
+    // ----------------------------------------------------------
+    T offer(T frame) {
+        T stale = slot.getAndSet(frame);
+        if (stale != null) dropped.incrementAndGet();
+        return stale;
+    }
+
+    // 최신 프레임을 꺼냄 (없으면 null)
+    T take() {
+        return slot.getAndSet(null);
+    }
+
+    boolean isEmpty() {
+        return slot.get() == null;
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+}
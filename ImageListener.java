@@ -0,0 +1,9 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ImageListener: 카메라 (sensor_msgs/Image) 수신 콜백 (디코드 워커 스레드)
+//  - data 는 호출 동안만 유효 (다음 프레임 디코드에 재사용됨)
+// ============================================================
+interface ImageListener {
+    void onImage(int width, int height, String encoding, byte[] data, int length);
+}
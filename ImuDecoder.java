@@ -0,0 +1,62 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ImuDecoder: sensor_msgs/Imu -> (필터) -> 오일러 각(도)
+//  - orientation(쿼터니언), angular_velocity, linear_acceleration 을 재사용 객체로 읽음
+//  - 필터는 모든 샘플에 적용, 리스너 호출은 RateDecimator 로 솎아냄 (100~200Hz IMU 대비)
+//  - 디코드 워커 스레드 전용 (메시지당 할당 없음)
+// ============================================================
+final class ImuDecoder implements TopicDecoder {
+
+    private static final String[] STAMP_SEC = {"header", "stamp", "sec"};
+    private static final String[] STAMP_NANOSEC = {"header", "stamp", "nanosec"};
+    private static final String[] QX = {"orientation", "x"};
+    private static final String[] QY = {"orientation", "y"};
+    private static final String[] QZ = {"orientation", "z"};
+    private static final String[] QW = {"orientation", "w"};
+    private static final String[] GX = {"angular_velocity", "x"};
+    private static final String[] GY = {"angular_velocity", "y"};
+    private static final String[] GZ = {"angular_velocity", "z"};
+    private static final String[] AX = {"linear_acceleration", "x"};
+    private static final String[] AY = {"linear_acceleration", "y"};
+    private static final String[] AZ = {"linear_acceleration", "z"};
+
+    private final ImuListener listener;
+    private final ImuFilter filter;
+    private final RateDecimator decimator;
+    private final Quaternion q = new Quaternion(); // 재사용
+    private final EulerAngles euler = new EulerAngles(); // 재사용
+
+    ImuDecoder(ImuListener listener) {
+        this(listener, new ImuFilter(ImuFilter.Mode.PASS), 0);
+    }
+
+    // filter: 자세 필터, emitIntervalMs: 리스너 호출 최소 간격 (0 = 매 메시지)
+    ImuDecoder(ImuListener listener, ImuFilter filter, long emitIntervalMs) {
+        this.listener = listener;
+        this.filter = filter;
+        this.decimator = new RateDecimator(emitIntervalMs);
+    }
+
+    @Override
+    public void decode(MessageReader msg) {
+        q.set(msg.getDouble(QX, 0.0), msg.getDouble(QY, 0.0), // 쿼터니언 x, y
+                msg.getDouble(QZ, 0.0), msg.getDouble(QW, 1.0)); // 쿼터니언 z, w
+        if (filter.mode() == ImuFilter.Mode.PASS) {
+            q.toEuler(euler);
+        } else {
+            double stamp = msg.getDouble(STAMP_SEC, 0.0) + msg.getDouble(STAMP_NANOSEC, 0.0) * 1e-9;
+            boolean inertial = filter.mode() == ImuFilter.Mode.COMPLEMENTARY; // 자이로/가속도 필요
+            filter.update(stamp, q.normalize(),
+                    inertial ? msg.getDouble(GX, 0.0) : 0, inertial ? msg.getDouble(GY, 0.0) : 0,
+                    inertial ? msg.getDouble(GZ, 0.0) : 0, inertial ? msg.getDouble(AX, 0.0) : 0,
+                    inertial ? msg.getDouble(AY, 0.0) : 0, inertial ? msg.getDouble(AZ, 0.0) : 0, euler);
+        }
+        if (!decimator.tick(System.nanoTime())) return; // 표시 주기 전: 필터 상태만 갱신
+        listener.onImu(Math.toDegrees(euler.roll), Math.toDegrees(euler.pitch), Math.toDegrees(euler.yaw));
+    }
+
+    long skippedCount() {
+        return decimator.skippedCount();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ImuFilter: IMU 자세 필터 (디코드 워커 스레드 전용, 할당 없음)
+//  - PASS: 메시지의 orientation 그대로
+//  - LOW_PASS: orientation 오일러 각에 1차 저역 통과 (각도 wrap 고려)
+//  - COMPLEMENTARY: angular_velocity 적분으로 예측하고
+//      roll/pitch 는 linear_acceleration(중력 방향), yaw 는 orientation 으로 천천히 보정
+//      가속 중(|a| 가 g 에서 벗어남)에는 가속도 보정을 건너뜀
+//  - 시간 간격은 header.stamp 기준, 이상하면(역행/큰 공백) 측정값으로 다시 시작
+// ============================================================
+final class ImuFilter {
+
+    enum Mode { PASS, LOW_PASS, COMPLEMENTARY }
+
+    static final double DEFAULT_TIME_CONSTANT_S = 0.5; // 보정 시상수 (클수록 자이로를 더 믿음)
+    static final double MAX_DT_S = 0.1; // 이보다 긴 공백은 적분하지 않고 다시 시작
+    static final double GRAVITY = 9.80665;
+    static final double ACCEL_TRUST_BAND = 0.1; // |a| 가 g 의 ±10% 안일 때만 가속도로 보정
+
+    private final Mode mode;
+    private final double timeConstant;
+    private final EulerAngles state = new EulerAngles(); // 필터 상태 (라디안)
+    private final EulerAngles measured = new EulerAngles(); // 이번 메시지 orientation
+    private double lastStamp = -1;
+
+    ImuFilter(Mode mode) {
+        this(mode, DEFAULT_TIME_CONSTANT_S);
+    }
+
+    ImuFilter(Mode mode, double timeConstantS) {
+        this.mode = mode;
+        this.timeConstant = timeConstantS;
+    }
+
+    Mode mode() {
+        return mode;
+    }
+
+    // ----------------------------------------------------------
+    // 샘플 하나 반영: orientation q, 자이로 g(rad/s), 가속도 a(m/s^2) -> out (라디안)
+    // ----------------------------------------------------------
+    EulerAngles update(double stamp, Quaternion q, double gx, double gy, double gz,
+                       double ax, double ay, double az, EulerAngles out) {
+        q.toEuler(measured);
+        double dt = lastStamp < 0 ? -1 : stamp - lastStamp;
+        lastStamp = stamp;
+        if (mode == Mode.PASS || dt <= 0 || dt > MAX_DT_S) {
+            state.set(measured); // 첫 샘플 / 시간 이상: 측정값으로 다시 시작
+            return out.set(state);
+        }
+        double alpha = timeConstant / (timeConstant + dt); // 예측(이전 상태/자이로) 가중치
+
+        if (mode == Mode.LOW_PASS) {
+            state.roll = blend(state.roll, measured.roll, alpha);
+            state.pitch = blend(state.pitch, measured.pitch, alpha);
+            state.yaw = blend(state.yaw, measured.yaw, alpha);
+            return out.set(state);
+        }
+
+        // 자이로(기체 좌표 각속도) -> 오일러 각 변화율로 적분
+        double sr = Math.sin(state.roll), cr = Math.cos(state.roll);
+        double cp = Math.cos(state.pitch);
+        if (Math.abs(cp) < 1e-3) cp = Math.copySign(1e-3, cp); // 피치 ±90° 특이점
+        double tp = Math.sin(state.pitch) / cp;
+        double roll = state.roll + (gx + sr * tp * gy + cr * tp * gz) * dt;
+        double pitch = state.pitch + (cr * gy - sr * gz) * dt;
+        double yaw = state.yaw + (sr / cp * gy + cr / cp * gz) * dt;
+
+        // roll/pitch: 중력 방향으로 보정 (가속/충격 중에는 자이로만)
+        double norm = Math.sqrt(ax * ax + ay * ay + az * az);
+        if (Math.abs(norm - GRAVITY) < GRAVITY * ACCEL_TRUST_BAND) {
+            roll = blend(roll, Math.atan2(ay, az), alpha);
+            pitch = blend(pitch, Math.atan2(-ax, Math.sqrt(ay * ay + az * az)), alpha);
+        }
+        yaw = blend(yaw, measured.yaw, alpha); // yaw: 센서 융합 orientation 으로 드리프트 보정
+        state.set(EulerAngles.wrap(roll), pitch, EulerAngles.wrap(yaw));
+        return out.set(state);
+    }
+
+    void reset() {
+        lastStamp = -1;
+    }
+
+    // 각도 가중 평균 (차이를 wrap 해서 ±pi 경계에서 튀지 않게)
+    private static double blend(double predicted, double measured, double alpha) {
+        return EulerAngles.wrap(predicted + (1 - alpha) * EulerAngles.wrap(measured - predicted));
+    }
+}
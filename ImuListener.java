@@ -0,0 +1,8 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ImuListener: /imu (sensor_msgs/Imu) 수신 콜백 (디코드 워커 스레드)
+// ============================================================
+interface ImuListener {
+    void onImu(double roll, double pitch, double yaw); // 단위: 도
+}
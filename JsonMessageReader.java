@@ -0,0 +1,358 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// JsonMessageReader: rosbridge JSON 프레임 스트리밍 토크나이저
+//  - JSONObject 트리를 만들지 않고 필요한 필드만 문자열에서 직접 읽음
+//  - 한 인스턴스를 재사용 (스레드 하나 전용, 동기화 없음)
+//  - 숫자 파싱은 표시/제어용이므로 마지막 1~2 ulp 오차 허용
+// ============================================================
+final class JsonMessageReader implements MessageReader {
+
+    private String text; // 현재 읽고 있는 프레임 원문
+    private int root; // 경로 탐색 기준이 되는 객체 시작 위치('{')
+    private int byteCount; // 마지막 getBytes() 결과 길이
+
+    // ----------------------------------------------------------
+    // 새 프레임으로 초기화 (기준 객체 = 최상위 객체)
+    // ----------------------------------------------------------
+    void reset(String text) {
+        this.text = text;
+        this.root = skipWhitespace(0);
+        this.byteCount = 0;
+    }
+
+    String text() {
+        return text;
+    }
+
+    // 경로 탐색 기준 객체 지정 (예: "msg" 값 위치)
+    void setRoot(int objectStart) {
+        this.root = objectStart;
+    }
+
+    // ----------------------------------------------------------
+    // 최상위 객체에서 필드 값의 시작 위치를 찾음 (없으면 -1)
+    // ----------------------------------------------------------
+    int findTopLevel(String field) {
+        return findField(skipWhitespace(0), field);
+    }
+
+    // 기준 객체에서 경로를 따라 내려간 값의 시작 위치 (없으면 -1)
+    int find(String[] path) {
+        int pos = root;
+        for (String key : path) {
+            pos = findField(pos, key);
+            if (pos < 0) return -1;
+        }
+        return pos;
+    }
+
+    // ----------------------------------------------------------
+    // pos 위치의 문자열 값이 expected 와 같은지 (할당 없이 비교)
+    // ----------------------------------------------------------
+    boolean stringEquals(int pos, String expected) {
+        if (pos < 0 || text.charAt(pos) != '"') return false;
+        int len = expected.length();
+        int end = pos + 1 + len;
+        return end < text.length()
+                && text.regionMatches(pos + 1, expected, 0, len)
+                && text.charAt(end) == '"';
+    }
+
+    // ----------------------------------------------------------
+    // 경로 기반 값 읽기
+    // ----------------------------------------------------------
+    @Override
+    public double getDouble(String[] path, double def) {
+        int pos = find(path);
+        return pos < 0 ? def : parseDouble(pos, def);
+    }
+
+    @Override
+    public int getInt(String[] path, int def) {
+        int pos = find(path);
+        return pos < 0 ? def : (int) parseDouble(pos, def);
+    }
+
+    @Override
+    public String getKnownString(String[] path, String[] candidates) {
+        int pos = find(path);
+        if (pos < 0) return null;
+        for (String c : candidates) {
+            if (stringEquals(pos, c)) return c;
+        }
+        return null;
+    }
+
+    @Override
+    public String getString(String[] path) {
+        return stringAt(find(path));
+    }
+
+    // ----------------------------------------------------------
+    // 위치 기반 값 읽기 (배열 원소 등 경로로 찾을 수 없는 값)
+    // ----------------------------------------------------------
+    String stringAt(int pos) {
+        if (pos < 0 || text.charAt(pos) != '"') return null;
+        return text.substring(pos + 1, skipString(pos) - 1);
+    }
+
+    double doubleAt(int pos, double def) {
+        return pos < 0 ? def : parseDouble(pos, def);
+    }
+
+    boolean booleanAt(int pos, boolean def) {
+        if (pos < 0) return def;
+        if (text.startsWith("true", pos)) return true;
+        if (text.startsWith("false", pos)) return false;
+        return def;
+    }
+
+    // 배열(arrayStart='[')의 첫 원소 위치 (빈 배열/배열 아님 = -1)
+    int firstElement(int arrayStart) {
+        if (arrayStart < 0 || arrayStart >= text.length() || text.charAt(arrayStart) != '[') return -1;
+        int pos = skipWhitespace(arrayStart + 1);
+        return pos < text.length() && text.charAt(pos) != ']' ? pos : -1;
+    }
+
+    // 원소(elementStart) 다음 원소 위치 (마지막이면 -1)
+    int nextElement(int elementStart) {
+        int pos = skipWhitespace(skipValue(elementStart));
+        if (pos >= text.length() || text.charAt(pos) != ',') return -1;
+        return skipWhitespace(pos + 1);
+    }
+
+    // ----------------------------------------------------------
+    // base64 문자열(uint8[] 필드)을 바이트로 디코드
+    // ----------------------------------------------------------
+    @Override
+    public byte[] getBytes(String[] path, byte[] reuse) {
+        byteCount = 0;
+        int pos = find(path);
+        if (pos < 0 || text.charAt(pos) != '"') return reuse;
+        int start = pos + 1;
+        int end = skipString(pos) - 1; // 닫는 따옴표 위치
+        int maxLen = (end - start) / 4 * 3 + 3;
+        byte[] dst = (reuse != null && reuse.length >= maxLen) ? reuse : new byte[maxLen];
+        byteCount = decodeBase64(text, start, end, dst);
+        return dst;
+    }
+
+    @Override
+    public int byteCount() {
+        return byteCount;
+    }
+
+    // ----------------------------------------------------------
+    // 객체(objStart='{')의 직계 필드 중 name 값의 시작 위치
+    // ----------------------------------------------------------
+    int findField(int objStart, String name) {
+        if (objStart < 0 || objStart >= text.length() || text.charAt(objStart) != '{') return -1;
+        int pos = skipWhitespace(objStart + 1);
+        int n = text.length();
+        while (pos < n && text.charAt(pos) != '}') {
+            if (text.charAt(pos) != '"') return -1; // 잘못된 형식
+            int keyEnd = skipString(pos); // 닫는 따옴표 다음
+            boolean match = keyEnd - pos - 2 == name.length()
+                    && text.regionMatches(pos + 1, name, 0, name.length());
+            pos = skipWhitespace(keyEnd);
+            if (pos >= n || text.charAt(pos) != ':') return -1;
+            pos = skipWhitespace(pos + 1);
+            if (match) return pos;
+            pos = skipWhitespace(skipValue(pos));
+            if (pos < n && text.charAt(pos) == ',') pos = skipWhitespace(pos + 1);
+        }
+        return -1;
+    }
+
+    // ----------------------------------------------------------
+    // 값 하나를 건너뛰고 그 다음 위치를 반환
+    // ----------------------------------------------------------
+    int skipValue(int pos) {
+        int n = text.length();
+        if (pos >= n) return n;
+        char c = text.charAt(pos);
+        if (c == '"') return skipString(pos);
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (pos < n) {
+                c = text.charAt(pos);
+                if (c == '"') {
+                    pos = skipString(pos);
+                    continue;
+                }
+                if (c == '{' || c == '[') depth++;
+                else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) return pos + 1;
+                }
+                pos++;
+            }
+            return n;
+        }
+        // 숫자/true/false/null/NaN 등 리터럴
+        while (pos < n) {
+            c = text.charAt(pos);
+            if (c == ',' || c == '}' || c == ']' || c <= ' ') break;
+            pos++;
+        }
+        return pos;
+    }
+
+    // ----------------------------------------------------------
+    // pos 위치 문자열 값의 원문 길이 (따옴표 제외, 이스케이프 포함), 문자열이 아니면 -1
+    //  - 이스케이프를 푼 길이는 이보다 길지 않음 (copyString 버퍼 크기)
+    // ----------------------------------------------------------
+    int rawStringLength(int pos) {
+        if (pos < 0 || text.charAt(pos) != '"') return -1;
+        return skipString(pos) - pos - 2;
+    }
+
+    // pos 위치 문자열 값을 이스케이프를 풀어 dst[off..] 에 복사, 쓴 글자 수 반환 (op "fragment" 조각 잇기)
+    //  - 이스케이프 없는 구간은 getChars 로 통째로 복사 (base64 는 이스케이프가 거의 없음)
+    int copyString(int pos, char[] dst, int off) {
+        int end = pos + 1 + rawStringLength(pos); // 닫는 따옴표 위치
+        int out = off;
+        int i = pos + 1;
+        while (i < end) {
+            int esc = text.indexOf('\\', i);
+            if (esc < 0 || esc > end) esc = end;
+            text.getChars(i, esc, dst, out);
+            out += esc - i;
+            if (esc == end) break;
+            i = esc + 1;
+            char c = text.charAt(i++);
+            switch (c) {
+                case 'n': dst[out++] = '\n'; break;
+                case 't': dst[out++] = '\t'; break;
+                case 'r': dst[out++] = '\r'; break;
+                case 'b': dst[out++] = '\b'; break;
+                case 'f': dst[out++] = '\f'; break;
+                case 'u':
+                    dst[out++] = (char) Integer.parseInt(text.substring(i, i + 4), 16); // 드묾 (제어 문자)
+                    i += 4;
+                    break;
+                default: dst[out++] = c; // \" \\ \/
+            }
+        }
+        return out - off;
+    }
+
+    // 따옴표로 시작하는 문자열을 건너뛰고 닫는 따옴표 다음 위치 반환
+    //  - indexOf 로 다음 따옴표를 찾고 앞의 역슬래시 개수로 이스케이프 여부 판단 (긴 base64 문자열)
+    private int skipString(int pos) {
+        int from = pos + 1; // 여는 따옴표 다음
+        while (true) {
+            int q = text.indexOf('"', from);
+            if (q < 0) return text.length();
+            int backslashes = 0;
+            while (q - backslashes - 1 > pos && text.charAt(q - backslashes - 1) == '\\') backslashes++;
+            if ((backslashes & 1) == 0) return q + 1; // 짝수 개 = 이스케이프된 따옴표 아님
+            from = q + 1;
+        }
+    }
+
+    private int skipWhitespace(int pos) {
+        int n = text.length();
+        while (pos < n && text.charAt(pos) <= ' ') pos++;
+        return pos;
+    }
+
+    // ----------------------------------------------------------
+    // 할당 없는 숫자 파싱 (정수/소수/지수, NaN/Infinity 포함)
+    // ----------------------------------------------------------
+    private double parseDouble(int pos, double def) {
+        int n = text.length();
+        boolean neg = false;
+        char c = text.charAt(pos);
+        if (c == '-') {
+            neg = true;
+            pos++;
+        }
+        if (pos >= n) return def;
+        c = text.charAt(pos);
+        if (c == 'N') return Double.NaN;
+        if (c == 'I') return neg ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        if (c < '0' || c > '9') return def; // null, 문자열 등
+
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        while (pos < n && (c = text.charAt(pos)) >= '0' && c <= '9') {
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exp10++; // 유효숫자 18자리 이후는 버림
+            }
+            pos++;
+        }
+        if (pos < n && text.charAt(pos) == '.') {
+            pos++;
+            while (pos < n && (c = text.charAt(pos)) >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exp10--;
+                }
+                pos++;
+            }
+        }
+        if (pos < n && ((c = text.charAt(pos)) == 'e' || c == 'E')) {
+            pos++;
+            boolean expNeg = false;
+            if (pos < n && ((c = text.charAt(pos)) == '-' || c == '+')) {
+                expNeg = c == '-';
+                pos++;
+            }
+            int e = 0;
+            while (pos < n && (c = text.charAt(pos)) >= '0' && c <= '9') {
+                if (e < 10000) e = e * 10 + (c - '0');
+                pos++;
+            }
+            exp10 += expNeg ? -e : e;
+        }
+        double v = mantissa;
+        if (exp10 > 0) v *= pow10(exp10);
+        else if (exp10 < 0) v /= pow10(-exp10);
+        return neg ? -v : v;
+    }
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static double pow10(int e) {
+        return e < POW10.length ? POW10[e] : Math.pow(10, e);
+    }
+
+    // ----------------------------------------------------------
+    // base64 디코더 (문자열 구간 -> dst), 알파벳 외 문자는 무시
+    // ----------------------------------------------------------
+    private static final byte[] B64 = new byte[128];
+
+    static {
+        java.util.Arrays.fill(B64, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) B64[alphabet.charAt(i)] = (byte) i;
+    }
+
+    static int decodeBase64(CharSequence src, int start, int end, byte[] dst) {
+        int out = 0;
+        int acc = 0;
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            if (c == '=') break; // 패딩
+            if (c >= 128 || B64[c] < 0) continue; // 공백/개행/이스케이프 문자
+            acc = (acc << 6) | B64[c];
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[out++] = (byte) (acc >> bits);
+            }
+        }
+        return out;
+    }
+}
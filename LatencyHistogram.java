@@ -0,0 +1,127 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// ============================================================
+// LatencyHistogram: HDR 방식 지연 히스토그램 (나노초, 락 없는 기록)
+//  - 구간: 0~63ns 는 1ns 단위, 그 위로는 2배 구간마다 32칸 (상대 오차 약 3%)
+//    최대 약 68초 (넘는 값은 마지막 칸), 칸 1064개 고정 (약 8.5KB, 기록 중 할당 없음)
+//  - record: 칸 카운터 증가 + 합/최대 갱신만 (여러 스레드에서 동시 호출 가능)
+//  - snapshot: 현재 누적값 복사 (읽는 동안의 기록은 다음 스냅샷에 반영)
+//    두 스냅샷의 차이(minus)로 구간 통계 계산
+// ============================================================
+final class LatencyHistogram {
+
+    static final int SUB_BITS = 6;
+    static final int SUB_COUNT = 1 << SUB_BITS; // 64: 이 값 미만은 1ns 단위
+    static final int HALF = SUB_COUNT / 2; // 2배 구간당 칸 수
+    static final int MAX_SHIFT = 30; // 최대 2^36 ns (약 68초)
+    static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF; // 64 + 30 * 32 = 1064
+
+    final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong(); // 합 (나노초)
+    private final AtomicLong max = new AtomicLong(); // 최댓값 (나노초)
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    // ----------------------------------------------------------
+    // 기록 (어느 스레드에서든)
+    // ----------------------------------------------------------
+    void recordNanos(long nanos) {
+        if (nanos < 0) nanos = 0; // 시계 역행
+        counts.incrementAndGet(index(nanos));
+        sum.addAndGet(nanos);
+        long m = max.get();
+        while (nanos > m && !max.compareAndSet(m, nanos)) m = max.get();
+    }
+
+    // 시작 시각(System.nanoTime)부터 지금까지
+    void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+            n += c[i];
+        }
+        return new Snapshot(c, n, sum.get(), max.get());
+    }
+
+    // ----------------------------------------------------------
+    // 값 <-> 칸 번호
+    // ----------------------------------------------------------
+    static int index(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int shift = 64 - Long.numberOfLeadingZeros(v) - SUB_BITS; // 1 이상
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        int mantissa = (int) (v >>> shift); // HALF ~ SUB_COUNT-1
+        return SUB_COUNT + (shift - 1) * HALF + (mantissa - HALF);
+    }
+
+    static long lowerBound(int i) {
+        if (i < SUB_COUNT) return i;
+        int shift = (i - SUB_COUNT) / HALF + 1;
+        long mantissa = (i - SUB_COUNT) % HALF + HALF;
+        return mantissa << shift;
+    }
+
+    // 칸에 들어가는 가장 큰 값
+    static long upperBound(int i) {
+        return i == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(i + 1) - 1;
+    }
+
+    // ----------------------------------------------------------
+    // 스냅샷 (불변)
+    // ----------------------------------------------------------
+    static final class Snapshot {
+        final long[] counts;
+        final long count;
+        final long sumNanos;
+        final long maxNanos; // minus 결과는 구간 안 가장 높은 칸의 상한
+
+        Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        // earlier 이후에 기록된 값만 (earlier null = 전체)
+        Snapshot minus(Snapshot earlier) {
+            if (earlier == null) return this;
+            long[] c = new long[BUCKETS];
+            long n = 0;
+            int top = -1;
+            for (int i = 0; i < BUCKETS; i++) {
+                c[i] = counts[i] - earlier.counts[i];
+                n += c[i];
+                if (c[i] > 0) top = i;
+            }
+            long m = top < 0 ? 0 : Math.min(upperBound(top), maxNanos);
+            return new Snapshot(c, n, sumNanos - earlier.sumNanos, m);
+        }
+
+        // q(0~1) 분위수: 해당 칸의 상한 (HDR 의 highest equivalent value), 최댓값으로 제한
+        long percentileNanos(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        double meanNanos() {
+            return count == 0 ? Double.NaN : (double) sumNanos / count;
+        }
+    }
+}
@@ -4,6 +4,7 @@ package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
 import android.os.Bundle; // 액티비티 생명주기 관리에 사용
 import android.os.Handler; // UI 스레드에 작업을 예약할 때 사용
 import android.util.Log; // 로그 출력용
+import android.view.InputDevice; // 조이스틱/게임패드 입력 구분
 import android.view.MotionEvent; // 터치 이벤트 정보를 담는 클래스
 import android.view.View; // 뷰 기본 타입
 import android.widget.Button; // 버튼 위젯
@@ -18,22 +19,20 @@ import android.widget.Toast; // 간단한 팝업 알림(토스트)
 import androidx.appcompat.app.AppCompatActivity; // AppCompat 기반 액티비티
 
 // --- 이미지/디코드 관련 임포트 ---
-import android.util.Base64; // Base64 디코딩
 import android.graphics.Bitmap; // 비트맵 이미지 객체
 import android.graphics.BitmapFactory; // 바이트배열 -> 비트맵 디코더
 
-// --- JSON 관련 임포트 ---
-import org.json.JSONException; // JSON 처리 중 발생하는 예외
-import org.json.JSONObject; // JSON 객체 생성/파싱
-
+import java.io.File; // 텔레메트리 녹화 디렉터리
+import java.io.IOException;
+import java.nio.charset.StandardCharsets; // png 압축 프레임 복원
+import java.text.SimpleDateFormat; // 녹화 디렉터리 이름 (시작 시각)
+import java.util.Date;
+import java.util.LinkedHashMap; // 게인 이름 -> 값 (요청 순서 유지)
 import java.util.Locale; // Locale 지정하여 문자열 포맷
+import java.util.Map;
 
 // --- OkHttp (WebSocket 통신용) 임포트 ---
 import okhttp3.OkHttpClient; // OkHttp 클라이언트
-import okhttp3.Request; // HTTP/WS 요청 빌더
-import okhttp3.Response; // 응답 객체 (콜백에서 사용)
-import okhttp3.WebSocket; // WebSocket 인터페이스
-import okhttp3.WebSocketListener; // WebSocket 이벤트 리스너
 
 // ============================================================
 // MainActivity: ROS2 rosbridge와 WebSocket 통신 + UI 제어
@@ -46,30 +45,125 @@ public class MainActivity extends AppCompatActivity { // AppCompatActivity를 
 
     // --- UI 컴포넌트 선언 ---
     private ProgressBar batteryProgress; // 배터리 진행 표시 바
-    private TextView tvBattery, tvNetwork, tvStatus, tvOdom, tvImu; // 텍스트뷰들: 배터리, 네트워크, 상태, 오돔, IMU
+    private TextView tvBattery, tvNetwork, tvStatus, tvOdom, tvImu, tvMission, tvMetrics; // 텍스트뷰들: 배터리, 네트워크, 상태, 오돔, IMU, 미션, 계측
     private Button btnEmergency; // 제어용 버튼들
     private LinearLayout layoutStartButton, layoutStopButton;
     private LinearLayout layoutSpeedDownButton, layoutSpeedUpButton;
     private ImageButton btnLeft, btnRight;
     private ImageView ivCamera; // 카메라 영상 표시용 이미지뷰
+    private TrajectoryView trajectoryView; // 카메라 위 주행 궤적 오버레이
 
     // --- 네트워크/rosbridge 필드 ---
-    private OkHttpClient client; // OkHttp 클라이언트 인스턴스
-    private WebSocket webSocket; // 연결된 WebSocket 인스턴스
+    private OkHttpClient client; // 공유 OkHttp 클라이언트 (재연결해도 그대로 사용)
+    private RosBridgeClient ros; // rosbridge 세션 (연결/구독/명령/디코드 워커)
     private final Handler uiHandler = new Handler(); // UI 스레드로 실행할 때 사용할 핸들러
 
     // rosbridge 주소: 실제 환경에 맞게 변경 필요
     private final String ROSBRIDGE_URI = "ws://192.168.0.3:9090"; // rosbridge websocket URI
+    // 테스트용 주소 변경 (예: bench/FakeRosbridgeServer): adb reverse tcp:9090 tcp:9090 후
+    //  adb shell am start -n com.cookandroid.aidriveexample/.MainActivity -e rosbridge_uri ws://127.0.0.1:9090
+    private final String EXTRA_ROSBRIDGE_URI = "rosbridge_uri";
+
+    // 구독별 서버 측 전송 제한 (throttle_rate, ms): UI 가 보여줄 수 있는 만큼만 받음
+    private final int BATTERY_THROTTLE_MS = 1000; // 배터리 1Hz
+    private final int ODOM_THROTTLE_MS = 100; // 오돔 10Hz
+    private final int IMU_THROTTLE_MS = 10; // IMU 최대 100Hz (필터가 모든 샘플 사용)
+    private final long IMU_DISPLAY_INTERVAL_MS = 66; // IMU 표시는 약 15Hz
+    private final int CAMERA_VISIBLE_THROTTLE_MS = 66; // 카메라 화면이 보일 때 약 15fps
+    private final int CAMERA_HIDDEN_THROTTLE_MS = 2000; // 화면이 안 보일 때 0.5fps
+
+    // --- 디코드 워커 -> 토픽별 최신 값 -> vsync 당 1회 UI 갱신 ---
+    private final UiFlushScheduler uiFlush = new UiFlushScheduler(this::flushTelemetryUI); // vsync 정렬 UI 갱신
+    private final TelemetrySlot batterySlot = new TelemetrySlot(2); // 배터리 퍼센트, 남은 주행 시간(분)
+    private final BatteryMonitor battery = new BatteryMonitor(this::onBatteryLevelChanged); // 배터리 단계 + 잔여 시간 추정
+    private final TelemetrySlot odomSlot = new TelemetrySlot(2); // 속도, 주행 거리
+    private final TrajectoryStore trajectory = new TrajectoryStore(); // 주행 궤적 (링 버퍼 + 단순화 폴리라인)
+    private final TelemetrySlot imuSlot = new TelemetrySlot(3); // roll, pitch, yaw
+    private final TelemetrySlot missionSlot = new TelemetrySlot(3); // 미션 상태, 목표 인덱스, 랩
+    private final double[] slotValues = new double[3]; // UI 스레드 전용 읽기 버퍼
+    private final double[] poseValues = new double[6]; // UI 스레드 전용 포즈 읽기 버퍼
+    // UI 스레드 전용 텍스트 버퍼 (String.format 대체): TextView.setText(char[], ...) 는 배열을 복사하지 않고
+    // 그대로 참조하므로 뷰마다 따로 둠 (공유하면 다른 뷰가 덮어쓴 글자로 다시 그려짐)
+    private final CharFormatter odomText = new CharFormatter(64);
+    private final CharFormatter imuText = new CharFormatter(64);
+    private final CharFormatter statusText = new CharFormatter(64);
+    private final CharFormatter missionText = new CharFormatter(64);
+    private final CharFormatter batteryText = new CharFormatter(64);
+    private final CameraFrameDecoder cameraFrames = new CameraFrameDecoder(uiFlush::request); // 카메라 프레임 풀 + 최신 프레임 우편함
+
+    // --- 카메라 소스: -e camera_source raw|compressed|mjpeg (기본 raw), mjpeg 주소는 -e mjpeg_url ---
+    //  raw: /lane_image_raw (sensor_msgs/Image), compressed: /lane_image_raw/compressed (JPEG, rosbridge)
+    //  mjpeg: web_video_server HTTP 스트림 (rosbridge 는 텔레메트리/명령만)
+    private final String EXTRA_CAMERA_SOURCE = "camera_source";
+    private final String EXTRA_MJPEG_URL = "mjpeg_url";
+    private final String MJPEG_URL = "http://192.168.0.3:8080/stream?topic=/lane_image_raw&type=mjpeg&quality=70";
+    private final CompressedFrameStage jpegStage = new CompressedFrameStage(cameraFrames, "camera-jpeg-decode"); // 늦은 JPEG 는 디코드 전에 버림
+    private MjpegStreamClient mjpeg; // mjpeg 소스일 때만
+
+    // --- 텔레메트리 녹화/재생 (filesDir/recordings/<시작시각>) ---
+    //  녹화: adb shell am start -n com.cookandroid.aidriveexample/.MainActivity --ez record true
+    //  재생: adb shell am start -n com.cookandroid.aidriveexample/.MainActivity \
+    //        -e replay <녹화 디렉터리 이름> --ef replay_speed 1.0  (0 = 최대 속도)
+    private final String EXTRA_RECORD = "record"; // 실주행 중 수신 프레임 녹화 여부
+    private final boolean RECORD_TELEMETRY = false; // 인텐트에 record 가 없을 때 기본값
+    private final int KEEP_RECORDINGS = 3; // 남겨둘 최근 녹화 수
+    private final String EXTRA_REPLAY = "replay"; // 재생할 녹화 디렉터리 이름
+    private final String EXTRA_REPLAY_SPEED = "replay_speed"; // 재생 속도 배율
+    private TelemetryRecorder recorder; // 녹화 중이 아니면 null
+    private final long STATS_LOG_INTERVAL_MS = 10000; // 파이프라인 카운터 로그 주기
+
+    // --- motor_sub 파라미터 (rosbridge get/set_parameters, 응답을 기다리지 않는 서비스 호출) ---
+    //  게인 일괄 변경: -e motor_gains "k_angle=0.003,k_deg=0.01,target_speed=0.1" (연결될 때마다 적용 후 다시 읽어 확인)
+    private final String MOTOR_NODE = "/motor_control"; // motor_sub.py 노드 이름
+    private final String[] MOTOR_GAINS = {"k_angle", "k_deg", "max_angular", "target_speed", "speed_step"};
+    private final String EXTRA_MOTOR_GAINS = "motor_gains";
+    private final long SPEED_CONFIRM_DELAY_MS = 300; // /cmd_drive -> command_executor -> motor_sub 반영 후 읽기
+
+    // --- 계측: 토픽별 비율/바이트/디코드 지연 히스토그램 (filesDir/metrics/*.jsonl 로 주기 기록) ---
+    private final TelemetryMetrics metrics = new TelemetryMetrics();
+    private final int KEEP_METRICS_FILES = 5; // 남겨둘 스냅샷 파일 수
+    private final long METRICS_OVERLAY_INTERVAL_MS = 1000; // 오버레이 갱신 주기
+    private MetricsExporter metricsExporter; // 기록 중이 아니면 null
+    private TelemetryMetrics.Snapshot overlaySnapshot; // 오버레이 구간 기준
+    private final Runnable metricsOverlay = new Runnable() { // 오버레이가 보이는 동안 1초마다
+        @Override public void run() {
+            if (tvMetrics.getVisibility() != View.VISIBLE) return;
+            TelemetryMetrics.Snapshot now = metrics.snapshot();
+            tvMetrics.setText(now.report(overlaySnapshot));
+            overlaySnapshot = now;
+            uiHandler.postDelayed(this, METRICS_OVERLAY_INTERVAL_MS);
+        }
+    };
+    private long lastStatsLogMs = 0;
 
-
-    // 구독 식별자(나중에 unsubscribe할 때 사용)
-    private final String SUB_BATTERY = "sub_battery"; // 배터리 구독 id
-    private final String SUB_ODOM = "sub_odom"; // 오돔 구독 id
-    private final String SUB_IMU = "sub_imu"; // IMU 구독 id
-    private final String SUB_CAMERA = "sub_camera"; // 카메라 구독 id
+    // --- 웨이포인트 미션 (filesDir/missions/mission.bin) ---
+    //  궤적 화면 길게 누르기: 현재 위치를 웨이포인트로 추가 (한 바퀴 수동 주행하며 기록)
+    //  시작 버튼 길게 누르기: 미션 반복 주행 시작, 정지 버튼: 미션 중지, 미션 글자 길게 누르기: 계획 지우기
+    private final String MISSION_FILE = "mission.bin";
+    private Mission missionPlan = new Mission().setLoop(true); // 편집 중인 계획 (UI 스레드)
+    private MissionRunner mission; // 오돔으로 도착 판정 + 다음 목표 미리 전송
 
     private boolean manualMode = false; // 수동 조종 모드 여부 플래그
 
+    // --- 수동 조종 (상태 글자 길게 누르기로 전환): 궤적 화면 드래그 또는 게임패드 왼쪽 스틱 ---
+    private final double TELEOP_MAX_LINEAR = 0.5; // 최대 선속도 (m/s)
+    private final double TELEOP_MAX_ANGULAR = 1.5; // 최대 각속도 (rad/s)
+    private final float TELEOP_FULL_SCALE = 0.4f; // 화면 크기의 이 비율만큼 끌면 최대값
+    private final float JOYSTICK_DEADZONE = 0.1f; // 스틱 중립 범위
+    private final long TELEOP_HOLD_MS = 100; // 누르고 있는 동안 데드맨 유지 신호 간격
+    private final int ODOM_TELEOP_THROTTLE_MS = 20; // 수동 조종 중 오돔 50Hz (지연 측정 해상도)
+    private TeleopController teleop; // cmd_vel 고정 주기 송신 + 데드맨 워치독
+    private float touchOriginX, touchOriginY; // 드래그 시작 위치
+    private boolean inputHeld; // 손가락/스틱이 중립이 아님
+    private long shownLatencyCount; // 화면에 표시한 지연 측정 수
+    private final Runnable teleopHold = new Runnable() { // 누르고 있는 동안 UI 스레드가 살아 있음을 알림
+        @Override public void run() {
+            if (!inputHeld) return;
+            teleop.hold();
+            uiHandler.postDelayed(this, TELEOP_HOLD_MS);
+        }
+    };
+
     // ----------------------------------------------------------
     // 액티비티가 생성될 때 호출되는 콜백 (생명주기)
     // ----------------------------------------------------------
@@ -80,8 +174,65 @@ public class MainActivity extends AppCompatActivity { // AppCompatActivity를 
 
         bindViews();       // 레이아웃의 뷰들을 멤버 변수에 연결
         setupButtons();    // 버튼들의 리스너 설정
+        initRosClient();   // rosbridge 클라이언트 생성 + 토픽 구독 등록
+        initCamera();      // 카메라 소스 선택 (원시 Image / CompressedImage / MJPEG)
+        startMetricsExport(); // 계측 스냅샷 주기 기록 (재생 중에도: 디코드 처리량 측정)
+
+        String replayName = getIntent().getStringExtra(EXTRA_REPLAY);
+        if (replayName != null) { // 녹화 재생 모드: 로봇 연결 없이 같은 디코드/UI 경로로
+            startReplay(replayName, getIntent().getFloatExtra(EXTRA_REPLAY_SPEED, 1.0f));
+            return;
+        }
+        if (getIntent().getBooleanExtra(EXTRA_RECORD, RECORD_TELEMETRY)) startRecording();
+        ros.start();       // 디코드 워커 시작 + rosbridge(WebSocket) 연결 시도
+        teleop.start();    // 수동 조종 cmd_vel 타이머 (조종 중일 때만 송신)
+    }
 
-        initWebSocket();   // rosbridge(WebSocket) 초기화 및 연결 시도
+    // ----------------------------------------------------------
+    // 계측 연결 + 스냅샷 파일 기록 시작 (실패해도 주행에는 영향 없음)
+    // ----------------------------------------------------------
+    private void startMetricsExport() {
+        uiFlush.setHistograms(metrics.uiDelay, metrics.uiFlush); // UI 갱신 요청 -> 렌더 지연
+        cameraFrames.setConvertHistogram(metrics.cameraConvert); // 카메라 픽셀 변환 시간
+        try {
+            metricsExporter = new MetricsExporter(metrics, new File(getFilesDir(), "metrics"), KEEP_METRICS_FILES);
+            metricsExporter.start(MetricsExporter.DEFAULT_PERIOD_MS);
+            Log.i(TAG, "Exporting metrics to " + metricsExporter.file());
+        } catch (IOException e) {
+            Log.w(TAG, "Metrics export disabled", e);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 텔레메트리 녹화 시작 (실패해도 주행에는 영향 없음)
+    // ----------------------------------------------------------
+    private void startRecording() {
+        File parent = new File(getFilesDir(), "recordings");
+        TelemetryRecorder.pruneRecordings(parent, KEEP_RECORDINGS - 1); // 새 녹화 자리 확보
+        String name = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        try {
+            recorder = new TelemetryRecorder(new File(parent, name));
+            ros.setRecorder(recorder);
+            Log.i(TAG, "Recording telemetry to " + recorder.directory());
+        } catch (IOException e) {
+            Log.w(TAG, "Telemetry recording disabled", e);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 녹화 재생: 재생 스레드 -> 디코드 워커 큐 (실제 수신과 같은 경로)
+    // ----------------------------------------------------------
+    private void startReplay(String name, float speed) {
+        TelemetryReplayer replayer;
+        try {
+            replayer = new TelemetryReplayer(new File(new File(getFilesDir(), "recordings"), name));
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot open recording " + name, e);
+            tvNetwork.setText("네트워크: 재생 실패");
+            return;
+        }
+        tvNetwork.setText(String.format(Locale.US, "네트워크: 재생 중 (x%.1f)", speed));
+        ros.startReplay(replayer, speed, () -> uiHandler.post(() -> tvNetwork.setText("네트워크: 재생 완료")));
     }
 
     // ----------------------------------------------------------
@@ -94,8 +245,12 @@ public class MainActivity extends AppCompatActivity { // AppCompatActivity를 
         tvStatus = findViewById(R.id.tvStatus); // 상태 텍스트뷰 연결
         tvOdom = findViewById(R.id.tvOdom); // 오돔 텍스트뷰 연결
         tvImu = findViewById(R.id.tvImu); // IMU 텍스트뷰 연결
+        tvMission = findViewById(R.id.tvMission); // 미션 텍스트뷰 연결
+        tvMetrics = findViewById(R.id.tvMetrics); // 계측 오버레이 연결
         btnEmergency = findViewById(R.id.btnEmergency); // 긴급정지 버튼 연결
         ivCamera = findViewById(R.id.ivCameraPlaceholder); // 카메라 이미지뷰 연결 (XML id 확인)
+        trajectoryView = findViewById(R.id.trajectoryView); // 궤적 오버레이 연결
+        trajectoryView.setTrajectory(trajectory);
 
 
         layoutStartButton = findViewById(R.id.layoutStartButton); //주행시작 버튼
@@ -115,33 +270,49 @@ public class MainActivity extends AppCompatActivity { // AppCompatActivity를 
 
         // ✅ 커스텀 시작 버튼 리스너 (LinearLayout에 연결)
         layoutStartButton.setOnClickListener(v -> {
-            publishDriveCommand("start");
+            if (!publishDriveCommand(RosBridgeClient.Drive.START)) return; // 미연결/배터리 부족
             tvStatus.setText("상태: 주행 중");
             Toast.makeText(this, "주행 시작", Toast.LENGTH_SHORT).show();
         });
 
         // ✅ 커스텀 정지 버튼 리스너 (LinearLayout에 연결)
         layoutStopButton.setOnClickListener(v -> {
-            publishDriveCommand("stop");
+            mission.stop(); // 미션 중이면 다음 목표 전송 중지
+            publishDriveCommand(RosBridgeClient.Drive.STOP);
             tvStatus.setText("상태: 정지");
             Toast.makeText(this, "주행 정지", Toast.LENGTH_SHORT).show();
         });
 
         // ✅ 감속 버튼 리스너 (LinearLayout에 연결)
         layoutSpeedDownButton.setOnClickListener(v -> {
-            publishDriveCommand("down"); // motor_sub 속도 감소
-            Toast.makeText(this, "감속", Toast.LENGTH_SHORT).show();
-            // TODO: 감속 로직 추가
+            if (publishDriveCommand(RosBridgeClient.Drive.DOWN)) confirmSpeed("감속"); // motor_sub 속도 감소
         });
 
         // ✅ 가속 버튼 리스너 (LinearLayout에 연결)
         layoutSpeedUpButton.setOnClickListener(v -> {
-            publishDriveCommand("up"); // motor_sub 속도 증가
-            Toast.makeText(this, "가속", Toast.LENGTH_SHORT).show();
-            // TODO: 가속 로직 추가
+            if (publishDriveCommand(RosBridgeClient.Drive.UP)) confirmSpeed("가속"); // motor_sub 속도 증가
         });
         btnEmergency.setOnClickListener(v -> publishEmergency()); // 긴급정지 버튼: emergency 메시지 전송
 
+        // ✅ 웨이포인트 미션 (길게 누르기)
+        setupMissionControls();
+
+        // ✅ 계측 오버레이 (네트워크 글자 길게 누르기로 표시/숨김)
+        tvNetwork.setOnLongClickListener(v -> {
+            boolean show = tvMetrics.getVisibility() != View.VISIBLE;
+            tvMetrics.setVisibility(show ? View.VISIBLE : View.GONE);
+            uiHandler.removeCallbacks(metricsOverlay);
+            if (show) uiHandler.post(metricsOverlay);
+            return true;
+        });
+
+        // ✅ 수동 조종 (상태 글자 길게 누르기로 전환, 궤적 화면 드래그)
+        tvStatus.setOnLongClickListener(v -> {
+            setManualMode(!manualMode);
+            return true;
+        });
+        trajectoryView.setOnTouchListener((v, e) -> manualMode && onTeleopTouch(v, e));
+
         // ✅ 방향키 버튼 설정
         setupDirectionalButtons();
     }
@@ -150,357 +321,516 @@ public class MainActivity extends AppCompatActivity { // AppCompatActivity를 
 
         // 좌회전 버튼
         btnLeft.setOnClickListener(v -> {
-            publishLaneChange("left"); // ros로 좌회전 명령 전송
+            publishLaneChange(RosBridgeClient.Lane.LEFT); // ros로 좌회전 명령 전송
             Toast.makeText(this, "좌회전", Toast.LENGTH_SHORT).show();
         });
 
         // 우회전 버튼
         btnRight.setOnClickListener(v -> {
-            publishLaneChange("right"); // ros로 우회전 명령 전송
+            publishLaneChange(RosBridgeClient.Lane.RIGHT); // ros로 우회전 명령 전송
             Toast.makeText(this, "우회전", Toast.LENGTH_SHORT).show();
         });
     }
-    private void publishLaneChange(String direction) {
-        if (webSocket == null) return;
+    private void setupMissionControls() {
+        loadMission();
+        trajectoryView.setOnLongClickListener(v -> { // 현재 위치를 웨이포인트로 추가
+            if (!trajectory.pose(0, poseValues)) {
+                Toast.makeText(this, "오돔 수신 전", Toast.LENGTH_SHORT).show();
+                return true;
+            }
+            missionPlan.add(poseValues[1], poseValues[2], Double.NaN); // 통과 지점 (방향은 진행 방향)
+            saveMission();
+            showMissionPlan();
+            return true;
+        });
+        layoutStartButton.setOnLongClickListener(v -> { // 미션 시작
+            if (missionPlan.size() == 0) {
+                Toast.makeText(this, "웨이포인트 없음", Toast.LENGTH_SHORT).show();
+                return true;
+            }
+            if (missionPlan.isLoop() && missionPlan.size() < 2) { // 반복 미션은 지점 2개 이상
+                Toast.makeText(this, "반복 미션은 웨이포인트 2개 이상 필요", Toast.LENGTH_SHORT).show();
+                return true;
+            }
+            mission.start(missionPlan);
+            tvStatus.setText("상태: 미션 주행");
+            return true;
+        });
+        tvMission.setOnLongClickListener(v -> { // 계획 지우기
+            mission.stop();
+            missionPlan.clear();
+            saveMission();
+            showMissionPlan();
+            return true;
+        });
+    }
+
+    private void loadMission() {
+        File file = new File(new File(getFilesDir(), "missions"), MISSION_FILE);
+        if (file.isFile()) {
+            try {
+                missionPlan = Mission.load(file);
+            } catch (IOException e) {
+                Log.w(TAG, "Cannot load mission " + file, e);
+            }
+        }
+        showMissionPlan();
+    }
+
+    private void saveMission() {
+        File dir = new File(getFilesDir(), "missions");
         try {
-            JSONObject msg = new JSONObject();
-            msg.put("op", "publish");
-            msg.put("topic", "/lane_change_cmd");
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+            missionPlan.save(new File(dir, MISSION_FILE));
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot save mission", e);
+        }
+    }
 
-            JSONObject data = new JSONObject();
-            data.put("data", direction);
-            msg.put("msg", data);
+    private void showMissionPlan() {
+        missionText.reset().append("미션: 웨이포인트 ").append(missionPlan.size()).append('개');
+        tvMission.setText(missionText.chars(), 0, missionText.length());
+    }
 
-            webSocket.send(msg.toString());
-        } catch (JSONException e) { e.printStackTrace(); }
+    // ----------------------------------------------------------
+    // 수동 조종
+    // ----------------------------------------------------------
+    private void setManualMode(boolean on) {
+        manualMode = on;
+        if (!on) {
+            setInputHeld(false);
+            teleop.release();
+        }
+        ros.setThrottleRate(RosBridgeClient.SUB_ODOM, on ? ODOM_TELEOP_THROTTLE_MS : ODOM_THROTTLE_MS);
+        tvStatus.setText(on ? "상태: 수동 조종 (화면 드래그)" : "상태: 자동");
+        Toast.makeText(this, on ? "수동 조종 켜짐" : "수동 조종 꺼짐", Toast.LENGTH_SHORT).show();
     }
-    private void publishDriveCommand(String command) {
-        if (webSocket == null) {
-            Toast.makeText(this, "ROS 연결 안 됨", Toast.LENGTH_SHORT).show();
+
+    // 드래그: 위/아래 = 선속도, 좌/우 = 각속도 (묶여 온 이력 샘플도 시각 순서대로 모두 반영)
+    private boolean onTeleopTouch(View v, MotionEvent e) {
+        switch (e.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                touchOriginX = e.getX();
+                touchOriginY = e.getY();
+                setInputHeld(true);
+                teleop.input(0.0, 0.0, e.getEventTime() * 1_000_000L);
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                float sx = v.getWidth() * TELEOP_FULL_SCALE, sy = v.getHeight() * TELEOP_FULL_SCALE;
+                if (sx <= 0 || sy <= 0) return true;
+                for (int h = 0; h < e.getHistorySize(); h++) {
+                    teleop.input(TELEOP_MAX_LINEAR * clampUnit((touchOriginY - e.getHistoricalY(h)) / sy),
+                            TELEOP_MAX_ANGULAR * clampUnit((touchOriginX - e.getHistoricalX(h)) / sx),
+                            e.getHistoricalEventTime(h) * 1_000_000L);
+                }
+                teleop.input(TELEOP_MAX_LINEAR * clampUnit((touchOriginY - e.getY()) / sy),
+                        TELEOP_MAX_ANGULAR * clampUnit((touchOriginX - e.getX()) / sx),
+                        e.getEventTime() * 1_000_000L);
+                return true;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                setInputHeld(false);
+                teleop.release(); // 즉시 정지 명령
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    // 게임패드 왼쪽 스틱: 위/아래 = 선속도, 좌/우 = 각속도
+    @Override
+    public boolean onGenericMotionEvent(MotionEvent e) {
+        if (!manualMode || !e.isFromSource(InputDevice.SOURCE_JOYSTICK)
+                || e.getActionMasked() != MotionEvent.ACTION_MOVE) {
+            return super.onGenericMotionEvent(e);
+        }
+        for (int h = 0; h < e.getHistorySize(); h++) {
+            joystickInput(e.getHistoricalAxisValue(MotionEvent.AXIS_X, h),
+                    e.getHistoricalAxisValue(MotionEvent.AXIS_Y, h), e.getHistoricalEventTime(h));
+        }
+        joystickInput(e.getAxisValue(MotionEvent.AXIS_X), e.getAxisValue(MotionEvent.AXIS_Y), e.getEventTime());
+        return true;
+    }
+
+    private void joystickInput(float x, float y, long eventTimeMs) {
+        if (Math.abs(x) < JOYSTICK_DEADZONE && Math.abs(y) < JOYSTICK_DEADZONE) { // 중립 = 손을 뗌
+            if (inputHeld) {
+                setInputHeld(false);
+                teleop.release();
+            }
             return;
         }
-        try {
-            JSONObject msg = new JSONObject();
-            msg.put("op", "publish");               // 퍼블리시 동작
-            msg.put("topic", "/cmd_drive");         // command_executor에서 구독 중인 토픽
-
-            JSONObject data = new JSONObject();
-            data.put("data", command);              // 메시지 내용: "start" 또는 "stop"
-            msg.put("msg", data);
-
-            webSocket.send(msg.toString());
-            Log.i("MainActivity", "Sent /cmd_drive: " + command);
-        } catch (Exception e) {
-            e.printStackTrace();
+        setInputHeld(true);
+        teleop.input(-y * TELEOP_MAX_LINEAR, -x * TELEOP_MAX_ANGULAR, eventTimeMs * 1_000_000L); // 스틱 위 = y 음수
+    }
+
+    private void setInputHeld(boolean held) {
+        if (held == inputHeld) return;
+        inputHeld = held;
+        if (held) uiHandler.postDelayed(teleopHold, TELEOP_HOLD_MS);
+        else uiHandler.removeCallbacks(teleopHold);
+    }
+
+    private static double clampUnit(float v) {
+        return Math.max(-1f, Math.min(1f, v));
+    }
+
+    // 워치독 정지 (타이머 스레드)
+    private void onTeleopStopped(TeleopController.StopReason reason) {
+        Log.w(TAG, "Teleop stopped by watchdog: " + reason);
+        uiHandler.post(() -> {
+            setInputHeld(false);
+            tvStatus.setText(reason == TeleopController.StopReason.LINK_TIMEOUT
+                    ? "상태: 수동 정지 (링크 끊김)" : "상태: 수동 정지 (입력 없음)");
+        });
+    }
+
+    private void publishLaneChange(RosBridgeClient.Lane direction) {
+        ros.publishLaneChange(direction); // 같은 방향 연타는 한 번으로 합쳐짐
+    }
+    private boolean publishDriveCommand(RosBridgeClient.Drive command) {
+        if (!ros.isConnected()) {
+            Toast.makeText(this, "ROS 연결 안 됨", Toast.LENGTH_SHORT).show();
+            return false;
+        }
+        if (!ros.publishDrive(command)) { // 메시지 내용: "start", "stop", "up", "down"
+            Toast.makeText(this, "배터리 부족: 주행 불가", Toast.LENGTH_SHORT).show(); // MotionGate 차단
+            return false;
         }
+        Log.i("MainActivity", "Sent /cmd_drive: " + command.wire);
+        return true;
     }
 
 
     // ----------------------------------------------------------
-    // WebSocket 초기화 및 rosbridge 연결 설정
+    // 속도 확인: 명령이 motor_sub 에 반영될 시간 뒤에 target_speed 파라미터를 읽어 표시
+    //  (토픽 경로는 응답이 없으므로 실제 적용된 값은 파라미터로 확인)
     // ----------------------------------------------------------
-    private void initWebSocket() {
-        client = new OkHttpClient(); // OkHttp 클라이언트 인스턴스 생성
-        Request request = new Request.Builder().url(ROSBRIDGE_URI).build(); // WebSocket 요청 생성
-
-        webSocket = client.newWebSocket(request, new WebSocketListener() { // 비동기 WebSocket 연결 시도
-            @Override public void onOpen(WebSocket webSocket, Response response) { // 연결 성공 콜백
-                Log.i(TAG, "WebSocket opened"); // 로그 출력
+    private void confirmSpeed(String label) {
+        uiHandler.postDelayed(() -> ros.getParameters(MOTOR_NODE, "target_speed").whenDone(call -> {
+            Object speed = RosParameters.values(call.response(), "target_speed").get("target_speed");
+            String msg = speed instanceof Double
+                    ? String.format(Locale.US, "%s: %.2f m/s", label, (Double) speed)
+                    : label + " (확인 실패: " + call.failureMessage() + ")";
+            uiHandler.post(() -> Toast.makeText(this, msg, Toast.LENGTH_SHORT).show());
+        }), SPEED_CONFIRM_DELAY_MS);
+    }
 
-                // UI 변경은 메인(UI) 스레드에서 수행
-                uiHandler.post(() -> {
-                    tvNetwork.setText("네트워크: 연결됨"); // 네트워크 상태 텍스트 갱신
-                    layoutStartButton.setEnabled(true); // 연결되면 버튼 활성화
-                    layoutStopButton.setEnabled(true);
-                });
+    // ----------------------------------------------------------
+    // 연결 타이머 스레드: motor_gains 가 있으면 요청 하나로 모두 설정하고, 응답 뒤 게인 전체를 읽어 확인
+    //  - rosbridge 는 서비스 호출마다 스레드를 따로 써서 응답 순서가 보장되지 않으므로 읽기는 set 응답 뒤에
+    //  - 결과는 로그 + 토스트, UI 스레드는 막지 않음
+    // ----------------------------------------------------------
+    private void syncMotorGains() {
+        Map<String, Double> gains = parseGains(getIntent().getStringExtra(EXTRA_MOTOR_GAINS));
+        if (gains.isEmpty()) {
+            readMotorGains(null);
+            return;
+        }
+        ros.setParameters(MOTOR_NODE, gains).whenDone(set -> {
+            Map<String, String> rejected = RosParameters.failures(set.response(), gains);
+            if (!rejected.isEmpty()) Log.w(TAG, "motor_sub rejected " + rejected);
+            readMotorGains(rejected.isEmpty() ? "게인 적용: " : "게인 거절 " + rejected + ": ");
+        });
+    }
 
-                // 연결되면 필요한 토픽들 구독 요청 전송
-                subscribeTopic("/battery_state", "sensor_msgs/msg/BatteryState", SUB_BATTERY); // 배터리 구독
-                subscribeTopic("/odom", "nav_msgs/msg/Odometry", SUB_ODOM); // 오돔 구독
-                subscribeTopic("/imu", "sensor_msgs/msg/Imu", SUB_IMU); // IMU 구독 (타입 정확히 sensor_msgs/msg/Imu)
-                subscribeTopic("/lane_image_raw", "sensor_msgs/msg/Image", SUB_CAMERA); // 카메라 압축 이미지 구독
+    // 게인 전체를 요청 하나로 읽어 로그 (toastPrefix 가 있으면 토스트도)
+    private void readMotorGains(String toastPrefix) {
+        ros.getParameters(MOTOR_NODE, MOTOR_GAINS).whenDone(call -> {
+            Map<String, Object> values = RosParameters.values(call.response(), MOTOR_GAINS);
+            if (values.isEmpty()) {
+                Log.w(TAG, "motor_sub parameters unavailable: " + call.failureMessage());
+                return;
             }
-
-            @Override public void onMessage(WebSocket webSocket, String text) { // 메시지 수신 콜백
-                handleRosbridgeMessage(text); // 수신된 JSON 메시지 처리
+            Log.i(TAG, "motor_sub parameters " + values);
+            if (toastPrefix != null) {
+                uiHandler.post(() -> Toast.makeText(this, toastPrefix + values, Toast.LENGTH_LONG).show());
             }
+        });
+    }
 
-            @Override public void onFailure(WebSocket webSocket, Throwable t, Response response) { // 연결 실패 콜백
-                Log.e(TAG, "WebSocket failure", t); // 오류 로그 남김
-                uiHandler.post(() -> {
-                    tvNetwork.setText("네트워크: 연결실패"); // UI에 실패 표시
-                    uiHandler.postDelayed(() -> initWebSocket(), 5000); // 5초 후 재시도
-                });
+    // "k_angle=0.003,k_deg=0.01" -> 이름 -> 값 (형식이 틀린 항목은 로그 후 무시)
+    private Map<String, Double> parseGains(String spec) {
+        Map<String, Double> gains = new LinkedHashMap<>();
+        if (spec == null) return gains;
+        for (String item : spec.split(",")) {
+            String[] kv = item.split("=");
+            try {
+                gains.put(kv[0].trim(), Double.parseDouble(kv[1].trim()));
+            } catch (RuntimeException e) { // 숫자 아님, '=' 없음
+                Log.w(TAG, "Ignored motor gain: " + item);
             }
+        }
+        return gains;
+    }
 
-            @Override public void onClosed(WebSocket webSocket, int code, String reason) { // 연결 종료 콜백
-                uiHandler.post(() -> tvNetwork.setText("네트워크: 닫힘")); // UI에 닫힘 표시
-            }
+    // ----------------------------------------------------------
+    // rosbridge 클라이언트 생성 및 토픽 구독 등록
+    //  - 연결/재연결/구독 재전송/카메라 압축 협상은 RosBridgeClient 가 담당
+    //  - 콜백은 디코드 워커 스레드: 최신 값 슬롯만 갱신하고 UI 갱신은 요청만 함
+    // ----------------------------------------------------------
+    private void initRosClient() {
+        client = ConnectionManager.newSharedClient(); // 클라이언트는 한 번만 생성
+        String uri = getIntent().getStringExtra(EXTRA_ROSBRIDGE_URI);
+        if (uri == null) uri = ROSBRIDGE_URI; // 기본: 실제 로봇
+        teleop = new TeleopController((linear, angular) -> ros.publishCmdVel(linear, angular), this::onTeleopStopped);
+        mission = new MissionRunner((x, y, yaw) -> ros.publishGoal(x, y, yaw), (state, target, count, lap) -> {
+            missionSlot.set(state.ordinal(), target, lap); // 디코드 워커 -> 다음 vsync 에 표시
+            uiFlush.request();
         });
+        ros = new RosBridgeClient(uri, client)
+                .setMotionGate(battery) // 배터리 부족이면 새 주행 명령 차단 (정지/긴급정지는 통과)
+                .setMetrics(metrics) // 수신/디코드/송신/RTT 계측
+                .subscribeBattery((pct, volts) -> { // 배터리 상태 처리 (단계 변화는 onBatteryLevelChanged 로 한 번만)
+                    battery.onBattery(pct, volts);
+                    batterySlot.set(pct, battery.minutesRemaining());
+                    uiFlush.request();
+                }, BATTERY_THROTTLE_MS)
+                .subscribeOdom((stamp, x, y, yaw, vx, wz) -> { // 오돔(속도/거리) 처리
+                    trajectory.onOdom(stamp, x, y, yaw, vx, wz); // 궤적 + 누적 주행 거리
+                    odomSlot.set(vx, trajectory.distance());
+                    mission.onOdom(stamp, x, y, yaw, vx, wz); // 미션 도착 판정 + 다음 목표
+                    teleop.onOdom(stamp, x, y, yaw, vx, wz); // 링크 생존 + 입력->바퀴 지연 측정
+                    uiFlush.request();
+                }, ODOM_THROTTLE_MS)
+                .subscribeImu((roll, pitch, yaw) -> { // IMU 처리: 자이로/가속도 상보 필터 -> 오일러 각
+                    imuSlot.set(roll, pitch, yaw);
+                    uiFlush.request();
+                }, IMU_THROTTLE_MS, new ImuFilter(ImuFilter.Mode.COMPLEMENTARY), IMU_DISPLAY_INTERVAL_MS)
+                .setPngUnpacker(this::unpackPng) // png 압축 프레임 복원기
+                .setConnectionListener(new ConnectionListener() {
+                    @Override public void onConnected() { // 연결 성공 콜백
+                        Log.i(TAG, "WebSocket opened (handshake " + ros.handshakeMs() + " ms, reconnects "
+                                + ros.reconnectCount() + ")"); // 로그 출력
+
+                        // UI 변경은 메인(UI) 스레드에서 수행
+                        uiHandler.post(() -> {
+                            tvNetwork.setText("네트워크: 연결됨"); // 네트워크 상태 텍스트 갱신
+                            layoutStartButton.setEnabled(battery.allowsMotion()); // 연결되면 버튼 활성화 (배터리 부족이면 제외)
+                            layoutStopButton.setEnabled(true);
+                        });
+                        syncMotorGains(); // 게인 적용/읽기 (응답은 나중에 토스트로)
+                    }
 
-        // Note: client.dispatcher().executorService().shutdown()는 onDestroy에서 호출
+                    @Override public void onDisconnected(Throwable cause, long retryDelayMs) { // 연결 실패/종료 콜백
+                        if (cause != null) Log.e(TAG, "WebSocket failure", cause); // 오류 로그 남김
+                        uiHandler.post(() -> tvNetwork.setText(String.format(Locale.US,
+                                "네트워크: %s (%.1f초 후 재연결)", cause != null ? "연결실패" : "닫힘",
+                                retryDelayMs / 1000.0))); // UI에 실패/닫힘 표시
+                    }
+                });
     }
 
     // ----------------------------------------------------------
-    // rosbridge에 subscribe 요청 전송 (JSON)
+    // 카메라 소스 연결 (비트맵은 모두 cameraFrames 풀에서 재사용)
+    //  - 압축 프레임은 jpegStage 에서 디코드 (디코드 워커/HTTP 리더를 막지 않음)
     // ----------------------------------------------------------
-    private void subscribeTopic(String topic, String type, String id) {
-        try {
-            JSONObject obj = new JSONObject(); // JSON 객체 생성
-            obj.put("op", "subscribe"); // rosbridge op: subscribe
-            obj.put("topic", topic); // 구독할 토픽 이름
-            obj.put("type", type); // 메시지 타입 문자열 (ROS2 형식)
-            obj.put("id", id); // 구독 식별자
-            webSocket.send(obj.toString()); // JSON 문자열을 WebSocket으로 전송
-        } catch (JSONException e) { // JSON 빌드 실패 시
-            e.printStackTrace(); // 예외 스택트레이스 출력
+    private void initCamera() {
+        String source = getIntent().getStringExtra(EXTRA_CAMERA_SOURCE);
+        if ("compressed".equals(source)) {
+            ros.subscribeCompressedImage(jpegStage, CAMERA_HIDDEN_THROTTLE_MS); // onResume 에서 올림
+            jpegStage.start();
+        } else if ("mjpeg".equals(source)) {
+            String url = getIntent().getStringExtra(EXTRA_MJPEG_URL);
+            mjpeg = new MjpegStreamClient(client, url != null ? url : MJPEG_URL, jpegStage); // onResume 에서 시작
+            jpegStage.start();
+        } else {
+            ros.subscribeImage(cameraFrames, CAMERA_HIDDEN_THROTTLE_MS); // onResume 에서 올림
         }
+        Log.i(TAG, "Camera source: " + (source != null ? source : "raw"));
     }
 
     // ----------------------------------------------------------
-    // rosbridge에 unsubscribe 요청 전송
+    // 카메라 화면이 보이는 동안만 카메라 전송률을 올림 (MJPEG 는 화면이 보일 때만 스트리밍)
     // ----------------------------------------------------------
-    private void unsubscribeTopic(String id) {
-        try {
-            JSONObject obj = new JSONObject(); // JSON 객체 생성
-            obj.put("op", "unsubscribe"); // rosbridge op: unsubscribe
-            obj.put("id", id); // 해제할 구독 id
-            webSocket.send(obj.toString()); // 전송
-        } catch (JSONException e) {
-            e.printStackTrace(); // 예외 처리
-        }
+    @Override
+    protected void onResume() {
+        super.onResume();
+        ros.setThrottleRate(RosBridgeClient.SUB_CAMERA, CAMERA_VISIBLE_THROTTLE_MS);
+        if (mjpeg != null) mjpeg.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        setInputHeld(false);
+        teleop.release(); // 화면을 떠나면 수동 조종 정지
+        ros.setThrottleRate(RosBridgeClient.SUB_CAMERA, CAMERA_HIDDEN_THROTTLE_MS);
+        if (mjpeg != null) mjpeg.stop(); // 전송률 조절이 없으므로 연결을 끊음
     }
 
     // ----------------------------------------------------------
-    // rosbridge에서 받은 메시지(JSON 문자열) 파싱 및 처리
+    // png 압축 프레임 -> JSON 문자열 (rosbridge가 RGB 픽셀에 바이트를 채우고 '\n'으로 패딩)
     // ----------------------------------------------------------
-    private void handleRosbridgeMessage(String text) {
-        try {
-            JSONObject obj = new JSONObject(text); // 수신 문자열을 JSON으로 파싱
-            if (!obj.has("topic")) return; // topic 필드가 없으면 무시
+    private String unpackPng(byte[] png, int length) {
+        Bitmap bmp = BitmapFactory.decodeByteArray(png, 0, length);
+        if (bmp == null) return null;
+        int w = bmp.getWidth();
+        int h = bmp.getHeight();
+        int[] pixels = new int[w * h];
+        bmp.getPixels(pixels, 0, w, 0, 0, w, h);
+        bmp.recycle();
+
+        byte[] bytes = new byte[pixels.length * 3];
+        for (int i = 0; i < pixels.length; i++) {
+            bytes[i * 3] = (byte) (pixels[i] >> 16); // R
+            bytes[i * 3 + 1] = (byte) (pixels[i] >> 8); // G
+            bytes[i * 3 + 2] = (byte) pixels[i]; // B
+        }
+        int len = bytes.length;
+        while (len > 0 && (bytes[len - 1] == '\n' || bytes[len - 1] == 0)) len--; // 패딩 제거
+        return new String(bytes, 0, len, StandardCharsets.UTF_8);
+    }
 
-            String topic = obj.getString("topic"); // 토픽 이름 추출
-            JSONObject msg = obj.getJSONObject("msg"); // msg 페이로드 추출
+    // ----------------------------------------------------------
+    // vsync 당 한 번: 바뀐 토픽만 화면에 반영 (UI 스레드)
+    // ----------------------------------------------------------
+    private void flushTelemetryUI() {
+        double[] v = slotValues;
+        if (batterySlot.take(v)) updateBatteryUI((int) v[0], v[1]);
+        if (odomSlot.take(v)) {
+            odomText.reset().append("속도: ").append(v[0], 2).append(" m/s  거리: ").append(v[1], 2).append(" m");
+            tvOdom.setText(odomText.chars(), 0, odomText.length());
+            trajectoryView.invalidate(); // 궤적 다시 그리기
+        }
+        if (imuSlot.take(v)) {
+            imuText.reset().append("IMU: R").append(v[0], 1).append("° P").append(v[1], 1)
+                    .append("° Y").append(v[2], 1).append('°');
+            tvImu.setText(imuText.chars(), 0, imuText.length());
+        }
+        if (manualMode && teleop.wheelLatencyCount() != shownLatencyCount) { // 입력->바퀴 지연 갱신
+            TeleopController.LatencyStats wheel = teleop.wheelLatency();
+            shownLatencyCount = wheel.count;
+            statusText.reset().append("상태: 수동 조종  지연 ").append(wheel.lastMs, 0)
+                    .append("ms (평균 ").append(wheel.meanMs(), 0).append("ms)");
+            tvStatus.setText(statusText.chars(), 0, statusText.length());
+        }
+        if (missionSlot.take(v)) updateMissionUI(MissionRunner.State.values()[(int) v[0]], (int) v[1], (int) v[2]);
 
+        // 카메라: 가장 최신 프레임만 (이전 표시 비트맵은 풀로 반환)
+        Bitmap bmp = cameraFrames.takeBitmap();
+        if (bmp != null) ivCamera.setImageBitmap(bmp);
 
-            if (topic.equals("/battery_state")) { // 배터리 상태 처리
-                double percentage = 0.0;
-                if (msg.has("percentage")) {
-                    percentage = msg.getDouble("percentage");
-                    // 이미 0~100 범위라면 100 이상이면 1.0으로 보정
-                    if (percentage > 1.0) {
-                        percentage = percentage / 100.0;
-                    }
-                } else if (msg.has("voltage")) {
-                    double v = msg.getDouble("voltage");
-                    percentage = v / 12.6; // 12.6V = 100%
-                }
+        logPipelineStats();
+    }
 
-                // 안전하게 0~1 범위로 클램프
-                percentage = Math.max(0.0, Math.min(1.0, percentage));
-
-                final int pct = (int) Math.round(percentage * 100.0);
-                uiHandler.post(() -> updateBatteryUI(pct)); // UI 업데이트는 UI 스레드에서 수행
-
-            } else if (topic.equals("/odom")) { // 오돔(속도/거리) 처리
-                JSONObject twist = msg.getJSONObject("twist").getJSONObject("twist"); // twist.twist 접근
-                JSONObject linear = twist.getJSONObject("linear"); // linear 필드
-                double vx = linear.optDouble("x", 0.0); // 선형 속도 x
-                JSONObject pose = msg.getJSONObject("pose").getJSONObject("pose"); // pose.pose 접근
-                double px = pose.getJSONObject("position").optDouble("x", 0.0); // 위치 x
-                uiHandler.post(() -> tvOdom.setText(String.format(Locale.US, "속도: %.2f m/s  거리: %.2f m", vx, px))); // UI에 표시
-
-            } else if (topic.equals("/imu")) { // IMU 처리: orientation(쿼터니언) -> 오일러 각으로 변환
-                JSONObject orientation = msg.getJSONObject("orientation"); // orientation 객체
-                double x = orientation.optDouble("x", 0.0); // 쿼터니언 x
-                double y = orientation.optDouble("y", 0.0); // 쿼터니언 y
-                double z = orientation.optDouble("z", 0.0); // 쿼터니언 z
-                double w = orientation.optDouble("w", 1.0); // 쿼터니언 w
-
-                // 쿼터니언 -> 오일러(롤, 피치, 요) 변환 수식
-                double sinr_cosp = 2 * (w * x + y * z);
-                double cosr_cosp = 1 - 2 * (x * x + y * y);
-                double roll = Math.toDegrees(Math.atan2(sinr_cosp, cosr_cosp)); // roll(도)
-
-                double sinp = 2 * (w * y - z * x);
-                double pitch;
-                if (Math.abs(sinp) >= 1) // asin 범위 초과 방지(클램핑)
-                    pitch = Math.toDegrees(Math.copySign(Math.PI / 2, sinp));
-                else
-                    pitch = Math.toDegrees(Math.asin(sinp));
-
-                double siny_cosp = 2 * (w * z + x * y);
-                double cosy_cosp = 1 - 2 * (y * y + z * z);
-                double yaw = Math.toDegrees(Math.atan2(siny_cosp, cosy_cosp)); // yaw(도)
-
-                uiHandler.post(() -> tvImu.setText(String.format("IMU: R%.1f° P%.1f° Y%.1f°", roll, pitch, yaw))); // UI에 표시
-
-            } else if (topic.equals("/lane_image_raw")) {
-                if (msg.has("data") && msg.has("encoding") && msg.has("height") && msg.has("width")) {
-                    String dataBase64 = msg.getString("data");
-                    byte[] data = Base64.decode(dataBase64, Base64.DEFAULT);
-
-                    int width = msg.getInt("width");
-                    int height = msg.getInt("height");
-
-                    String encoding = msg.getString("encoding");
-                    if (encoding.equals("bgr8") || encoding.equals("rgb8")) {
-                        int[] pixels = new int[width * height];
-                        for (int i = 0; i < width * height; i++) {
-                            int r = data[i * 3] & 0xFF;
-                            int g = data[i * 3 + 1] & 0xFF;
-                            int b = data[i * 3 + 2] & 0xFF;
-                            pixels[i] = 0xFF000000 | (r << 16) | (g << 8) | b;
-                        }
-                        Bitmap bmp = Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
-                        uiHandler.post(() -> ivCamera.setImageBitmap(bmp));
-                    }
-                }
-            }
+    // 파이프라인 카운터: 버린 프레임 / 합쳐진 갱신 수 (주기적으로 로그)
+    private void logPipelineStats() {
+        long now = System.currentTimeMillis();
+        if (now - lastStatsLogMs < STATS_LOG_INTERVAL_MS) return;
+        lastStatsLogMs = now;
+        long coalesced = batterySlot.coalescedCount() + odomSlot.coalescedCount() + imuSlot.coalescedCount();
+        Log.i(TAG, "pipeline decoded=" + ros.decodedCount()
+                + " dropped(queue)=" + ros.droppedCount()
+                + " dropped(bulk)=" + ros.bulkDroppedCount()
+                + " fragments=" + ros.fragmentsCompleted() + "/-" + ros.fragmentsDropped()
+                + " services(inflight/timeout)=" + ros.servicesInFlight() + "/" + ros.servicesTimedOut()
+                + " dropped(camera)=" + cameraFrames.droppedFrames()
+                + " dropped(jpeg)=" + jpegStage.droppedCount()
+                + (mjpeg != null ? " mjpeg(frames)=" + mjpeg.frameCount() + " mjpeg(KB)=" + mjpeg.byteCount() / 1024
+                        + " mjpeg(reconnects)=" + mjpeg.reconnectCount() : "")
+                + " coalesced(slot)=" + coalesced
+                + " coalesced(ui)=" + uiFlush.coalescedCount()
+                + " flushes=" + uiFlush.flushCount()
+                + " rtt(ms)=" + ros.lastRttMs()
+                + " rtt(avg)=" + Math.round(ros.smoothedRttMs())
+                + " reconnects=" + ros.reconnectCount()
+                + " teleop(send ms)=" + Math.round(teleop.sendLatency().meanMs())
+                + " teleop(wheel ms)=" + Math.round(teleop.wheelLatency().meanMs())
+                + " teleop(trips)=" + teleop.watchdogTrips());
+    }
 
-        } catch (JSONException e) {
-            Log.w(TAG, "Failed parse rosbridge msg", e);
+    // ----------------------------------------------------------
+    // 미션 진행 표시 (UI 스레드)
+    // ----------------------------------------------------------
+    private void updateMissionUI(MissionRunner.State state, int target, int lap) {
+        missionText.reset().append("미션: ");
+        if (state == MissionRunner.State.RUNNING) {
+            missionText.append(target + 1).append('/').append(mission.count()).append("  랩 ").append(lap + 1);
+            double leg = mission.lastLegSeconds();
+            if (!Double.isNaN(leg)) missionText.append("  구간 ").append(leg, 1).append('s');
+        } else {
+            missionText.append(state == MissionRunner.State.DONE ? "완료" : "중지").append("  랩 ").append(lap);
+            tvStatus.setText(state == MissionRunner.State.DONE ? "상태: 미션 완료" : "상태: 미션 중지");
         }
+        tvMission.setText(missionText.chars(), 0, missionText.length());
     }
 
     // ----------------------------------------------------------
-    // 배터리 UI 업데이트 및 안전 처리
+    // 배터리 UI 업데이트 (표시만, 안전 처리는 onBatteryLevelChanged)
     // ----------------------------------------------------------
-    private void updateBatteryUI(int pct) {
+    private void updateBatteryUI(int pct, double minutes) {
         batteryProgress.setProgress(pct); // 프로그레스바 업데이트
-        tvBattery.setText(pct + "%"); // 퍼센트 텍스트 갱신
-        if (pct <= 20) { // 임계값 이하일 때 안전조치
-            tvBattery.setTextColor(0xFFFF0000); // 빨간색으로 표시
-            publishCmdVel(0.0, 0.0, false); // 즉시 정지 명령 전송
-            layoutStartButton.setEnabled(false); // 시작 버튼 비활성화
-            Toast.makeText(this, "배터리 부족: 주행 불가", Toast.LENGTH_LONG).show(); // 사용자 알림
-            tvStatus.setText("상태: 배터리 낮음"); // 상태 텍스트 갱신
-        } else {
-            tvBattery.setTextColor(0xFF000000); // 정상 시 검정색으로
+        batteryText.reset().append(pct).append('%');
+        if (!Double.isNaN(minutes) && !Double.isInfinite(minutes)) batteryText.append(" ~").append(minutes, 0).append("분"); // 남은 주행 시간
+        tvBattery.setText(batteryText.chars(), 0, batteryText.length()); // 퍼센트 텍스트 갱신
+        tvBattery.setTextColor(battery.level() == BatteryMonitor.Level.OK ? 0xFF000000 : 0xFFFF0000); // 부족하면 빨간색
+    }
+
+    // ----------------------------------------------------------
+    // 배터리 단계 변화 (디코드 워커, 단계가 바뀔 때 한 번): 정지 명령 1회 + 알림 1회
+    // ----------------------------------------------------------
+    private void onBatteryLevelChanged(BatteryMonitor.Level previous, BatteryMonitor.Level current) {
+        Log.w(TAG, "Battery level " + previous + " -> " + current);
+        if (current != BatteryMonitor.Level.OK && previous == BatteryMonitor.Level.OK) {
+            publishCmdVel(0.0, 0.0, false); // 즉시 정지 명령 전송 (한 번만)
         }
+        uiHandler.post(() -> {
+            layoutStartButton.setEnabled(current == BatteryMonitor.Level.OK && ros.isConnected()); // 시작 버튼
+            if (current == BatteryMonitor.Level.OK) {
+                tvStatus.setText("상태: 배터리 정상");
+            } else if (previous == BatteryMonitor.Level.OK || current == BatteryMonitor.Level.CRITICAL) {
+                Toast.makeText(this, "배터리 부족: 주행 불가", Toast.LENGTH_LONG).show(); // 사용자 알림
+                tvStatus.setText(current == BatteryMonitor.Level.CRITICAL ? "상태: 배터리 위험" : "상태: 배터리 낮음");
+            }
+        });
     }
 
     // ----------------------------------------------------------
     // cmd_vel 퍼블리시 (geometry_msgs/Twist 형식으로 전송)
     // ----------------------------------------------------------
     private void publishCmdVel(double linear, double angular, boolean showStatus) {
-        if (webSocket == null) return; // 웹소켓 미연결 시 무시
-        try {
-            JSONObject msg = new JSONObject(); // publish 요청 전체
-            JSONObject linearObj = new JSONObject(); // twist.linear 객체
-            linearObj.put("x", linear); // 선형 x 설정
-            linearObj.put("y", 0.0); // 선형 y 0
-            linearObj.put("z", 0.0); // 선형 z 0
-
-            JSONObject angularObj = new JSONObject(); // twist.angular 객체
-            angularObj.put("x", 0.0); // 각속도 x 0
-            angularObj.put("y", 0.0); // 각속도 y 0
-            angularObj.put("z", angular); // 각속도 z (yaw)
-
-            JSONObject twist = new JSONObject(); // twist 객체
-            twist.put("linear", linearObj); // twist.linear = ...
-            twist.put("angular", angularObj); // twist.angular = ...
-
-            msg.put("op", "publish"); // rosbridge op: publish
-            msg.put("topic", "/cmd_vel"); // 퍼블리시할 토픽명
-            msg.put("msg", twist); // msg에 twist 객체 삽입
-
-            webSocket.send(msg.toString()); // JSON 문자열을 WebSocket으로 전송
-            if (showStatus) // showStatus가 true이면 UI의 상태 텍스트를 갱신
-                uiHandler.post(() -> tvStatus.setText(linear > 0 ? "상태: 주행 중" : "상태: 정지"));
-
-        } catch (JSONException e) { // JSON 빌드 실패 시
-            e.printStackTrace(); // 예외 출력
-        }
+        if (!ros.publishCmdVel(linear, angular)) return; // 웹소켓 미연결 시 무시
+        if (showStatus) // showStatus가 true이면 UI의 상태 텍스트를 갱신
+            uiHandler.post(() -> tvStatus.setText(linear > 0 ? "상태: 주행 중" : "상태: 정지"));
     }
 
     // ----------------------------------------------------------
     // 긴급 정지 퍼블리시 (std_msgs/Bool 형태)
+    //  - 우선 경로: 대기 중인 주행 명령을 버리고 즉시 전송
     // ----------------------------------------------------------
     private void publishEmergency() {
-        if (webSocket == null) return; // 웹소켓 미연결 시 무시
-        try {
-            // 1️⃣ std_msgs/Bool 메시지 생성
-            JSONObject boolMsg = new JSONObject();
-            boolMsg.put("data", true); // true = 긴급정지 신호
-
-            // 2️⃣ rosbridge publish 요청 JSON
-            JSONObject obj = new JSONObject();
-            obj.put("op", "publish");
-            obj.put("topic", "/emergency_stop"); // ROS 노드에서 구독하는 토픽
-            obj.put("msg", boolMsg);
-
-            // 3️⃣ WebSocket으로 전송
-            webSocket.send(obj.toString());
-
-            // 4️⃣ UI 업데이트 (토스트 + 상태 표시)
-            uiHandler.post(() -> {
-                tvStatus.setText("상태: 긴급 정지!!"); // 상태 텍스트 갱신
-                Toast.makeText(this, "긴급 정지 발동", Toast.LENGTH_SHORT).show();
-            });
-
-        } catch (JSONException e) {
-            e.printStackTrace(); // 예외 출력
-        }
-    }
+        if (!ros.publishEmergency()) return; // 웹소켓 미연결 시 무시
 
-    // ----------------------------------------------------------
-// 목표 좌표 전송 (geometry_msgs/PoseStamped 형식)
-// ----------------------------------------------------------
-    private void publishPoseStamped(double x, double y, double yaw) {
-        if (webSocket == null) return; // 웹소켓 미연결 시 무시
-        try {
-            JSONObject position = new JSONObject(); // position 객체 생성
-            position.put("x", x); // x 좌표 설정
-            position.put("y", y); // y 좌표 설정
-            position.put("z", 0.0); // z 좌표 기본값
-
-            // yaw(라디안)을 쿼터니언으로 변환
-            double halfYaw = yaw / 2.0;
-            double qw = Math.cos(halfYaw);
-            double qz = Math.sin(halfYaw);
-
-            JSONObject orientation = new JSONObject();
-            orientation.put("x", 0.0);
-            orientation.put("y", 0.0);
-            orientation.put("z", qz);
-            orientation.put("w", qw);
-
-            JSONObject pose = new JSONObject();
-            pose.put("position", position);
-            pose.put("orientation", orientation);
-
-            JSONObject header = new JSONObject();
-            header.put("frame_id", "map"); // 좌표 기준 프레임
-
-            JSONObject msg = new JSONObject();
-            msg.put("header", header);
-            msg.put("pose", pose);
-
-            JSONObject obj = new JSONObject();
-            obj.put("op", "publish");
-            obj.put("topic", "/goal_pose");
-            obj.put("msg", msg);
-
-            webSocket.send(obj.toString());
-            uiHandler.post(() -> tvStatus.setText("상태: 목표 전송 완료"));
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
+        // UI 업데이트 (토스트 + 상태 표시)
+        uiHandler.post(() -> {
+            tvStatus.setText("상태: 긴급 정지!!"); // 상태 텍스트 갱신
+            Toast.makeText(this, "긴급 정지 발동", Toast.LENGTH_SHORT).show();
+        });
     }
 
     @Override
     protected void onDestroy() { // 액티비티가 종료될 때 호출
         super.onDestroy(); // 부모 onDestroy 호출
-        if (webSocket != null) { // 웹소켓이 존재하면
-            unsubscribeTopic(SUB_BATTERY); // 배터리 구독 해제
-            unsubscribeTopic(SUB_ODOM); // 오돔 구독 해제
-            unsubscribeTopic(SUB_IMU); // IMU 구독 해제
-            unsubscribeTopic(SUB_CAMERA); // 카메라 구독 해제
-            webSocket.close(1000, "Activity destroyed"); // 정상 코드로 소켓 닫기
+        uiFlush.stop(); // 예약된 UI 갱신 취소
+        teleop.close(); // 조종 중이면 정지 명령 + 타이머 종료
+        uiHandler.removeCallbacks(metricsOverlay);
+        if (metricsExporter != null) metricsExporter.close(); // 마지막 스냅샷 기록
+        ros.close(); // 구독 해제 + unadvertise + 소켓 닫기 + 디코드 워커 종료
+        if (recorder != null) { // 현재 세그먼트를 실제 길이로 잘라내고 닫기
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Recorder close failed", e);
+            }
+            recorder = null;
         }
+        if (mjpeg != null) mjpeg.stop(); // HTTP 스트림 요청 취소
+        jpegStage.stop(); // JPEG 디코드 스레드 종료 (풀 정리 전에)
+        cameraFrames.close(); // 카메라 비트맵 풀 정리
         if (client != null) { // OkHttp 클라이언트 정리
             client.dispatcher().executorService().shutdown(); // 스레드풀 종료
+            client.connectionPool().evictAll(); // 남은 소켓 정리
         }
     }
 }
@@ -0,0 +1,25 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// MessageReader: 디코더가 보는 메시지 필드 접근 인터페이스
+//  - JSON 텍스트 프레임(JsonMessageReader)과 CBOR 바이너리 프레임
+//    (CborMessageReader)을 같은 디코더 코드로 처리하기 위함
+//  - 경로는 디스패처가 지정한 "msg" 객체 기준
+// ============================================================
+interface MessageReader {
+
+    double getDouble(String[] path, double def);
+
+    int getInt(String[] path, int def);
+
+    // 경로의 문자열이 candidates 중 하나면 그 상수를 반환 (할당 없음)
+    String getKnownString(String[] path, String[] candidates);
+
+    // 경로의 문자열 값 (새 String 할당)
+    String getString(String[] path);
+
+    // uint8[] 필드를 바이트로 읽음 (reuse 가 충분히 크면 재사용, 길이는 byteCount())
+    byte[] getBytes(String[] path, byte[] reuse);
+
+    int byteCount();
+}
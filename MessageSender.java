@@ -0,0 +1,9 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// MessageSender: rosbridge 로 텍스트 프레임 전송 (현재 WebSocket 연결)
+//  - WebSocket.send 와 같은 의미: 비블로킹, false = 연결 없음/닫힘
+// ============================================================
+interface MessageSender {
+    boolean send(String text);
+}
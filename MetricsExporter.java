@@ -0,0 +1,116 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// ============================================================
+// MetricsExporter: TelemetryMetrics 스냅샷을 주기적으로 파일에 기록 (JSON Lines)
+//  - dir/metrics-<시작시각>.jsonl 에 periodMs 마다 한 줄 (누적값 + 직전 줄 이후 구간 비율/분위수)
+//  - 전용 저우선 스레드에서 기록 (UI/디코드 스레드 영향 없음)
+//  - 파일이 MAX_FILE_BYTES 를 넘으면 기록 중지, 오래된 파일은 keepFiles 개만 남김
+//  - adb pull 후 jq 등으로 분석 (Wi-Fi 대역폭/태블릿 처리량 산정)
+// ============================================================
+final class MetricsExporter {
+
+    static final long DEFAULT_PERIOD_MS = 10_000;
+    static final long MAX_FILE_BYTES = 8L * 1024 * 1024;
+    private static final String PREFIX = "metrics-";
+    private static final String SUFFIX = ".jsonl";
+    private static final Logger LOG = Logger.getLogger("MetricsExporter");
+
+    private final TelemetryMetrics metrics;
+    private final File file;
+    private final ScheduledExecutorService timer;
+    private Writer out; // 타이머 스레드 전용
+    private long written;
+    private TelemetryMetrics.Snapshot previous;
+
+    MetricsExporter(TelemetryMetrics metrics, File dir, int keepFiles) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+        prune(dir, keepFiles - 1); // 새 파일 자리 확보
+        this.metrics = metrics;
+        this.file = new File(dir, PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date()) + SUFFIX);
+        this.out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-export");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    File file() {
+        return file;
+    }
+
+    void start(long periodMs) {
+        timer.scheduleAtFixedRate(this::writeSnapshot, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    // 마지막 스냅샷 한 줄 더 쓰고 닫기
+    void close() {
+        timer.shutdown();
+        try {
+            timer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+        synchronized (this) {
+            if (out == null) return;
+            try {
+                out.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot close " + file, e);
+            }
+            out = null;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 스냅샷 한 줄 기록 (타이머 스레드, close 에서 마지막 한 번)
+    // ----------------------------------------------------------
+    private synchronized void writeSnapshot() {
+        if (out == null) return;
+        TelemetryMetrics.Snapshot now = metrics.snapshot();
+        String line = now.toJson(previous, System.currentTimeMillis()) + "\n";
+        previous = now;
+        if (written + line.length() > MAX_FILE_BYTES) return; // 용량 제한
+        try {
+            out.write(line);
+            out.flush(); // 앱이 죽어도 지난 줄까지는 남김
+            written += line.length();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Metrics export failed, stopping", e);
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // 이미 실패한 파일
+            }
+            out = null;
+        }
+    }
+
+    // 이름순(=시각순)으로 오래된 스냅샷 파일 삭제, keep 개만 남김
+    private static void prune(File dir, int keep) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null || files.length <= keep) return;
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - Math.max(0, keep); i++) {
+            if (!files[i].delete()) LOG.warning("Cannot delete " + files[i]);
+        }
+    }
+}
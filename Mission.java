@@ -0,0 +1,160 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// ============================================================
+// Mission: 순서 있는 웨이포인트 목록 (map 프레임, x/y 미터, yaw 라디안)
+//  - yaw NaN = 방향 무관 (통과 지점)
+//  - loop = 마지막 지점 다음에 처음으로 (트랙 랩 반복)
+//  - 파일 형식 (빅엔디언): "MISN" | version | flags | 위치 허용오차 f32 | yaw 허용오차 f32
+//                          | 개수 i32 | (x f32, y f32, yaw f32) * 개수  -> 웨이포인트당 12바이트
+//  - 한 스레드(UI)에서 편집, 실행은 MissionRunner 가 복사본으로
+// ============================================================
+final class Mission {
+
+    static final int MAGIC = 0x4D49534E; // "MISN"
+    static final int VERSION = 1;
+    static final int MAX_WAYPOINTS = 4096;
+    static final double DEFAULT_POSITION_TOLERANCE_M = 0.15; // 도착 판정 거리
+    static final double DEFAULT_YAW_TOLERANCE_RAD = Math.toRadians(15); // 도착 판정 방향 차이
+
+    private static final int FLAG_LOOP = 1;
+
+    private double[] xs = new double[16], ys = new double[16], yaws = new double[16];
+    private int size;
+    private boolean loop;
+    private double positionTolerance = DEFAULT_POSITION_TOLERANCE_M;
+    private double yawTolerance = DEFAULT_YAW_TOLERANCE_RAD;
+
+    // ----------------------------------------------------------
+    // 편집
+    // ----------------------------------------------------------
+    Mission add(double x, double y, double yaw) {
+        if (size == MAX_WAYPOINTS) throw new IllegalStateException("too many waypoints: " + size);
+        if (Double.isNaN(x) || Double.isNaN(y)) throw new IllegalArgumentException("waypoint position is NaN");
+        if (size == xs.length) {
+            int n = Math.min(size * 2, MAX_WAYPOINTS);
+            xs = Arrays.copyOf(xs, n);
+            ys = Arrays.copyOf(ys, n);
+            yaws = Arrays.copyOf(yaws, n);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        yaws[size] = yaw;
+        size++;
+        return this;
+    }
+
+    void removeLast() {
+        if (size > 0) size--;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    Mission setLoop(boolean loop) {
+        this.loop = loop;
+        return this;
+    }
+
+    Mission setTolerance(double positionM, double yawRad) {
+        if (!(positionM > 0) || !(yawRad > 0)) throw new IllegalArgumentException("tolerance must be positive");
+        this.positionTolerance = positionM;
+        this.yawTolerance = yawRad;
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // 읽기
+    // ----------------------------------------------------------
+    int size() {
+        return size;
+    }
+
+    double x(int i) {
+        return xs[i];
+    }
+
+    double y(int i) {
+        return ys[i];
+    }
+
+    double yaw(int i) {
+        return yaws[i];
+    }
+
+    boolean isLoop() {
+        return loop;
+    }
+
+    double positionTolerance() {
+        return positionTolerance;
+    }
+
+    double yawTolerance() {
+        return yawTolerance;
+    }
+
+    Mission copy() {
+        Mission m = new Mission();
+        m.xs = Arrays.copyOf(xs, Math.max(size, 1));
+        m.ys = Arrays.copyOf(ys, Math.max(size, 1));
+        m.yaws = Arrays.copyOf(yaws, Math.max(size, 1));
+        m.size = size;
+        m.loop = loop;
+        m.positionTolerance = positionTolerance;
+        m.yawTolerance = yawTolerance;
+        return m;
+    }
+
+    // ----------------------------------------------------------
+    // 저장/불러오기 (임시 파일에 쓰고 이름 변경: 중간에 죽어도 이전 파일 유지)
+    // ----------------------------------------------------------
+    void save(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(loop ? FLAG_LOOP : 0);
+            out.writeFloat((float) positionTolerance);
+            out.writeFloat((float) yawTolerance);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeFloat((float) xs[i]);
+                out.writeFloat((float) ys[i]);
+                out.writeFloat((float) yaws[i]);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            if (!file.delete() || !tmp.renameTo(file)) throw new IOException("cannot replace " + file);
+        }
+    }
+
+    static Mission load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not a mission file: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported mission version " + version);
+            Mission m = new Mission();
+            int flags = in.readInt();
+            m.loop = (flags & FLAG_LOOP) != 0;
+            double pos = in.readFloat(), yaw = in.readFloat();
+            if (pos > 0 && yaw > 0) m.setTolerance(pos, yaw);
+            int n = in.readInt();
+            if (n < 0 || n > MAX_WAYPOINTS) throw new IOException("bad waypoint count " + n);
+            for (int i = 0; i < n; i++) m.add(in.readFloat(), in.readFloat(), in.readFloat());
+            return m;
+        } catch (IllegalArgumentException e) { // NaN 위치 등
+            throw new IOException("corrupt mission file: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// MissionRunner: 웨이포인트 미션 실행 (오돔으로 도착 판정, 다음 목표 미리 전송)
+//  - 목표 하나를 /goal_pose 로 보내고 오돔 위치/방향으로 도착 판정
+//  - 중간 지점: 도착 전 lookahead 반경(속도 비례) 안에 들어오면 다음 목표를 미리 전송
+//    -> 목표 사이에서 멈췄다 출발하지 않음 (방향이 있는 지점은 방향도 맞아야 통과)
+//  - 마지막 지점: 위치 + 방향 허용오차 안에 들어와야 완료, loop 이면 처음으로 (랩 +1, 지점 2개 이상)
+//  - 목표 전송 실패(미연결/배터리 게이트)는 RETRY_MS 마다 다시 시도
+//  - 디코드 워커가 onOdom, UI 스레드가 start/stop/getter (synchronized)
+// ============================================================
+final class MissionRunner implements OdomListener {
+
+    enum State { IDLE, RUNNING, DONE }
+
+    // 목표 전송 (RosBridgeClient::publishGoal), 보내지 못하면 false
+    interface GoalSink {
+        boolean publishGoal(double x, double y, double yaw);
+    }
+
+    // 목표/상태가 바뀔 때 (디코드 워커 또는 start/stop 호출 스레드)
+    interface Listener {
+        void onMissionProgress(State state, int target, int count, int lap);
+    }
+
+    static final double DEFAULT_LOOKAHEAD_M = 0.5; // 중간 지점 통과 반경 (최소)
+    static final double LEAD_TIME_S = 0.8; // 이 시간 안에 도착할 거리면 다음 목표 전송 (속도 비례 반경)
+    static final long RETRY_MS = 500; // 목표 전송 실패 시 재시도 간격
+
+    private final GoalSink sink;
+    private final Listener listener;
+    private final double lookahead;
+
+    private Mission mission; // 실행 중인 복사본
+    private State state = State.IDLE;
+    private int target; // 현재 목표 인덱스
+    private int lap;
+    private boolean dispatched; // 현재 목표를 보냈는지
+    private long lastAttemptNanos;
+    private long legs; // 완료한 구간 수
+    private long legStartNanos;
+    private double lastLegSeconds = Double.NaN;
+
+    MissionRunner(GoalSink sink, Listener listener) {
+        this(sink, listener, DEFAULT_LOOKAHEAD_M);
+    }
+
+    MissionRunner(GoalSink sink, Listener listener, double lookaheadM) {
+        this.sink = sink;
+        this.listener = listener;
+        this.lookahead = lookaheadM;
+    }
+
+    // ----------------------------------------------------------
+    // 시작/정지 (미션은 복사해서 실행, 원본은 계속 편집 가능)
+    // ----------------------------------------------------------
+    void start(Mission plan) {
+        if (plan.size() == 0) throw new IllegalArgumentException("mission has no waypoints");
+        if (plan.isLoop() && plan.size() < 2) { // 지점 하나를 돌면 반경 안의 오돔마다 랩 +1, 목표 재전송
+            throw new IllegalArgumentException("loop mission needs at least 2 waypoints");
+        }
+        int count;
+        synchronized (this) {
+            mission = plan.copy();
+            state = State.RUNNING;
+            target = lap = 0;
+            legs = 0;
+            legStartNanos = System.nanoTime();
+            dispatch(legStartNanos);
+            count = mission.size();
+        }
+        notifyProgress(State.RUNNING, 0, count, 0);
+    }
+
+    void stop() {
+        int t, count, l;
+        synchronized (this) {
+            if (state == State.IDLE) return;
+            state = State.IDLE;
+            t = target;
+            count = mission.size();
+            l = lap;
+        }
+        notifyProgress(State.IDLE, t, count, l);
+    }
+
+    // ----------------------------------------------------------
+    // 오돔 수신 (디코드 워커): 도착 판정 + 다음 목표 전송
+    // ----------------------------------------------------------
+    @Override
+    public void onOdom(double stamp, double x, double y, double yaw, double vx, double wz) {
+        State s;
+        int t, count, l;
+        synchronized (this) {
+            if (state != State.RUNNING) return;
+            long now = System.nanoTime();
+            if (!dispatched && now - lastAttemptNanos >= RETRY_MS * 1_000_000L) dispatch(now);
+
+            Mission m = mission;
+            double dx = m.x(target) - x, dy = m.y(target) - y;
+            double distSq = dx * dx + dy * dy;
+            double goalYaw = m.yaw(target);
+            boolean headingOk = Double.isNaN(goalYaw)
+                    || Math.abs(EulerAngles.wrap(goalYaw - yaw)) <= m.yawTolerance();
+            boolean finalGoal = target == m.size() - 1 && !m.isLoop();
+
+            boolean reached;
+            if (finalGoal) {
+                reached = distSq <= m.positionTolerance() * m.positionTolerance() && headingOk;
+            } else { // 통과 지점: 속도에 비례한 반경 안에서 미리 다음 목표로
+                double radius = Math.max(lookahead, Math.abs(vx) * LEAD_TIME_S);
+                reached = distSq <= m.positionTolerance() * m.positionTolerance()
+                        || (distSq <= radius * radius && headingOk);
+            }
+            if (!reached) return;
+
+            legs++;
+            lastLegSeconds = (now - legStartNanos) * 1e-9;
+            legStartNanos = now;
+            if (finalGoal) {
+                state = State.DONE;
+            } else {
+                if (++target == m.size()) { // loop: 한 바퀴 완료
+                    target = 0;
+                    lap++;
+                }
+                dispatch(now);
+            }
+            s = state;
+            t = target;
+            count = m.size();
+            l = lap;
+        }
+        notifyProgress(s, t, count, l);
+    }
+
+    // ----------------------------------------------------------
+    // 읽기
+    // ----------------------------------------------------------
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized int target() {
+        return target;
+    }
+
+    synchronized int count() {
+        return mission != null ? mission.size() : 0;
+    }
+
+    synchronized int lap() {
+        return lap;
+    }
+
+    synchronized long legsCompleted() {
+        return legs;
+    }
+
+    synchronized double lastLegSeconds() {
+        return lastLegSeconds;
+    }
+
+    // ----------------------------------------------------------
+    // 현재 목표 전송 (lock 안, 비블로킹)
+    // ----------------------------------------------------------
+    private void dispatch(long now) {
+        lastAttemptNanos = now;
+        dispatched = sink.publishGoal(mission.x(target), mission.y(target), goalYaw(mission, target));
+    }
+
+    // 방향 무관 지점은 진행 방향 (다음 지점 쪽, 마지막이면 이전 지점에서 오는 방향)
+    private static double goalYaw(Mission m, int i) {
+        if (!Double.isNaN(m.yaw(i))) return m.yaw(i);
+        int n = m.size();
+        if (n < 2) return 0.0;
+        int from = i, to = i + 1;
+        if (to == n && m.isLoop()) {
+            to = 0;
+        } else if (to == n) {
+            from = i - 1;
+            to = i;
+        }
+        return Math.atan2(m.y(to) - m.y(from), m.x(to) - m.x(from));
+    }
+
+    private void notifyProgress(State s, int t, int count, int l) {
+        if (listener != null) listener.onMissionProgress(s, t, count, l);
+    }
+}
@@ -0,0 +1,157 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level; // 플랫폼 독립 로그 (안드로이드에서는 logcat 으로 출력)
+import java.util.logging.Logger;
+
+import okhttp3.Call; // 취소 가능한 HTTP 요청
+import okhttp3.OkHttpClient; // 공유 OkHttp 클라이언트
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// ============================================================
+// MjpegStreamClient: HTTP MJPEG 카메라 스트림 수신 (web_video_server 형식)
+//  - 예: http://<로봇>:8080/stream?topic=/lane_image_raw&type=mjpeg&quality=70
+//  - 전용 리더 스레드가 응답 본문을 MjpegStreamReader 로 읽어 프레임마다 sink 호출
+//    (sink 는 보통 CompressedFrameStage: 복사 후 바로 반환, 디코드는 다른 스레드)
+//  - 공유 OkHttpClient 의 커넥션 풀/디스패처를 쓰고 읽기 타임아웃만 따로 (멈춘 스트림 감지)
+//  - 끊기면 지수 백오프(ConnectionManager 와 같은 값)로 재연결, stop() 은 요청 취소로 즉시 종료
+//  - 카메라 영상만 HTTP 로, 텔레메트리/명령은 그대로 rosbridge
+// ============================================================
+final class MjpegStreamClient {
+
+    static final long STALL_TIMEOUT_MS = 5000; // 이 시간 동안 바이트가 없으면 재연결
+    static final int MAX_FRAME_BYTES = 4 * 1024 * 1024; // 이보다 큰 파트는 건너뜀
+
+    private static final Logger LOG = Logger.getLogger("MjpegStreamClient");
+
+    private final OkHttpClient http; // 스트림 전용 설정 (공유 풀)
+    private final String url;
+    private final CompressedImageListener sink;
+
+    private volatile Thread reader; // 현재 리더 (stop 후 start 하면 새 스레드, 이전 스레드는 스스로 종료)
+    private volatile boolean running;
+    private volatile Call call; // 현재 요청 (stop 에서 취소)
+
+    // --- 카운터 ---
+    private volatile long frames, bytes, reconnects, oversized;
+    private volatile boolean streaming;
+
+    MjpegStreamClient(OkHttpClient shared, String url, CompressedImageListener sink) {
+        this.http = shared.newBuilder()
+                .readTimeout(STALL_TIMEOUT_MS, TimeUnit.MILLISECONDS) // 공유 클라이언트는 0 (WebSocket 용)
+                .build();
+        this.url = url;
+        this.sink = sink;
+    }
+
+    // ----------------------------------------------------------
+    // 생명주기
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        reader = new Thread(this::runLoop, "mjpeg-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    // 화면을 떠날 때 등 (다시 start() 가능)
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        Call c = call;
+        if (c != null) c.cancel(); // 막혀 있는 read 를 IOException 으로 깨움
+        reader.interrupt(); // 백오프 대기 중이면 깨움
+        reader = null;
+    }
+
+    // ----------------------------------------------------------
+    // 리더 스레드: 연결 -> 프레임 읽기 -> 끊기면 백오프 후 재연결
+    // ----------------------------------------------------------
+    private void runLoop() {
+        int attempt = 0;
+        while (active()) {
+            long got = frames;
+            try {
+                stream();
+            } catch (IOException e) {
+                if (active()) LOG.log(Level.WARNING, "MJPEG stream failed: " + url, e);
+            }
+            streaming = false;
+            if (!active()) break;
+            if (frames > got) attempt = 0; // 프레임을 받았던 연결이면 백오프 초기화
+            long delay = backoffMs(attempt++);
+            reconnects++;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                break; // stop()
+            }
+        }
+    }
+
+    private void stream() throws IOException {
+        Call c = http.newCall(new Request.Builder().url(url).build());
+        call = c;
+        if (!active()) return; // stop() 이 call 설정 전에 불림
+        try (Response response = c.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) throw new IOException("HTTP " + response.code());
+            String boundary = MjpegStreamReader.boundaryOf(response.header("Content-Type"));
+            InputStream in = body.byteStream();
+            MjpegStreamReader parser = new MjpegStreamReader(in, boundary, MAX_FRAME_BYTES);
+            streaming = true;
+            long counted = 0;
+            int n;
+            while (active() && (n = parser.next()) >= 0) {
+                frames++;
+                bytes += parser.bytesRead() - counted;
+                counted = parser.bytesRead();
+                oversized = parser.oversizedCount();
+                sink.onCompressedImage(parser.format(), parser.frame(), n);
+            }
+        } finally {
+            if (call == c) call = null;
+        }
+    }
+
+    private boolean active() {
+        return running && reader == Thread.currentThread();
+    }
+
+    // 지터를 넣은 지수 백오프 (ConnectionManager 와 같은 범위)
+    private static long backoffMs(int attempt) {
+        long cap = Math.min(ConnectionManager.BACKOFF_MAX_MS, ConnectionManager.BACKOFF_BASE_MS << Math.min(attempt, 16));
+        long floor = ConnectionManager.BACKOFF_BASE_MS / 2;
+        return floor + ThreadLocalRandom.current().nextLong(Math.max(1, cap - floor + 1));
+    }
+
+    // ----------------------------------------------------------
+    // 카운터
+    // ----------------------------------------------------------
+    long frameCount() {
+        return frames;
+    }
+
+    // 수신한 HTTP 본문 바이트 (경계/헤더 포함)
+    long byteCount() {
+        return bytes;
+    }
+
+    long reconnectCount() {
+        return reconnects;
+    }
+
+    long oversizedCount() {
+        return oversized;
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+}
@@ -0,0 +1,298 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// ============================================================
+// MjpegStreamReader: multipart/x-mixed-replace (MJPEG) 스트림을 프레임 단위로 읽는 파서
+//  - 소켓 스트림에서 조금씩 읽으며 경계(--boundary)/파트 헤더/JPEG 본문을 구분 (스트림 전체 버퍼링 없음)
+//  - Content-Length 가 있으면 그만큼만 복사 (web_video_server), 없으면 다음 경계까지 스캔
+//  - 읽기 버퍼/줄 버퍼/프레임 버퍼 모두 재사용 (프레임 버퍼는 가장 큰 프레임까지만 커짐)
+//  - maxFrameBytes 를 넘는 파트는 복사하지 않고 건너뜀 (깨진 스트림으로 메모리 폭주 방지)
+//  - boundary null = 첫 "--" 줄에서 알아냄 (Content-Type 에 boundary 가 없는 서버)
+//  - 리더 스레드 하나에서만 사용
+// ============================================================
+final class MjpegStreamReader {
+
+    static final int READ_BUFFER_BYTES = 64 * 1024;
+    static final int MAX_LINE = 1024; // 이보다 긴 헤더 줄은 잘라서 봄
+    private static final int INITIAL_FRAME_BYTES = 64 * 1024;
+    private static final int OVERSIZED = -2; // 경계 스캔 중 크기 초과
+
+    private static final byte[] CONTENT_LENGTH = "content-length:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_TYPE = "content-type:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TIMESTAMP = "x-timestamp:".getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream in;
+    private final int maxFrameBytes;
+    private byte[] delimiter; // "\n--boundary" (본문 끝 표시), null = 아직 모름
+
+    private final byte[] buf = new byte[READ_BUFFER_BYTES]; // 소켓 읽기 버퍼
+    private int pos, limit;
+    private final byte[] line = new byte[MAX_LINE]; // 헤더 한 줄
+    private int lineLength;
+    private byte[] frame = new byte[INITIAL_FRAME_BYTES]; // 마지막 프레임 (다음 next() 에서 덮어씀)
+    private boolean inHeaders; // 경계 줄을 이미 읽음 (경계 스캔으로 끝난 파트 다음)
+    private boolean closed; // 닫는 경계를 읽음 (마지막 프레임은 이미 돌려줌)
+
+    // --- 마지막 파트 정보 ---
+    private String format = CompressedImageDecoder.JPEG;
+    private double timestamp = Double.NaN; // X-Timestamp (초), 없으면 NaN
+
+    // --- 카운터 ---
+    private long frames, oversized, bytesRead;
+
+    // boundary: Content-Type 의 boundary 파라미터 (앞의 "--" 없이), null = 스트림에서 알아냄
+    MjpegStreamReader(InputStream in, String boundary, int maxFrameBytes) {
+        this.in = in;
+        this.maxFrameBytes = maxFrameBytes;
+        if (boundary != null) delimiter = ("\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Content-Type 헤더에서 boundary 파라미터 ("multipart/x-mixed-replace;boundary=xxx"), 없으면 null
+    static String boundaryOf(String contentType) {
+        if (contentType == null) return null;
+        int i = contentType.toLowerCase(Locale.US).indexOf("boundary=");
+        if (i < 0) return null;
+        String b = contentType.substring(i + "boundary=".length());
+        int end = b.indexOf(';');
+        if (end >= 0) b = b.substring(0, end);
+        b = b.trim();
+        if (b.length() >= 2 && b.charAt(0) == '"' && b.charAt(b.length() - 1) == '"') b = b.substring(1, b.length() - 1);
+        if (b.startsWith("--")) b = b.substring(2); // 일부 서버는 헤더에도 "--" 를 붙임
+        return b.isEmpty() ? null : b;
+    }
+
+    // ----------------------------------------------------------
+    // 다음 프레임 읽기: 프레임 바이트 수, 스트림 끝이면 -1
+    //  - 결과는 frame() 의 [0, 길이), 다음 호출 전까지만 유효
+    // ----------------------------------------------------------
+    int next() throws IOException {
+        while (true) {
+            if (closed || (!inHeaders && !skipToBoundary())) return -1;
+            inHeaders = false;
+            int contentLength = -1;
+            format = CompressedImageDecoder.JPEG;
+            timestamp = Double.NaN;
+            while (true) { // 파트 헤더 (빈 줄까지)
+                if (!readLine()) return -1;
+                if (lineLength == 0) break;
+                if (startsWithIgnoreCase(CONTENT_LENGTH)) contentLength = (int) parseLong(CONTENT_LENGTH.length);
+                else if (startsWithIgnoreCase(CONTENT_TYPE)) format = lineContains("png") ? CompressedImageDecoder.PNG : CompressedImageDecoder.JPEG;
+                else if (startsWithIgnoreCase(TIMESTAMP)) timestamp = parseSeconds(TIMESTAMP.length);
+            }
+
+            if (contentLength >= 0) { // 빠른 경로: 길이만큼 통째로 복사
+                if (contentLength > maxFrameBytes) {
+                    if (!skip(contentLength)) return -1;
+                    oversized++;
+                    continue;
+                }
+                ensureFrameCapacity(contentLength);
+                if (!readFully(frame, contentLength)) return -1;
+                frames++;
+                return contentLength;
+            }
+
+            int n = readUntilDelimiter(); // 길이 없음: 다음 경계까지
+            if (n == -1) return -1;
+            if (n == OVERSIZED) {
+                oversized++;
+                continue;
+            }
+            frames++;
+            return n;
+        }
+    }
+
+    byte[] frame() {
+        return frame;
+    }
+
+    String format() {
+        return format;
+    }
+
+    // 마지막 프레임의 X-Timestamp (초, 보통 ROS 메시지 stamp), 없으면 NaN
+    double timestamp() {
+        return timestamp;
+    }
+
+    long frameCount() {
+        return frames;
+    }
+
+    long oversizedCount() {
+        return oversized;
+    }
+
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    // ----------------------------------------------------------
+    // 경계 줄까지 건너뜀 (처음/Content-Length 파트 뒤), 닫는 경계(--boundary--)면 false
+    // ----------------------------------------------------------
+    private boolean skipToBoundary() throws IOException {
+        while (readLine()) {
+            if (lineLength < 3 || line[0] != '-' || line[1] != '-') continue; // 파트 사이 빈 줄 등
+            if (delimiter == null) { // 첫 경계 줄에서 boundary 학습
+                delimiter = new byte[lineLength + 1];
+                delimiter[0] = '\n';
+                System.arraycopy(line, 0, delimiter, 1, lineLength);
+                return true;
+            }
+            int dl = delimiter.length - 1; // "--boundary" 길이
+            if (lineLength < dl || !regionMatches(line, 0, delimiter, 1, dl)) continue;
+            return !isClosing(dl);
+        }
+        return false;
+    }
+
+    // 경계 줄 뒤에 "--" 가 붙으면 스트림 끝
+    private boolean isClosing(int boundaryEnd) {
+        return lineLength >= boundaryEnd + 2 && line[boundaryEnd] == '-' && line[boundaryEnd + 1] == '-';
+    }
+
+    // ----------------------------------------------------------
+    // 본문을 "\n--boundary" 가 나올 때까지 프레임 버퍼로 복사
+    //  - 경계 줄 나머지도 읽어 다음 호출은 바로 파트 헤더부터
+    //  - 크기 초과면 경계 길이만큼만 남기며 계속 스캔 (OVERSIZED)
+    // ----------------------------------------------------------
+    private int readUntilDelimiter() throws IOException {
+        byte[] d = delimiter;
+        int dl = d.length;
+        byte last = d[dl - 1];
+        int cap = maxFrameBytes + dl; // 경계까지 포함해 담을 수 있는 최대 길이
+        int n = 0;
+        boolean tooBig = false;
+        while (true) {
+            if (pos == limit && !fill()) return -1;
+            byte b = buf[pos++];
+            if (n >= cap) { // 크기 초과: 경계 검사에 필요한 끝부분만 남김
+                System.arraycopy(frame, n - (dl - 1), frame, 0, dl - 1);
+                n = dl - 1;
+                tooBig = true;
+            } else if (n == frame.length) {
+                ensureFrameCapacity(Math.min(cap, n * 2));
+            }
+            frame[n++] = b;
+            if (b == last && n >= dl && regionMatches(frame, n - dl, d, 0, dl)) break;
+        }
+        n -= dl;
+        if (n > 0 && frame[n - 1] == '\r') n--; // CRLF 앞의 CR
+        if (!readLine()) return -1; // 경계 줄 나머지 ("\r\n" 또는 "--")
+        if (lineLength >= 2 && line[0] == '-' && line[1] == '-') closed = true; // 닫는 경계: 이 프레임까지만
+        else inHeaders = true;
+        return tooBig ? OVERSIZED : n;
+    }
+
+    // ----------------------------------------------------------
+    // 바이트 단위 입력 (읽기 버퍼 경유)
+    // ----------------------------------------------------------
+    private boolean fill() throws IOException {
+        int r = in.read(buf, 0, buf.length);
+        if (r <= 0) return false;
+        pos = 0;
+        limit = r;
+        bytesRead += r;
+        return true;
+    }
+
+    // '\n' 까지 한 줄 (끝의 '\r' 제외, MAX_LINE 넘는 부분은 버림), 스트림 끝이면 false
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (pos == limit && !fill()) return false;
+            byte b = buf[pos++];
+            if (b == '\n') break;
+            if (lineLength < MAX_LINE) line[lineLength++] = b;
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') lineLength--;
+        return true;
+    }
+
+    private boolean readFully(byte[] dst, int length) throws IOException {
+        int off = 0;
+        while (off < length) {
+            if (pos == limit && !fill()) return false;
+            int n = Math.min(length - off, limit - pos);
+            System.arraycopy(buf, pos, dst, off, n);
+            pos += n;
+            off += n;
+        }
+        return true;
+    }
+
+    private boolean skip(long length) throws IOException {
+        while (length > 0) {
+            if (pos == limit && !fill()) return false;
+            int n = (int) Math.min(length, limit - pos);
+            pos += n;
+            length -= n;
+        }
+        return true;
+    }
+
+    private void ensureFrameCapacity(int length) {
+        if (frame.length >= length) return;
+        byte[] bigger = new byte[Math.max(length, frame.length + frame.length / 2)];
+        System.arraycopy(frame, 0, bigger, 0, frame.length);
+        frame = bigger;
+    }
+
+    // ----------------------------------------------------------
+    // 헤더 줄 검사 (String 할당 없음)
+    // ----------------------------------------------------------
+    private boolean startsWithIgnoreCase(byte[] lowerPrefix) {
+        if (lineLength < lowerPrefix.length) return false;
+        for (int i = 0; i < lowerPrefix.length; i++) {
+            int c = line[i];
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            if (c != lowerPrefix[i]) return false;
+        }
+        return true;
+    }
+
+    private boolean lineContains(String word) {
+        for (int i = 0; i + word.length() <= lineLength; i++) {
+            int j = 0;
+            while (j < word.length() && (line[i + j] | 0x20) == word.charAt(j)) j++;
+            if (j == word.length()) return true;
+        }
+        return false;
+    }
+
+    private long parseLong(int from) {
+        int i = from;
+        while (i < lineLength && line[i] == ' ') i++;
+        long v = 0;
+        int digits = 0;
+        for (; i < lineLength && line[i] >= '0' && line[i] <= '9'; i++, digits++) v = v * 10 + (line[i] - '0');
+        return digits == 0 ? -1 : v;
+    }
+
+    // "1700000000.123456" 형식 초 (정수부 + 소수부)
+    private double parseSeconds(int from) {
+        int i = from;
+        while (i < lineLength && line[i] == ' ') i++;
+        long whole = 0;
+        int digits = 0;
+        for (; i < lineLength && line[i] >= '0' && line[i] <= '9'; i++, digits++) whole = whole * 10 + (line[i] - '0');
+        if (digits == 0) return Double.NaN;
+        double frac = 0, scale = 0.1;
+        if (i < lineLength && line[i] == '.') {
+            for (i++; i < lineLength && line[i] >= '0' && line[i] <= '9'; i++, scale *= 0.1) frac += (line[i] - '0') * scale;
+        }
+        return whole + frac;
+    }
+
+    private static boolean regionMatches(byte[] a, int aOff, byte[] b, int bOff, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOff + i] != b[bOff + i]) return false;
+        }
+        return true;
+    }
+}
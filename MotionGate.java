@@ -0,0 +1,10 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// MotionGate: 주행 허용 여부 (배터리 등), RosBridgeClient.setMotionGate 로 등록
+//  - false 이면 새 주행 명령만 막고 정지/감속/긴급정지는 항상 통과
+//  - 호출 스레드: 명령을 보내는 스레드 (UI/조종 타이머), 빠르게 반환
+// ============================================================
+interface MotionGate {
+    boolean allowsMotion();
+}
@@ -0,0 +1,39 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// OdomDecoder: nav_msgs/Odometry -> 시각, 위치 x/y, yaw, 선속도 x, 각속도 z
+// ============================================================
+final class OdomDecoder implements TopicDecoder {
+
+    private static final String[] STAMP_SEC = {"header", "stamp", "sec"};
+    private static final String[] STAMP_NANOSEC = {"header", "stamp", "nanosec"};
+    private static final String[] POSE_POSITION_X = {"pose", "pose", "position", "x"};
+    private static final String[] POSE_POSITION_Y = {"pose", "pose", "position", "y"};
+    private static final String[] POSE_ORIENTATION_X = {"pose", "pose", "orientation", "x"};
+    private static final String[] POSE_ORIENTATION_Y = {"pose", "pose", "orientation", "y"};
+    private static final String[] POSE_ORIENTATION_Z = {"pose", "pose", "orientation", "z"};
+    private static final String[] POSE_ORIENTATION_W = {"pose", "pose", "orientation", "w"};
+    private static final String[] TWIST_LINEAR_X = {"twist", "twist", "linear", "x"};
+    private static final String[] TWIST_ANGULAR_Z = {"twist", "twist", "angular", "z"};
+
+    private final OdomListener listener;
+
+    OdomDecoder(OdomListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void decode(MessageReader msg) {
+        double stamp = msg.getDouble(STAMP_SEC, 0.0) + msg.getDouble(STAMP_NANOSEC, 0.0) * 1e-9;
+        double px = msg.getDouble(POSE_POSITION_X, 0.0); // 위치 x
+        double py = msg.getDouble(POSE_POSITION_Y, 0.0); // 위치 y
+        double qx = msg.getDouble(POSE_ORIENTATION_X, 0.0); // 쿼터니언 -> yaw
+        double qy = msg.getDouble(POSE_ORIENTATION_Y, 0.0);
+        double qz = msg.getDouble(POSE_ORIENTATION_Z, 0.0);
+        double qw = msg.getDouble(POSE_ORIENTATION_W, 1.0);
+        double yaw = Math.atan2(2 * (qw * qz + qx * qy), 1 - 2 * (qy * qy + qz * qz));
+        double vx = msg.getDouble(TWIST_LINEAR_X, 0.0); // 선형 속도 x
+        double wz = msg.getDouble(TWIST_ANGULAR_Z, 0.0); // 각속도 z
+        listener.onOdom(stamp, px, py, yaw, vx, wz);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// OdomListener: /odom (nav_msgs/Odometry) 수신 콜백 (디코드 워커 스레드)
+// ============================================================
+interface OdomListener {
+    // stamp: header.stamp (초, 없으면 0), x/y: 위치 (m), yaw: 방향 (라디안),
+    // vx: 선속도 (m/s), wz: 각속도 (rad/s)
+    void onOdom(double stamp, double x, double y, double yaw, double vx, double wz);
+}
@@ -0,0 +1,143 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// PixelConverter: sensor_msgs/Image 원시 바이트 -> ARGB_8888 int 픽셀
+//  - 인코딩별 채널 순서를 맞춰 변환 (bgr8 은 B,G,R 순서)
+//  - 행 패딩(step > width * bpp)도 처리, 결과는 dst 에 채움 (할당 없음)
+// ============================================================
+final class PixelConverter {
+
+    private PixelConverter() {}
+
+    // 픽셀당 바이트 수 (yuv422 계열은 2픽셀에 4바이트 = 2)
+    static int bytesPerPixel(String encoding) {
+        switch (encoding) {
+            case "rgb8":
+            case "bgr8":
+                return 3;
+            case "rgba8":
+            case "bgra8":
+                return 4;
+            case "mono8":
+                return 1;
+            case "yuv422":
+            case "yuv422_yuy2":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // src(length 바이트)를 width x height ARGB 픽셀로 변환
+    //  - 지원하지 않거나 바이트가 부족하면 false
+    // ----------------------------------------------------------
+    static boolean convert(String encoding, byte[] src, int length, int width, int height, int[] dst) {
+        int bpp = bytesPerPixel(encoding);
+        if (bpp == 0 || height <= 0) return false;
+        int step = length / height; // 행 단위 바이트 (패딩 포함)
+        if (step < width * bpp || dst.length < width * height) return false;
+
+        switch (encoding) {
+            case "rgb8":
+                packed3(src, step, width, height, dst, 0, 2);
+                return true;
+            case "bgr8":
+                packed3(src, step, width, height, dst, 2, 0);
+                return true;
+            case "rgba8":
+                packed4(src, step, width, height, dst, 0, 2);
+                return true;
+            case "bgra8":
+                packed4(src, step, width, height, dst, 2, 0);
+                return true;
+            case "mono8":
+                mono8(src, step, width, height, dst);
+                return true;
+            case "yuv422": // UYVY
+                yuv422(src, step, width, height, dst, 1, 0, 3);
+                return true;
+            case "yuv422_yuy2": // YUYV
+                yuv422(src, step, width, height, dst, 0, 1, 2);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // 3바이트 픽셀 (rOff/bOff 로 RGB/BGR 순서 지정)
+    private static void packed3(byte[] src, int step, int width, int height, int[] dst, int rOff, int bOff) {
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int in = y * step;
+            for (int x = 0; x < width; x++, in += 3) {
+                int r = src[in + rOff] & 0xFF;
+                int g = src[in + 1] & 0xFF;
+                int b = src[in + bOff] & 0xFF;
+                dst[out++] = 0xFF000000 | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    // 4바이트 픽셀 (알파 포함)
+    private static void packed4(byte[] src, int step, int width, int height, int[] dst, int rOff, int bOff) {
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int in = y * step;
+            for (int x = 0; x < width; x++, in += 4) {
+                int r = src[in + rOff] & 0xFF;
+                int g = src[in + 1] & 0xFF;
+                int b = src[in + bOff] & 0xFF;
+                int a = src[in + 3] & 0xFF;
+                dst[out++] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    private static void mono8(byte[] src, int step, int width, int height, int[] dst) {
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int in = y * step;
+            for (int x = 0; x < width; x++) {
+                int v = src[in + x] & 0xFF;
+                dst[out++] = 0xFF000000 | (v << 16) | (v << 8) | v;
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // YUV 4:2:2 (2픽셀당 4바이트) -> RGB, BT.601 정수 근사
+    //  y0Off: 첫 Y 위치, uOff: U 위치 (V 는 U+2), y1Off: 둘째 Y 위치
+    //  (UYVY = U Y0 V Y1 -> 1, 0, 3 / YUYV = Y0 U Y1 V -> 0, 1, 2)
+    //  - 폭이 홀수면 마지막 픽셀은 행의 2바이트만 읽음 (Y 만, 색차는 앞 쌍의 값)
+    // ----------------------------------------------------------
+    private static void yuv422(byte[] src, int step, int width, int height, int[] dst,
+                               int y0Off, int uOff, int y1Off) {
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int in = y * step;
+            int u = 0;
+            int v = 0;
+            int x = 0;
+            for (; x + 1 < width; x += 2, in += 4) {
+                u = (src[in + uOff] & 0xFF) - 128;
+                v = (src[in + uOff + 2] & 0xFF) - 128;
+                dst[out++] = yuvToArgb(src[in + y0Off] & 0xFF, u, v);
+                dst[out++] = yuvToArgb(src[in + y1Off] & 0xFF, u, v);
+            }
+            if (x < width) dst[out++] = yuvToArgb(src[in + y0Off] & 0xFF, u, v); // 짝 없는 마지막 픽셀
+        }
+    }
+
+    private static int yuvToArgb(int y, int u, int v) {
+        int c = (y - 16) * 298;
+        int r = clamp((c + 409 * v + 128) >> 8);
+        int g = clamp((c - 100 * u - 208 * v + 128) >> 8);
+        int b = clamp((c + 516 * u + 128) >> 8);
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    private static int clamp(int v) {
+        return v < 0 ? 0 : (v > 255 ? 255 : v);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// Quaternion: 재사용하는 가변 쿼터니언 (메시지마다 새 객체 만들지 않음)
+//  - ROS 순서 (x, y, z, w), 항등 = (0, 0, 0, 1)
+// ============================================================
+final class Quaternion {
+
+    double x, y, z, w = 1.0;
+
+    Quaternion set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    // 단위 길이로 (길이 0 이면 항등)
+    Quaternion normalize() {
+        double n = Math.sqrt(x * x + y * y + z * z + w * w);
+        if (n < 1e-12) return set(0, 0, 0, 1);
+        double inv = 1.0 / n;
+        x *= inv;
+        y *= inv;
+        z *= inv;
+        w *= inv;
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // 쿼터니언 -> 오일러(롤, 피치, 요, 라디안) 변환 수식 (ZYX)
+    // ----------------------------------------------------------
+    EulerAngles toEuler(EulerAngles out) {
+        double sinr_cosp = 2 * (w * x + y * z);
+        double cosr_cosp = 1 - 2 * (x * x + y * y);
+        double sinp = 2 * (w * y - z * x);
+        double siny_cosp = 2 * (w * z + x * y);
+        double cosy_cosp = 1 - 2 * (y * y + z * z);
+        return out.set(Math.atan2(sinr_cosp, cosr_cosp),
+                Math.abs(sinp) >= 1 ? Math.copySign(Math.PI / 2, sinp) : Math.asin(sinp), // asin 범위 초과 방지(클램핑)
+                Math.atan2(siny_cosp, cosy_cosp));
+    }
+
+    // 오일러(라디안) -> 쿼터니언
+    Quaternion fromEuler(double roll, double pitch, double yaw) {
+        double cr = Math.cos(roll / 2), sr = Math.sin(roll / 2);
+        double cp = Math.cos(pitch / 2), sp = Math.sin(pitch / 2);
+        double cy = Math.cos(yaw / 2), sy = Math.sin(yaw / 2);
+        return set(sr * cp * cy - cr * sp * sy,
+                cr * sp * cy + sr * cp * sy,
+                cr * cp * sy - sr * sp * cy,
+                cr * cp * cy + sr * sp * sy);
+    }
+}
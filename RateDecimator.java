@@ -0,0 +1,39 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// RateDecimator: 고주파 스트림을 최대 N Hz 로 솎아냄 (한 스레드 전용, 할당 없음)
+//  - 필터는 모든 샘플을 보고, 리스너/화면에는 간격이 지난 샘플만 전달
+//  - 기준 시각은 호출자가 넘김 (System.nanoTime 또는 메시지 stamp)
+// ============================================================
+final class RateDecimator {
+
+    private final long intervalNanos;
+    private long nextNanos = Long.MIN_VALUE;
+    private long passed, skipped;
+
+    // intervalMs 0 이하 = 모두 통과
+    RateDecimator(long intervalMs) {
+        this.intervalNanos = Math.max(0, intervalMs) * 1_000_000L;
+    }
+
+    // 이번 샘플을 내보낼지 (간격이 지났으면 true)
+    boolean tick(long nowNanos) {
+        if (nowNanos - nextNanos < 0 && nextNanos != Long.MIN_VALUE) {
+            skipped++;
+            return false;
+        }
+        // 다음 기준을 이전 기준 + 간격으로 (지터가 쌓이지 않게), 많이 밀렸으면 지금 기준
+        nextNanos = nextNanos == Long.MIN_VALUE || nowNanos - nextNanos >= intervalNanos
+                ? nowNanos + intervalNanos : nextNanos + intervalNanos;
+        passed++;
+        return true;
+    }
+
+    long passedCount() {
+        return passed;
+    }
+
+    long skippedCount() {
+        return skipped;
+    }
+}
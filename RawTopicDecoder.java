@@ -0,0 +1,12 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // CDR 직렬화 바이트
+
+// ============================================================
+// RawTopicDecoder: compression "cbor-raw" 구독용 디코더
+//  - msg 가 {"secs", "nsecs", "bytes"} 형태로 오며 bytes 는
+//    ROS2 CDR 직렬화 메시지 그대로임 (필드 이름 없이 순서대로 읽음)
+// ============================================================
+interface RawTopicDecoder extends TopicDecoder {
+    void decodeRaw(ByteBuffer buf, int offset, int length);
+}
@@ -0,0 +1,74 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // 바이너리(CBOR) 프레임
+
+// ============================================================
+// RecordFilter: 녹화할 프레임 고르기 (TelemetryRecorder 앞, 디코드 워커 스레드 전용)
+//  - 작은 프레임(배터리/오돔/IMU/상태)은 모두 녹화
+//  - 대용량 프레임(카메라, TelemetryPipeline.BULK_FRAME_BYTES 이상)은 bulkIntervalMs 마다 하나만
+//    (원시 카메라 텍스트는 프레임마다 ~1MB UTF-8 인코딩 + 링 버퍼가 몇 초 분량으로 줄어듦)
+//  - op "fragment" 조각은 세트 단위로: 고른 세트의 조각은 모두, 나머지 세트는 모두 건너뜀
+//    (조각 세트는 순서대로 하나씩 도착 -> id 가 바뀌면 새 세트)
+// ============================================================
+final class RecordFilter {
+
+    private static final String ID_KEY = "\"id\"";
+    private static final int ID_SCAN_CHARS = 96; // id 는 op 바로 뒤
+    private static final int ID_MAX_CHARS = 64;
+
+    private final long bulkIntervalNanos;
+    private long lastBulkNanos;
+    private boolean bulkTaken; // 대용량 프레임을 하나라도 녹화함
+    private String fragmentId; // 녹화 중인 조각 세트 id 원문 (null = 건너뛰는 중)
+
+    RecordFilter(long bulkIntervalMs) {
+        this.bulkIntervalNanos = bulkIntervalMs * 1_000_000L;
+    }
+
+    boolean accept(String text) {
+        if (!TelemetryPipeline.isFragment(text)) return text.length() < TelemetryPipeline.BULK_FRAME_BYTES || takeBulk();
+        int start = idStart(text);
+        int end = start >= 0 ? idEnd(text, start) : -1;
+        if (end < 0) return false; // id 없는 조각은 조립되지 않음
+        String current = fragmentId;
+        if (current != null && current.length() == end - start && text.regionMatches(start, current, 0, end - start)) {
+            return true; // 고른 세트의 다음 조각
+        }
+        fragmentId = takeBulk() ? text.substring(start, end) : null; // 새 세트 (1초에 한 번만 할당)
+        return fragmentId != null;
+    }
+
+    boolean accept(ByteBuffer frame) {
+        return frame.remaining() < TelemetryPipeline.BULK_FRAME_BYTES || takeBulk(); // CBOR 는 조각 없음
+    }
+
+    private boolean takeBulk() {
+        long now = System.nanoTime();
+        if (bulkTaken && now - lastBulkNanos < bulkIntervalNanos) return false;
+        bulkTaken = true;
+        lastBulkNanos = now;
+        return true;
+    }
+
+    // "id" 값 시작 위치 (없으면 -1)
+    private static int idStart(String text) {
+        int limit = Math.min(text.length(), ID_SCAN_CHARS);
+        for (int i = 0; i + ID_KEY.length() < limit; i++) {
+            if (!text.regionMatches(i, ID_KEY, 0, ID_KEY.length())) continue;
+            int p = i + ID_KEY.length();
+            while (p < limit && (text.charAt(p) == ':' || text.charAt(p) == ' ')) p++;
+            return p < limit ? p : -1;
+        }
+        return -1;
+    }
+
+    // 값 끝 (',' 또는 '}' 앞, 문자열이면 따옴표 포함), 너무 길면 -1
+    private static int idEnd(String text, int start) {
+        int limit = Math.min(text.length(), start + ID_MAX_CHARS);
+        for (int p = start + 1; p < limit; p++) {
+            char c = text.charAt(p);
+            if (c == ',' || c == '}') return p;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ============================================================
+// RobotRegistry: 플릿 모드 로봇 접속 정보 목록 (등록 순서 유지)
+//  - 텍스트 형식: 한 줄에 "id=ws://host:port" (빈 줄, # 주석 무시)
+//    예) car1=ws://192.168.0.3:9090
+//  - id 는 로그/화면 표시와 FleetManager 조회 키
+// ============================================================
+final class RobotRegistry {
+
+    static final int MAX_ROBOTS = 64; // 한 프로세스에서 관리할 최대 로봇 수 (메모리 상한)
+
+    // 로봇 하나의 접속 정보
+    static final class Endpoint {
+        final String id;
+        final String uri; // rosbridge websocket URI
+
+        Endpoint(String id, String uri) {
+            this.id = id;
+            this.uri = uri;
+        }
+
+        @Override
+        public String toString() {
+            return id + "=" + uri;
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // ----------------------------------------------------------
+    // 등록 (같은 id 는 주소 교체)
+    // ----------------------------------------------------------
+    synchronized RobotRegistry add(String id, String uri) {
+        if (id == null || id.isEmpty()) throw new IllegalArgumentException("empty robot id");
+        if (uri == null || !(uri.startsWith("ws://") || uri.startsWith("wss://"))) {
+            throw new IllegalArgumentException("not a websocket uri for " + id + ": " + uri);
+        }
+        if (!endpoints.containsKey(id) && endpoints.size() >= MAX_ROBOTS) {
+            throw new IllegalStateException("too many robots (max " + MAX_ROBOTS + ")");
+        }
+        endpoints.put(id, new Endpoint(id, uri));
+        return this;
+    }
+
+    synchronized void remove(String id) {
+        endpoints.remove(id);
+    }
+
+    synchronized Endpoint get(String id) {
+        return endpoints.get(id);
+    }
+
+    synchronized List<Endpoint> endpoints() {
+        return Collections.unmodifiableList(new ArrayList<>(endpoints.values()));
+    }
+
+    synchronized int size() {
+        return endpoints.size();
+    }
+
+    // ----------------------------------------------------------
+    // "id=uri" 줄 목록 파싱 (설정 파일, 인텐트 extra 등)
+    // ----------------------------------------------------------
+    static RobotRegistry parse(String text) {
+        RobotRegistry registry = new RobotRegistry();
+        int lineNo = 0;
+        for (String raw : text.split("\n")) {
+            lineNo++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int eq = line.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("line " + lineNo + ": expected id=uri");
+            registry.add(line.substring(0, eq).trim(), line.substring(eq + 1).trim());
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,124 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// RobotState: 플릿 모드 로봇 한 대의 최신 텔레메트리 (고정 크기, 이력 없음)
+//  - 디코드 워커가 리스너로 갱신, 화면/로그 스레드가 getter 로 읽음
+//  - version 은 값이 바뀔 때마다 증가: 목록 화면은 바뀐 로봇만 다시 그림
+//  - 로봇 수만큼만 메모리 사용 (카메라 프레임은 보관하지 않음)
+// ============================================================
+final class RobotState implements BatteryListener, OdomListener, ImuListener, ConnectionListener {
+
+    static final long STALE_MS = 3000; // 이 시간 동안 텔레메트리가 없으면 응답 없음으로 표시
+
+    final String id;
+
+    private int batteryPct = -1; // -1 = 아직 수신 안 됨
+    private double batteryVolts = Double.NaN; // 팩 전압 (없으면 NaN)
+    private double vx, px, py; // 오돔 속도, 위치 x/y
+    private double roll, pitch, yaw; // IMU 자세 (도)
+    private long lastTelemetryNanos; // 마지막 텔레메트리 수신 시각
+    private boolean connected;
+    private long retryDelayMs; // 끊겼을 때 다음 재연결까지
+    private long version;
+
+    RobotState(String id) {
+        this.id = id;
+    }
+
+    // ----------------------------------------------------------
+    // 리스너 (디코드 워커 / 연결 스레드)
+    // ----------------------------------------------------------
+    @Override
+    public synchronized void onBattery(int pct, double voltage) {
+        batteryPct = pct;
+        batteryVolts = voltage;
+        touch();
+    }
+
+    @Override
+    public synchronized void onOdom(double stamp, double x, double y, double yaw, double vx, double wz) {
+        this.vx = vx;
+        this.px = x;
+        this.py = y;
+        touch();
+    }
+
+    @Override
+    public synchronized void onImu(double roll, double pitch, double yaw) {
+        this.roll = roll;
+        this.pitch = pitch;
+        this.yaw = yaw;
+        touch();
+    }
+
+    @Override
+    public synchronized void onConnected() {
+        connected = true;
+        retryDelayMs = 0;
+        version++;
+    }
+
+    @Override
+    public synchronized void onDisconnected(Throwable cause, long retryDelayMs) {
+        connected = false;
+        this.retryDelayMs = retryDelayMs;
+        version++;
+    }
+
+    private void touch() {
+        lastTelemetryNanos = System.nanoTime();
+        version++;
+    }
+
+    // ----------------------------------------------------------
+    // 읽기
+    // ----------------------------------------------------------
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized boolean isConnected() {
+        return connected;
+    }
+
+    // 연결은 되어 있지만 텔레메트리가 끊긴 상태 (노드 정지 등)
+    synchronized boolean isStale() {
+        return !connected || lastTelemetryNanos == 0
+                || System.nanoTime() - lastTelemetryNanos > STALE_MS * 1_000_000L;
+    }
+
+    synchronized int batteryPct() {
+        return batteryPct;
+    }
+
+    synchronized double batteryVolts() {
+        return batteryVolts;
+    }
+
+    synchronized double speed() {
+        return vx;
+    }
+
+    synchronized double positionX() {
+        return px;
+    }
+
+    synchronized double positionY() {
+        return py;
+    }
+
+    synchronized double yaw() {
+        return yaw;
+    }
+
+    synchronized long retryDelayMs() {
+        return retryDelayMs;
+    }
+
+    // 한 줄 요약 (로그/목록 화면)
+    @Override
+    public synchronized String toString() {
+        return String.format(java.util.Locale.US, "%s %s bat=%d%% v=%.2f pos=%.2f,%.2f rpy=%.1f/%.1f/%.1f",
+                id, connected ? (isStale() ? "stale" : "ok") : "down", batteryPct, vx, px, py, roll, pitch, yaw);
+    }
+}
@@ -0,0 +1,526 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONObject; // 서비스 요청 문자열 이스케이프 (JSONObject.quote)
+
+import java.io.IOException;
+import java.nio.ByteBuffer; // 바이너리(CBOR) 프레임
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level; // 플랫폼 독립 로그 (안드로이드에서는 logcat 으로 출력)
+import java.util.logging.Logger;
+
+import okhttp3.OkHttpClient; // 공유 OkHttp 클라이언트
+import okio.ByteString; // 바이너리(CBOR) 프레임
+
+// ============================================================
+// RosBridgeClient: 화면 없는 rosbridge 클라이언트 (안드로이드 의존성 없음)
+//  - 연결 유지(ConnectionManager) + 디코드 워커(TelemetryPipeline) + 토픽 라우팅(RosbridgeDispatcher)
+//    + 구독 옵션(SubscriptionManager) + 명령 송신(CommandPublisher) 을 한 세션으로 묶음
+//  - subscribeXxx(listener) 로 등록한 토픽만 구독, 콜백은 디코드 워커 스레드에서 호출
+//  - 카메라 압축 방식 협상 (cbor-raw -> cbor -> png -> none) 도 여기서 처리
+//  - 텍스트 방식(png/none) 카메라는 fragment_size 로 조각 전송 요청 (디스패처가 조립)
+//  - 카메라는 원시 Image 또는 CompressedImage(JPEG) 중 하나 (같은 구독 id, MJPEG 는 MjpegStreamClient)
+//  - MotionGate(배터리 등) 가 막으면 새 주행 명령만 거부, 정지/긴급정지는 항상 전송
+//  - callService / getParameters / setParameters: 응답을 기다리지 않는 서비스 호출 (ServiceClient)
+//  - setMetrics: 수신/라우팅/디코드/송신/RTT/연결 계측 (여러 세션이 하나를 공유 가능)
+//  - 스레드: 연결 타이머 1 + 디코드 워커 1 + 명령 송신 1 (+ OkHttp 공유 풀)
+//    SessionExecutors 를 주면 전용 스레드 없이 공유 타이머/워커 사용 (FleetManager)
+//  - 인스턴스 여러 개 = 로봇 여러 대 (OkHttpClient 는 공유 가능)
+// ============================================================
+final class RosBridgeClient {
+
+    // 주행 명령 (/cmd_drive, command_executor 가 구독)
+    enum Drive {
+        START("start"), STOP("stop"), UP("up"), DOWN("down");
+
+        final String wire; // 토픽으로 보내는 문자열
+
+        Drive(String wire) {
+            this.wire = wire;
+        }
+    }
+
+    // 차선 변경 명령 (/lane_change_cmd)
+    enum Lane {
+        LEFT("left"), RIGHT("right");
+
+        final String wire;
+
+        Lane(String wire) {
+            this.wire = wire;
+        }
+    }
+
+    // 구독 식별자(나중에 unsubscribe/옵션 변경할 때 사용)
+    static final String SUB_BATTERY = "sub_battery";
+    static final String SUB_ODOM = "sub_odom";
+    static final String SUB_IMU = "sub_imu";
+    static final String SUB_CAMERA = "sub_camera";
+
+    static final String TOPIC_BATTERY = "/battery_state";
+    static final String TOPIC_ODOM = "/odom";
+    static final String TOPIC_IMU = "/imu";
+    static final String TOPIC_CAMERA = "/lane_image_raw";
+    static final String TOPIC_CAMERA_COMPRESSED = "/lane_image_raw/compressed"; // image_transport compressed
+
+    // 카메라 전송 압축 방식 (앞에서부터 시도, 프레임이 안 오면 다음 방식으로)
+    //  cbor-raw: CDR 그대로, cbor: 바이너리 byte string, png: JSON 전체를 PNG로, none: base64 JSON
+    static final String[] CAMERA_COMPRESSIONS = {"cbor-raw", "cbor", "png", "none"};
+    static final long CAMERA_FALLBACK_MS = 3000; // 이 시간 동안 프레임이 없으면 다음 방식 시도
+    static final int CAMERA_FRAGMENT_BYTES = 64 * 1024; // 텍스트 카메라 프레임 조각 크기 (수백 KB 한 프레임 대신)
+    static final int CAMERA_SILENT_FLOOR = 1; // 발행 여부를 확인하지 못하면 여기(cbor)까지만 내려감
+    static final String ROSAPI_PUBLISHERS = "/rosapi/publishers"; // 토픽 발행자 목록 (rosapi_msgs/srv/Publishers)
+
+    static final int DECODE_QUEUE_CAPACITY = 32; // 디코드 대기 프레임 최대 수
+    static final long TELEOP_MIN_INTERVAL_MS = 50; // cmd_vel/goal_pose 최대 20Hz
+    static final long DRIVE_MIN_INTERVAL_MS = 200; // 버튼 명령 최대 5Hz
+    static final long RECORD_CAMERA_INTERVAL_MS = 1000; // 녹화할 카메라 프레임 간격 (720p 원시 ~1MB/s)
+    static final long SERVICE_TIMEOUT_MS = ServiceClient.DEFAULT_TIMEOUT_MS; // 파라미터 호출 기본 시간 초과
+
+    private static final Logger LOG = Logger.getLogger("RosBridgeClient");
+    private static final String[] P_PUBLISHERS = {"publishers"}; // rosapi 응답 필드
+
+    private final RosbridgeDispatcher dispatcher = new RosbridgeDispatcher();
+    private final SubscriptionManager subscriptions = new SubscriptionManager();
+    private final CommandPublisher commands;
+    private final TelemetryPipeline pipeline;
+    private final ConnectionManager connection;
+    private final ServiceClient services;
+
+    private volatile ConnectionListener connectionListener;
+    private volatile TelemetryRecorder recorder; // 녹화 중이 아니면 null
+    private final RecordFilter recordFilter = new RecordFilter(RECORD_CAMERA_INTERVAL_MS); // 디코드 워커 전용
+    private volatile MotionGate motionGate; // null = 항상 허용
+    private volatile TelemetryMetrics metrics; // null = 계측 끔
+    private final AtomicLong gated = new AtomicLong(); // 게이트에 막힌 명령 수
+
+    // --- 카메라 압축 협상 ---
+    private int cameraCompression = 0; // 현재 시도 중인 CAMERA_COMPRESSIONS 인덱스 (연결 타이머 스레드)
+    private volatile boolean cameraFrameSeen = false; // 현재 방식으로 프레임 수신 여부
+    private int cameraWatch; // 감시 번호 (재연결/방식 변경 전의 발행자 확인 응답 무시)
+    private ScheduledFuture<?> cameraFallback;
+
+    private Thread replayThread;
+    private volatile TelemetryReplayer replayer;
+
+    // ----------------------------------------------------------
+    // uri: rosbridge 주소, http: 공유 OkHttpClient (ConnectionManager.newSharedClient)
+    // ----------------------------------------------------------
+    RosBridgeClient(String uri, OkHttpClient http) {
+        this(uri, http, null, DECODE_QUEUE_CAPACITY);
+    }
+
+    // shared: 공유 타이머/워커 (null = 세션 전용 스레드), queueCapacity: 디코드 대기 프레임 최대 수
+    RosBridgeClient(String uri, OkHttpClient http, SessionExecutors shared, int queueCapacity) {
+        commands = new CommandPublisher(TELEOP_MIN_INTERVAL_MS, DRIVE_MIN_INTERVAL_MS,
+                shared != null ? shared.timer() : null);
+        pipeline = new TelemetryPipeline(queueCapacity, new TelemetryPipeline.FrameHandler() {
+            @Override public void onText(String text) {
+                TelemetryRecorder r = recorder;
+                if (r != null && recordFilter.accept(text)) r.record(text); // 원본 프레임 녹화 (카메라는 간격을 두고)
+                handleText(text);
+            }
+
+            @Override public void onBinary(ByteBuffer frame) {
+                TelemetryRecorder r = recorder;
+                if (r != null && recordFilter.accept(frame)) r.record(frame);
+                handleBinary(frame);
+            }
+        }, shared != null ? shared.workers() : null);
+        connection = new ConnectionManager(http, uri, new ConnectionManager.Listener() {
+            @Override public void onOpen(MessageSender sender) {
+                // 연결되면 필요한 토픽들 구독 요청 전송 (카메라 압축은 처음 방식부터 다시 협상)
+                resetCameraCompression(); // 전송기 연결 전: 목록만 변경
+                subscriptions.setSender(sender);
+                subscriptions.resubscribeAll();
+                commands.setSender(sender); // 명령 토픽 advertise
+                services.setSender(sender);
+                watchCameraCompression();
+                TelemetryMetrics m = metrics;
+                if (m != null) m.connects.incrementAndGet();
+                ConnectionListener l = connectionListener;
+                if (l != null) l.onConnected();
+            }
+
+            @Override public void onText(String text) {
+                TelemetryMetrics m = metrics;
+                if (m != null) m.recordFrame(text.length());
+                if (services.onText(text)) return; // 서비스 응답은 여기서 바로 완료 (디코드 큐에서 버려지지 않음)
+                pipeline.submit(text); // 디코드 워커로 넘기고 바로 반환
+            }
+
+            @Override public void onBinary(ByteString bytes) {
+                TelemetryMetrics m = metrics;
+                if (m != null) m.recordFrame(bytes.size());
+                pipeline.submit(bytes.asByteBuffer()); // 복사 없이 감싸서 디코드 워커로
+            }
+
+            @Override public void onClosed(Throwable cause, long retryDelayMs) {
+                subscriptions.setSender(null); // 재연결 전까지 옵션 변경은 목록에만 반영
+                commands.setSender(null); // 대기 중인 명령 폐기
+                services.setSender(null); // 응답 대기 중인 서비스 호출 실패 처리
+                TelemetryMetrics m = metrics;
+                if (m != null) m.disconnects.incrementAndGet();
+                ConnectionListener l = connectionListener;
+                if (l != null) l.onDisconnected(cause, retryDelayMs);
+            }
+        }, shared != null ? shared.timer() : null);
+        services = new ServiceClient(connection::schedule); // 시간 초과는 연결 타이머에서
+    }
+
+    // ----------------------------------------------------------
+    // 토픽 구독 등록 (start 전/후 모두 가능, queue_length 1 = 서버에서도 최신 메시지만 유지)
+    // ----------------------------------------------------------
+    RosBridgeClient subscribeBattery(BatteryListener listener, int throttleMs) {
+        dispatcher.register(SUB_BATTERY, TOPIC_BATTERY, new BatteryDecoder(listener));
+        subscriptions.subscribe(new Subscription(SUB_BATTERY, TOPIC_BATTERY, "sensor_msgs/msg/BatteryState")
+                .throttleRate(throttleMs).queueLength(1));
+        return this;
+    }
+
+    RosBridgeClient subscribeOdom(OdomListener listener, int throttleMs) {
+        dispatcher.register(SUB_ODOM, TOPIC_ODOM, new OdomDecoder(listener));
+        subscriptions.subscribe(new Subscription(SUB_ODOM, TOPIC_ODOM, "nav_msgs/msg/Odometry")
+                .throttleRate(throttleMs).queueLength(1));
+        return this;
+    }
+
+    RosBridgeClient subscribeImu(ImuListener listener, int throttleMs) {
+        return subscribeImu(listener, throttleMs, new ImuFilter(ImuFilter.Mode.PASS), 0);
+    }
+
+    // 고주파 IMU: 모든 샘플을 filter 에 넣고 리스너는 emitIntervalMs 마다 한 번
+    RosBridgeClient subscribeImu(ImuListener listener, int throttleMs, ImuFilter filter, long emitIntervalMs) {
+        dispatcher.register(SUB_IMU, TOPIC_IMU, new ImuDecoder(listener, filter, emitIntervalMs));
+        subscriptions.subscribe(new Subscription(SUB_IMU, TOPIC_IMU, "sensor_msgs/msg/Imu")
+                .throttleRate(throttleMs).queueLength(1));
+        return this;
+    }
+
+    // JSON/CBOR/cbor-raw 모두 같은 디코더, 압축 방식은 연결 후 협상
+    RosBridgeClient subscribeImage(ImageListener listener, int throttleMs) {
+        dispatcher.register(SUB_CAMERA, TOPIC_CAMERA, new CameraDecoder((width, height, encoding, data, length) -> {
+            cameraFrameSeen = true;
+            listener.onImage(width, height, encoding, data, length);
+        }));
+        subscriptions.subscribe(new Subscription(SUB_CAMERA, TOPIC_CAMERA, "sensor_msgs/msg/Image")
+                .compression(CAMERA_COMPRESSIONS[cameraCompression])
+                .fragmentSize(cameraFragmentBytes(CAMERA_COMPRESSIONS[cameraCompression]))
+                .throttleRate(throttleMs).queueLength(1));
+        return this;
+    }
+
+    // JPEG 카메라 (sensor_msgs/CompressedImage): 원시 Image 대신 구독, 바이트가 수십 배 적음
+    //  listener 는 디코드 워커에서 호출되므로 CompressedFrameStage 로 넘겨 JPEG 디코드를 분리
+    RosBridgeClient subscribeCompressedImage(CompressedImageListener listener, int throttleMs) {
+        dispatcher.register(SUB_CAMERA, TOPIC_CAMERA_COMPRESSED, new CompressedImageDecoder((format, data, length) -> {
+            cameraFrameSeen = true;
+            listener.onCompressedImage(format, data, length);
+        }));
+        subscriptions.subscribe(new Subscription(SUB_CAMERA, TOPIC_CAMERA_COMPRESSED, "sensor_msgs/msg/CompressedImage")
+                .compression(CAMERA_COMPRESSIONS[cameraCompression])
+                .fragmentSize(cameraFragmentBytes(CAMERA_COMPRESSIONS[cameraCompression]))
+                .throttleRate(throttleMs).queueLength(1));
+        return this;
+    }
+
+    void unsubscribe(String subId) {
+        subscriptions.unsubscribe(subId);
+        dispatcher.unregister(subId);
+    }
+
+    // 실행 중 전송률 변경 (예: 카메라 화면이 안 보일 때 낮춤)
+    void setThrottleRate(String subId, int ms) {
+        subscriptions.setThrottleRate(subId, ms);
+    }
+
+    RosBridgeClient setConnectionListener(ConnectionListener listener) {
+        this.connectionListener = listener;
+        return this;
+    }
+
+    // png 압축 프레임 복원기 (플랫폼 이미지 디코더 필요)
+    RosBridgeClient setPngUnpacker(RosbridgeDispatcher.PngUnpacker unpacker) {
+        dispatcher.setPngUnpacker(unpacker);
+        return this;
+    }
+
+    // 수신 프레임 녹화 (null = 중지, 닫기는 호출한 쪽 책임)
+    //  - 작은 프레임(배터리/오돔/IMU 등)은 모두, 카메라는 RECORD_CAMERA_INTERVAL_MS 마다 한 프레임 (RecordFilter)
+    void setRecorder(TelemetryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // 계측 (start 전에 설정, null = 끔)
+    RosBridgeClient setMetrics(TelemetryMetrics metrics) {
+        this.metrics = metrics;
+        dispatcher.setMetrics(metrics);
+        commands.setMetrics(metrics);
+        connection.setRttHistogram(metrics != null ? metrics.rtt : null);
+        services.setHistogram(metrics != null ? metrics.service : null);
+        return this;
+    }
+
+    TelemetryMetrics metrics() {
+        return metrics;
+    }
+
+    // 주행 게이트 (null = 해제)
+    RosBridgeClient setMotionGate(MotionGate gate) {
+        this.motionGate = gate;
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // 생명주기
+    // ----------------------------------------------------------
+    void start() {
+        pipeline.start(); // 디코드 워커 시작
+        connection.start(); // 비동기 WebSocket 연결 시도
+    }
+
+    // 녹화 재생: 연결 없이 같은 디코드 경로로 (speed 0 = 최대 속도), 끝나면 onDone
+    //  - source 는 재생 스레드가 끝날 때 닫음 (완료/취소 모두)
+    void startReplay(TelemetryReplayer source, double speed, Runnable onDone) {
+        pipeline.start();
+        replayer = source;
+        replayThread = new Thread(() -> {
+            try {
+                long n = source.replay(new TelemetryPipeline.FrameHandler() {
+                    @Override public void onText(String text) { pipeline.submit(text); }
+                    @Override public void onBinary(ByteBuffer frame) { pipeline.submit(frame); }
+                }, speed, null, 0);
+                LOG.info("Replay finished: " + n + " frames");
+                if (onDone != null) onDone.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    source.close(); // 이미 큐에 넣은 바이너리 프레임의 매핑은 채널을 닫아도 유효
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to close replay source", e);
+                }
+            }
+        }, "telemetry-replay");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    // 종료: 구독 해제, unadvertise, 소켓 닫기, 워커 정지 (공유 OkHttpClient 는 호출한 쪽이 정리)
+    void close() {
+        subscriptions.unsubscribeAll(); // 연결 없으면 목록만 정리
+        commands.shutdown(); // 명령 토픽 unadvertise + 송신 스레드 종료
+        connection.stop(); // 재연결 중지 + 정상 코드로 소켓 닫기
+        services.setSender(null); // 응답 대기 중인 호출 실패 처리
+        pipeline.stop(); // 디코드 워커 종료
+        TelemetryReplayer r = replayer;
+        if (r != null) {
+            r.cancel();
+            replayThread.interrupt();
+        }
+        recorder = null;
+    }
+
+    boolean isConnected() {
+        return commands.isConnected();
+    }
+
+    // ----------------------------------------------------------
+    // 명령 퍼블리시 (어느 스레드에서든, 비블로킹, 연결 없거나 게이트에 막히면 false)
+    // ----------------------------------------------------------
+    boolean publishCmdVel(double linear, double angular) {
+        if ((linear != 0 || angular != 0) && isGated()) return false; // 정지(0, 0)는 항상 통과
+        return commands.publishCmdVel(linear, angular);
+    }
+
+    boolean publishDrive(Drive command) {
+        if ((command == Drive.START || command == Drive.UP) && isGated()) return false;
+        return commands.publishDriveCommand(command.wire); // 같은 명령 연타는 한 번으로 합쳐짐
+    }
+
+    boolean publishLaneChange(Lane direction) {
+        return commands.publishLaneChange(direction.wire);
+    }
+
+    boolean publishGoal(double x, double y, double yaw) {
+        if (isGated()) return false;
+        return commands.publishPoseStamped(x, y, yaw);
+    }
+
+    boolean publishEmergency() {
+        return commands.publishEmergency(); // 대기 명령을 모두 버리고 즉시 전송
+    }
+
+    // ----------------------------------------------------------
+    // 서비스 호출 (어느 스레드에서든, 비블로킹, 여러 요청을 응답을 기다리지 않고 연달아 보냄)
+    //  - 결과는 ServiceCall.whenDone (WebSocket 리더/연결 타이머 스레드) 또는 get()
+    //  - 연결 없으면 이미 실패한 ServiceCall
+    // ----------------------------------------------------------
+    ServiceCall callService(String service, String argsJson, long timeoutMs) {
+        return services.call(service, argsJson, timeoutMs);
+    }
+
+    // node: 예 "/motor_control", 결과는 RosParameters.values(call.response(), names)
+    ServiceCall getParameters(String node, String... names) {
+        return services.call(node + RosParameters.GET, RosParameters.getArgs(names), SERVICE_TIMEOUT_MS);
+    }
+
+    // values: 이름 -> 값 (순서 유지하려면 LinkedHashMap), 거절된 값은 RosParameters.failures(call.response(), values)
+    ServiceCall setParameters(String node, Map<String, ?> values) {
+        return services.call(node + RosParameters.SET, RosParameters.setArgs(values), SERVICE_TIMEOUT_MS);
+    }
+
+    // ----------------------------------------------------------
+    // 카운터/측정값
+    // ----------------------------------------------------------
+    long decodedCount() {
+        return pipeline.decodedCount();
+    }
+
+    long droppedCount() {
+        return pipeline.droppedCount();
+    }
+
+    // 대용량 레인(카메라 프레임/조각)에서 버린 프레임 수 (droppedCount 에 포함)
+    long bulkDroppedCount() {
+        return pipeline.bulkDroppedCount();
+    }
+
+    long fragmentsCompleted() {
+        return dispatcher.fragments().completedCount();
+    }
+
+    // 조각이 빠지거나 시간 초과로 버린 메시지 수
+    long fragmentsDropped() {
+        return dispatcher.fragments().droppedCount();
+    }
+
+    int servicesInFlight() {
+        return services.inFlight();
+    }
+
+    // 시간 초과된 서비스 호출 수
+    long servicesTimedOut() {
+        return services.timedOutCount();
+    }
+
+    long commandsSent() {
+        return commands.sentCount();
+    }
+
+    long commandsCoalesced() {
+        return commands.coalescedCount();
+    }
+
+    long commandsGated() {
+        return gated.get();
+    }
+
+    long handshakeMs() {
+        return connection.handshakeMs();
+    }
+
+    long lastRttMs() {
+        return connection.lastRttMs();
+    }
+
+    double smoothedRttMs() {
+        return connection.smoothedRttMs();
+    }
+
+    long reconnectCount() {
+        return connection.reconnectCount();
+    }
+
+    private boolean isGated() {
+        MotionGate g = motionGate;
+        if (g == null || g.allowsMotion()) return false;
+        gated.incrementAndGet();
+        return true;
+    }
+
+    // ----------------------------------------------------------
+    // 디코드 워커: 토픽만 먼저 읽어 디코더로 라우팅 (한 프레임 오류로 워커가 죽지 않도록)
+    // ----------------------------------------------------------
+    private void handleText(String text) {
+        try {
+            dispatcher.dispatch(text); // 등록되지 않은 토픽은 무시
+        } catch (RuntimeException e) { // 잘린 프레임 등 형식 오류
+            TelemetryMetrics m = metrics;
+            if (m != null) m.unrouted.incrementAndGet();
+            LOG.log(Level.WARNING, "Failed parse rosbridge msg", e);
+        }
+    }
+
+    private void handleBinary(ByteBuffer frame) {
+        try {
+            dispatcher.dispatch(frame);
+        } catch (RuntimeException e) {
+            TelemetryMetrics m = metrics;
+            if (m != null) m.unrouted.incrementAndGet();
+            LOG.log(Level.WARNING, "Failed parse rosbridge cbor msg", e);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 카메라 압축 협상: 현재 방식으로 프레임이 안 오면 다음 방식으로 (연결 타이머 스레드)
+    //  - 연결마다 처음 방식부터 (다른 rosbridge 로 재연결했거나 일시적인 끊김일 수 있음)
+    //  - 넘어가기 전에 rosapi 로 카메라 토픽 발행자 확인: 발행자가 없으면(카메라 노드 꺼짐/늦게 시작)
+    //    방식 문제가 아니므로 다시 기다림, rosapi 가 없으면 CAMERA_SILENT_FLOOR(cbor) 아래로는 안 내려감
+    // ----------------------------------------------------------
+    private synchronized void resetCameraCompression() {
+        if (cameraCompression == 0) return;
+        cameraCompression = 0;
+        String compression = CAMERA_COMPRESSIONS[0];
+        subscriptions.setCompression(SUB_CAMERA, compression, cameraFragmentBytes(compression));
+    }
+
+    private synchronized void watchCameraCompression() {
+        if (subscriptions.get(SUB_CAMERA) == null) return; // 카메라 미구독
+        cameraFrameSeen = false;
+        cameraWatch++;
+        if (cameraFallback != null) cameraFallback.cancel(false);
+        cameraFallback = connection.schedule(this::cameraFallback, CAMERA_FALLBACK_MS);
+    }
+
+    private synchronized void cameraFallback() {
+        if (cameraFrameSeen || !connection.isConnected()) return; // 현재 방식으로 잘 받고 있음
+        if (cameraCompression >= CAMERA_COMPRESSIONS.length - 1) return; // 마지막 방식(none)
+        Subscription sub = subscriptions.get(SUB_CAMERA);
+        if (sub == null) return;
+        int watch = cameraWatch;
+        services.call(ROSAPI_PUBLISHERS, "{\"topic\":" + JSONObject.quote(sub.topic) + "}", SERVICE_TIMEOUT_MS)
+                .whenDone(call -> onCameraPublishers(watch, call));
+    }
+
+    // 발행자 확인 응답 (WebSocket 리더/연결 타이머 스레드)
+    private synchronized void onCameraPublishers(int watch, ServiceCall call) {
+        if (watch != cameraWatch || cameraFrameSeen || !connection.isConnected()) return; // 그사이 수신/재연결
+        boolean confirmed = call.succeeded(); // false = rosapi 없음/시간 초과
+        if (confirmed && !hasPublisher(call.response())) {
+            LOG.fine("No publisher on camera topic, keeping compression " + CAMERA_COMPRESSIONS[cameraCompression]);
+            watchCameraCompression();
+            return;
+        }
+        if (!confirmed && cameraCompression >= CAMERA_SILENT_FLOOR) { // 확인 못 함: 느린 텍스트 방식으로는 안 내려감
+            watchCameraCompression();
+            return;
+        }
+        LOG.warning("No camera frame with compression " + CAMERA_COMPRESSIONS[cameraCompression]);
+        cameraCompression++;
+        String compression = CAMERA_COMPRESSIONS[cameraCompression];
+        subscriptions.setCompression(SUB_CAMERA, compression, cameraFragmentBytes(compression));
+        watchCameraCompression();
+    }
+
+    private static boolean hasPublisher(ServiceResponse response) {
+        JsonMessageReader r = response.values();
+        return r != null && r.firstElement(r.find(P_PUBLISHERS)) >= 0;
+    }
+
+    // 조각은 JSON 텍스트 방식만 (조각 data 는 JSON 문자열, CBOR 바이너리는 대상 아님)
+    private static int cameraFragmentBytes(String compression) {
+        return "none".equals(compression) || "png".equals(compression) ? CAMERA_FRAGMENT_BYTES : 0;
+    }
+}
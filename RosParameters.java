@@ -0,0 +1,136 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONObject; // 문자열 값 이스케이프 (JSONObject.quote)
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ============================================================
+// RosParameters: ROS 2 노드 파라미터 서비스 요청/응답 변환 (rcl_interfaces, rosbridge call_service 로 호출)
+//  - <노드>/get_parameters {names: [...]} -> {values: [ParameterValue, ...]} (요청한 이름 순서)
+//  - <노드>/set_parameters {parameters: [{name, value}]} -> {results: [{successful, reason}, ...]}
+//  - ParameterValue.type: 1 bool, 2 integer, 3 double, 4 string (0 = 선언되지 않은 파라미터)
+//  - 자바 값: Boolean / Long (Integer 도 받음) / Double (다른 Number) / String, 배열 타입은 지원 안 함
+//    (ROS 2 는 선언된 타입과 다르면 거절: 게인은 정수처럼 보여도 Double 로)
+//  - 여러 값을 요청 하나로 보냄, set_parameters 는 값마다 따로 적용 (일부만 실패 가능 -> failures)
+// ============================================================
+final class RosParameters {
+
+    static final String GET = "/get_parameters"; // 노드 이름 뒤에 붙임
+    static final String SET = "/set_parameters";
+
+    static final int TYPE_NOT_SET = 0;
+    static final int TYPE_BOOL = 1;
+    static final int TYPE_INTEGER = 2;
+    static final int TYPE_DOUBLE = 3;
+    static final int TYPE_STRING = 4;
+
+    private static final String[] P_VALUES = {"values"}; // get_parameters 응답 메시지 필드
+    private static final String[] P_RESULTS = {"results"}; // set_parameters 응답 메시지 필드
+    private static final String[] P_TYPE = {"type"};
+    private static final String[] P_BOOL = {"bool_value"};
+    private static final String[] P_INTEGER = {"integer_value"};
+    private static final String[] P_DOUBLE = {"double_value"};
+    private static final String[] P_STRING = {"string_value"};
+    private static final String[] P_SUCCESSFUL = {"successful"};
+    private static final String[] P_REASON = {"reason"};
+
+    private RosParameters() {
+    }
+
+    // ----------------------------------------------------------
+    // 요청 args
+    // ----------------------------------------------------------
+    static String getArgs(String... names) {
+        StringBuilder sb = new StringBuilder(16 + names.length * 24).append("{\"names\":[");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(JSONObject.quote(names[i]));
+        }
+        return sb.append("]}").toString();
+    }
+
+    // 값 타입이 지원되지 않거나 NaN/무한대면 IllegalArgumentException
+    static String setArgs(Map<String, ?> values) {
+        StringBuilder sb = new StringBuilder(24 + values.size() * 64).append("{\"parameters\":[");
+        boolean first = true;
+        for (Map.Entry<String, ?> e : values.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"name\":").append(JSONObject.quote(e.getKey())).append(",\"value\":");
+            appendValue(sb, e.getKey(), e.getValue());
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void appendValue(StringBuilder sb, String name, Object v) {
+        if (v instanceof Boolean) {
+            sb.append("{\"type\":").append(TYPE_BOOL).append(",\"bool_value\":").append(v).append('}');
+        } else if (v instanceof Long || v instanceof Integer) {
+            sb.append("{\"type\":").append(TYPE_INTEGER).append(",\"integer_value\":").append(v).append('}');
+        } else if (v instanceof Number) {
+            double d = ((Number) v).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) throw new IllegalArgumentException(name + ": " + d);
+            sb.append("{\"type\":").append(TYPE_DOUBLE).append(",\"double_value\":").append(d).append('}');
+        } else if (v instanceof String) {
+            sb.append("{\"type\":").append(TYPE_STRING).append(",\"string_value\":")
+                    .append(JSONObject.quote((String) v)).append('}');
+        } else {
+            throw new IllegalArgumentException(name + ": unsupported parameter value " + v);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // get_parameters 응답 -> 이름별 값 (요청 순서, 선언되지 않은 파라미터 = null)
+    //  - 실패 응답이거나 values 가 없으면 빈 맵
+    // ----------------------------------------------------------
+    static Map<String, Object> values(ServiceResponse response, String... names) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        JsonMessageReader r = response != null && response.ok ? response.values() : null;
+        if (r == null) return out;
+        int pos = r.firstElement(r.find(P_VALUES));
+        for (int i = 0; i < names.length && pos >= 0; i++) {
+            out.put(names[i], valueAt(r, pos));
+            pos = r.nextElement(pos);
+        }
+        return out;
+    }
+
+    // ParameterValue 객체 하나 (r 의 기준 객체를 바꿈)
+    private static Object valueAt(JsonMessageReader r, int pos) {
+        r.setRoot(pos);
+        switch (r.getInt(P_TYPE, TYPE_NOT_SET)) {
+            case TYPE_BOOL: return r.booleanAt(r.find(P_BOOL), false);
+            case TYPE_INTEGER: return (long) r.getDouble(P_INTEGER, 0);
+            case TYPE_DOUBLE: return r.getDouble(P_DOUBLE, Double.NaN);
+            case TYPE_STRING: return r.getString(P_STRING);
+            default: return null; // 선언 안 됨, 배열 타입
+        }
+    }
+
+    // ----------------------------------------------------------
+    // set_parameters 응답 -> 거절된 파라미터 이름과 이유 (모두 적용됐으면 빈 맵)
+    //  - requested: setArgs 에 넘긴 맵 (응답 results 는 같은 순서)
+    //  - 서비스 호출 자체가 실패하면 모든 이름에 같은 이유
+    // ----------------------------------------------------------
+    static Map<String, String> failures(ServiceResponse response, Map<String, ?> requested) {
+        Map<String, String> out = new LinkedHashMap<>();
+        JsonMessageReader r = response != null && response.ok ? response.values() : null;
+        int pos = r != null ? r.firstElement(r.find(P_RESULTS)) : -1;
+        String fallback = response == null ? "no response" : (response.ok ? "missing result" : response.error());
+        for (String name : requested.keySet()) {
+            if (pos < 0) {
+                out.put(name, fallback);
+                continue;
+            }
+            r.setRoot(pos);
+            if (!r.booleanAt(r.find(P_SUCCESSFUL), false)) {
+                String reason = r.getString(P_REASON);
+                out.put(name, reason == null || reason.isEmpty() ? "rejected" : reason);
+            }
+            pos = r.nextElement(pos);
+        }
+        return out;
+    }
+}
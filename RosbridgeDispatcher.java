@@ -0,0 +1,196 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // 바이너리(CBOR) 프레임
+
+// ============================================================
+// RosbridgeDispatcher: 수신 프레임을 토픽별 디코더로 라우팅
+//  - "topic" 필드만 먼저 스트리밍으로 읽어 등록된 디코더를 찾음
+//  - 디코더는 구독 id(SUB_BATTERY 등) 단위로 등록/해제
+//  - 텍스트(JSON), 바이너리(CBOR/cbor-raw), op "png" 프레임, op "fragment" 조각(FragmentAssembler) 지원
+//  - 수신 스레드 하나에서만 dispatch() 호출 (reader 재사용)
+//  - 계측(setMetrics): 라우팅(parse) 시간 + 토픽별 메시지/바이트/디코드 시간
+// ============================================================
+final class RosbridgeDispatcher {
+
+    // op "png" 프레임의 PNG 를 원래 JSON 문자열로 복원 (플랫폼 이미지 디코더 사용)
+    interface PngUnpacker {
+        String unpack(byte[] png, int length);
+    }
+
+    private static final String[] PNG_DATA = {"data"};
+
+    // 등록된 라우트 (구독 수가 적으므로 배열 선형 탐색이 가장 빠름)
+    private volatile Route[] routes = new Route[0];
+
+    private final JsonMessageReader reader = new JsonMessageReader(); // 재사용 토크나이저
+    private final CborMessageReader cborReader = new CborMessageReader(); // 재사용 CBOR 리더
+    private PngUnpacker pngUnpacker; // png 압축 구독 시 설정
+    private byte[] pngBuffer; // png base64 디코드 재사용 버퍼
+    private final FragmentAssembler fragments = new FragmentAssembler(); // fragment_size 구독의 조각 복원
+    private volatile TelemetryMetrics metrics; // null = 계측 끔
+
+    private static final class Route {
+        final String id; // 구독 id
+        final String topic; // 토픽 이름
+        final TopicDecoder decoder; // 토픽 디코더
+        TelemetryMetrics.TopicStats stats; // 계측 항목 캐시 (디코드 스레드 전용)
+
+        Route(String id, String topic, TopicDecoder decoder) {
+            this.id = id;
+            this.topic = topic;
+            this.decoder = decoder;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 구독 id 로 디코더 등록 (같은 id 가 있으면 교체)
+    // ----------------------------------------------------------
+    synchronized void register(String id, String topic, TopicDecoder decoder) {
+        Route[] old = routes;
+        int idx = indexOf(old, id);
+        Route[] next;
+        if (idx >= 0) {
+            next = old.clone();
+        } else {
+            next = java.util.Arrays.copyOf(old, old.length + 1);
+            idx = old.length;
+        }
+        next[idx] = new Route(id, topic, decoder);
+        routes = next;
+    }
+
+    // 구독 id 로 디코더 해제
+    synchronized void unregister(String id) {
+        Route[] old = routes;
+        int idx = indexOf(old, id);
+        if (idx < 0) return;
+        Route[] next = new Route[old.length - 1];
+        System.arraycopy(old, 0, next, 0, idx);
+        System.arraycopy(old, idx + 1, next, idx, old.length - idx - 1);
+        routes = next;
+    }
+
+    private static int indexOf(Route[] rs, String id) {
+        for (int i = 0; i < rs.length; i++) {
+            if (rs[i].id.equals(id)) return i;
+        }
+        return -1;
+    }
+
+    void setPngUnpacker(PngUnpacker unpacker) {
+        this.pngUnpacker = unpacker;
+    }
+
+    // 계측 (start 전에 설정, null = 끔)
+    void setMetrics(TelemetryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // 조각 조립 카운터 (다른 스레드에서 읽기 가능)
+    FragmentAssembler fragments() {
+        return fragments;
+    }
+
+    // ----------------------------------------------------------
+    // 텍스트 프레임 처리: 처리했으면 true, 등록되지 않은 토픽이면 false
+    // ----------------------------------------------------------
+    boolean dispatch(String text) {
+        TelemetryMetrics m = metrics;
+        long start = m != null ? System.nanoTime() : 0;
+        JsonMessageReader r = reader;
+        r.reset(text);
+        int topicPos = r.findTopLevel("topic"); // topic 필드만 먼저 읽음
+        if (topicPos < 0) return dispatchOp(r, m); // topic 필드가 없으면 png/fragment 프레임인지 확인
+
+        Route[] rs = routes;
+        for (Route route : rs) {
+            if (r.stringEquals(topicPos, route.topic)) {
+                int msgPos = r.findTopLevel("msg"); // msg 페이로드 위치
+                if (msgPos < 0) return unrouted(m);
+                r.setRoot(msgPos);
+                long decodeStart = parsed(m, start);
+                route.decoder.decode(r);
+                if (m != null) stats(route, m).record(text.length(), decodeStart);
+                return true;
+            }
+        }
+        return unrouted(m);
+    }
+
+    // ----------------------------------------------------------
+    // 바이너리 프레임(CBOR) 처리
+    //  - cbor-raw 구독이면 msg.bytes(CDR)를 RawTopicDecoder 로 넘김
+    // ----------------------------------------------------------
+    boolean dispatch(ByteBuffer frame) {
+        TelemetryMetrics m = metrics;
+        long start = m != null ? System.nanoTime() : 0;
+        int frameBytes = frame.remaining();
+        CborMessageReader r = cborReader;
+        r.reset(frame);
+        int topicPos = r.findTopLevel("topic");
+        if (topicPos < 0) return unrouted(m);
+
+        Route[] rs = routes;
+        for (Route route : rs) {
+            if (r.stringEquals(topicPos, route.topic)) {
+                int msgPos = r.findTopLevel("msg");
+                if (msgPos < 0) return unrouted(m);
+                if (route.decoder instanceof RawTopicDecoder) {
+                    int raw = r.byteStringAt(r.findField(msgPos, "bytes"));
+                    if (raw >= 0) {
+                        long decodeStart = parsed(m, start);
+                        ((RawTopicDecoder) route.decoder).decodeRaw(r.buffer(), raw, r.byteCount());
+                        if (m != null) stats(route, m).record(frameBytes, decodeStart);
+                        return true;
+                    }
+                }
+                r.setRoot(msgPos);
+                long decodeStart = parsed(m, start);
+                route.decoder.decode(r);
+                if (m != null) stats(route, m).record(frameBytes, decodeStart);
+                return true;
+            }
+        }
+        return unrouted(m);
+    }
+
+    // ----------------------------------------------------------
+    // 계측 보조 (m null = 계측 끔)
+    // ----------------------------------------------------------
+    // 라우팅 끝: parse 시간 기록 후 디코드 시작 시각 반환
+    private static long parsed(TelemetryMetrics m, long start) {
+        if (m == null) return 0;
+        long now = System.nanoTime();
+        m.parse.recordNanos(now - start);
+        return now;
+    }
+
+    private static boolean unrouted(TelemetryMetrics m) {
+        if (m != null) m.unrouted.incrementAndGet();
+        return false;
+    }
+
+    private static TelemetryMetrics.TopicStats stats(Route route, TelemetryMetrics m) {
+        TelemetryMetrics.TopicStats s = route.stats;
+        if (s == null) route.stats = s = m.inbound(route.topic);
+        return s;
+    }
+
+    // topic 없는 프레임: op "fragment" 는 조각 조립, op "png" 는 PNG 복원 후 재처리
+    //  (reset 직후라 경로 기준은 최상위 객체)
+    //  (복원한 JSON 은 dispatch 에서 다시 계측, 조각 자체는 세지 않음)
+    private boolean dispatchOp(JsonMessageReader r, TelemetryMetrics m) {
+        int opPos = r.findTopLevel("op");
+        if (r.stringEquals(opPos, "fragment")) {
+            long droppedBefore = fragments.droppedCount();
+            String json = fragments.accept(r);
+            if (m != null) m.fragmentsDropped.addAndGet(fragments.droppedCount() - droppedBefore);
+            return json == null || dispatch(json); // 중간 조각은 처리한 것으로 봄
+        }
+        if (pngUnpacker == null || !r.stringEquals(opPos, "png")) return unrouted(m);
+        pngBuffer = r.getBytes(PNG_DATA, pngBuffer);
+        if (r.byteCount() == 0) return unrouted(m);
+        String json = pngUnpacker.unpack(pngBuffer, r.byteCount());
+        return json != null ? dispatch(json) : unrouted(m);
+    }
+}
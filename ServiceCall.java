@@ -0,0 +1,157 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// ============================================================
+// ServiceCall: call_service 요청 하나의 결과 (ServiceClient 가 요청 id 로 응답과 짝지음)
+//  - Future: get() 은 끝날 때까지 블록 -> UI 스레드에서는 whenDone 사용
+//  - whenDone 콜백은 완료시킨 스레드에서 한 번 호출 (응답: WebSocket 리더, 시간 초과: 연결 타이머,
+//    이미 끝났으면 등록한 스레드) -> 가볍게 처리하고 UI 갱신은 Handler 로 넘김
+//  - 실패: 시간 초과(TimeoutException), 연결 없음/끊김/동시 요청 초과(IOException)
+//    get() 에서는 ExecutionException 으로 감싸서 던짐
+//  - cancel: 대기 목록에서 빼고 늦게 온 응답은 버림 (rosbridge 에는 호출 취소 op 가 없어 서버는 계속 처리)
+//  - ok 응답이 아니어도(result false) 완료로 봄 -> succeeded() 로 확인
+// ============================================================
+final class ServiceCall implements Future<ServiceResponse> {
+
+    interface Callback {
+        void onDone(ServiceCall call);
+    }
+
+    final String id; // rosbridge 요청 id
+    final String service;
+    final long sentNanos = System.nanoTime();
+    volatile ScheduledFuture<?> timeout; // 시간 초과 작업 (완료되면 취소)
+
+    private final ServiceClient owner; // 취소할 때 대기 목록에서 제거 (null = 보내지 못한 호출)
+
+    // --- 결과 (lock = this) ---
+    private boolean done;
+    private boolean cancelled;
+    private ServiceResponse response;
+    private Throwable failure;
+    private Callback callback;
+
+    ServiceCall(String id, String service, ServiceClient owner) {
+        this.id = id;
+        this.service = service;
+        this.owner = owner;
+    }
+
+    // ----------------------------------------------------------
+    // 완료 (처음 한 번만 유효, 이미 끝났으면 false)
+    // ----------------------------------------------------------
+    boolean complete(ServiceResponse r) {
+        return finish(r, null, false);
+    }
+
+    boolean fail(Throwable cause) {
+        return finish(null, cause, false);
+    }
+
+    private boolean finish(ServiceResponse r, Throwable cause, boolean cancel) {
+        Callback cb;
+        synchronized (this) {
+            if (done) return false;
+            done = true;
+            response = r;
+            failure = cause;
+            cancelled = cancel;
+            cb = callback;
+            callback = null;
+            notifyAll();
+        }
+        ScheduledFuture<?> t = timeout;
+        if (t != null) t.cancel(false);
+        if (cb != null) cb.onDone(this);
+        return true;
+    }
+
+    // 완료 콜백 (하나만, 다시 등록하면 교체)
+    ServiceCall whenDone(Callback cb) {
+        synchronized (this) {
+            if (!done) {
+                callback = cb;
+                return this;
+            }
+        }
+        cb.onDone(this);
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // Future
+    // ----------------------------------------------------------
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!finish(null, null, true)) return false;
+        if (owner != null) owner.forget(this);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public synchronized ServiceResponse get() throws InterruptedException, ExecutionException {
+        while (!done) wait();
+        return result();
+    }
+
+    @Override
+    public synchronized ServiceResponse get(long time, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        while (!done) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) throw new TimeoutException("service call " + service + " still pending");
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return result();
+    }
+
+    private ServiceResponse result() throws ExecutionException {
+        if (cancelled) throw new CancellationException("service call " + service + " cancelled");
+        if (failure != null) throw new ExecutionException(failure);
+        return response;
+    }
+
+    // ----------------------------------------------------------
+    // 블록하지 않는 결과 조회 (whenDone 콜백 안에서 사용)
+    // ----------------------------------------------------------
+    // 응답 (실패/취소/대기 중이면 null)
+    synchronized ServiceResponse response() {
+        return response;
+    }
+
+    // 실패 원인 (성공/취소/대기 중이면 null)
+    synchronized Throwable failure() {
+        return failure;
+    }
+
+    // 응답을 받았고 result true
+    synchronized boolean succeeded() {
+        return response != null && response.ok;
+    }
+
+    // 사용자에게 보여줄 실패 이유 (성공이면 null)
+    synchronized String failureMessage() {
+        if (!done) return "pending";
+        if (cancelled) return "cancelled";
+        if (failure instanceof TimeoutException) return "timeout";
+        if (failure != null) return failure.getMessage();
+        return response.ok ? null : response.error();
+    }
+}
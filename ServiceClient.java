@@ -0,0 +1,170 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONObject; // 문자열 값 이스케이프 (JSONObject.quote)
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// ServiceClient: rosbridge call_service 요청/응답 짝짓기 (한 소켓에 여러 요청을 동시에)
+//  - 요청 id = "svc_<번호>", 응답의 id 로 대기 중인 ServiceCall 을 찾아 완료
+//  - 응답을 기다리지 않고 계속 보냄 (파이프라인), 동시 대기는 MAX_IN_FLIGHT 까지
+//  - 응답은 WebSocket 리더 스레드에서 바로 처리 (디코드 큐를 거치지 않음: 텔레메트리가 밀려도
+//    큐에서 버려지지 않음), 맨 앞 "op" 만 보고 나머지 프레임은 바로 넘김
+//  - 요청마다 시간 초과 (연결 타이머), 끊기면 대기 중인 요청을 모두 실패 처리
+//    (rosbridge 는 다른 연결에서 보낸 요청에 응답하지 않음)
+//  - args 는 미리 만든 JSON 객체 문자열 (CommandPublisher 처럼 JSONObject 트리 없음)
+// ============================================================
+final class ServiceClient {
+
+    static final int MAX_IN_FLIGHT = 64; // 동시에 응답을 기다리는 요청 최대 수
+    static final long DEFAULT_TIMEOUT_MS = 3000;
+
+    private static final String ID_PREFIX = "svc_"; // ConnectionManager RTT 요청은 "rtt_"
+    private static final String[] P_ID = {"id"};
+
+    // 시간 초과 예약 (ConnectionManager.schedule, 정지 후에는 null)
+    interface Scheduler {
+        ScheduledFuture<?> schedule(Runnable task, long delayMs);
+    }
+
+    private final Scheduler scheduler;
+    private final ConcurrentHashMap<String, ServiceCall> pending = new ConcurrentHashMap<>();
+    private final JsonMessageReader reader = new JsonMessageReader(); // 리더 스레드 전용
+    private final AtomicLong seq = new AtomicLong();
+    private volatile MessageSender sender; // null = 연결 없음
+    private volatile LatencyHistogram histogram; // 계측 (null = 끔)
+
+    // --- 카운터 ---
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong(); // 응답 받음 (result false 포함)
+    private final AtomicLong failed = new AtomicLong(); // 보내지 못함/끊김
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong late = new AtomicLong(); // 시간 초과/취소 뒤에 온 응답
+
+    ServiceClient(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    // ----------------------------------------------------------
+    // 연결 변경 (null = 끊김: 대기 중인 요청 모두 실패)
+    // ----------------------------------------------------------
+    void setSender(MessageSender sender) {
+        this.sender = sender;
+        if (sender == null) failAll(new IOException("rosbridge connection closed"));
+    }
+
+    void setHistogram(LatencyHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    // ----------------------------------------------------------
+    // 요청 전송 (어느 스레드에서든, 비블로킹)
+    //  - argsJson: 요청 메시지 JSON 객체 (null = {})
+    //  - timeoutMs: 0 이하 = 시간 초과 없음 (끊기거나 취소할 때까지 대기)
+    //  - 보내지 못하면 이미 실패한 ServiceCall 을 반환
+    // ----------------------------------------------------------
+    ServiceCall call(String service, String argsJson, long timeoutMs) {
+        String id = ID_PREFIX + seq.incrementAndGet();
+        MessageSender s = sender;
+        if (s == null) return rejected(id, service, "rosbridge not connected");
+        if (pending.size() >= MAX_IN_FLIGHT) return rejected(id, service, "too many service calls in flight");
+
+        ServiceCall call = new ServiceCall(id, service, this);
+        pending.put(id, call); // 응답이 send 보다 먼저 처리될 수 있으므로 전송 전에 등록
+        if (timeoutMs > 0) {
+            call.timeout = scheduler.schedule(() -> {
+                if (!pending.remove(id, call)) return; // 이미 응답/취소
+                if (call.fail(new TimeoutException(service + " timed out after " + timeoutMs + " ms"))) {
+                    timedOut.incrementAndGet();
+                }
+            }, timeoutMs);
+        }
+        String json = "{\"op\":\"call_service\",\"id\":\"" + id + "\",\"service\":" + JSONObject.quote(service)
+                + ",\"args\":" + (argsJson != null ? argsJson : "{}") + "}";
+        if (!s.send(json)) {
+            pending.remove(id, call);
+            if (call.fail(new IOException("rosbridge send failed"))) failed.incrementAndGet();
+            return call;
+        }
+        sent.incrementAndGet();
+        return call;
+    }
+
+    private ServiceCall rejected(String id, String service, String reason) {
+        ServiceCall call = new ServiceCall(id, service, null);
+        call.fail(new IOException(reason));
+        failed.incrementAndGet();
+        return call;
+    }
+
+    // ServiceCall.cancel: 대기 목록에서 제거 (늦게 온 응답은 late 로 셈)
+    void forget(ServiceCall call) {
+        if (pending.remove(call.id, call)) cancelled.incrementAndGet();
+    }
+
+    private void failAll(Throwable cause) {
+        for (ServiceCall call : pending.values()) {
+            if (pending.remove(call.id, call) && call.fail(cause)) failed.incrementAndGet();
+        }
+    }
+
+    // ----------------------------------------------------------
+    // WebSocket 리더 스레드: 이 클라이언트가 보낸 요청의 응답이면 처리하고 true
+    //  (토픽 프레임/다른 요청의 응답은 false -> 디코드 큐로)
+    // ----------------------------------------------------------
+    boolean onText(String text) {
+        if (seq.get() == 0) return false; // 요청을 보낸 적 없음
+        JsonMessageReader r = reader;
+        r.reset(text);
+        if (!r.stringEquals(r.findTopLevel("op"), "service_response")) return false; // rosbridge 는 op 를 맨 앞에 씀
+        int idPos = r.findTopLevel("id");
+        if (idPos < 0 || !text.startsWith(ID_PREFIX, idPos + 1)) return false;
+        ServiceCall call = pending.remove(r.getString(P_ID));
+        if (call == null) { // 시간 초과/취소/이전 연결의 요청
+            late.incrementAndGet();
+            return true;
+        }
+        long rtt = System.nanoTime() - call.sentNanos;
+        LatencyHistogram h = histogram;
+        if (h != null) h.recordNanos(rtt);
+        boolean ok = r.booleanAt(r.findTopLevel("result"), false);
+        if (call.complete(new ServiceResponse(call.service, ok, rtt, text))) completed.incrementAndGet();
+        return true;
+    }
+
+    // ----------------------------------------------------------
+    // 카운터
+    // ----------------------------------------------------------
+    int inFlight() {
+        return pending.size();
+    }
+
+    long sentCount() {
+        return sent.get();
+    }
+
+    long completedCount() {
+        return completed.get();
+    }
+
+    long failedCount() {
+        return failed.get();
+    }
+
+    long timedOutCount() {
+        return timedOut.get();
+    }
+
+    long cancelledCount() {
+        return cancelled.get();
+    }
+
+    long lateCount() {
+        return late.get();
+    }
+}
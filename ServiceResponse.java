@@ -0,0 +1,51 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// ServiceResponse: rosbridge service_response 프레임 하나
+//  - ok = "result" (false 면 서비스 없음/호출 실패, values 는 보통 오류 문자열 -> error())
+//  - values() 는 필요할 때 새 JsonMessageReader 로 읽음 (응답을 받은 스레드와 무관하게 사용 가능)
+// ============================================================
+final class ServiceResponse {
+
+    private static final String[] P_VALUES = {"values"};
+
+    final String service; // 서비스 이름
+    final boolean ok; // rosbridge "result"
+    final long roundTripNanos; // 요청 전송 -> 응답 수신
+    private final String text; // 응답 프레임 원문
+
+    ServiceResponse(String service, boolean ok, long roundTripNanos, String text) {
+        this.service = service;
+        this.ok = ok;
+        this.roundTripNanos = roundTripNanos;
+        this.text = text;
+    }
+
+    // ----------------------------------------------------------
+    // 응답 값 읽기 (기준 객체 = "values", 없으면 null)
+    // ----------------------------------------------------------
+    JsonMessageReader values() {
+        JsonMessageReader r = new JsonMessageReader();
+        r.reset(text);
+        int pos = r.findTopLevel("values");
+        if (pos < 0) return null;
+        r.setRoot(pos);
+        return r;
+    }
+
+    // 실패 응답의 오류 메시지 (없으면 null)
+    String error() {
+        if (ok) return null;
+        JsonMessageReader r = new JsonMessageReader();
+        r.reset(text);
+        return r.getString(P_VALUES);
+    }
+
+    long roundTripMs() {
+        return roundTripNanos / 1_000_000L;
+    }
+
+    String text() {
+        return text;
+    }
+}
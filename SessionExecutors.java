@@ -0,0 +1,85 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// ============================================================
+// SessionExecutors: 여러 rosbridge 세션이 나눠 쓰는 스레드 (플릿 모드)
+//  - timer: 재연결/RTT/카메라 협상/명령 drain 예약 (짧은 작업만, 스레드 1~2개)
+//  - workers: 디코드 파이프라인 비우기 작업
+//    JVM 21+ 이면 가상 스레드 (리플렉션으로 확인), 아니면(안드로이드 포함) 코어 수만큼 고정 풀
+//  - 로봇 수가 늘어도 스레드 수는 고정 (세션당 전용 스레드 3개 대신)
+// ============================================================
+final class SessionExecutors {
+
+    private static final Logger LOG = Logger.getLogger("SessionExecutors");
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final boolean virtualThreads; // workers 가 가상 스레드인지
+
+    SessionExecutors() {
+        this(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    // timerThreads: 타이머 스레드 수, platformWorkers: 가상 스레드가 없을 때 워커 수
+    SessionExecutors(int timerThreads, int platformWorkers) {
+        timer = Executors.newScheduledThreadPool(Math.max(1, timerThreads), daemonFactory("session-timer"));
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        workers = virtual != null ? virtual
+                : Executors.newFixedThreadPool(Math.max(2, platformWorkers), daemonFactory("session-worker"));
+        LOG.info("session workers: " + (virtualThreads ? "virtual threads" : Math.max(2, platformWorkers) + " threads"));
+    }
+
+    ScheduledExecutorService timer() {
+        return timer;
+    }
+
+    ExecutorService workers() {
+        return workers;
+    }
+
+    boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // 모든 세션을 닫은 뒤 호출
+    void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS); // 진행 중인 디코드 마무리
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    // ----------------------------------------------------------
+    // Executors.newVirtualThreadPerTaskExecutor() (Java 21) 가 있으면 사용
+    // ----------------------------------------------------------
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null; // 구버전 JVM / 안드로이드
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONException; // JSON 처리 중 발생하는 예외
+import org.json.JSONObject; // subscribe 요청 생성
+
+// ============================================================
+// Subscription: rosbridge 구독 하나의 설정
+//  - compression: none / png / cbor / cbor-raw
+//  - throttle_rate: 서버가 보내는 최소 간격(ms), 0 = 제한 없음
+//  - queue_length: 서버 측 대기열 길이 (1 = 최신 메시지만)
+//  - fragment_size: 이 크기(바이트)보다 큰 메시지는 조각으로 전송, 0 = 미사용
+//  - 값 변경은 SubscriptionManager 를 통해서만 (락 보호)
+// ============================================================
+final class Subscription {
+
+    final String id; // 구독 식별자 (unsubscribe 및 옵션 변경에 사용)
+    final String topic; // 토픽 이름
+    final String type; // 메시지 타입 (ROS2 형식)
+
+    String compression = "none";
+    int throttleRateMs = 0;
+    int queueLength = 1;
+    int fragmentSize = 0;
+
+    Subscription(String id, String topic, String type) {
+        this.id = id;
+        this.topic = topic;
+        this.type = type;
+    }
+
+    // --- 생성 시 기본값 지정용 체이닝 메서드 ---
+    Subscription compression(String compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    Subscription throttleRate(int ms) {
+        this.throttleRateMs = ms;
+        return this;
+    }
+
+    Subscription queueLength(int length) {
+        this.queueLength = length;
+        return this;
+    }
+
+    Subscription fragmentSize(int bytes) {
+        this.fragmentSize = bytes;
+        return this;
+    }
+
+    // ----------------------------------------------------------
+    // rosbridge subscribe 요청 JSON (같은 id 로 다시 보내면 옵션만 갱신됨)
+    // ----------------------------------------------------------
+    String toSubscribeJson() throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("op", "subscribe"); // rosbridge op: subscribe
+        obj.put("id", id); // 구독 식별자
+        obj.put("topic", topic); // 구독할 토픽 이름
+        obj.put("type", type); // 메시지 타입 문자열 (ROS2 형식)
+        obj.put("compression", compression); // 전송 압축
+        obj.put("throttle_rate", throttleRateMs); // 최소 전송 간격(ms)
+        obj.put("queue_length", queueLength); // 서버 측 대기열 길이
+        if (fragmentSize > 0) obj.put("fragment_size", fragmentSize); // 조각 크기
+        return obj.toString();
+    }
+
+    String toUnsubscribeJson() throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("op", "unsubscribe"); // rosbridge op: unsubscribe
+        obj.put("id", id); // 해제할 구독 id
+        obj.put("topic", topic);
+        return obj.toString();
+    }
+}
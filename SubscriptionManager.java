@@ -0,0 +1,107 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONException; // JSON 처리 중 발생하는 예외
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level; // 플랫폼 독립 로그 (안드로이드에서는 logcat 으로 출력)
+import java.util.logging.Logger;
+
+// ============================================================
+// SubscriptionManager: 활성 구독 목록 + 실행 중 옵션 변경
+//  - rosbridge 는 같은 id 로 subscribe 를 다시 받으면 옵션만 갱신하므로
+//    unsubscribe 없이 재전송 (수신 공백 없음)
+//  - 값이 바뀔 때만 전송, 연결이 없으면 목록만 갱신 (재연결 시 resubscribeAll)
+// ============================================================
+final class SubscriptionManager {
+
+    private static final Logger LOG = Logger.getLogger("SubscriptionManager");
+
+    private final Map<String, Subscription> active = new LinkedHashMap<>(); // id -> 구독
+    private MessageSender sender; // 현재 연결 (없으면 null)
+
+    synchronized void setSender(MessageSender sender) {
+        this.sender = sender;
+    }
+
+    // ----------------------------------------------------------
+    // 구독 추가/해제
+    // ----------------------------------------------------------
+    synchronized void subscribe(Subscription sub) {
+        active.put(sub.id, sub);
+        sendSubscribe(sub);
+    }
+
+    synchronized void unsubscribe(String id) {
+        Subscription sub = active.remove(id);
+        if (sub == null || sender == null) return;
+        try {
+            sender.send(sub.toUnsubscribeJson());
+        } catch (JSONException e) {
+            LOG.log(Level.WARNING, "Failed to build unsubscribe for " + sub.topic, e);
+        }
+    }
+
+    synchronized void unsubscribeAll() {
+        for (String id : active.keySet().toArray(new String[0])) unsubscribe(id);
+    }
+
+    // 재연결 직후: 활성 구독 전부 다시 전송
+    synchronized void resubscribeAll() {
+        for (Subscription sub : active.values()) sendSubscribe(sub);
+    }
+
+    synchronized Subscription get(String id) {
+        return active.get(id);
+    }
+
+    // ----------------------------------------------------------
+    // 실행 중 옵션 변경 (바뀐 경우에만 subscribe 재전송)
+    // ----------------------------------------------------------
+    synchronized void setThrottleRate(String id, int ms) {
+        Subscription sub = active.get(id);
+        if (sub == null || sub.throttleRateMs == ms) return;
+        sub.throttleRateMs = ms;
+        sendSubscribe(sub);
+    }
+
+    synchronized void setQueueLength(String id, int length) {
+        Subscription sub = active.get(id);
+        if (sub == null || sub.queueLength == length) return;
+        sub.queueLength = length;
+        sendSubscribe(sub);
+    }
+
+    synchronized void setFragmentSize(String id, int bytes) {
+        Subscription sub = active.get(id);
+        if (sub == null || sub.fragmentSize == bytes) return;
+        sub.fragmentSize = bytes;
+        sendSubscribe(sub);
+    }
+
+    // 압축 방식 변경은 메시지 형식이 바뀌므로 해제 후 다시 구독
+    synchronized void setCompression(String id, String compression) {
+        Subscription sub = active.get(id);
+        if (sub == null) return;
+        setCompression(id, compression, sub.fragmentSize);
+    }
+
+    // 압축 방식과 조각 크기를 함께 변경 (다시 구독 한 번)
+    synchronized void setCompression(String id, String compression, int fragmentSize) {
+        Subscription sub = active.get(id);
+        if (sub == null || (sub.compression.equals(compression) && sub.fragmentSize == fragmentSize)) return;
+        unsubscribe(id);
+        sub.compression = compression;
+        sub.fragmentSize = fragmentSize;
+        subscribe(sub);
+    }
+
+    private void sendSubscribe(Subscription sub) {
+        if (sender == null) return;
+        try {
+            sender.send(sub.toSubscribeJson());
+        } catch (JSONException e) {
+            LOG.log(Level.WARNING, "Failed to build subscribe for " + sub.topic, e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// TelemetryMetrics: 세션(또는 플릿 전체) 계측값 모음 (기록은 락 없음)
+//  - 수신: 프레임 수/와이어 바이트, 토픽 라우팅(parse) 시간, 토픽별 메시지/바이트/디코드 시간
+//  - 송신: 명령 토픽별 메시지/바이트, 큐 대기(enqueue -> 소켓) 시간
+//  - 기타: RTT, 서비스 호출 왕복, 연결/끊김 횟수, UI 갱신 지연(요청 -> vsync 렌더)과 렌더 시간, 카메라 픽셀 변환 시간
+//  - 토픽 항목은 처음 쓸 때 만들고 이후에는 호출한 쪽이 참조를 캐시 (기록 경로에 맵 조회 없음)
+//  - snapshot() 두 개의 차이로 초당 비율/구간 분위수 계산 (오버레이, 스냅샷 파일)
+//  - 여러 RosBridgeClient 가 하나를 공유하면 플릿 합계 (FleetManager)
+// ============================================================
+final class TelemetryMetrics {
+
+    // 토픽 하나의 메시지 수/바이트/처리 시간
+    static final class TopicStats {
+        final String topic;
+        final AtomicLong messages = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final LatencyHistogram latency; // 수신: 디코드 시간, 송신: 큐 대기 시간
+
+        TopicStats(String topic) {
+            this.topic = topic;
+            this.latency = new LatencyHistogram(topic);
+        }
+
+        void record(long byteCount, long startNanos) {
+            messages.incrementAndGet();
+            bytes.addAndGet(byteCount);
+            latency.recordSince(startNanos);
+        }
+    }
+
+    final AtomicLong framesIn = new AtomicLong(); // 수신 프레임 (텍스트 + 바이너리)
+    final AtomicLong bytesIn = new AtomicLong(); // 수신 와이어 바이트 (텍스트는 문자 수)
+    final AtomicLong unrouted = new AtomicLong(); // 등록되지 않은 토픽/형식 오류 프레임
+    final AtomicLong fragmentsDropped = new AtomicLong(); // 완성 못 하고 버린 op "fragment" 세트
+    final AtomicLong connects = new AtomicLong();
+    final AtomicLong disconnects = new AtomicLong();
+    final LatencyHistogram parse = new LatencyHistogram("parse"); // topic 찾기 + 라우팅
+    final LatencyHistogram rtt = new LatencyHistogram("rtt");
+    final LatencyHistogram service = new LatencyHistogram("service"); // call_service 요청 -> 응답 (ServiceClient)
+    final LatencyHistogram uiDelay = new LatencyHistogram("ui.delay"); // 갱신 요청 -> 렌더 시작
+    final LatencyHistogram uiFlush = new LatencyHistogram("ui.flush"); // 렌더(flush) 시간
+    final LatencyHistogram cameraConvert = new LatencyHistogram("camera.pixels"); // 픽셀 변환 + setPixels
+
+    private final Map<String, TopicStats> inbound = new LinkedHashMap<>();
+    private final Map<String, TopicStats> outbound = new LinkedHashMap<>();
+    private final long createdNanos = System.nanoTime();
+
+    // 수신 토픽 항목 (없으면 생성)
+    synchronized TopicStats inbound(String topic) {
+        TopicStats s = inbound.get(topic);
+        if (s == null) inbound.put(topic, s = new TopicStats(topic));
+        return s;
+    }
+
+    // 송신 토픽 항목 (없으면 생성)
+    synchronized TopicStats outbound(String topic) {
+        TopicStats s = outbound.get(topic);
+        if (s == null) outbound.put(topic, s = new TopicStats(topic));
+        return s;
+    }
+
+    // 수신 프레임 하나 (소켓 리더 스레드)
+    void recordFrame(long byteCount) {
+        framesIn.incrementAndGet();
+        bytesIn.addAndGet(byteCount);
+    }
+
+    // ----------------------------------------------------------
+    // 스냅샷: 누적 카운터 + 히스토그램 복사본
+    // ----------------------------------------------------------
+    Snapshot snapshot() {
+        List<TopicStats> in, out;
+        synchronized (this) {
+            in = new ArrayList<>(inbound.values());
+            out = new ArrayList<>(outbound.values());
+        }
+        return new Snapshot(this, in, out);
+    }
+
+    static final class TopicSnapshot {
+        final String topic;
+        final long messages, bytes;
+        final LatencyHistogram.Snapshot latency;
+
+        TopicSnapshot(TopicStats s) {
+            topic = s.topic;
+            messages = s.messages.get();
+            bytes = s.bytes.get();
+            latency = s.latency.snapshot();
+        }
+    }
+
+    static final class Snapshot {
+        final long nanos; // 스냅샷 시각
+        final double uptimeS;
+        final long framesIn, bytesIn, unrouted, fragmentsDropped, connects, disconnects;
+        final LatencyHistogram.Snapshot parse, rtt, service, uiDelay, uiFlush, cameraConvert;
+        final List<TopicSnapshot> inbound = new ArrayList<>();
+        final List<TopicSnapshot> outbound = new ArrayList<>();
+
+        Snapshot(TelemetryMetrics m, List<TopicStats> in, List<TopicStats> out) {
+            nanos = System.nanoTime();
+            uptimeS = (nanos - m.createdNanos) * 1e-9;
+            framesIn = m.framesIn.get();
+            bytesIn = m.bytesIn.get();
+            unrouted = m.unrouted.get();
+            fragmentsDropped = m.fragmentsDropped.get();
+            connects = m.connects.get();
+            disconnects = m.disconnects.get();
+            parse = m.parse.snapshot();
+            rtt = m.rtt.snapshot();
+            service = m.service.snapshot();
+            uiDelay = m.uiDelay.snapshot();
+            uiFlush = m.uiFlush.snapshot();
+            cameraConvert = m.cameraConvert.snapshot();
+            for (TopicStats s : in) inbound.add(new TopicSnapshot(s));
+            for (TopicStats s : out) outbound.add(new TopicSnapshot(s));
+        }
+
+        // ----------------------------------------------------------
+        // 오버레이용 여러 줄 텍스트 (prev 이후 구간, prev null = 시작 이후)
+        // ----------------------------------------------------------
+        String report(Snapshot prev) {
+            double dt = prev == null ? uptimeS : (nanos - prev.nanos) * 1e-9;
+            StringBuilder sb = new StringBuilder(512);
+            sb.append(String.format(Locale.US, "in %.0f msg/s %.1f KB/s  unrouted %d  frag.drop %d  conn %d/%d%n",
+                    rate(framesIn, prev == null ? 0 : prev.framesIn, dt),
+                    rate(bytesIn, prev == null ? 0 : prev.bytesIn, dt) / 1024,
+                    unrouted, fragmentsDropped, connects, disconnects));
+            line(sb, "parse", parse.minus(prev == null ? null : prev.parse));
+            line(sb, "rtt", rtt.minus(prev == null ? null : prev.rtt));
+            line(sb, "service", service.minus(prev == null ? null : prev.service));
+            for (TopicSnapshot t : inbound) topicLine(sb, "< ", t, find(prev == null ? null : prev.inbound, t.topic), dt);
+            for (TopicSnapshot t : outbound) topicLine(sb, "> ", t, find(prev == null ? null : prev.outbound, t.topic), dt);
+            line(sb, "camera.pixels", cameraConvert.minus(prev == null ? null : prev.cameraConvert));
+            line(sb, "ui.delay", uiDelay.minus(prev == null ? null : prev.uiDelay));
+            line(sb, "ui.flush", uiFlush.minus(prev == null ? null : prev.uiFlush));
+            return sb.toString();
+        }
+
+        // ----------------------------------------------------------
+        // 스냅샷 파일용 JSON 한 줄 (누적값 + prev 이후 구간 비율/분위수)
+        // ----------------------------------------------------------
+        String toJson(Snapshot prev, long epochMs) {
+            double dt = prev == null ? uptimeS : (nanos - prev.nanos) * 1e-9;
+            StringBuilder sb = new StringBuilder(1024);
+            sb.append("{\"t\":").append(epochMs)
+                    .append(",\"uptime_s\":").append(num(uptimeS))
+                    .append(",\"frames_in\":").append(framesIn)
+                    .append(",\"bytes_in\":").append(bytesIn)
+                    .append(",\"bytes_in_per_s\":").append(num(rate(bytesIn, prev == null ? 0 : prev.bytesIn, dt)))
+                    .append(",\"unrouted\":").append(unrouted)
+                    .append(",\"fragments_dropped\":").append(fragmentsDropped)
+                    .append(",\"connects\":").append(connects)
+                    .append(",\"disconnects\":").append(disconnects);
+            jsonHist(sb, "parse", parse.minus(prev == null ? null : prev.parse));
+            jsonHist(sb, "rtt", rtt.minus(prev == null ? null : prev.rtt));
+            jsonHist(sb, "service", service.minus(prev == null ? null : prev.service));
+            jsonHist(sb, "camera_pixels", cameraConvert.minus(prev == null ? null : prev.cameraConvert));
+            jsonHist(sb, "ui_delay", uiDelay.minus(prev == null ? null : prev.uiDelay));
+            jsonHist(sb, "ui_flush", uiFlush.minus(prev == null ? null : prev.uiFlush));
+            jsonTopics(sb, "inbound", inbound, prev == null ? null : prev.inbound, dt);
+            jsonTopics(sb, "outbound", outbound, prev == null ? null : prev.outbound, dt);
+            return sb.append('}').toString();
+        }
+
+        private static void topicLine(StringBuilder sb, String dir, TopicSnapshot t, TopicSnapshot p, double dt) {
+            LatencyHistogram.Snapshot h = t.latency.minus(p == null ? null : p.latency);
+            sb.append(String.format(Locale.US, "%s%s %.1f/s %.1f KB/s", dir, t.topic,
+                    rate(t.messages, p == null ? 0 : p.messages, dt),
+                    rate(t.bytes, p == null ? 0 : p.bytes, dt) / 1024));
+            percentiles(sb, h);
+            sb.append('\n');
+        }
+
+        private static void line(StringBuilder sb, String name, LatencyHistogram.Snapshot h) {
+            if (h.count == 0) return;
+            sb.append(name);
+            percentiles(sb, h);
+            sb.append('\n');
+        }
+
+        private static void percentiles(StringBuilder sb, LatencyHistogram.Snapshot h) {
+            if (h.count == 0) return;
+            sb.append(String.format(Locale.US, "  p50 %s p99 %s max %s",
+                    ms(h.percentileNanos(0.50)), ms(h.percentileNanos(0.99)), ms(h.maxNanos)));
+        }
+
+        private static void jsonHist(StringBuilder sb, String name, LatencyHistogram.Snapshot h) {
+            sb.append(",\"").append(name).append("\":{\"n\":").append(h.count)
+                    .append(",\"mean_ms\":").append(num(h.meanNanos() / 1e6))
+                    .append(",\"p50_ms\":").append(num(h.percentileNanos(0.50) / 1e6))
+                    .append(",\"p90_ms\":").append(num(h.percentileNanos(0.90) / 1e6))
+                    .append(",\"p99_ms\":").append(num(h.percentileNanos(0.99) / 1e6))
+                    .append(",\"max_ms\":").append(num(h.maxNanos / 1e6)).append('}');
+        }
+
+        private static void jsonTopics(StringBuilder sb, String name, List<TopicSnapshot> ts,
+                                       List<TopicSnapshot> prev, double dt) {
+            sb.append(",\"").append(name).append("\":{");
+            for (int i = 0; i < ts.size(); i++) {
+                TopicSnapshot t = ts.get(i), p = find(prev, t.topic);
+                if (i > 0) sb.append(',');
+                sb.append('"').append(t.topic).append("\":{\"messages\":").append(t.messages)
+                        .append(",\"bytes\":").append(t.bytes)
+                        .append(",\"msg_per_s\":").append(num(rate(t.messages, p == null ? 0 : p.messages, dt)))
+                        .append(",\"bytes_per_s\":").append(num(rate(t.bytes, p == null ? 0 : p.bytes, dt)));
+                jsonHist(sb, "latency", t.latency.minus(p == null ? null : p.latency));
+                sb.append('}');
+            }
+            sb.append('}');
+        }
+
+        private static TopicSnapshot find(List<TopicSnapshot> list, String topic) {
+            if (list == null) return null;
+            for (TopicSnapshot t : list) {
+                if (t.topic.equals(topic)) return t;
+            }
+            return null;
+        }
+
+        private static double rate(long now, long before, double dt) {
+            return dt <= 0 ? 0 : (now - before) / dt;
+        }
+
+        private static String ms(long nanos) {
+            return String.format(Locale.US, nanos < 10_000_000 ? "%.2fms" : "%.0fms", nanos / 1e6);
+        }
+
+        // JSON 숫자 (NaN/Infinity 는 JSON 이 아니므로 null)
+        private static String num(double v) {
+            if (Double.isNaN(v) || Double.isInfinite(v)) return "null";
+            return String.format(Locale.US, "%.3f", v);
+        }
+    }
+}
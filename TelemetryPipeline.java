@@ -0,0 +1,353 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.nio.ByteBuffer; // 바이너리 프레임
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level; // 플랫폼 독립 로그 (안드로이드에서는 logcat 으로 출력)
+import java.util.logging.Logger;
+
+// ============================================================
+// TelemetryPipeline: 소켓 수신 스레드와 디코드를 분리하는 전용 워커
+//  - OkHttp 리더 스레드는 큐에 넣고 바로 반환 (절대 블록하지 않음)
+//  - 레인 두 개: 작은 프레임(배터리/오돔/IMU/응답) 과 대용량 프레임(카메라 등 BULK_FRAME_BYTES 이상, op "fragment" 조각)
+//    워커는 작은 레인을 먼저 비움 -> 큰 프레임이 밀려 있어도 배터리 안전 검사가 그 뒤에 줄 서지 않음
+//    (이미 디코드 중인 큰 프레임 하나만 기다림, 레인 안에서는 도착 순서 유지)
+//  - 작은 레인은 개수(capacity) 상한: 넘치면 대기 프레임이 가장 많은 토픽의 가장 오래된 프레임을 버림
+//    (IMU/오돔 폭주가 다른 토픽을 밀어내지 않음 -> 혼자 대기 중인 배터리 프레임은 버리지 않음)
+//    토픽은 프레임 앞부분의 "topic" 값 (JSON/CBOR 모두, rosbridge 는 op 다음에 topic 을 씀)
+//  - 대용량 레인은 바이트(bulkBudgetBytes) 상한: 넘치면 가장 오래된 프레임을 버림
+//    (대용량 레인에서 버린 조각의 세트는 FragmentAssembler 가 바로 폐기)
+//  - 디코드는 워커 스레드 하나에서 수행 (디스패처 reader 재사용 조건)
+//  - 공유 Executor 를 주면 전용 스레드 대신 큐가 빌 때까지 비우는 작업을 제출
+//    (로봇 여러 대가 스레드를 나눠 씀, 한 파이프라인의 작업은 동시에 하나만 실행)
+// ============================================================
+final class TelemetryPipeline {
+
+    interface FrameHandler {
+        void onText(String text); // JSON 텍스트 프레임
+
+        void onBinary(ByteBuffer frame); // CBOR 바이너리 프레임
+    }
+
+    private static final Logger LOG = Logger.getLogger("TelemetryPipeline");
+    private static final int DRAIN_BATCH = 64; // 공유 실행기에서 한 번에 처리할 최대 프레임 (다른 로봇 양보)
+
+    static final int BULK_FRAME_BYTES = 16 * 1024; // 이 크기 이상은 대용량 레인
+    static final int BULK_BUDGET_BYTES = 4 * 1024 * 1024; // 대용량 레인 대기 바이트 상한
+    private static final String FRAGMENT_OP = "\"fragment\""; // {"op": "fragment", ...}
+    private static final int OP_SCAN_CHARS = 48; // op 는 프레임 앞부분에 있음
+    private static final String TOPIC_KEY = "\"topic\"";
+    private static final byte[] CBOR_TOPIC_KEY = {0x65, 't', 'o', 'p', 'i', 'c'}; // CBOR 텍스트 "topic"
+    private static final int TOPIC_SCAN_CHARS = 96; // topic 은 op 바로 뒤
+    private static final String NO_TOPIC = ""; // 토픽 없는 프레임 (상태/응답 등): 한 묶음으로 셈
+    private static final int MAX_KNOWN_TOPICS = 32; // 이름을 캐시할 토픽 수 (넘으면 프레임마다 새 문자열)
+
+    private final Object lock = new Object(); // 두 레인 공용 (워커 대기/깨움)
+    private final ArrayDeque<Object> queue; // 작은 프레임: String 또는 ByteBuffer
+    private final ArrayDeque<String> topics; // queue 와 같은 순서의 프레임별 토픽 (lock)
+    private volatile String[] knownTopics = new String[0]; // 본 토픽 이름 (수신 스레드에서 할당 없이 비교, 추가는 복사 후 교체)
+    private final ArrayDeque<Object> bulk = new ArrayDeque<>(); // 대용량 프레임
+    private final int capacity;
+    private final long bulkBudgetBytes;
+    private long bulkBytes; // 대용량 레인 대기 바이트 (lock)
+    private final FrameHandler handler;
+    private final AtomicLong dropped = new AtomicLong(); // 큐 초과로 버린 프레임 수 (두 레인 합)
+    private final AtomicLong bulkDropped = new AtomicLong(); // 그중 대용량 레인
+    private final AtomicLong decoded = new AtomicLong(); // 처리한 프레임 수
+    private Thread worker;
+
+    // --- 공유 실행기 모드 ---
+    private final Executor executor; // null = 전용 워커 스레드
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(); // 비우기 작업 제출됨/실행 중
+    private final Runnable drainTask = this::drain;
+    private volatile boolean running;
+
+    TelemetryPipeline(int capacity, FrameHandler handler) {
+        this(capacity, handler, null);
+    }
+
+    // executor: 여러 파이프라인이 나눠 쓰는 실행기 (SessionExecutors.workers)
+    TelemetryPipeline(int capacity, FrameHandler handler, Executor executor) {
+        this(capacity, BULK_BUDGET_BYTES, handler, executor);
+    }
+
+    // bulkBudgetBytes: 대용량 레인에 쌓아둘 최대 바이트 (텍스트는 문자 수)
+    TelemetryPipeline(int capacity, long bulkBudgetBytes, FrameHandler handler, Executor executor) {
+        this.queue = new ArrayDeque<>(capacity);
+        this.topics = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+        this.bulkBudgetBytes = bulkBudgetBytes;
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    // ----------------------------------------------------------
+    // 워커 시작/정지
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        if (executor != null) {
+            scheduleDrain(); // 시작 전에 들어온 프레임
+            return;
+        }
+        worker = new Thread(this::runLoop, "telemetry-decode");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        if (worker != null) worker.interrupt();
+        worker = null;
+        synchronized (lock) {
+            queue.clear();
+            topics.clear();
+            bulk.clear();
+            bulkBytes = 0;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 수신 스레드에서 호출: 블록 없이 레인에 넣음 (넘치면 프레임 하나를 버림)
+    //  - 버린 프레임이 있으면 false
+    // ----------------------------------------------------------
+    boolean submit(String text) {
+        int size = text.length();
+        boolean large = size >= BULK_FRAME_BYTES || isFragment(text);
+        return enqueue(text, size, large, large ? null : topicOf(text));
+    }
+
+    boolean submit(ByteBuffer frame) {
+        int size = frame.remaining();
+        boolean large = size >= BULK_FRAME_BYTES;
+        return enqueue(frame, size, large, large ? null : topicOf(frame));
+    }
+
+    private boolean enqueue(Object frame, int size, boolean large, String topic) {
+        boolean accepted = true;
+        synchronized (lock) {
+            if (large) {
+                bulk.add(frame);
+                bulkBytes += size;
+                while (bulkBytes > bulkBudgetBytes && bulk.size() > 1) { // 새 프레임 하나는 항상 받음
+                    bulkBytes -= sizeOf(bulk.poll());
+                    bulkDropped.incrementAndGet();
+                    dropped.incrementAndGet();
+                    accepted = false;
+                }
+            } else {
+                boolean add = true;
+                if (queue.size() >= capacity) {
+                    add = evictLocked(topic); // false = 새 프레임을 버림
+                    dropped.incrementAndGet();
+                    accepted = false;
+                }
+                if (add) {
+                    queue.add(frame);
+                    topics.add(topic);
+                }
+            }
+            if (executor == null) lock.notify(); // 대기 중인 워커 (하나)
+        }
+        if (executor != null) scheduleDrain();
+        return accepted;
+    }
+
+    // 작은 레인이 찼을 때 (lock 안에서 호출): 대기 프레임이 가장 많은 토픽(새 프레임 포함)의 가장 오래된 것을 버림
+    //  - 같은 수면 새 프레임의 토픽 -> 폭주하는 토픽은 자기 프레임끼리 교체 (최신 값 우선)
+    //  - 새 프레임의 토픽이 대기 중인 것이 없고 다른 토픽도 모두 하나씩이면 새 프레임을 버림 (false)
+    //  - 넘칠 때만 호출, 토픽 수 계산은 capacity 제곱 (작은 레인은 수십 개)
+    private boolean evictLocked(String topic) {
+        int own = 1; // 새 프레임
+        for (String t : topics) if (t.equals(topic)) own++;
+        String victim = topic;
+        int max = own;
+        for (String t : topics) {
+            if (t.equals(victim)) continue;
+            int n = 0;
+            for (String o : topics) if (o.equals(t)) n++;
+            if (n > max) { // 같은 수면 먼저 정한 쪽 (새 프레임의 토픽, 그다음 오래된 프레임의 토픽)
+                max = n;
+                victim = t;
+            }
+        }
+        if (max == own && own == 1) return false;
+        Iterator<Object> f = queue.iterator();
+        Iterator<String> t = topics.iterator();
+        while (t.hasNext()) {
+            f.next();
+            if (t.next().equals(victim)) {
+                f.remove();
+                t.remove();
+                break;
+            }
+        }
+        return true;
+    }
+
+    // 작은 레인 먼저 (lock 안에서 호출)
+    private Object pollLocked() {
+        Object frame = queue.poll();
+        if (frame != null) {
+            topics.poll();
+            return frame;
+        }
+        frame = bulk.poll();
+        if (frame != null) bulkBytes -= sizeOf(frame);
+        return frame;
+    }
+
+    private Object poll() {
+        synchronized (lock) {
+            return pollLocked();
+        }
+    }
+
+    private boolean isEmpty() {
+        synchronized (lock) {
+            return queue.isEmpty() && bulk.isEmpty();
+        }
+    }
+
+    private static int sizeOf(Object frame) {
+        return frame instanceof String ? ((String) frame).length() : ((ByteBuffer) frame).remaining();
+    }
+
+    // rosbridge 조각 프레임: op 가 맨 앞에 있으므로 앞부분만 확인 (조각은 크기와 상관없이 대용량 레인)
+    static boolean isFragment(String text) {
+        int end = Math.min(text.length(), OP_SCAN_CHARS) - FRAGMENT_OP.length();
+        for (int i = 0; i <= end; i++) {
+            if (text.regionMatches(i, FRAGMENT_OP, 0, FRAGMENT_OP.length())) return true;
+        }
+        return false;
+    }
+
+    // "topic" 값 (앞부분에 없으면 NO_TOPIC, 토픽 이름에는 이스케이프 문자가 없음)
+    //  - 이미 본 토픽이면 캐시한 문자열 (TelemetryRecorder.topicId 처럼 이름 표와 비교)
+    private String topicOf(String text) {
+        int limit = Math.min(text.length(), TOPIC_SCAN_CHARS);
+        for (int i = 0; i + TOPIC_KEY.length() < limit; i++) {
+            if (!text.regionMatches(i, TOPIC_KEY, 0, TOPIC_KEY.length())) continue;
+            int start = text.indexOf('"', i + TOPIC_KEY.length()) + 1; // ':' 와 공백 건너뜀
+            int end = start > 0 && start < limit ? text.indexOf('"', start) : -1;
+            if (end <= 0 || end > limit) return NO_TOPIC;
+            int len = end - start;
+            for (String t : knownTopics) {
+                if (t.length() == len && text.regionMatches(start, t, 0, len)) return t;
+            }
+            return addTopic(text.substring(start, end));
+        }
+        return NO_TOPIC;
+    }
+
+    // CBOR 맵의 "topic" 텍스트 값 (짧은 문자열 헤더만: 길이 < 256)
+    private String topicOf(ByteBuffer frame) {
+        int base = frame.position();
+        int limit = base + Math.min(frame.remaining(), TOPIC_SCAN_CHARS);
+        for (int i = base; i + CBOR_TOPIC_KEY.length < limit; i++) {
+            int k = 0;
+            while (k < CBOR_TOPIC_KEY.length && frame.get(i + k) == CBOR_TOPIC_KEY[k]) k++;
+            if (k < CBOR_TOPIC_KEY.length) continue;
+            int p = i + k;
+            int head = frame.get(p++) & 0xFF;
+            int len;
+            if (head >= 0x60 && head < 0x78) len = head - 0x60;
+            else if (head == 0x78 && p < limit) len = frame.get(p++) & 0xFF;
+            else return NO_TOPIC;
+            if (p + len > base + frame.remaining()) return NO_TOPIC;
+            for (String t : knownTopics) {
+                if (t.length() == len && asciiEquals(frame, p, t)) return t;
+            }
+            char[] name = new char[len];
+            for (int j = 0; j < len; j++) name[j] = (char) (frame.get(p + j) & 0xFF); // ROS 이름은 ASCII
+            return addTopic(new String(name));
+        }
+        return NO_TOPIC;
+    }
+
+    private static boolean asciiEquals(ByteBuffer frame, int pos, String name) {
+        for (int j = 0; j < name.length(); j++) {
+            if ((frame.get(pos + j) & 0xFF) != name.charAt(j)) return false;
+        }
+        return true;
+    }
+
+    // 새 토픽 이름 캐시 (드묾, 수신 스레드가 여럿이어도 안전하게 lock 안에서 복사)
+    private String addTopic(String name) {
+        synchronized (lock) {
+            String[] known = knownTopics;
+            for (String t : known) if (t.equals(name)) return t; // 다른 스레드가 먼저 추가
+            if (known.length >= MAX_KNOWN_TOPICS) return name;
+            String[] grown = Arrays.copyOf(known, known.length + 1);
+            grown[known.length] = name;
+            knownTopics = grown;
+            return name;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 공유 실행기 모드: 비우기 작업은 파이프라인당 최대 하나만 제출
+    // ----------------------------------------------------------
+    private void scheduleDrain() {
+        if (!running || !drainScheduled.compareAndSet(false, true)) return;
+        try {
+            executor.execute(drainTask);
+        } catch (RejectedExecutionException e) { // 실행기 종료됨
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < DRAIN_BATCH && running; i++) {
+            Object frame = poll();
+            if (frame == null) break;
+            handle(frame);
+        }
+        drainScheduled.set(false);
+        if (!isEmpty()) scheduleDrain(); // 남은 프레임 또는 flag 해제 직전에 들어온 프레임
+    }
+
+    private void runLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Object frame;
+                synchronized (lock) {
+                    while ((frame = pollLocked()) == null) lock.wait();
+                }
+                handle(frame);
+            }
+        } catch (InterruptedException ignored) {
+            // stop() 으로 종료
+        }
+    }
+
+    private void handle(Object frame) {
+        try {
+            if (frame instanceof String) handler.onText((String) frame);
+            else handler.onBinary((ByteBuffer) frame);
+        } catch (RuntimeException e) { // 한 프레임 오류로 워커가 죽지 않도록
+            LOG.log(Level.WARNING, "decode failed", e);
+        }
+        decoded.incrementAndGet();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    // 대용량 레인(카메라, 조각)에서 버린 프레임 수
+    long bulkDroppedCount() {
+        return bulkDropped.get();
+    }
+
+    long decodedCount() {
+        return decoded.get();
+    }
+}
@@ -0,0 +1,281 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// ============================================================
+// TelemetryRecorder: rosbridge 원본 프레임 녹화 (rosbag-lite)
+//  - 디렉터리 하나 = 녹화 하나, 세그먼트 파일(seg-N.log) + 세그먼트별 인덱스(seg-N.idx)
+//    + 토픽 이름 표(topics.txt, 한 줄에 하나, 줄 번호 = 토픽 id)
+//  - 로그/인덱스 모두 메모리 맵 파일에 순서대로 추가 (프레임당 시스템 콜 없음)
+//    앱이 죽어도 이미 쓴 페이지는 커널이 파일에 반영함
+//  - 세그먼트가 차면 잘라내고(truncate) 다음 세그먼트로, maxSegments 초과 시 가장 오래된 것 삭제
+//  - 디코드 워커 스레드에서 호출 (synchronized 는 다른 스레드의 close() 와 경합 방지용)
+//
+// 파일 형식 (빅엔디안):
+//  seg-N.log : "TLOG" int version | 레코드 = int length + payload (텍스트는 UTF-8)
+//  seg-N.idx : "TIDX" int version long startEpochMs | 엔트리 20바이트 =
+//              long tNanos(녹화 시작 기준) int offset(log 내 payload 위치) int length
+//              short topicId(-1 = 토픽 없음) byte kind(1 텍스트, 2 바이너리) byte 0
+// ============================================================
+final class TelemetryRecorder implements Closeable {
+
+    static final int LOG_MAGIC = 0x544C4F47; // "TLOG"
+    static final int IDX_MAGIC = 0x54494458; // "TIDX"
+    static final int VERSION = 1;
+    static final int LOG_HEADER_BYTES = 8;
+    static final int IDX_HEADER_BYTES = 16;
+    static final int IDX_ENTRY_BYTES = 20;
+    static final byte KIND_TEXT = 1;
+    static final byte KIND_BINARY = 2;
+    static final String TOPICS_FILE = "topics.txt";
+
+    static final int DEFAULT_SEGMENT_BYTES = 16 << 20; // 세그먼트 16MB
+    static final int DEFAULT_MAX_SEGMENTS = 8; // 최근 128MB 유지
+
+    private static final Logger LOG = Logger.getLogger("TelemetryRecorder");
+    private static final String[] TOPIC_PATH = {"topic"};
+
+    private final File dir;
+    private final int segmentBytes;
+    private final int indexBytes;
+    private final int maxSegments;
+    private final long startNanos = System.nanoTime();
+    private final long startEpochMs = System.currentTimeMillis();
+
+    // --- 현재 세그먼트 ---
+    private int segmentNo = -1;
+    private FileChannel logChannel, idxChannel;
+    private MappedByteBuffer log, idx;
+    private final List<Integer> segments = new ArrayList<>(); // 디스크에 남아있는 세그먼트 번호
+
+    // --- 토픽 표 ---
+    private final List<String> topics = new ArrayList<>();
+    private Writer topicsOut;
+
+    // --- 프레임 파싱/인코딩 (재사용) ---
+    private final JsonMessageReader jsonReader = new JsonMessageReader();
+    private final CborMessageReader cborReader = new CborMessageReader();
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder();
+
+    private long recorded; // 녹화한 프레임 수
+    private long skipped; // 세그먼트보다 커서 건너뛴 프레임 수
+    private boolean closed;
+
+    // ----------------------------------------------------------
+    // dir: 녹화 디렉터리 (없으면 생성), 세그먼트 크기/최대 개수
+    // ----------------------------------------------------------
+    TelemetryRecorder(File dir, int segmentBytes, int maxSegments) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        // 작은 프레임(배터리 등) 기준으로도 로그보다 인덱스가 먼저 차지 않을 크기
+        this.indexBytes = IDX_HEADER_BYTES + Math.max(1024, segmentBytes / 64) * IDX_ENTRY_BYTES;
+        this.topicsOut = new OutputStreamWriter(new FileOutputStream(new File(dir, TOPICS_FILE), false),
+                StandardCharsets.UTF_8);
+        openSegment(0);
+    }
+
+    TelemetryRecorder(File dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    File directory() {
+        return dir;
+    }
+
+    // ----------------------------------------------------------
+    // 프레임 녹화 (JSON 텍스트 / CBOR 바이너리)
+    // ----------------------------------------------------------
+    synchronized void record(String text) {
+        if (closed) return;
+        jsonReader.reset(text);
+        int topicId = topicId(jsonReader.findTopLevel("topic"), jsonReader, null);
+        long t = System.nanoTime() - startNanos;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (appendText(t, topicId, text)) return;
+            if (!roll()) return;
+        }
+        skipped++; // 세그먼트보다 큰 프레임
+    }
+
+    synchronized void record(ByteBuffer frame) {
+        if (closed) return;
+        int length = frame.remaining();
+        if (LOG_HEADER_BYTES + 4 + length > segmentBytes) {
+            skipped++;
+            return;
+        }
+        cborReader.reset(frame);
+        int topicId = topicId(cborReader.findTopLevel("topic"), null, cborReader);
+        long t = System.nanoTime() - startNanos;
+        if (!hasRoom(length) && !roll()) return;
+        int offset = log.position() + 4;
+        log.putInt(length);
+        int p = frame.position();
+        log.put(frame); // 원본 position 은 아래에서 되돌림
+        frame.position(p);
+        index(t, offset, length, topicId, KIND_BINARY);
+    }
+
+    synchronized long recordedCount() {
+        return recorded;
+    }
+
+    synchronized long skippedCount() {
+        return skipped;
+    }
+
+    // ----------------------------------------------------------
+    // 종료: 현재 세그먼트를 실제 길이로 잘라내고 파일 닫기
+    // ----------------------------------------------------------
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        closeSegment();
+        topicsOut.close();
+    }
+
+    // ----------------------------------------------------------
+    // 녹화 디렉터리 정리: parent 아래 최근 keep 개만 남김 (이름 순 = 시작 시각 순)
+    // ----------------------------------------------------------
+    static void pruneRecordings(File parent, int keep) {
+        File[] dirs = parent.listFiles(File::isDirectory);
+        if (dirs == null || dirs.length <= keep) return;
+        Arrays.sort(dirs);
+        for (int i = 0; i < dirs.length - keep; i++) {
+            File[] files = dirs[i].listFiles();
+            if (files != null) for (File f : files) f.delete();
+            dirs[i].delete();
+        }
+    }
+
+    static File segmentLog(File dir, int no) {
+        return new File(dir, String.format(java.util.Locale.US, "seg-%05d.log", no));
+    }
+
+    static File segmentIndex(File dir, int no) {
+        return new File(dir, String.format(java.util.Locale.US, "seg-%05d.idx", no));
+    }
+
+    // ----------------------------------------------------------
+    // 텍스트 레코드: 길이 자리를 비워두고 UTF-8 로 바로 인코딩 (중간 byte[] 없음)
+    // ----------------------------------------------------------
+    private boolean appendText(long t, int topicId, String text) {
+        if (!hasRoom(0)) return false;
+        int lenPos = log.position();
+        log.position(lenPos + 4);
+        utf8.reset();
+        CoderResult r = utf8.encode(CharBuffer.wrap(text), log, true);
+        if (r.isOverflow()) { // 세그먼트 남은 공간 부족: 되돌리고 다음 세그먼트로
+            log.position(lenPos);
+            return false;
+        }
+        int length = log.position() - lenPos - 4;
+        log.putInt(lenPos, length);
+        index(t, lenPos + 4, length, topicId, KIND_TEXT);
+        return true;
+    }
+
+    private boolean hasRoom(int payloadBytes) {
+        return log.remaining() >= 4 + payloadBytes && idx.remaining() >= IDX_ENTRY_BYTES;
+    }
+
+    private void index(long t, int offset, int length, int topicId, byte kind) {
+        idx.putLong(t);
+        idx.putInt(offset);
+        idx.putInt(length);
+        idx.putShort((short) topicId);
+        idx.put(kind);
+        idx.put((byte) 0);
+        recorded++;
+    }
+
+    // ----------------------------------------------------------
+    // 토픽 id: 이미 본 토픽은 문자열 할당 없이 비교, 새 토픽만 표에 추가
+    // ----------------------------------------------------------
+    private int topicId(int pos, JsonMessageReader json, CborMessageReader cbor) {
+        if (pos < 0) return -1;
+        for (int i = 0; i < topics.size(); i++) {
+            String name = topics.get(i);
+            if (json != null ? json.stringEquals(pos, name) : cbor.stringEquals(pos, name)) return i;
+        }
+        String name = json != null ? json.getString(TOPIC_PATH) : cbor.getString(TOPIC_PATH);
+        if (name == null || topics.size() >= Short.MAX_VALUE) return -1;
+        topics.add(name);
+        try {
+            topicsOut.write(name);
+            topicsOut.write('\n');
+            topicsOut.flush(); // 새 토픽은 드묾
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "topic table write failed", e);
+        }
+        return topics.size() - 1;
+    }
+
+    // ----------------------------------------------------------
+    // 세그먼트 관리
+    // ----------------------------------------------------------
+    private boolean roll() {
+        try {
+            closeSegment();
+            openSegment(segmentNo + 1);
+            while (segments.size() > maxSegments) { // 보존 개수 초과: 가장 오래된 세그먼트 삭제
+                int old = segments.remove(0);
+                segmentLog(dir, old).delete();
+                segmentIndex(dir, old).delete();
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "segment roll failed, recording stopped", e);
+            closed = true;
+            return false;
+        }
+    }
+
+    private void openSegment(int no) throws IOException {
+        segmentNo = no;
+        logChannel = new RandomAccessFile(segmentLog(dir, no), "rw").getChannel();
+        idxChannel = new RandomAccessFile(segmentIndex(dir, no), "rw").getChannel();
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        idx = idxChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexBytes);
+        log.putInt(LOG_MAGIC).putInt(VERSION);
+        idx.putInt(IDX_MAGIC).putInt(VERSION).putLong(startEpochMs);
+        segments.add(no);
+    }
+
+    private void closeSegment() throws IOException {
+        if (logChannel == null) return;
+        int logUsed = log.position();
+        int idxUsed = idx.position();
+        log.force();
+        idx.force();
+        log = null;
+        idx = null;
+        logChannel.truncate(logUsed); // 실제 사용한 길이로 축소
+        idxChannel.truncate(idxUsed);
+        logChannel.close();
+        idxChannel.close();
+        logChannel = null;
+        idxChannel = null;
+    }
+}
@@ -0,0 +1,227 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// ============================================================
+// TelemetryReplayer: TelemetryRecorder 녹화본 재생
+//  - 세그먼트/인덱스를 읽기 전용 메모리 맵으로 열고 인덱스 순서대로 프레임 전달
+//  - 같은 TelemetryPipeline.FrameHandler 로 넘기므로 실제 수신과 같은 디코드 경로를 탐
+//  - speed 1.0 = 녹화 속도, 2.0 = 2배, 0 이하/무한대 = 대기 없이 최대 속도
+//  - 시작 시각은 인덱스 이진 탐색, 토픽 필터는 토픽 id 표로 처리
+//  - 바이너리 프레임은 맵 버퍼 구간을 그대로 전달 (복사 없음)
+//  - 앱이 죽어 잘리지 않은 세그먼트도 kind 0 엔트리에서 멈춰서 읽을 수 있음
+// ============================================================
+final class TelemetryReplayer implements Closeable {
+
+    private static final class Segment {
+        final MappedByteBuffer log;
+        final MappedByteBuffer idx;
+        final int entries; // 유효 인덱스 엔트리 수
+
+        Segment(MappedByteBuffer log, MappedByteBuffer idx, int entries) {
+            this.log = log;
+            this.idx = idx;
+            this.entries = entries;
+        }
+
+        long time(int i) {
+            return idx.getLong(TelemetryRecorder.IDX_HEADER_BYTES + i * TelemetryRecorder.IDX_ENTRY_BYTES);
+        }
+    }
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<String> topics = new ArrayList<>();
+    private final List<FileChannel> channels = new ArrayList<>();
+    private long startEpochMs;
+    private byte[] textBuffer = new byte[16 * 1024]; // 텍스트 프레임 복원용 (재사용)
+    private volatile boolean cancelled;
+
+    // ----------------------------------------------------------
+    // 녹화 디렉터리 열기 (남아있는 세그먼트를 번호 순으로)
+    // ----------------------------------------------------------
+    TelemetryReplayer(File dir) throws IOException {
+        File topicsFile = new File(dir, TelemetryRecorder.TOPICS_FILE);
+        if (topicsFile.isFile()) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(topicsFile), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = r.readLine()) != null) topics.add(line);
+            }
+        }
+        File[] logs = dir.listFiles((d, name) -> name.startsWith("seg-") && name.endsWith(".log"));
+        if (logs == null || logs.length == 0) throw new IOException("no segments in " + dir);
+        Arrays.sort(logs);
+        try {
+            for (File logFile : logs) {
+                File idxFile = new File(dir, logFile.getName().replace(".log", ".idx"));
+                if (idxFile.isFile()) openSegment(logFile, idxFile);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void openSegment(File logFile, File idxFile) throws IOException {
+        FileChannel logChannel = new RandomAccessFile(logFile, "r").getChannel();
+        channels.add(logChannel);
+        FileChannel idxChannel = new RandomAccessFile(idxFile, "r").getChannel();
+        channels.add(idxChannel);
+        MappedByteBuffer log = logChannel.map(FileChannel.MapMode.READ_ONLY, 0, logChannel.size());
+        MappedByteBuffer idx = idxChannel.map(FileChannel.MapMode.READ_ONLY, 0, idxChannel.size());
+        if (idx.limit() < TelemetryRecorder.IDX_HEADER_BYTES
+                || idx.getInt(0) != TelemetryRecorder.IDX_MAGIC
+                || log.getInt(0) != TelemetryRecorder.LOG_MAGIC) {
+            throw new IOException("not a telemetry segment: " + logFile);
+        }
+        startEpochMs = idx.getLong(8);
+        int max = (idx.limit() - TelemetryRecorder.IDX_HEADER_BYTES) / TelemetryRecorder.IDX_ENTRY_BYTES;
+        int n = 0;
+        while (n < max) { // 잘리지 않은 세그먼트: 빈(kind 0) 엔트리에서 끝
+            int e = TelemetryRecorder.IDX_HEADER_BYTES + n * TelemetryRecorder.IDX_ENTRY_BYTES;
+            byte kind = idx.get(e + 18);
+            if (kind != TelemetryRecorder.KIND_TEXT && kind != TelemetryRecorder.KIND_BINARY) break;
+            if (idx.getInt(e + 8) + (long) idx.getInt(e + 12) > log.limit()) break;
+            n++;
+        }
+        if (n > 0) segments.add(new Segment(log, idx, n));
+    }
+
+    // ----------------------------------------------------------
+    // 녹화 정보
+    // ----------------------------------------------------------
+    List<String> topics() {
+        return topics;
+    }
+
+    long startEpochMs() {
+        return startEpochMs;
+    }
+
+    int frameCount() {
+        int n = 0;
+        for (Segment s : segments) n += s.entries;
+        return n;
+    }
+
+    long durationNanos() {
+        if (segments.isEmpty()) return 0;
+        Segment first = segments.get(0);
+        Segment last = segments.get(segments.size() - 1);
+        return last.time(last.entries - 1) - first.time(0);
+    }
+
+    // 다른 스레드에서 재생 중단
+    void cancel() {
+        cancelled = true;
+    }
+
+    // ----------------------------------------------------------
+    // 재생: handler 로 프레임 전달, 전달한 프레임 수 반환 (호출 스레드에서 실행)
+    //  topicFilter: 재생할 토픽 이름들 (null = 전부), fromNanos: 녹화 시작 기준 시작 시각
+    // ----------------------------------------------------------
+    long replay(TelemetryPipeline.FrameHandler handler, double speed, String[] topicFilter,
+                long fromNanos) throws InterruptedException {
+        cancelled = false;
+        boolean[] allowed = allowedTopics(topicFilter);
+        boolean paced = speed > 0 && !Double.isInfinite(speed);
+        long wallStart = System.nanoTime();
+        long firstT = -1;
+        long count = 0;
+        for (Segment s : segments) {
+            if (s.time(s.entries - 1) < fromNanos) continue;
+            for (int i = firstAtOrAfter(s, fromNanos); i < s.entries; i++) {
+                if (cancelled) return count;
+                int e = TelemetryRecorder.IDX_HEADER_BYTES + i * TelemetryRecorder.IDX_ENTRY_BYTES;
+                long t = s.idx.getLong(e);
+                int offset = s.idx.getInt(e + 8);
+                int length = s.idx.getInt(e + 12);
+                int topicId = s.idx.getShort(e + 16);
+                byte kind = s.idx.get(e + 18);
+                if (allowed != null && (topicId < 0 || topicId >= allowed.length || !allowed[topicId])) continue;
+
+                if (firstT < 0) firstT = t;
+                if (paced) waitUntil(wallStart + (long) ((t - firstT) / speed));
+
+                if (kind == TelemetryRecorder.KIND_TEXT) {
+                    handler.onText(text(s.log, offset, length));
+                } else {
+                    ByteBuffer frame = s.log.duplicate(); // 받는 쪽이 큐에 보관할 수 있으므로 프레임마다 새 뷰
+                    frame.limit(offset + length).position(offset);
+                    handler.onBinary(frame);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        IOException first = null;
+        for (FileChannel ch : channels) {
+            try {
+                ch.close();
+            } catch (IOException e) {
+                if (first == null) first = e;
+            }
+        }
+        channels.clear();
+        if (first != null) throw first;
+    }
+
+    // ----------------------------------------------------------
+    // 내부 도우미
+    // ----------------------------------------------------------
+    private boolean[] allowedTopics(String[] filter) {
+        if (filter == null) return null;
+        boolean[] allowed = new boolean[topics.size()];
+        for (String name : filter) {
+            int id = topics.indexOf(name);
+            if (id >= 0) allowed[id] = true;
+        }
+        return allowed;
+    }
+
+    // t >= fromNanos 인 첫 엔트리 (인덱스는 시간순)
+    private static int firstAtOrAfter(Segment s, long fromNanos) {
+        int lo = 0, hi = s.entries;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (s.time(mid) < fromNanos) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private String text(MappedByteBuffer log, int offset, int length) {
+        if (textBuffer.length < length) textBuffer = new byte[Math.max(length, textBuffer.length * 2)];
+        ByteBuffer view = log.duplicate();
+        view.position(offset);
+        view.get(textBuffer, 0, length);
+        return new String(textBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void waitUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while (!cancelled && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+    }
+}
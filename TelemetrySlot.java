@@ -0,0 +1,60 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// TelemetrySlot: 토픽별 최신 값 1칸 (박싱/할당 없는 double 값 묶음)
+//  - 디코드 스레드가 set(), UI 플러시가 take() 로 변경분만 가져감
+//  - UI 가 가져가기 전에 덮어쓴 횟수를 coalesced 로 집계
+// ============================================================
+final class TelemetrySlot {
+
+    private final double[] values;
+    private boolean dirty; // UI 가 아직 안 가져간 값이 있는지
+    private long updates; // 총 set 횟수
+    private long coalesced; // 읽히기 전에 덮어쓴 횟수
+
+    TelemetrySlot(int size) {
+        this.values = new double[size];
+    }
+
+    synchronized void set(double a) {
+        values[0] = a;
+        markDirty();
+    }
+
+    synchronized void set(double a, double b) {
+        values[0] = a;
+        values[1] = b;
+        markDirty();
+    }
+
+    synchronized void set(double a, double b, double c) {
+        values[0] = a;
+        values[1] = b;
+        values[2] = c;
+        markDirty();
+    }
+
+    private void markDirty() {
+        updates++;
+        if (dirty) coalesced++;
+        dirty = true;
+    }
+
+    // ----------------------------------------------------------
+    // 새 값이 있으면 out 에 복사하고 true (UI 스레드)
+    // ----------------------------------------------------------
+    synchronized boolean take(double[] out) {
+        if (!dirty) return false;
+        System.arraycopy(values, 0, out, 0, values.length);
+        dirty = false;
+        return true;
+    }
+
+    synchronized long updateCount() {
+        return updates;
+    }
+
+    synchronized long coalescedCount() {
+        return coalesced;
+    }
+}
@@ -0,0 +1,245 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// ============================================================
+// TeleopController: 연속 수동 조종 (cmd_vel 고정 주기 송신 + 데드맨 워치독 + 지연 측정)
+//  - UI 스레드가 input()/hold()/release() 로 최신 명령만 갱신 (터치/조이스틱 이력 샘플 포함)
+//  - 전용 타이머 스레드가 PERIOD_MS 마다 최신 명령을 publishCmdVel (입력 이벤트 수와 무관한 일정한 주기)
+//  - 데드맨: 입력/hold 가 INPUT_TIMEOUT_MS 동안 없거나 (UI 멈춤, ACTION_UP 유실)
+//    오돔이 LINK_TIMEOUT_MS 동안 안 오면 (링크 끊김) 정지 명령 후 해제, 다시 입력해야 재개
+//  - 입력->바퀴 지연: 명령이 크게 바뀐 입력 이벤트 시각부터 오돔 속도가 변화량의 절반에
+//    도달할 때까지 (입력->송신 지연도 따로 측정)
+//  - 시각은 System.nanoTime 기준 (안드로이드 MotionEvent 시각과 같은 CLOCK_MONOTONIC)
+// ============================================================
+final class TeleopController implements OdomListener {
+
+    enum StopReason { INPUT_TIMEOUT, LINK_TIMEOUT }
+
+    // cmd_vel 전송 (RosBridgeClient::publishCmdVel), 보내지 못하면 false
+    interface Sink {
+        boolean publishCmdVel(double linear, double angular);
+    }
+
+    // 워치독이 조종을 끊었을 때 (타이머 스레드)
+    interface Listener {
+        void onTeleopStopped(StopReason reason);
+    }
+
+    static final long PERIOD_MS = 50; // cmd_vel 20Hz (CommandPublisher 최소 간격과 같음)
+    static final long INPUT_TIMEOUT_MS = 300; // 입력/hold 가 이보다 오래 없으면 정지
+    static final long LINK_TIMEOUT_MS = 600; // 오돔이 이보다 오래 없으면 정지
+    static final int STOP_REPEATS = 3; // 해제 후 정지 명령 반복 횟수 (유실 대비)
+    static final double MIN_STEP = 0.05; // 지연 측정을 시작할 최소 명령 변화 (m/s, rad/s)
+    static final double RESPONSE_FRACTION = 0.5; // 변화량의 이 비율에 도달하면 반응으로 봄
+    static final long PROBE_TIMEOUT_MS = 2000; // 이 시간 안에 반응이 없으면 측정 버림
+
+    private final Sink sink;
+    private final Listener listener;
+    private final ScheduledExecutorService timer;
+    private ScheduledFuture<?> tick;
+
+    // --- 명령 상태 (lock = this) ---
+    private boolean engaged; // 조종 중 (입력 이후, 해제/워치독 전)
+    private boolean latched; // 워치독이 끊음: release() 전까지 입력 무시 (손을 뗐다 다시 눌러야 재개)
+    private double linear, angular;
+    private long lastInputNanos;
+    private long lastLinkNanos = Long.MIN_VALUE / 2; // 마지막 오돔 수신
+    private int stopRepeats;
+    private long pendingSendEventNanos = -1; // 아직 송신 안 된 입력의 이벤트 시각
+    private long ticksSent, trips;
+
+    // --- 지연 측정 ---
+    private double odomV, odomW; // 최근 오돔 속도
+    private boolean probeArmed;
+    private long probeStartNanos;
+    private boolean probeLinear; // true = 선속도로 판정, false = 각속도
+    private double probeBase, probeTarget;
+    private final LatencyStats wheelLatency = new LatencyStats();
+    private final LatencyStats sendLatency = new LatencyStats();
+
+    TeleopController(Sink sink, Listener listener) {
+        this.sink = sink;
+        this.listener = listener;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "teleop-timer");
+            t.setDaemon(true);
+            t.setPriority(Thread.MAX_PRIORITY); // 주기 지터 최소화
+            return t;
+        });
+    }
+
+    // ----------------------------------------------------------
+    // 생명주기: 타이머 시작/종료
+    // ----------------------------------------------------------
+    synchronized void start() {
+        if (tick != null || timer.isShutdown()) return;
+        tick = timer.scheduleAtFixedRate(this::tick, PERIOD_MS, PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        release(); // 조종 중이면 정지 명령 한 번 (반복은 타이머와 함께 사라짐)
+        timer.shutdownNow();
+    }
+
+    // ----------------------------------------------------------
+    // 입력 (UI 스레드): eventNanos = 입력 샘플 시각 (MotionEvent 이력 샘플마다)
+    // ----------------------------------------------------------
+    synchronized void input(double linear, double angular, long eventNanos) {
+        if (latched) return;
+        long now = System.nanoTime();
+        double dLin = linear - (engaged ? this.linear : 0), dAng = angular - (engaged ? this.angular : 0);
+        if (!probeArmed && (Math.abs(dLin) >= MIN_STEP || Math.abs(dAng) >= MIN_STEP)) { // 큰 변화: 지연 측정 시작
+            probeLinear = Math.abs(dLin) >= Math.abs(dAng);
+            probeBase = probeLinear ? odomV : odomW;
+            probeTarget = probeLinear ? linear : angular;
+            probeStartNanos = eventNanos;
+            probeArmed = Math.abs(probeTarget - probeBase) >= MIN_STEP; // 이미 그 속도면 측정할 변화 없음
+        }
+        if (pendingSendEventNanos < 0) pendingSendEventNanos = eventNanos;
+        this.linear = linear;
+        this.angular = angular;
+        engaged = true;
+        stopRepeats = 0;
+        lastInputNanos = now;
+    }
+
+    // 입력 유지 (손가락/스틱이 움직이지 않아도 UI 가 살아 있음을 알림)
+    synchronized void hold() {
+        if (engaged) lastInputNanos = System.nanoTime();
+    }
+
+    // 손을 뗌: 즉시 정지 명령 + 몇 번 더 반복
+    void release() {
+        synchronized (this) {
+            latched = false;
+            if (!engaged) return;
+            disengage();
+        }
+        sink.publishCmdVel(0.0, 0.0);
+    }
+
+    synchronized boolean isEngaged() {
+        return engaged;
+    }
+
+    // ----------------------------------------------------------
+    // 오돔 (디코드 워커): 링크 생존 + 바퀴 반응 판정
+    // ----------------------------------------------------------
+    @Override
+    public synchronized void onOdom(double stamp, double x, double y, double yaw, double vx, double wz) {
+        long now = System.nanoTime();
+        lastLinkNanos = now;
+        odomV = vx;
+        odomW = wz;
+        if (!probeArmed) return;
+        if (now - probeStartNanos > PROBE_TIMEOUT_MS * 1_000_000L) { // 반응 없음 (막힘/게이트)
+            probeArmed = false;
+            return;
+        }
+        double span = probeTarget - probeBase;
+        double progress = ((probeLinear ? vx : wz) - probeBase) / span;
+        if (progress >= RESPONSE_FRACTION) {
+            wheelLatency.add((now - probeStartNanos) / 1e6);
+            probeArmed = false;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 타이머 스레드: 데드맨 검사 후 최신 명령 송신
+    // ----------------------------------------------------------
+    private void tick() {
+        StopReason tripped = null;
+        double lin = 0, ang = 0;
+        long inputEvent = -1; // 이번에 처음 나가는 입력의 이벤트 시각
+        boolean send;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (engaged && now - lastInputNanos > INPUT_TIMEOUT_MS * 1_000_000L) tripped = StopReason.INPUT_TIMEOUT;
+            else if (engaged && now - lastLinkNanos > LINK_TIMEOUT_MS * 1_000_000L) tripped = StopReason.LINK_TIMEOUT;
+            if (tripped != null) {
+                disengage();
+                latched = true;
+                trips++;
+            }
+            if (engaged) {
+                lin = linear;
+                ang = angular;
+                inputEvent = pendingSendEventNanos;
+                pendingSendEventNanos = -1;
+                send = true;
+            } else {
+                send = stopRepeats > 0;
+                if (send) stopRepeats--;
+            }
+            if (send) ticksSent++;
+        }
+        if (send && sink.publishCmdVel(lin, ang) && inputEvent >= 0) {
+            synchronized (this) {
+                sendLatency.add((System.nanoTime() - inputEvent) / 1e6);
+            }
+        }
+        if (tripped != null && listener != null) listener.onTeleopStopped(tripped);
+    }
+
+    private void disengage() {
+        engaged = false;
+        linear = angular = 0;
+        stopRepeats = STOP_REPEATS;
+        pendingSendEventNanos = -1;
+        probeArmed = false;
+    }
+
+    // ----------------------------------------------------------
+    // 측정값
+    // ----------------------------------------------------------
+    synchronized LatencyStats wheelLatency() {
+        return wheelLatency.copy();
+    }
+
+    // 바퀴 지연 측정 횟수 (바뀌었을 때만 wheelLatency() 복사본을 읽도록)
+    synchronized long wheelLatencyCount() {
+        return wheelLatency.count;
+    }
+
+    synchronized LatencyStats sendLatency() {
+        return sendLatency.copy();
+    }
+
+    synchronized long ticksSent() {
+        return ticksSent;
+    }
+
+    synchronized long watchdogTrips() {
+        return trips;
+    }
+
+    // 지연 요약 (개수, 최근, 평균, 최대 ms)
+    static final class LatencyStats {
+        long count;
+        double lastMs = Double.NaN, sumMs, maxMs;
+
+        void add(double ms) {
+            count++;
+            lastMs = ms;
+            sumMs += ms;
+            maxMs = Math.max(maxMs, ms);
+        }
+
+        double meanMs() {
+            return count == 0 ? Double.NaN : sumMs / count;
+        }
+
+        LatencyStats copy() {
+            LatencyStats s = new LatencyStats();
+            s.count = count;
+            s.lastMs = lastMs;
+            s.sumMs = sumMs;
+            s.maxMs = maxMs;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// TopicDecoder: 토픽별 메시지 디코더
+//  - RosbridgeDispatcher 가 "msg" 객체 위치를 기준으로 reader 를 넘겨줌
+//  - 필요한 필드만 경로로 읽고 전체 트리는 만들지 않음
+// ============================================================
+interface TopicDecoder {
+    void decode(MessageReader msg);
+}
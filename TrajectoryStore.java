@@ -0,0 +1,249 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+// ============================================================
+// TrajectoryStore: 오돔 주행 궤적 (고정 크기 double[] 링 버퍼, 박싱/할당 없음)
+//  - 최근 포즈/속도: 시각, x, y, yaw, 선속도, 각속도 각각 링 버퍼 (가득 차면 가장 오래된 것 덮어씀)
+//  - 주행 거리: 메시지마다 이동량을 누적 (정지 중 위치 떨림, 오돔 리셋 점프는 제외)
+//  - 화면용 폴리라인: 온라인 단순화 (마지막 꼭짓점 이후 점들이 새 선분에서 tolerance 이상
+//    벗어나면 꼭짓점 확정). 꼭짓점이 가득 차면 tolerance 를 두 배로 올려
+//    Douglas-Peucker 로 다시 줄임 -> 주행이 길어도 전체 경로를 고정 메모리로 유지
+//  - 디코드 워커가 onOdom, UI 스레드가 polyline()/distance() (synchronized)
+// ============================================================
+final class TrajectoryStore implements OdomListener {
+
+    static final int DEFAULT_CAPACITY = 4096; // 최근 포즈 수 (30Hz 기준 약 2분)
+    static final int DEFAULT_MAX_VERTICES = 1024; // 폴리라인 꼭짓점 최대 수
+    static final double DEFAULT_TOLERANCE_M = 0.05; // 폴리라인 초기 허용 오차
+    static final double NOISE_FLOOR_M = 0.05; // 이보다 작은 이동은 모았다가 한 번에 누적 (정지 중 떨림)
+    static final double MAX_STEP_M = 2.0; // 메시지 사이 이보다 멀리 뛰면 오돔 리셋으로 봄
+    private static final int WINDOW = 64; // 온라인 단순화에서 검사할 미확정 점 최대 수
+
+    // --- 최근 포즈 링 버퍼 ---
+    private final int capacity;
+    private final double[] stamps, xs, ys, yaws, vs, ws;
+    private int head; // 다음에 쓸 위치
+    private int size;
+
+    // --- 주행 거리 ---
+    private double distance;
+    private double anchorX, anchorY; // 마지막으로 거리에 반영한 위치
+    private double lastX, lastY; // 직전 메시지 위치
+    private boolean hasPose;
+    private long resets; // 오돔 리셋으로 본 횟수
+
+    // --- 폴리라인 ---
+    private final int maxVertices;
+    private final double initialTolerance;
+    private final double[] vx, vy; // 확정된 꼭짓점
+    private int vertices;
+    private double tolerance;
+    private final double[] wx = new double[WINDOW], wy = new double[WINDOW]; // 마지막 꼭짓점 이후 점들
+    private int window;
+    private final boolean[] keep; // 다시 줄이기용 (재사용)
+    private final int[] stack; // 다시 줄이기용 구간 스택 (재사용)
+
+    TrajectoryStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_VERTICES, DEFAULT_TOLERANCE_M);
+    }
+
+    TrajectoryStore(int capacity, int maxVertices, double toleranceM) {
+        this.capacity = capacity;
+        stamps = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        yaws = new double[capacity];
+        vs = new double[capacity];
+        ws = new double[capacity];
+        this.maxVertices = Math.max(4, maxVertices);
+        this.initialTolerance = toleranceM;
+        this.tolerance = toleranceM;
+        vx = new double[this.maxVertices];
+        vy = new double[this.maxVertices];
+        keep = new boolean[this.maxVertices];
+        stack = new int[this.maxVertices * 2];
+    }
+
+    // ----------------------------------------------------------
+    // 오돔 수신 (디코드 워커)
+    // ----------------------------------------------------------
+    @Override
+    public synchronized void onOdom(double stamp, double x, double y, double yaw, double v, double w) {
+        stamps[head] = stamp;
+        xs[head] = x;
+        ys[head] = y;
+        yaws[head] = yaw;
+        vs[head] = v;
+        ws[head] = w;
+        head = head + 1 == capacity ? 0 : head + 1;
+        if (size < capacity) size++;
+
+        if (!hasPose) {
+            hasPose = true;
+            startPath(x, y);
+        } else if (distanceSq(x, y, lastX, lastY) > MAX_STEP_M * MAX_STEP_M) { // 오돔 리셋/위치 재설정
+            resets++;
+            startPath(x, y);
+        } else {
+            double stepSq = distanceSq(x, y, anchorX, anchorY);
+            if (stepSq >= NOISE_FLOOR_M * NOISE_FLOOR_M) {
+                distance += Math.sqrt(stepSq);
+                anchorX = x;
+                anchorY = y;
+            }
+            addPathPoint(x, y);
+        }
+        lastX = x;
+        lastY = y;
+    }
+
+    // ----------------------------------------------------------
+    // 읽기 (UI 스레드)
+    // ----------------------------------------------------------
+    synchronized double distance() {
+        return distance;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long resetCount() {
+        return resets;
+    }
+
+    // age 0 = 가장 최근 포즈, out = {stamp, x, y, yaw, v, w}, 없으면 false
+    synchronized boolean pose(int age, double[] out) {
+        if (age < 0 || age >= size) return false;
+        int i = head - 1 - age;
+        if (i < 0) i += capacity;
+        out[0] = stamps[i];
+        out[1] = xs[i];
+        out[2] = ys[i];
+        out[3] = yaws[i];
+        out[4] = vs[i];
+        out[5] = ws[i];
+        return true;
+    }
+
+    // 폴리라인 점 수 상한 (out 배열 크기 = 2 * polylineCapacity())
+    int polylineCapacity() {
+        return maxVertices + 1;
+    }
+
+    // 화면용 폴리라인: out = {x0, y0, x1, y1, ...} (확정 꼭짓점 + 현재 위치), 점 수 반환
+    synchronized int polyline(double[] out) {
+        int n = 0;
+        for (int i = 0; i < vertices; i++) {
+            out[n++] = vx[i];
+            out[n++] = vy[i];
+        }
+        if (hasPose) {
+            out[n++] = lastX;
+            out[n++] = lastY;
+        }
+        return n / 2;
+    }
+
+    synchronized void clear() {
+        head = size = 0;
+        distance = 0;
+        hasPose = false;
+        vertices = window = 0;
+        tolerance = initialTolerance;
+    }
+
+    // ----------------------------------------------------------
+    // 폴리라인 온라인 단순화
+    // ----------------------------------------------------------
+    private void startPath(double x, double y) {
+        anchorX = x;
+        anchorY = y;
+        vertices = window = 0;
+        tolerance = initialTolerance;
+        addVertex(x, y);
+    }
+
+    private void addPathPoint(double x, double y) {
+        double ax = vx[vertices - 1], ay = vy[vertices - 1];
+        double px = window > 0 ? wx[window - 1] : ax, py = window > 0 ? wy[window - 1] : ay;
+        double tolSq = tolerance * tolerance;
+        if (distanceSq(x, y, px, py) < tolSq) return; // 직전 점과 너무 가까움 (현재 위치는 lastX/Y 로 그림)
+        for (int i = 0; i < window; i++) {
+            if (segmentDistanceSq(wx[i], wy[i], ax, ay, x, y) > tolSq) { // 직선에서 벗어남
+                addVertex(wx[window - 1], wy[window - 1]);
+                window = 0;
+                break;
+            }
+        }
+        if (window == WINDOW) { // 긴 직선: 검사 비용 제한
+            addVertex(wx[window - 1], wy[window - 1]);
+            window = 0;
+        }
+        wx[window] = x;
+        wy[window] = y;
+        window++;
+    }
+
+    private void addVertex(double x, double y) {
+        if (vertices == maxVertices) reduce();
+        vx[vertices] = x;
+        vy[vertices] = y;
+        vertices++;
+    }
+
+    // 꼭짓점이 가득 참: 허용 오차를 올려가며 Douglas-Peucker (재귀 없이 스택 사용)
+    private void reduce() {
+        int target = maxVertices * 3 / 4;
+        while (vertices > target) {
+            tolerance *= 2;
+            int n = vertices;
+            for (int i = 0; i < n; i++) keep[i] = false;
+            keep[0] = keep[n - 1] = true;
+            int sp = 0;
+            stack[sp++] = 0;
+            stack[sp++] = n - 1;
+            while (sp > 0) {
+                int end = stack[--sp], start = stack[--sp];
+                int far = -1;
+                double farDist = tolerance * tolerance;
+                for (int i = start + 1; i < end; i++) {
+                    double d = segmentDistanceSq(vx[i], vy[i], vx[start], vy[start], vx[end], vy[end]);
+                    if (d > farDist) {
+                        farDist = d;
+                        far = i;
+                    }
+                }
+                if (far < 0) continue;
+                keep[far] = true;
+                stack[sp++] = start;
+                stack[sp++] = far;
+                stack[sp++] = far;
+                stack[sp++] = end;
+            }
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                if (!keep[i]) continue;
+                vx[m] = vx[i];
+                vy[m] = vy[i];
+                m++;
+            }
+            vertices = m;
+        }
+    }
+
+    // 거리 제곱 (Math.hypot 은 느림, 비교만 할 때는 제곱으로)
+    private static double distanceSq(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2, dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    // 점 (px, py) 에서 선분 (ax, ay)-(bx, by) 까지 거리 제곱
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay;
+        double len2 = dx * dx + dy * dy;
+        if (len2 == 0) return distanceSq(px, py, ax, ay);
+        double t = ((px - ax) * dx + (py - ay) * dy) / len2;
+        t = Math.max(0, Math.min(1, t));
+        return distanceSq(px, py, ax + t * dx, ay + t * dy);
+    }
+}
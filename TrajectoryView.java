@@ -0,0 +1,91 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import android.content.Context; // 뷰 생성자
+import android.graphics.Canvas; // 그리기 대상
+import android.graphics.Color;
+import android.graphics.Paint; // 선/점 스타일
+import android.util.AttributeSet; // XML 레이아웃 속성
+import android.view.View; // 뷰 기본 타입
+
+// ============================================================
+// TrajectoryView: 주행 궤적 폴리라인을 카메라 화면 위에 그리는 오버레이
+//  - TrajectoryStore 의 단순화된 폴리라인을 뷰 크기에 맞춰 축소 (x 오른쪽, y 위쪽)
+//  - 그리기용 배열은 재사용 (onDraw 에서 할당 없음)
+//  - 갱신은 MainActivity.flushTelemetryUI 에서 오돔이 바뀐 vsync 에만 invalidate()
+// ============================================================
+public class TrajectoryView extends View {
+
+    private static final float PADDING_PX = 24f; // 가장자리 여백
+    private static final double MIN_SPAN_M = 1.0; // 거의 정지해 있을 때 과도한 확대 방지
+
+    private final Paint pathPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint robotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private TrajectoryStore store;
+    private double[] points = new double[0]; // 폴리라인 좌표 (재사용)
+    private float[] lines = new float[0]; // drawLines 용 선분 좌표 (재사용)
+
+    public TrajectoryView(Context context) {
+        super(context);
+        init();
+    }
+
+    public TrajectoryView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    private void init() {
+        pathPaint.setColor(Color.argb(200, 0, 200, 255)); // 반투명 하늘색
+        pathPaint.setStrokeWidth(4f);
+        pathPaint.setStyle(Paint.Style.STROKE);
+        robotPaint.setColor(Color.YELLOW);
+    }
+
+    void setTrajectory(TrajectoryStore store) {
+        this.store = store;
+        int cap = store.polylineCapacity();
+        points = new double[cap * 2];
+        lines = new float[Math.max(0, cap - 1) * 4];
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (store == null) return;
+        int n = store.polyline(points);
+        if (n == 0) return;
+
+        // 경계 상자 -> 가로/세로 같은 배율로 맞춤
+        double minX = points[0], maxX = minX, minY = points[1], maxY = minY;
+        for (int i = 1; i < n; i++) {
+            double x = points[i * 2], y = points[i * 2 + 1];
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        double span = Math.max(MIN_SPAN_M, Math.max(maxX - minX, maxY - minY));
+        float w = getWidth() - 2 * PADDING_PX, h = getHeight() - 2 * PADDING_PX;
+        if (w <= 0 || h <= 0) return;
+        float scale = (float) (Math.min(w, h) / span);
+        float cx = getWidth() / 2f, cy = getHeight() / 2f;
+        double midX = (minX + maxX) / 2, midY = (minY + maxY) / 2;
+
+        int k = 0;
+        float prevX = cx + (float) (points[0] - midX) * scale;
+        float prevY = cy - (float) (points[1] - midY) * scale; // 화면 y 는 아래쪽
+        for (int i = 1; i < n; i++) {
+            float x = cx + (float) (points[i * 2] - midX) * scale;
+            float y = cy - (float) (points[i * 2 + 1] - midY) * scale;
+            lines[k++] = prevX;
+            lines[k++] = prevY;
+            lines[k++] = x;
+            lines[k++] = y;
+            prevX = x;
+            prevY = y;
+        }
+        if (k > 0) canvas.drawLines(lines, 0, k, pathPaint);
+        canvas.drawCircle(prevX, prevY, 8f, robotPaint); // 현재 위치
+    }
+}
@@ -0,0 +1,76 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import android.os.Handler; // 메인 루퍼로 프레임 콜백 등록
+import android.os.Looper;
+import android.view.Choreographer; // vsync 에 맞춘 프레임 콜백
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// UiFlushScheduler: 여러 토픽의 UI 갱신 요청을 vsync 당 한 번으로 합침
+//  - 어느 스레드에서든 request() 호출, 이미 예약돼 있으면 아무것도 안 함
+//  - 다음 Choreographer 프레임에서 flush 를 한 번 실행
+//  - 계측(setHistograms): 첫 요청 -> 프레임 시작 지연, flush 실행 시간
+// ============================================================
+final class UiFlushScheduler implements Choreographer.FrameCallback {
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // 프레임 콜백 예약 여부
+    private final AtomicLong requests = new AtomicLong(); // request() 호출 수
+    private final AtomicLong flushes = new AtomicLong(); // 실제 flush 수
+    private final Runnable flush; // UI 스레드에서 실행할 렌더링
+    private final Runnable postFrameCallback = () -> Choreographer.getInstance().postFrameCallback(this);
+    private volatile boolean stopped;
+    private volatile long requestNanos; // 이번 프레임을 예약한 첫 요청 시각
+    private volatile LatencyHistogram delayHistogram, flushHistogram; // 계측 (null = 끔)
+
+    UiFlushScheduler(Runnable flush) {
+        this.flush = flush;
+    }
+
+    // ----------------------------------------------------------
+    // 갱신 요청 (아무 스레드), 다음 vsync 에 한 번만 flush
+    // ----------------------------------------------------------
+    void request() {
+        requests.incrementAndGet();
+        if (!stopped && scheduled.compareAndSet(false, true)) {
+            requestNanos = System.nanoTime();
+            mainHandler.post(postFrameCallback); // Choreographer 는 루퍼 스레드에서만 사용
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled.set(false); // flush 도중 들어온 요청은 다음 프레임으로
+        if (stopped) return;
+        flushes.incrementAndGet();
+        long start = System.nanoTime();
+        LatencyHistogram delay = delayHistogram, render = flushHistogram;
+        if (delay != null) delay.recordNanos(start - requestNanos);
+        flush.run();
+        if (render != null) render.recordSince(start);
+    }
+
+    // 계측: delay = 요청 -> 렌더 시작, render = flush 실행 시간 (null = 끔)
+    void setHistograms(LatencyHistogram delay, LatencyHistogram render) {
+        this.delayHistogram = delay;
+        this.flushHistogram = render;
+    }
+
+    // 액티비티 종료 시 (UI 스레드)
+    void stop() {
+        stopped = true;
+        mainHandler.removeCallbacks(postFrameCallback);
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    // 한 프레임으로 합쳐져 생략된 요청 수
+    long coalescedCount() {
+        return requests.get() - flushes.get();
+    }
+
+    long flushCount() {
+        return flushes.get();
+    }
+}
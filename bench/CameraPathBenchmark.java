@@ -0,0 +1,316 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// ============================================================
+// CameraPathBenchmark: 카메라 경로 비교 (JVM, 같은 프로세스의 대역 서버)
+//  - raw: /lane_image_raw (sensor_msgs/Image) -> CameraDecoder -> PixelConverter (현재 경로)
+//  - compressed: /lane_image_raw/compressed (JPEG) -> CompressedImageDecoder -> CompressedFrameStage -> JPEG 디코드
+//  - mjpeg: FakeMjpegServer HTTP -> MjpegStreamReader -> CompressedFrameStage -> JPEG 디코드
+//  - rosbridge 경로는 compression none(JSON/base64) 과 cbor 각각 측정
+//  - JPEG 디코드는 ImageIO (BitmapFactory 대역, 첫 프레임 이후 같은 BufferedImage 에 디코드 = inBitmap)
+//  - 측정: 화면에 올릴 수 있게 된 프레임/s, 수신 KB/s 와 KB/프레임,
+//          수신 측 스레드 CPU(WebSocket/HTTP 리더 + 디코드 워커 + JPEG 디코드) ms/프레임,
+//          stamp -> 픽셀 준비 지연 p50/p99 (JPEG 경로는 디코드 시작 시점의 최신 수신 stamp 기준),
+//          디코드가 늦어 버린 프레임 수
+//
+// 실행 (org.json 필요: Subscription):
+//   javac -encoding UTF-8 -cp json.jar -d out $(grep -L "^import \(android\|okhttp3\)" *.java) \
+//        $(ls bench/*.java | grep -v FleetHarness)
+//   java -cp out:json.jar com.cookandroid.aidriveexample.CameraPathBenchmark --duration 10 --warmup 3 \
+//        --camera-hz 30 --camera 640x360 [--quality 70] [--no-length] [--paths raw,compressed,mjpeg]
+// ============================================================
+public final class CameraPathBenchmark {
+
+    private static final String[] STAMP_SEC = {"header", "stamp", "sec"};
+    private static final String[] STAMP_NANOSEC = {"header", "stamp", "nanosec"};
+    // 수신 측 스레드 (CPU 합산 대상)
+    private static final String[] CLIENT_THREADS = {"HttpClient", "telemetry-decode", "camera-jpeg-decode", "mjpeg-reader"};
+
+    // MjpegStreamClient / RosBridgeClient 와 같은 값 (벤치는 OkHttp 없이 컴파일)
+    private static final int STALL_TIMEOUT_MS = 5000;
+    private static final int MAX_FRAME_BYTES = 4 * 1024 * 1024;
+    private static final String SUB_CAMERA = "sub_camera";
+    private static final String TOPIC_CAMERA = "/lane_image_raw";
+    private static final String TOPIC_CAMERA_COMPRESSED = "/lane_image_raw/compressed";
+    private static final int DECODE_QUEUE_CAPACITY = 32;
+
+    private static volatile long sink; // 결과를 버리지 않도록
+
+    // ----------------------------------------------------------
+    // 경로 하나의 측정값
+    // ----------------------------------------------------------
+    private static final class Run {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram("stamp->pixels");
+        volatile boolean measuring;
+        volatile long frames; // 픽셀 준비 완료 (디코드 스레드 하나에서만 증가)
+        volatile long ingestStampNanos; // 마지막으로 받은 압축 프레임의 stamp (벽시계 ns)
+
+        Run(String name) {
+            this.name = name;
+        }
+
+        void done(long stampNanos) {
+            if (!measuring) return;
+            frames++;
+            if (stampNanos > 0) latency.recordNanos(FakeRosbridgeServer.epochNanos() - stampNanos);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int durationSec = Integer.parseInt(arg(args, "--duration", "10"));
+        int warmupSec = Integer.parseInt(arg(args, "--warmup", "3"));
+        String paths = arg(args, "--paths", "raw,compressed,mjpeg");
+
+        FakeRosbridgeServer.Config rosConfig = FakeRosbridgeServer.Config.parse(args);
+        rosConfig.port = 0;
+        rosConfig.odomHz = rosConfig.imuHz = rosConfig.batteryHz = 0; // 카메라만
+        FakeRosbridgeServer rosbridge = new FakeRosbridgeServer(rosConfig);
+        rosbridge.start();
+        FakeMjpegServer.Config mjpegConfig = FakeMjpegServer.Config.parse(args);
+        mjpegConfig.port = 0;
+        mjpegConfig.fps = rosConfig.cameraHz;
+        mjpegConfig.width = rosConfig.cameraWidth;
+        mjpegConfig.height = rosConfig.cameraHeight;
+        mjpegConfig.quality = rosConfig.jpegQuality;
+        FakeMjpegServer mjpeg = new FakeMjpegServer(mjpegConfig);
+        mjpeg.start();
+
+        System.out.printf(Locale.US, "camera %dx%d %s @ %.0f Hz, JPEG q%d ~%d KB, warmup %d s, measuring %d s per path%n",
+                rosConfig.cameraWidth, rosConfig.cameraHeight, rosConfig.cameraEncoding, rosConfig.cameraHz,
+                rosConfig.jpegQuality, mjpeg.frameBytes() / 1024, warmupSec, durationSec);
+        System.out.printf(Locale.US, "%-18s %8s %9s %9s %10s %7s | %8s %8s %8s%n",
+                "path", "frames/s", "KB/s", "KB/frame", "cpu ms/fr", "cpu %", "p50 ms", "p99 ms", "dropped");
+        String ws = "ws://127.0.0.1:" + rosbridge.port();
+        if (paths.contains("raw")) {
+            rosbridgePath(new Run("raw json"), ws, false, "none", warmupSec, durationSec);
+            rosbridgePath(new Run("raw cbor"), ws, false, "cbor", warmupSec, durationSec);
+        }
+        if (paths.contains("compressed")) {
+            rosbridgePath(new Run("compressed json"), ws, true, "none", warmupSec, durationSec);
+            rosbridgePath(new Run("compressed cbor"), ws, true, "cbor", warmupSec, durationSec);
+        }
+        if (paths.contains("mjpeg")) {
+            mjpegPath(new Run("mjpeg http"), "http://127.0.0.1:" + mjpeg.port() + "/stream", warmupSec, durationSec);
+        }
+        rosbridge.close();
+        mjpeg.close();
+    }
+
+    // ----------------------------------------------------------
+    // rosbridge 경로: JDK WebSocket -> TelemetryPipeline -> RosbridgeDispatcher -> 카메라 디코더
+    // ----------------------------------------------------------
+    private static void rosbridgePath(Run run, String uri, boolean compressed, String compression,
+                                      int warmupSec, int durationSec) throws Exception {
+        RosbridgeDispatcher dispatcher = new RosbridgeDispatcher();
+        CompressedFrameStage stage = null;
+        String topic;
+        if (compressed) {
+            JpegDecoder jpeg = new JpegDecoder();
+            CompressedFrameStage s = new CompressedFrameStage((format, data, length) -> {
+                long stamp = run.ingestStampNanos; // 디코드 시작 시점의 최신 수신 프레임
+                jpeg.decode(data, length);
+                run.done(stamp);
+            }, "camera-jpeg-decode");
+            CompressedImageDecoder decoder = new CompressedImageDecoder(s);
+            dispatcher.register(SUB_CAMERA, TOPIC_CAMERA_COMPRESSED, msg -> {
+                run.ingestStampNanos = stampNanos(msg);
+                decoder.decode(msg);
+            });
+            s.start();
+            stage = s;
+            topic = TOPIC_CAMERA_COMPRESSED;
+        } else {
+            int[][] pixels = {new int[0]};
+            long[] stamp = new long[1];
+            CameraDecoder decoder = new CameraDecoder((w, h, enc, data, len) -> {
+                if (pixels[0].length < w * h) pixels[0] = new int[w * h];
+                PixelConverter.convert(enc, data, len, w, h, pixels[0]); // CameraFrameDecoder 의 변환 비용
+                sink += pixels[0][0];
+                run.done(stamp[0]);
+            });
+            dispatcher.register(SUB_CAMERA, TOPIC_CAMERA, msg -> {
+                stamp[0] = stampNanos(msg);
+                decoder.decode(msg);
+            });
+            topic = TOPIC_CAMERA;
+        }
+
+        TelemetryPipeline pipeline = new TelemetryPipeline(DECODE_QUEUE_CAPACITY, new TelemetryPipeline.FrameHandler() {
+            @Override public void onText(String text) { dispatcher.dispatch(text); }
+            @Override public void onBinary(ByteBuffer frame) { dispatcher.dispatch(frame); }
+        });
+        pipeline.start();
+        LatencyHarness.FrameCollector collector = new LatencyHarness.FrameCollector(pipeline);
+        WebSocket ws = HttpClient.newHttpClient().newWebSocketBuilder().buildAsync(URI.create(uri), collector).join();
+        SubscriptionManager subscriptions = new SubscriptionManager();
+        subscriptions.subscribe(new Subscription(SUB_CAMERA, topic,
+                compressed ? "sensor_msgs/msg/CompressedImage" : "sensor_msgs/msg/Image")
+                .compression(compression).queueLength(1));
+        subscriptions.setSender(new MessageSender() {
+            @Override public synchronized boolean send(String text) {
+                try {
+                    ws.sendText(text, true).join();
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+        });
+        subscriptions.resubscribeAll();
+
+        measure(run, warmupSec, durationSec, collector.wireBytes::get, stage);
+
+        subscriptions.unsubscribeAll();
+        ws.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+        pipeline.stop();
+        if (stage != null) stage.stop();
+    }
+
+    // ----------------------------------------------------------
+    // MJPEG 경로: HTTP 응답 본문 -> MjpegStreamReader (리더 스레드) -> CompressedFrameStage -> JPEG 디코드
+    //  (앱은 OkHttp 로 같은 파서를 사용: MjpegStreamClient)
+    // ----------------------------------------------------------
+    private static void mjpegPath(Run run, String url, int warmupSec, int durationSec) throws Exception {
+        JpegDecoder jpeg = new JpegDecoder();
+        CompressedFrameStage stage = new CompressedFrameStage((format, data, length) -> {
+            long stamp = run.ingestStampNanos;
+            jpeg.decode(data, length);
+            run.done(stamp);
+        }, "camera-jpeg-decode");
+        stage.start();
+
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setReadTimeout(STALL_TIMEOUT_MS);
+        String boundary = MjpegStreamReader.boundaryOf(conn.getContentType());
+        InputStream in = conn.getInputStream();
+        MjpegStreamReader parser = new MjpegStreamReader(in, boundary, MAX_FRAME_BYTES);
+        long[] wire = new long[1];
+        Thread reader = new Thread(() -> {
+            try {
+                int n;
+                while ((n = parser.next()) >= 0) {
+                    double ts = parser.timestamp();
+                    run.ingestStampNanos = Double.isNaN(ts) ? 0 : (long) (ts * 1e9);
+                    wire[0] = parser.bytesRead();
+                    stage.onCompressedImage(parser.format(), parser.frame(), n);
+                }
+            } catch (IOException e) {
+                // 측정 끝에서 연결을 끊음
+            }
+        }, "mjpeg-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        measure(run, warmupSec, durationSec, () -> wire[0], stage);
+
+        conn.disconnect();
+        in.close();
+        reader.join(1000);
+        stage.stop();
+    }
+
+    // ----------------------------------------------------------
+    // 워밍업 후 측정 구간의 프레임/바이트/CPU 출력
+    // ----------------------------------------------------------
+    private interface Counter {
+        long get();
+    }
+
+    private static void measure(Run run, int warmupSec, int durationSec, Counter wireBytes,
+                                CompressedFrameStage stage) throws InterruptedException {
+        Thread.sleep(warmupSec * 1000L);
+        long bytesBefore = wireBytes.get();
+        long cpuBefore = clientCpuNanos();
+        long droppedBefore = stage != null ? stage.droppedCount() : 0;
+        LatencyHistogram.Snapshot latencyBefore = run.latency.snapshot();
+        long start = System.nanoTime();
+        run.measuring = true;
+        Thread.sleep(durationSec * 1000L);
+        run.measuring = false;
+        double elapsed = (System.nanoTime() - start) * 1e-9;
+        long bytes = wireBytes.get() - bytesBefore;
+        long cpu = clientCpuNanos() - cpuBefore;
+        LatencyHistogram.Snapshot latency = run.latency.snapshot().minus(latencyBefore);
+        long frames = run.frames;
+        System.out.printf(Locale.US, "%-18s %8.1f %9.1f %9.1f %10.2f %7.1f | %8.2f %8.2f %8d%n",
+                run.name, frames / elapsed, bytes / 1024.0 / elapsed, frames == 0 ? 0 : bytes / 1024.0 / frames,
+                frames == 0 ? Double.NaN : cpu / 1e6 / frames, 100.0 * cpu / (elapsed * 1e9),
+                latency.percentileNanos(0.50) / 1e6, latency.percentileNanos(0.99) / 1e6,
+                stage != null ? stage.droppedCount() - droppedBefore : 0);
+    }
+
+    // 수신 측 스레드 CPU 합 (대역 서버 스레드 제외)
+    private static long clientCpuNanos() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long sum = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            for (String prefix : CLIENT_THREADS) {
+                if (!t.getName().startsWith(prefix)) continue;
+                long cpu = mx.getThreadCpuTime(t.getId());
+                if (cpu > 0) sum += cpu;
+                break;
+            }
+        }
+        return sum;
+    }
+
+    private static long stampNanos(MessageReader msg) {
+        return (long) msg.getDouble(STAMP_SEC, 0) * 1_000_000_000L + (long) msg.getDouble(STAMP_NANOSEC, 0);
+    }
+
+    // ----------------------------------------------------------
+    // BitmapFactory 대역: 첫 프레임 이후 같은 BufferedImage 에 디코드 (inBitmap 과 같은 재사용)
+    // ----------------------------------------------------------
+    private static final class JpegDecoder {
+        private final ImageReader reader;
+        private final ImageReadParam param;
+        private BufferedImage target;
+
+        JpegDecoder() {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("jpeg");
+            reader = readers.next();
+            param = reader.getDefaultReadParam();
+        }
+
+        void decode(byte[] data, int length) {
+            try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data, 0, length))) {
+                reader.setInput(in, true, true);
+                if (target != null && (target.getWidth() != reader.getWidth(0) || target.getHeight() != reader.getHeight(0))) {
+                    target = null; // 해상도 변경
+                }
+                param.setDestination(target);
+                target = reader.read(0, param);
+                sink += target.getRGB(0, 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static String arg(String[] args, String name, String def) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return def;
+    }
+}
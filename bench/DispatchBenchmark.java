@@ -0,0 +1,219 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import org.json.JSONException; // 기존 경로 비교용
+import org.json.JSONObject; // 기존 경로 비교용
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// ============================================================
+// DispatchBenchmark: 수신 경로 JVM 벤치마크
+//  - 기존 JSONObject 전체 파싱 경로 vs RosbridgeDispatcher 스트리밍 경로
+//  - 토픽별 messages/sec 와 메시지당 할당 바이트 출력
+//  - 인자로 프레임 파일(한 줄에 rosbridge JSON 하나) 또는 TelemetryRecorder 녹화 디렉터리를
+//    주면 녹화 프레임 사용, 없으면 합성 프레임 사용
+//
+// 실행 (안드로이드 의존성 없는 파일만 컴파일, org.json 은 json-20231013.jar 등):
+//   javac -encoding UTF-8 -cp json.jar -d out $(grep -L "^import \(android\|okhttp3\)" *.java) bench/DispatchBenchmark.java
+//   java -cp out:json.jar com.cookandroid.aidriveexample.DispatchBenchmark [frames.jsonl | 녹화 디렉터리]
+// ============================================================
+public final class DispatchBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3; // JIT 워밍업 반복
+    private static final long MEASURE_NANOS = 2_000_000_000L; // 토픽별 측정 시간
+
+    private static volatile double sink; // 결과를 버리지 않도록 (데드코드 제거 방지)
+
+    public static void main(String[] args) throws Exception {
+        List<String> frames = args.length > 0 ? load(args[0]) : synthetic();
+
+        RosbridgeDispatcher dispatcher = new RosbridgeDispatcher();
+        dispatcher.register("sub_battery", "/battery_state", new BatteryDecoder((pct, volts) -> sink += pct));
+        dispatcher.register("sub_odom", "/odom", new OdomDecoder((t, x, y, yaw, vx, wz) -> sink += x + y + yaw + vx + wz));
+        dispatcher.register("sub_imu", "/imu", new ImuDecoder((r, p, y) -> sink += r + p + y));
+        dispatcher.register("sub_camera", "/lane_image_raw",
+                new CameraDecoder((w, h, enc, data, len) -> sink += data[len - 1]));
+
+        System.out.printf(Locale.US, "%-16s %8s | %14s %14s | %14s %14s%n",
+                "topic", "bytes", "legacy msg/s", "legacy B/msg", "stream msg/s", "stream B/msg");
+        for (String topic : new String[]{"/battery_state", "/odom", "/imu", "/lane_image_raw"}) {
+            List<String> sample = filter(frames, topic);
+            if (sample.isEmpty()) continue;
+            Result legacy = run(sample, text -> legacyHandle(text));
+            Result stream = run(sample, dispatcher::dispatch);
+            System.out.printf(Locale.US, "%-16s %8d | %14.0f %14.0f | %14.0f %14.0f%n",
+                    topic, sample.get(0).length(), legacy.msgsPerSec, legacy.bytesPerMsg,
+                    stream.msgsPerSec, stream.bytesPerMsg);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 측정 루프
+    // ----------------------------------------------------------
+    private interface Handler {
+        void handle(String text) throws Exception;
+    }
+
+    private static final class Result {
+        double msgsPerSec;
+        double bytesPerMsg;
+    }
+
+    private static Result run(List<String> sample, Handler handler) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < 2000; i++) handler.handle(sample.get(i % sample.size()));
+        }
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long count = 0;
+        long allocStart = mx.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 64; i++) handler.handle(sample.get((int) (count++ % sample.size())));
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        long alloc = mx.getThreadAllocatedBytes(tid) - allocStart;
+
+        Result r = new Result();
+        r.msgsPerSec = count * 1e9 / elapsed;
+        r.bytesPerMsg = (double) alloc / count;
+        return r;
+    }
+
+    // ----------------------------------------------------------
+    // 기존 MainActivity.handleRosbridgeMessage 경로 (UI 부분 제외)
+    //  - android.util.Base64 대신 java.util.Base64 사용
+    // ----------------------------------------------------------
+    private static void legacyHandle(String text) throws JSONException {
+        JSONObject obj = new JSONObject(text);
+        if (!obj.has("topic")) return;
+        String topic = obj.getString("topic");
+        JSONObject msg = obj.getJSONObject("msg");
+
+        if (topic.equals("/battery_state")) {
+            double percentage = 0.0;
+            if (msg.has("percentage")) {
+                percentage = msg.getDouble("percentage");
+                if (percentage > 1.0) percentage = percentage / 100.0;
+            } else if (msg.has("voltage")) {
+                percentage = msg.getDouble("voltage") / 12.6;
+            }
+            sink += Math.round(Math.max(0.0, Math.min(1.0, percentage)) * 100.0);
+        } else if (topic.equals("/odom")) {
+            JSONObject twist = msg.getJSONObject("twist").getJSONObject("twist");
+            double vx = twist.getJSONObject("linear").optDouble("x", 0.0);
+            double wz = twist.getJSONObject("angular").optDouble("z", 0.0);
+            JSONObject pose = msg.getJSONObject("pose").getJSONObject("pose");
+            JSONObject position = pose.getJSONObject("position");
+            JSONObject q = pose.getJSONObject("orientation");
+            double x = q.optDouble("x", 0.0), y = q.optDouble("y", 0.0);
+            double z = q.optDouble("z", 0.0), w = q.optDouble("w", 1.0);
+            sink += position.optDouble("x", 0.0) + position.optDouble("y", 0.0)
+                    + Math.atan2(2 * (w * z + x * y), 1 - 2 * (y * y + z * z)) + vx + wz;
+        } else if (topic.equals("/imu")) {
+            JSONObject o = msg.getJSONObject("orientation");
+            double x = o.optDouble("x", 0.0), y = o.optDouble("y", 0.0);
+            double z = o.optDouble("z", 0.0), w = o.optDouble("w", 1.0);
+            sink += Math.atan2(2 * (w * x + y * z), 1 - 2 * (x * x + y * y))
+                    + Math.asin(Math.max(-1, Math.min(1, 2 * (w * y - z * x))))
+                    + Math.atan2(2 * (w * z + x * y), 1 - 2 * (y * y + z * z));
+        } else if (topic.equals("/lane_image_raw")) {
+            byte[] data = Base64.getDecoder().decode(msg.getString("data"));
+            int width = msg.getInt("width");
+            int height = msg.getInt("height");
+            msg.getString("encoding");
+            sink += data[width * height * 3 - 1];
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 프레임 준비
+    // ----------------------------------------------------------
+    private static List<String> load(String path) throws IOException, InterruptedException {
+        List<String> frames = new ArrayList<>();
+        if (new File(path).isDirectory()) { // TelemetryRecorder 녹화본 (텍스트 프레임만)
+            try (TelemetryReplayer replayer = new TelemetryReplayer(new File(path))) {
+                replayer.replay(new TelemetryPipeline.FrameHandler() {
+                    @Override public void onText(String text) { frames.add(text); }
+                    @Override public void onBinary(ByteBuffer frame) { }
+                }, 0, null, 0);
+            }
+            return frames;
+        }
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) frames.add(line);
+        }
+        return frames;
+    }
+
+    private static List<String> filter(List<String> frames, String topic) {
+        String needle = "\"topic\": \"" + topic + "\"";
+        String compact = "\"topic\":\"" + topic + "\"";
+        List<String> out = new ArrayList<>();
+        for (String f : frames) {
+            if (f.contains(needle) || f.contains(compact)) out.add(f);
+        }
+        return out;
+    }
+
+    // rosbridge(파이썬 json) 출력 형식을 흉내 낸 합성 프레임
+    static List<String> synthetic() {
+        Random rnd = new Random(42);
+        List<String> frames = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            frames.add(String.format(Locale.US,
+                    "{\"op\": \"publish\", \"topic\": \"/battery_state\", \"msg\": {\"header\": {\"stamp\": {\"sec\": %d, \"nanosec\": 0}, \"frame_id\": \"\"}, "
+                            + "\"voltage\": %.15f, \"temperature\": NaN, \"current\": NaN, \"charge\": NaN, \"capacity\": NaN, \"design_capacity\": NaN, "
+                            + "\"percentage\": %.15f, \"power_supply_status\": 2, \"power_supply_health\": 0, \"power_supply_technology\": 3, \"present\": true, "
+                            + "\"cell_voltage\": [], \"cell_temperature\": [], \"location\": \"\", \"serial_number\": \"\"}}",
+                    i, 11 + rnd.nextDouble(), rnd.nextDouble()));
+            frames.add(String.format(Locale.US,
+                    "{\"op\": \"publish\", \"topic\": \"/odom\", \"msg\": {\"header\": {\"stamp\": {\"sec\": %d, \"nanosec\": 123456789}, \"frame_id\": \"odom\"}, "
+                            + "\"child_frame_id\": \"base_footprint\", \"pose\": {\"pose\": {\"position\": {\"x\": %.17f, \"y\": %.17f, \"z\": 0.0}, "
+                            + "\"orientation\": {\"x\": 0.0, \"y\": 0.0, \"z\": %.17f, \"w\": %.17f}}, \"covariance\": %s}, "
+                            + "\"twist\": {\"twist\": {\"linear\": {\"x\": %.17f, \"y\": 0.0, \"z\": 0.0}, \"angular\": {\"x\": 0.0, \"y\": 0.0, \"z\": %.17f}}, "
+                            + "\"covariance\": %s}}}",
+                    i, rnd.nextDouble() * 10, rnd.nextDouble() * 10, rnd.nextDouble(), rnd.nextDouble(), covariance(),
+                    rnd.nextDouble(), rnd.nextDouble(), covariance()));
+            frames.add(String.format(Locale.US,
+                    "{\"op\": \"publish\", \"topic\": \"/imu\", \"msg\": {\"header\": {\"stamp\": {\"sec\": %d, \"nanosec\": 0}, \"frame_id\": \"imu_link\"}, "
+                            + "\"orientation\": {\"x\": %.17f, \"y\": %.17f, \"z\": %.17f, \"w\": %.17f}, \"orientation_covariance\": %s, "
+                            + "\"angular_velocity\": {\"x\": %.17f, \"y\": %.17f, \"z\": %.17f}, \"angular_velocity_covariance\": %s, "
+                            + "\"linear_acceleration\": {\"x\": %.17f, \"y\": %.17f, \"z\": %.17f}, \"linear_acceleration_covariance\": %s}}",
+                    i, rnd.nextDouble() * 0.1, rnd.nextDouble() * 0.1, rnd.nextDouble(), rnd.nextDouble(), covariance9(),
+                    rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble(), covariance9(),
+                    rnd.nextDouble(), rnd.nextDouble(), 9.8 + rnd.nextDouble(), covariance9()));
+        }
+        // 640x360 bgr8 (base64 약 900KB)
+        for (int i = 0; i < 4; i++) {
+            byte[] pixels = new byte[640 * 360 * 3];
+            rnd.nextBytes(pixels);
+            frames.add("{\"op\": \"publish\", \"topic\": \"/lane_image_raw\", \"msg\": {\"header\": {\"stamp\": {\"sec\": " + i
+                    + ", \"nanosec\": 0}, \"frame_id\": \"camera\"}, \"height\": 360, \"width\": 640, \"encoding\": \"bgr8\", "
+                    + "\"is_bigendian\": 0, \"step\": 1920, \"data\": \"" + Base64.getEncoder().encodeToString(pixels) + "\"}}");
+        }
+        return frames;
+    }
+
+    private static String covariance() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 36; i++) sb.append(i == 0 ? "" : ", ").append(i % 7 == 0 ? "0.001" : "0.0");
+        return sb.append(']').toString();
+    }
+
+    private static String covariance9() {
+        return "[0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0]";
+    }
+}
@@ -0,0 +1,249 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+// ============================================================
+// FakeMjpegServer: web_video_server 대역 HTTP MJPEG 서버 (JDK 만 사용)
+//  - GET 아무 경로 -> multipart/x-mixed-replace;boundary=boundarydonotcross
+//  - 파트마다 Content-type / Content-Length / X-Timestamp(벽시계 초) 헤더 + JPEG + 경계 (web_video_server 순서)
+//    (--no-length 면 Content-Length 없이 경계로만 구분: 경계 스캔 경로 확인용)
+//  - 프레임은 FakeRosbridgeServer 와 같은 차선 패턴 + 센서 잡음을 미리 JPEG 로 인코딩해 순환
+//  - 연결마다 송신 스레드 하나, 느린 클라이언트는 TCP 로 막힘 (web_video_server 와 같음)
+//
+// 실행:
+//   java -cp out com.cookandroid.aidriveexample.FakeMjpegServer --port 8080 --camera-hz 15 --camera 640x360 --quality 70
+//   앱: adb reverse tcp:8080 tcp:8080 후 -e camera_source mjpeg -e mjpeg_url http://127.0.0.1:8080/stream
+// ============================================================
+public final class FakeMjpegServer implements Closeable {
+
+    static final String BOUNDARY = "boundarydonotcross";
+
+    static final class Config {
+        int port = 8080; // 0 = 임의 포트
+        double fps = 15;
+        int width = 640;
+        int height = 360;
+        int quality = 70; // JPEG 품질 (web_video_server 기본 95, 앱 권장 70)
+        boolean contentLength = true;
+
+        static Config parse(String[] args) {
+            Config c = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String v = i + 1 < args.length ? args[i + 1] : "";
+                switch (args[i]) {
+                    case "--mjpeg-port": c.port = Integer.parseInt(v); break;
+                    case "--camera-hz": c.fps = Double.parseDouble(v); break;
+                    case "--camera": {
+                        String[] wh = v.split("x");
+                        c.width = Integer.parseInt(wh[0]);
+                        c.height = Integer.parseInt(wh[1]);
+                        break;
+                    }
+                    case "--quality": c.quality = Integer.parseInt(v); break;
+                    case "--no-length": c.contentLength = false; break;
+                    default: // 다른 도구 인자는 무시
+                }
+            }
+            return c;
+        }
+    }
+
+    private final Config config;
+    private final byte[][] jpegs; // 미리 인코딩한 프레임 (순환)
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    FakeMjpegServer(Config config) throws IOException {
+        this.config = config;
+        jpegs = new byte[4][];
+        for (int i = 0; i < jpegs.length; i++) {
+            jpegs[i] = encodeJpeg(FakeRosbridgeServer.cameraPattern(config.width, config.height, 3, i),
+                    config.width, config.height, config.quality, i);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config c = Config.parse(args);
+        if (arg(args, "--port") != null) c.port = Integer.parseInt(arg(args, "--port"));
+        FakeMjpegServer server = new FakeMjpegServer(c);
+        server.start();
+        System.out.printf(Locale.US, "fake mjpeg on http://0.0.0.0:%d/stream (%.0f fps %dx%d q%d, ~%d KB/frame%s)%n",
+                server.port(), c.fps, c.width, c.height, c.quality, server.frameBytes() / 1024,
+                c.contentLength ? "" : ", no Content-Length");
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.printf(Locale.US, "clients=%d frames=%d bytes=%d%n",
+                    server.clients.size(), server.framesSent(), server.bytesSent());
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 시작/종료
+    // ----------------------------------------------------------
+    void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(config.port));
+        Thread acceptor = new Thread(this::acceptLoop, "fake-mjpeg-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket s : clients) s.close();
+    }
+
+    long framesSent() {
+        return framesSent.get();
+    }
+
+    long bytesSent() {
+        return bytesSent.get();
+    }
+
+    // 평균 JPEG 크기
+    int frameBytes() {
+        long sum = 0;
+        for (byte[] j : jpegs) sum += j.length;
+        return (int) (sum / jpegs.length);
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                clients.add(socket);
+                Thread t = new Thread(() -> serve(socket), "fake-mjpeg-client");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!closed) e.printStackTrace();
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 연결 하나: 요청 헤더를 읽고 프레임을 주기적으로 보냄 (끊길 때까지)
+    // ----------------------------------------------------------
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = s.getInputStream();
+            int state = 0; // 요청 끝(빈 줄) 찾기: \r\n\r\n
+            while (state < 4) {
+                int b = in.read();
+                if (b < 0) return;
+                state = (b == '\r' && (state & 1) == 0) || (b == '\n' && (state & 1) == 1) ? state + 1 : 0;
+            }
+            OutputStream out = s.getOutputStream();
+            out.write(("HTTP/1.0 200 OK\r\n"
+                    + "Server: fake-web-video-server\r\n"
+                    + "Connection: close\r\n"
+                    + "Cache-Control: no-cache, no-store, must-revalidate, pre-check=0, post-check=0, max-age=0\r\n"
+                    + "Pragma: no-cache\r\n"
+                    + "Content-Type: multipart/x-mixed-replace;boundary=" + BOUNDARY + "\r\n"
+                    + "\r\n"
+                    + "--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            byte[] delimiter = ("\r\n--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            long period = (long) (1e9 / config.fps);
+            long next = System.nanoTime();
+            for (int i = 0; !closed; i++) {
+                byte[] jpeg = jpegs[i % jpegs.length];
+                long stamp = FakeRosbridgeServer.epochNanos();
+                StringBuilder head = new StringBuilder(128).append("Content-type: image/jpeg\r\n");
+                if (config.contentLength) head.append("Content-Length: ").append(jpeg.length).append("\r\n");
+                head.append(String.format(Locale.US, "X-Timestamp: %d.%09d\r\n\r\n",
+                        stamp / 1_000_000_000L, stamp % 1_000_000_000L));
+                byte[] h = head.toString().getBytes(StandardCharsets.US_ASCII);
+                out.write(h);
+                out.write(jpeg);
+                out.write(delimiter); // 파트 직후 경계 (Content-Length 없이도 바로 프레임 끝을 알 수 있음)
+                out.flush();
+                framesSent.incrementAndGet();
+                bytesSent.addAndGet(h.length + jpeg.length + delimiter.length);
+                next += period;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+                else next = System.nanoTime(); // 느린 클라이언트: 밀린 프레임을 몰아 보내지 않음
+            }
+        } catch (SocketException e) {
+            // 클라이언트가 끊음
+        } catch (IOException e) {
+            if (!closed) e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 회색 패턴(bpp 3) -> JPEG, 실제 카메라처럼 압축률이 나오도록 잡음 추가
+    // ----------------------------------------------------------
+    static byte[] encodeJpeg(byte[] rgb, int w, int h, int quality, long seed) throws IOException {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Random noise = new Random(seed);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int i = (y * w + x) * 3;
+                int r = clamp((rgb[i] & 0xFF) + noise.nextInt(25) - 12);
+                int g = clamp((rgb[i + 1] & 0xFF) + noise.nextInt(25) - 12);
+                int b = clamp((rgb[i + 2] & 0xFF) + noise.nextInt(25) - 12);
+                img.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality / 100f);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int clamp(int v) {
+        return v < 0 ? 0 : (v > 255 ? 255 : v);
+    }
+
+    private static String arg(String[] args, String name) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return null;
+    }
+}
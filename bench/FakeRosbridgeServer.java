@@ -0,0 +1,906 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// FakeRosbridgeServer: 로봇 없이 쓰는 rosbridge 대역 서버 (JDK 만 사용)
+//  - ServerSocket 위의 최소 WebSocket 서버 (RFC 6455 핸드셰이크, 마스킹/조각 프레임, ping/close)
+//  - op: subscribe(throttle_rate, compression none/cbor, fragment_size), unsubscribe, advertise, unadvertise,
+//        publish (같은 토픽 구독자에게 그대로 전달 = rosbridge 루프백), call_service(/rosapi/get_time, /rosapi/publishers,
+//        /motor_control/get_parameters, set_parameters: motor_sub 기본 게인, double 만)
+//  - --service-delay-ms: 파라미터 서비스 처리 시간 흉내 (요청마다 따로 예약 = rosbridge 의 호출별 스레드)
+//    /cmd_drive "up"/"down" publish 는 target_speed 를 ±0.02 (command_executor -> motor_sub 흉내)
+//  - 합성 스트림: /odom, /imu, /battery_state, /lane_image_raw (주기/해상도/인코딩 설정)
+//    /lane_image_raw/compressed (sensor_msgs/CompressedImage JPEG, 구독자가 있을 때만 인코딩)
+//  - header.stamp = 서버 송신 직전 벽시계 (epochNanos), 수신 측에서 지연 계산용
+//  - 세션별 송신 큐 (가득 차면 가장 오래된 프레임 버림) + 송신 스레드
+//
+// 실행:
+//   java -cp out com.cookandroid.aidriveexample.FakeRosbridgeServer --port 9090 \
+//        --odom-hz 30 --imu-hz 100 --battery-hz 1 --camera-hz 15 --camera 640x360 --encoding bgr8
+//   앱: adb reverse tcp:9090 tcp:9090 후 -e rosbridge_uri ws://127.0.0.1:9090 로 실행
+// ============================================================
+public final class FakeRosbridgeServer implements Closeable {
+
+    // ----------------------------------------------------------
+    // 설정
+    // ----------------------------------------------------------
+    static final class Config {
+        int port = 9090; // 0 = 임의 포트
+        double odomHz = 30;
+        double imuHz = 100;
+        double batteryHz = 1;
+        double cameraHz = 15;
+        int cameraWidth = 640;
+        int cameraHeight = 360;
+        String cameraEncoding = "bgr8";
+        int jpegQuality = 70; // /lane_image_raw/compressed 품질
+        int sendQueue = 256; // 세션별 송신 큐 길이
+        long serviceDelayMs = 0; // 파라미터 서비스 응답 지연
+
+        static Config parse(String[] args) {
+            Config c = new Config();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String v = args[i + 1];
+                switch (args[i]) {
+                    case "--port": c.port = Integer.parseInt(v); break;
+                    case "--odom-hz": c.odomHz = Double.parseDouble(v); break;
+                    case "--imu-hz": c.imuHz = Double.parseDouble(v); break;
+                    case "--battery-hz": c.batteryHz = Double.parseDouble(v); break;
+                    case "--camera-hz": c.cameraHz = Double.parseDouble(v); break;
+                    case "--camera": {
+                        String[] wh = v.split("x");
+                        c.cameraWidth = Integer.parseInt(wh[0]);
+                        c.cameraHeight = Integer.parseInt(wh[1]);
+                        break;
+                    }
+                    case "--encoding": c.cameraEncoding = v; break;
+                    case "--quality": c.jpegQuality = Integer.parseInt(v); break;
+                    case "--send-queue": c.sendQueue = Integer.parseInt(v); break;
+                    case "--service-delay-ms": c.serviceDelayMs = Long.parseLong(v); break;
+                    default: // 다른 도구(LatencyHarness) 인자는 무시
+                }
+            }
+            return c;
+        }
+    }
+
+    static final String TOPIC_ODOM = "/odom";
+    static final String TOPIC_IMU = "/imu";
+    static final String TOPIC_BATTERY = "/battery_state";
+    static final String TOPIC_CAMERA = "/lane_image_raw";
+    static final String TOPIC_CAMERA_COMPRESSED = "/lane_image_raw/compressed";
+
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final String[] OPS = {"subscribe", "unsubscribe", "advertise", "unadvertise",
+            "publish", "call_service"};
+    private static final String[] P_OP = {"op"};
+    private static final String[] P_ID = {"id"};
+    private static final String[] P_TOPIC = {"topic"};
+    private static final String[] P_SERVICE = {"service"};
+    private static final String[] P_COMPRESSION = {"compression"};
+    private static final String[] P_THROTTLE = {"throttle_rate"};
+    private static final String[] P_FRAGMENT = {"fragment_size"};
+    private static final String[] P_MSG_DATA = {"msg", "data"};
+
+    static final String MOTOR_NODE = "/motor_control"; // motor_sub.py 노드
+    static final double SPEED_STEP = 0.02; // motor_sub speed_cmd_callback 증감량
+
+    // 벽시계 나노초 (currentTimeMillis 기준점 + nanoTime 경과, 같은 JVM 안에서는 단조 증가)
+    private static final long EPOCH_BASE_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long NANO_BASE = System.nanoTime();
+
+    static long epochNanos() {
+        return EPOCH_BASE_NANOS + (System.nanoTime() - NANO_BASE);
+    }
+
+    private final Config config;
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicLong> publishedByClient = new ConcurrentHashMap<>(); // 토픽별 수신 publish 수
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong fragmentIds = new AtomicLong(); // op "fragment" 세트 id
+    private final AtomicLong serviceCalls = new AtomicLong();
+    private final Map<String, Double> motorParams = new ConcurrentHashMap<>(); // motor_sub 파라미터 (double 만)
+    private final ScheduledExecutorService streams = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fake-rosbridge-streams");
+        t.setDaemon(true);
+        return t;
+    });
+    private final byte[][] cameraPatterns; // 미리 만든 카메라 프레임 (순환)
+    private final String[] cameraPatternsBase64;
+    private Blob[] cameraJpegs; // 압축 카메라 첫 구독 때 인코딩 (streams 스레드 전용)
+    private ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    // --- 합성 상태 (streams 스레드 전용) ---
+    private final long startNanos = System.nanoTime();
+    private double battery = 1.0;
+
+    FakeRosbridgeServer(Config config) {
+        this.config = config;
+        motorParams.put("k_angle", 0.002); // motor_sub.py 기본값
+        motorParams.put("k_deg", 0.008);
+        motorParams.put("max_angular", 16.0);
+        motorParams.put("target_speed", 0.08);
+        motorParams.put("speed_step", 0.01);
+        int frames = 4;
+        cameraPatterns = new byte[frames][];
+        cameraPatternsBase64 = new String[frames];
+        for (int i = 0; i < frames; i++) {
+            cameraPatterns[i] = cameraPattern(config.cameraWidth, config.cameraHeight,
+                    PixelConverter.bytesPerPixel(config.cameraEncoding), i);
+            cameraPatternsBase64[i] = Base64.getEncoder().encodeToString(cameraPatterns[i]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config c = Config.parse(args);
+        FakeRosbridgeServer server = new FakeRosbridgeServer(c);
+        server.start();
+        System.out.printf(Locale.US, "fake rosbridge on ws://0.0.0.0:%d (odom %.0fHz, imu %.0fHz, battery %.0fHz, camera %.0fHz %dx%d %s)%n",
+                server.port(), c.odomHz, c.imuHz, c.batteryHz, c.cameraHz, c.cameraWidth, c.cameraHeight, c.cameraEncoding);
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.printf(Locale.US, "sessions=%d sent=%d dropped=%d published=%s%n",
+                    server.sessions.size(), server.framesSent(), server.framesDropped(), server.publishedByClient);
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 시작/종료
+    // ----------------------------------------------------------
+    void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(config.port));
+        Thread acceptor = new Thread(this::acceptLoop, "fake-rosbridge-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        schedule(config.odomHz, this::publishOdom);
+        schedule(config.imuHz, this::publishImu);
+        schedule(config.batteryHz, this::publishBattery);
+        schedule(config.cameraHz, this::publishCamera);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        streams.shutdownNow();
+        serverSocket.close();
+        for (Session s : sessions) s.close();
+    }
+
+    long framesSent() {
+        return framesSent.get();
+    }
+
+    long framesDropped() {
+        return framesDropped.get();
+    }
+
+    long serviceCalls() {
+        return serviceCalls.get();
+    }
+
+    double motorParam(String name) {
+        Double v = motorParams.get(name);
+        return v != null ? v : Double.NaN;
+    }
+
+    long publishedByClient(String topic) {
+        AtomicLong n = publishedByClient.get(topic);
+        return n == null ? 0 : n.get();
+    }
+
+    private void schedule(double hz, Runnable task) {
+        if (hz <= 0) return;
+        long period = (long) (1e9 / hz);
+        streams.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Session s = new Session(socket);
+                sessions.add(s);
+                s.start();
+            } catch (IOException e) {
+                if (!closed) e.printStackTrace();
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 합성 스트림 (필드 구성은 실제 ROS2 메시지와 같게, 값은 원을 도는 로봇)
+    // ----------------------------------------------------------
+    private void publishOdom() {
+        double t = (System.nanoTime() - startNanos) * 1e-9;
+        double yaw = t * 0.2; // 반지름 5m 원, 1m/s
+        long stamp = epochNanos();
+        Map<String, Object> msg = new Msg()
+                .with("header", header(stamp, "odom"))
+                .with("child_frame_id", "base_link")
+                .with("pose", new Msg()
+                        .with("pose", pose(5 * Math.sin(yaw), 5 - 5 * Math.cos(yaw), yaw))
+                        .with("covariance", new double[36]))
+                .with("twist", new Msg()
+                        .with("twist", new Msg()
+                                .with("linear", vec3(1.0, 0, 0))
+                                .with("angular", vec3(0, 0, 0.2)))
+                        .with("covariance", new double[36]));
+        broadcast(TOPIC_ODOM, msg);
+    }
+
+    private void publishImu() {
+        double t = (System.nanoTime() - startNanos) * 1e-9;
+        double roll = 0.05 * Math.sin(t), pitch = 0.03 * Math.cos(t), yaw = (t * 0.2) % (2 * Math.PI);
+        Map<String, Object> msg = new Msg()
+                .with("header", header(epochNanos(), "imu_link"))
+                .with("orientation", quaternion(roll, pitch, yaw))
+                .with("orientation_covariance", new double[9])
+                .with("angular_velocity", vec3(0.01, -0.02, 0.2))
+                .with("angular_velocity_covariance", new double[9])
+                .with("linear_acceleration", vec3(0.1, 0.0, 9.81))
+                .with("linear_acceleration_covariance", new double[9]);
+        broadcast(TOPIC_IMU, msg);
+    }
+
+    private void publishBattery() {
+        battery = battery <= 0.05 ? 1.0 : battery - 0.001;
+        Map<String, Object> msg = new Msg()
+                .with("header", header(epochNanos(), ""))
+                .with("voltage", 9.0 + 3.6 * battery)
+                .with("current", -1.2)
+                .with("percentage", battery)
+                .with("present", true);
+        broadcast(TOPIC_BATTERY, msg);
+    }
+
+    private void publishCamera() {
+        int i = (int) (epochNanos() / 100_000_000L) % cameraPatterns.length;
+        int bpp = PixelConverter.bytesPerPixel(config.cameraEncoding);
+        Map<String, Object> msg = new Msg()
+                .with("header", header(epochNanos(), "camera"))
+                .with("height", config.cameraHeight)
+                .with("width", config.cameraWidth)
+                .with("encoding", config.cameraEncoding)
+                .with("is_bigendian", 0)
+                .with("step", config.cameraWidth * bpp)
+                .with("data", new Blob(cameraPatterns[i], cameraPatternsBase64[i]));
+        broadcast(TOPIC_CAMERA, msg);
+        publishCompressedCamera(i);
+    }
+
+    private void publishCompressedCamera(int i) {
+        if (!subscribed(TOPIC_CAMERA_COMPRESSED)) return;
+        if (cameraJpegs == null) {
+            cameraJpegs = new Blob[cameraPatterns.length];
+            for (int k = 0; k < cameraJpegs.length; k++) {
+                byte[] jpeg;
+                try {
+                    jpeg = FakeMjpegServer.encodeJpeg(cameraPattern(config.cameraWidth, config.cameraHeight, 3, k),
+                            config.cameraWidth, config.cameraHeight, config.jpegQuality, k);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                cameraJpegs[k] = new Blob(jpeg, Base64.getEncoder().encodeToString(jpeg));
+            }
+        }
+        Map<String, Object> msg = new Msg()
+                .with("header", header(epochNanos(), "camera"))
+                .with("format", "jpeg")
+                .with("data", cameraJpegs[i]);
+        broadcast(TOPIC_CAMERA_COMPRESSED, msg);
+    }
+
+    private boolean subscribed(String topic) {
+        for (Session s : sessions) {
+            if (s.subs.containsKey(topic)) return true;
+        }
+        return false;
+    }
+
+    // 구독 중인 세션에만, 압축 방식별로 한 번씩 직렬화 (fragment_size 보다 큰 JSON 은 조각으로)
+    private void broadcast(String topic, Map<String, Object> msg) {
+        String json = null;
+        byte[] cbor = null;
+        String[] fragments = null; // 마지막으로 자른 조각 (같은 fragment_size 세션끼리 공유)
+        int fragmentSize = 0;
+        long now = System.nanoTime();
+        for (Session s : sessions) {
+            Sub sub = s.subs.get(topic);
+            if (sub == null || now - sub.lastSentNanos < sub.throttleNanos) continue;
+            sub.lastSentNanos = now;
+            if ("cbor".equals(sub.compression)) {
+                if (cbor == null) cbor = Cbor.encode(publishEnvelope(topic, msg));
+                s.enqueue(cbor);
+            } else {
+                if (json == null) json = Json.encode(publishEnvelope(topic, msg));
+                if (sub.fragmentSize <= 0 || json.length() <= sub.fragmentSize) {
+                    s.enqueue(json);
+                    continue;
+                }
+                if (fragments == null || fragmentSize != sub.fragmentSize) {
+                    fragmentSize = sub.fragmentSize;
+                    fragments = fragment(json, fragmentSize);
+                }
+                for (String f : fragments) s.enqueue(f);
+            }
+        }
+    }
+
+    // rosbridge 조각 형식: 직렬화한 JSON 텍스트를 size 글자씩 잘라 각각 op "fragment" 로 감쌈
+    private String[] fragment(String json, int size) {
+        String id = "fragment_" + fragmentIds.incrementAndGet();
+        int total = (json.length() + size - 1) / size;
+        String[] out = new String[total];
+        for (int i = 0; i < total; i++) {
+            String data = json.substring(i * size, Math.min(json.length(), (i + 1) * size));
+            out[i] = Json.encode(new Msg().with("op", "fragment").with("id", id)
+                    .with("data", data).with("num", i).with("total", total));
+        }
+        return out;
+    }
+
+    private static Map<String, Object> publishEnvelope(String topic, Map<String, Object> msg) {
+        return new Msg().with("op", "publish").with("topic", topic).with("msg", msg);
+    }
+
+    // ----------------------------------------------------------
+    // 메시지 조립 도우미
+    // ----------------------------------------------------------
+    private static final class Msg extends java.util.LinkedHashMap<String, Object> {
+        private static final long serialVersionUID = 1L; // 직렬화하지 않음 (Map 으로 인코더에 넘기기 위한 상속)
+
+        Msg with(String k, Object v) {
+            super.put(k, v);
+            return this;
+        }
+    }
+
+    // 미리 base64 로 인코딩해둔 uint8[] (JSON 직렬화 시 재사용)
+    private static final class Blob {
+        final byte[] raw;
+        final String base64;
+
+        Blob(byte[] raw, String base64) {
+            this.raw = raw;
+            this.base64 = base64;
+        }
+    }
+
+    private static Msg header(long stampNanos, String frameId) {
+        return new Msg()
+                .with("stamp", new Msg().with("sec", stampNanos / 1_000_000_000L)
+                        .with("nanosec", stampNanos % 1_000_000_000L))
+                .with("frame_id", frameId);
+    }
+
+    private static Msg vec3(double x, double y, double z) {
+        return new Msg().with("x", x).with("y", y).with("z", z);
+    }
+
+    private static Msg quaternion(double roll, double pitch, double yaw) {
+        double cr = Math.cos(roll / 2), sr = Math.sin(roll / 2);
+        double cp = Math.cos(pitch / 2), sp = Math.sin(pitch / 2);
+        double cy = Math.cos(yaw / 2), sy = Math.sin(yaw / 2);
+        return new Msg()
+                .with("x", sr * cp * cy - cr * sp * sy)
+                .with("y", cr * sp * cy + sr * cp * sy)
+                .with("z", cr * cp * sy - sr * sp * cy)
+                .with("w", cr * cp * cy + sr * sp * sy);
+    }
+
+    private static Msg pose(double x, double y, double yaw) {
+        return new Msg().with("position", vec3(x, y, 0)).with("orientation", quaternion(0, 0, yaw));
+    }
+
+    // 차선 두 줄이 좌우로 흔들리는 패턴
+    static byte[] cameraPattern(int w, int h, int bpp, int phase) {
+        byte[] data = new byte[w * h * bpp];
+        int shift = (phase - 2) * w / 40;
+        for (int y = 0; y < h; y++) {
+            int left = w / 4 + shift + (h - y) * w / (4 * h);
+            int right = 3 * w / 4 + shift - (h - y) * w / (4 * h);
+            for (int x = 0; x < w; x++) {
+                boolean lane = Math.abs(x - left) < 4 || Math.abs(x - right) < 4;
+                int v = lane ? 240 : 40 + (y * 80 / h);
+                for (int c = 0; c < bpp; c++) data[(y * w + x) * bpp + c] = (byte) v;
+            }
+        }
+        return data;
+    }
+
+    // ----------------------------------------------------------
+    // 직렬화: rosbridge(파이썬) 과 같은 "key": value 형식의 JSON
+    // ----------------------------------------------------------
+    private static final class Json {
+        static String encode(Object v) {
+            StringBuilder sb = new StringBuilder(256);
+            write(sb, v);
+            return sb.toString();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void write(StringBuilder sb, Object v) {
+            if (v instanceof Map) {
+                sb.append('{');
+                boolean first = true;
+                for (Map.Entry<String, Object> e : ((Map<String, Object>) v).entrySet()) {
+                    if (!first) sb.append(", ");
+                    first = false;
+                    string(sb, e.getKey());
+                    sb.append(": ");
+                    write(sb, e.getValue());
+                }
+                sb.append('}');
+            } else if (v instanceof String) {
+                string(sb, (String) v);
+            } else if (v instanceof Blob) {
+                sb.append('"').append(((Blob) v).base64).append('"');
+            } else if (v instanceof double[]) {
+                sb.append('[');
+                double[] a = (double[]) v;
+                for (int i = 0; i < a.length; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(a[i]);
+                }
+                sb.append(']');
+            } else {
+                sb.append(v); // Number, Boolean
+            }
+        }
+
+        private static void string(StringBuilder sb, String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') sb.append('\\');
+                sb.append(c);
+            }
+            sb.append('"');
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 직렬화: rosbridge compression "cbor" 형식
+    //  uint8[] = byte string, float64[] = RFC 8746 typed array (tag 86, little endian)
+    // ----------------------------------------------------------
+    private static final class Cbor {
+        static byte[] encode(Object v) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            write(out, v);
+            return out.toByteArray();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void write(ByteArrayOutputStream out, Object v) {
+            if (v instanceof Map) {
+                Map<String, Object> m = (Map<String, Object>) v;
+                head(out, 5, m.size());
+                for (Map.Entry<String, Object> e : m.entrySet()) {
+                    write(out, e.getKey());
+                    write(out, e.getValue());
+                }
+            } else if (v instanceof String) {
+                byte[] b = ((String) v).getBytes(StandardCharsets.UTF_8);
+                head(out, 3, b.length);
+                out.write(b, 0, b.length);
+            } else if (v instanceof Blob) {
+                byte[] b = ((Blob) v).raw;
+                head(out, 2, b.length);
+                out.write(b, 0, b.length);
+            } else if (v instanceof double[]) {
+                double[] a = (double[]) v;
+                head(out, 6, 86); // float64 little endian typed array
+                head(out, 2, a.length * 8L);
+                for (double d : a) {
+                    long bits = Double.doubleToLongBits(d);
+                    for (int i = 0; i < 8; i++) out.write((int) (bits >>> (8 * i)));
+                }
+            } else if (v instanceof Boolean) {
+                out.write((Boolean) v ? 0xF5 : 0xF4);
+            } else if (v instanceof Double || v instanceof Float) {
+                long bits = Double.doubleToLongBits(((Number) v).doubleValue());
+                out.write(0xFB);
+                for (int i = 7; i >= 0; i--) out.write((int) (bits >>> (8 * i)));
+            } else {
+                long n = ((Number) v).longValue();
+                if (n >= 0) head(out, 0, n);
+                else head(out, 1, -1 - n);
+            }
+        }
+
+        private static void head(ByteArrayOutputStream out, int major, long arg) {
+            int mt = major << 5;
+            if (arg < 24) {
+                out.write(mt | (int) arg);
+            } else if (arg < 0x100) {
+                out.write(mt | 24);
+                out.write((int) arg);
+            } else if (arg < 0x10000) {
+                out.write(mt | 25);
+                out.write((int) (arg >>> 8));
+                out.write((int) arg);
+            } else if (arg < 0x100000000L) {
+                out.write(mt | 26);
+                for (int i = 3; i >= 0; i--) out.write((int) (arg >>> (8 * i)));
+            } else {
+                out.write(mt | 27);
+                for (int i = 7; i >= 0; i--) out.write((int) (arg >>> (8 * i)));
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 구독 상태 (세션별)
+    // ----------------------------------------------------------
+    private static final class Sub {
+        final String compression;
+        final long throttleNanos;
+        final int fragmentSize; // 0 = 조각 없음
+        volatile long lastSentNanos = Long.MIN_VALUE / 2;
+
+        Sub(String compression, long throttleMs, int fragmentSize) {
+            this.compression = compression;
+            this.throttleNanos = throttleMs * 1_000_000L;
+            this.fragmentSize = fragmentSize;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // WebSocket 세션: 수신 스레드(op 처리) + 송신 스레드(큐)
+    // ----------------------------------------------------------
+    private final class Session {
+        final Socket socket;
+        final Map<String, Sub> subs = new ConcurrentHashMap<>(); // 토픽 -> 구독
+        final Map<String, String> subIds = new HashMap<>(); // 구독 id -> 토픽 (수신 스레드 전용)
+        final ArrayBlockingQueue<Object> outbox; // String(텍스트), byte[](바이너리), Control
+        final JsonMessageReader reader = new JsonMessageReader();
+        private OutputStream out;
+
+        Session(Socket socket) {
+            this.socket = socket;
+            this.outbox = new ArrayBlockingQueue<>(config.sendQueue);
+        }
+
+        void start() {
+            Thread t = new Thread(this::readLoop, "fake-rosbridge-session");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        void close() {
+            sessions.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 이미 닫힘
+            }
+        }
+
+        // 가득 차면 가장 오래된 프레임을 버림 (rosbridge queue_length 와 비슷한 동작)
+        void enqueue(Object frame) {
+            while (!outbox.offer(frame)) {
+                if (outbox.poll() != null) framesDropped.incrementAndGet();
+            }
+        }
+
+        private void readLoop() {
+            try {
+                InputStream rawIn = new BufferedInputStream(socket.getInputStream());
+                out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+                if (!handshake(rawIn)) {
+                    close();
+                    return;
+                }
+                Thread writer = new Thread(this::writeLoop, "fake-rosbridge-writer");
+                writer.setDaemon(true);
+                writer.start();
+
+                DataInputStream in = new DataInputStream(rawIn);
+                ByteArrayOutputStream message = new ByteArrayOutputStream();
+                int messageOpcode = 0;
+                while (!closed) {
+                    int b0 = in.readUnsignedByte();
+                    int b1 = in.readUnsignedByte();
+                    boolean fin = (b0 & 0x80) != 0;
+                    int opcode = b0 & 0x0F;
+                    long len = b1 & 0x7F;
+                    if (len == 126) len = in.readUnsignedShort();
+                    else if (len == 127) len = in.readLong();
+                    byte[] mask = new byte[4];
+                    if ((b1 & 0x80) != 0) in.readFully(mask);
+                    byte[] payload = new byte[(int) len];
+                    in.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+
+                    if (opcode == 0x8) { // close
+                        enqueue(new Control(0x8, payload));
+                        break;
+                    } else if (opcode == 0x9) { // ping
+                        enqueue(new Control(0xA, payload));
+                    } else if (opcode == 0xA) { // pong
+                        continue;
+                    } else {
+                        if (opcode != 0) messageOpcode = opcode;
+                        message.write(payload, 0, payload.length);
+                        if (!fin) continue;
+                        if (messageOpcode == 0x1) handleText(new String(message.toByteArray(), StandardCharsets.UTF_8));
+                        message.reset();
+                    }
+                }
+            } catch (EOFException e) {
+                // 클라이언트 연결 종료
+            } catch (IOException e) {
+                if (!closed && !socket.isClosed()) System.err.println("session error: " + e);
+            } finally {
+                // 송신 스레드가 close 응답을 보낼 시간
+                enqueue(STOP);
+            }
+        }
+
+        private void writeLoop() {
+            try {
+                while (true) {
+                    Object frame = outbox.take();
+                    if (frame == STOP) break;
+                    if (frame instanceof String) {
+                        writeFrame(0x1, ((String) frame).getBytes(StandardCharsets.UTF_8));
+                    } else if (frame instanceof byte[]) {
+                        writeFrame(0x2, (byte[]) frame);
+                    } else {
+                        Control c = (Control) frame;
+                        writeFrame(c.opcode, c.payload);
+                    }
+                    framesSent.incrementAndGet();
+                    if (outbox.isEmpty()) out.flush(); // 밀린 프레임은 모아서 flush
+                }
+                out.flush();
+            } catch (IOException | InterruptedException e) {
+                // 연결 끊김
+            } finally {
+                close();
+            }
+        }
+
+        private void writeFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            int len = payload.length;
+            if (len < 126) {
+                out.write(len);
+            } else if (len < 0x10000) {
+                out.write(126);
+                out.write(len >>> 8);
+                out.write(len);
+            } else {
+                out.write(127);
+                for (int i = 7; i >= 0; i--) out.write((int) ((long) len >>> (8 * i)));
+            }
+            out.write(payload);
+        }
+
+        // HTTP Upgrade 요청을 읽고 101 응답
+        private boolean handshake(InputStream in) throws IOException {
+            String key = null;
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(colon + 1).trim();
+                }
+            }
+            if (key == null) return false;
+            String accept;
+            try {
+                MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+                accept = Base64.getEncoder().encodeToString(
+                        sha1.digest((key + WS_GUID).getBytes(StandardCharsets.US_ASCII)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return true;
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') return sb.toString();
+                if (c != '\r') sb.append((char) c);
+            }
+            return sb.length() > 0 ? sb.toString() : null;
+        }
+
+        // ----------------------------------------------------------
+        // rosbridge op 처리
+        // ----------------------------------------------------------
+        private void handleText(String text) {
+            JsonMessageReader r = reader;
+            r.reset(text);
+            String op = r.getKnownString(P_OP, OPS);
+            if (op == null) return;
+            switch (op) {
+                case "subscribe": {
+                    String topic = r.getString(P_TOPIC);
+                    if (topic == null) return;
+                    String compression = r.getString(P_COMPRESSION);
+                    String id = r.getString(P_ID);
+                    if ("cbor-raw".equals(compression)) { // CDR 은 지원 안 함: rosbridge 처럼 상태 메시지만
+                        enqueue("{\"op\": \"status\", \"level\": \"warning\", \"msg\": \"cbor-raw not supported by fake server\"}");
+                        return;
+                    }
+                    subs.put(topic, new Sub(compression == null ? "none" : compression, r.getInt(P_THROTTLE, 0),
+                            r.getInt(P_FRAGMENT, 0)));
+                    if (id != null) subIds.put(id, topic);
+                    break;
+                }
+                case "unsubscribe": {
+                    String id = r.getString(P_ID);
+                    String topic = id != null ? subIds.remove(id) : r.getString(P_TOPIC);
+                    if (topic != null) subs.remove(topic);
+                    break;
+                }
+                case "advertise":
+                case "unadvertise":
+                    break; // 토픽 타입 검사 없음
+                case "publish": {
+                    String topic = r.getString(P_TOPIC);
+                    if (topic == null) return;
+                    publishedByClient.computeIfAbsent(topic, k -> new AtomicLong()).incrementAndGet();
+                    if ("/cmd_drive".equals(topic)) driveCommand(r.getString(P_MSG_DATA));
+                    int msgPos = r.findTopLevel("msg");
+                    if (msgPos < 0) return;
+                    // 루프백: 같은 토픽 구독자에게 원문 msg 그대로 (JSON 만)
+                    String echo = "{\"op\": \"publish\", \"topic\": \"" + topic + "\", \"msg\": "
+                            + text.substring(msgPos, r.skipValue(msgPos)) + "}";
+                    long now = System.nanoTime();
+                    for (Session s : sessions) {
+                        Sub sub = s.subs.get(topic);
+                        if (sub == null || now - sub.lastSentNanos < sub.throttleNanos) continue;
+                        sub.lastSentNanos = now;
+                        s.enqueue(echo);
+                    }
+                    break;
+                }
+                case "call_service": {
+                    String id = r.getString(P_ID);
+                    String service = r.getString(P_SERVICE);
+                    String idField = id == null ? "" : ", \"id\": \"" + id + "\"";
+                    if ("/rosapi/get_time".equals(service)) {
+                        long now = epochNanos();
+                        enqueue("{\"op\": \"service_response\", \"service\": \"" + service
+                                + "\", \"values\": {\"time\": {\"sec\": " + now / 1_000_000_000L
+                                + ", \"nanosec\": " + now % 1_000_000_000L + "}}, \"result\": true" + idField + "}");
+                        break;
+                    }
+                    if ("/rosapi/publishers".equals(service)) { // 카메라 토픽만 발행자 있음 (--camera-hz 0 = 카메라 노드 꺼짐)
+                        String topic = r.stringAt(r.findField(r.findTopLevel("args"), "topic"));
+                        boolean camera = topic != null && topic.startsWith("/lane_image_raw") && config.cameraHz > 0;
+                        enqueue("{\"op\": \"service_response\", \"service\": \"" + service + "\", \"values\": {\"publishers\": ["
+                                + (camera ? "\"/fake_camera\"" : "") + "]}, \"result\": true" + idField + "}");
+                        break;
+                    }
+                    serviceCalls.incrementAndGet();
+                    int argsPos = r.findTopLevel("args");
+                    String values = null;
+                    if ((MOTOR_NODE + RosParameters.GET).equals(service)) values = getParameters(r, argsPos);
+                    else if ((MOTOR_NODE + RosParameters.SET).equals(service)) values = setParameters(r, argsPos);
+                    String response = values != null
+                            ? "{\"op\": \"service_response\", \"service\": \"" + service
+                                    + "\", \"values\": " + values + ", \"result\": true" + idField + "}"
+                            : "{\"op\": \"service_response\", \"service\": \"" + service
+                                    + "\", \"values\": \"Service " + service + " does not exist\", \"result\": false"
+                                    + idField + "}";
+                    if (config.serviceDelayMs > 0) {
+                        streams.schedule(() -> enqueue(response), config.serviceDelayMs, TimeUnit.MILLISECONDS);
+                    } else {
+                        enqueue(response);
+                    }
+                    break;
+                }
+                default:
+            }
+        }
+    }
+
+    // ----------------------------------------------------------
+    // motor_sub 파라미터 서비스 (rcl_interfaces GetParameters/SetParameters 응답 메시지)
+    // ----------------------------------------------------------
+    private String getParameters(JsonMessageReader r, int argsPos) {
+        StringBuilder sb = new StringBuilder(256).append("{\"values\": [");
+        int pos = r.firstElement(r.findField(argsPos, "names"));
+        for (int i = 0; pos >= 0; i++, pos = r.nextElement(pos)) {
+            Double v = motorParams.get(String.valueOf(r.stringAt(pos)));
+            if (i > 0) sb.append(", ");
+            sb.append("{\"type\": ").append(v != null ? RosParameters.TYPE_DOUBLE : RosParameters.TYPE_NOT_SET)
+                    .append(", \"bool_value\": false, \"integer_value\": 0, \"double_value\": ")
+                    .append(v != null ? v : 0.0)
+                    .append(", \"string_value\": \"\", \"byte_array_value\": [], \"bool_array_value\": [],"
+                            + " \"integer_array_value\": [], \"double_array_value\": [], \"string_array_value\": []}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private String setParameters(JsonMessageReader r, int argsPos) {
+        StringBuilder sb = new StringBuilder(128).append("{\"results\": [");
+        int pos = r.firstElement(r.findField(argsPos, "parameters"));
+        for (int i = 0; pos >= 0; i++, pos = r.nextElement(pos)) {
+            String name = r.stringAt(r.findField(pos, "name"));
+            int valuePos = r.findField(pos, "value");
+            int type = (int) r.doubleAt(r.findField(valuePos, "type"), RosParameters.TYPE_NOT_SET);
+            String reason = "";
+            if (name == null || !motorParams.containsKey(name)) {
+                reason = "parameter '" + name + "' cannot be set because it was not declared";
+            } else if (type != RosParameters.TYPE_DOUBLE) {
+                reason = "Wrong parameter type, parameter {" + name + "} is of type {double}";
+            } else {
+                motorParams.put(name, r.doubleAt(r.findField(valuePos, "double_value"), 0));
+            }
+            if (i > 0) sb.append(", ");
+            sb.append("{\"successful\": ").append(reason.isEmpty()).append(", \"reason\": \"")
+                    .append(reason).append("\"}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    // /cmd_drive up/down -> target_speed (command_executor 가 /speed_cmd 로 넘기고 motor_sub 가 적용)
+    private void driveCommand(String command) {
+        if ("up".equals(command)) motorParams.compute("target_speed", (k, v) -> Math.min(v + SPEED_STEP, 0.25));
+        else if ("down".equals(command)) motorParams.compute("target_speed", (k, v) -> Math.max(v - SPEED_STEP, 0.02));
+    }
+
+    private static final class Control {
+        final int opcode;
+        final byte[] payload;
+
+        Control(int opcode, byte[] payload) {
+            this.opcode = opcode;
+            this.payload = payload;
+        }
+    }
+
+    private static final Object STOP = new Object(); // 송신 스레드 종료 표시
+}
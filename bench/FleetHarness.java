@@ -0,0 +1,134 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// ============================================================
+// FleetHarness: 플릿 모드 검증 (JVM)
+//  - FakeRosbridgeServer 를 로봇 수만큼 띄우고 FleetManager 로 동시에 연결
+//  - 측정: 전체 연결 시간, 스레드 수, 로봇당 힙 사용량, 로봇별 텔레메트리 수신률,
+//          긴급정지 브로드캐스트 -> 모든 서버 수신까지 지연
+//  - 카메라는 기본 0Hz (목록 화면은 카메라를 구독하지 않음)
+//
+// 실행 (okhttp, org.json 필요):
+//   javac -encoding UTF-8 -cp okhttp.jar:okio.jar:json.jar -d out $(grep -L "^import android" *.java) bench/*.java
+//   java -cp out:okhttp.jar:okio.jar:kotlin-stdlib.jar:json.jar com.cookandroid.aidriveexample.FleetHarness \
+//        --robots 32 --duration 10 [--stops 20] [FakeRosbridgeServer 옵션...]
+// ============================================================
+public final class FleetHarness {
+
+    public static void main(String[] args) throws Exception {
+        int robots = Integer.parseInt(arg(args, "--robots", "16"));
+        int durationSec = Integer.parseInt(arg(args, "--duration", "10"));
+        int stops = Integer.parseInt(arg(args, "--stops", "20"));
+
+        // 카메라 끔 + 작은 패턴 (뒤에 오는 사용자 인자가 우선)
+        String[] serverArgs = new String[args.length + 4];
+        serverArgs[0] = "--camera-hz";
+        serverArgs[1] = "0";
+        serverArgs[2] = "--camera";
+        serverArgs[3] = "16x16";
+        System.arraycopy(args, 0, serverArgs, 4, args.length);
+
+        List<FakeRosbridgeServer> servers = new ArrayList<>();
+        RobotRegistry registry = new RobotRegistry();
+        for (int i = 0; i < robots; i++) {
+            FakeRosbridgeServer.Config config = FakeRosbridgeServer.Config.parse(serverArgs);
+            config.port = 0; // 로봇마다 임의 포트
+            FakeRosbridgeServer server = new FakeRosbridgeServer(config);
+            server.start();
+            servers.add(server);
+            registry.add(String.format(Locale.US, "car%02d", i + 1), "ws://127.0.0.1:" + server.port());
+        }
+
+        int threadsBefore = clientThreads();
+        long heapBefore = usedHeap();
+
+        FleetManager fleet = new FleetManager(registry);
+        long start = System.nanoTime();
+        fleet.start();
+        while (fleet.connectedCount() < robots && System.nanoTime() - start < 10_000_000_000L) Thread.sleep(5);
+        long connectMs = (System.nanoTime() - start) / 1_000_000L;
+        System.out.printf(Locale.US, "%d/%d robots connected in %d ms%n", fleet.connectedCount(), robots, connectMs);
+
+        // --- 텔레메트리 수신 ---
+        Thread.sleep(1000); // 구독 후 첫 메시지
+        long[] decodedBefore = decoded(fleet, registry);
+        Thread.sleep(durationSec * 1000L);
+        long[] decodedAfter = decoded(fleet, registry);
+        double[] rates = new double[robots];
+        for (int i = 0; i < robots; i++) rates[i] = (decodedAfter[i] - decodedBefore[i]) / (double) durationSec;
+        Arrays.sort(rates);
+        int stale = 0;
+        for (RobotState s : fleet.states()) if (s.isStale()) stale++;
+        int threadsAfter = clientThreads();
+        long heapAfter = usedHeap();
+
+        // --- 긴급정지 브로드캐스트: 모든 서버가 받을 때까지 ---
+        long[] fanout = new long[stops];
+        int undelivered = 0;
+        for (int k = 0; k < stops; k++) {
+            long expected = totalStops(servers) + robots;
+            long t0 = System.nanoTime();
+            undelivered += fleet.emergencyStopAll().size();
+            fanout[k] = waitForStops(servers, expected, t0);
+            Thread.sleep(50);
+        }
+        Arrays.sort(fanout);
+
+        System.out.printf(Locale.US, "telemetry msg/s per robot: min %.1f  median %.1f  max %.1f  (stale robots: %d)%n",
+                rates[0], rates[robots / 2], rates[robots - 1], stale);
+        System.out.printf(Locale.US, "client threads: +%d for %d robots%n", threadsAfter - threadsBefore, robots);
+        System.out.printf(Locale.US, "heap: ~%d KB per robot%n", Math.max(0, heapAfter - heapBefore) / 1024 / robots);
+        System.out.printf(Locale.US, "emergency stop all -> delivered to all: p50 %.2f ms max %.2f ms (undelivered %d)%n",
+                fanout[stops / 2] / 1e6, fanout[stops - 1] / 1e6, undelivered);
+        System.out.println("sample: " + fleet.states().get(0));
+        System.out.print("fleet metrics:\n" + fleet.metrics().snapshot().report(null));
+
+        fleet.close();
+        for (FakeRosbridgeServer s : servers) s.close();
+    }
+
+    private static long[] decoded(FleetManager fleet, RobotRegistry registry) {
+        List<RobotRegistry.Endpoint> endpoints = registry.endpoints();
+        long[] counts = new long[endpoints.size()];
+        for (int i = 0; i < counts.length; i++) counts[i] = fleet.client(endpoints.get(i).id).decodedCount();
+        return counts;
+    }
+
+    private static long totalStops(List<FakeRosbridgeServer> servers) {
+        long n = 0;
+        for (FakeRosbridgeServer s : servers) n += s.publishedByClient(CommandPublisher.TOPIC_EMERGENCY);
+        return n;
+    }
+
+    // 모든 서버의 /emergency_stop 수신 합계가 expected 가 될 때까지 (최대 2초)
+    private static long waitForStops(List<FakeRosbridgeServer> servers, long expected, long t0) {
+        while (totalStops(servers) < expected && System.nanoTime() - t0 < 2_000_000_000L) Thread.onSpinWait();
+        return System.nanoTime() - t0;
+    }
+
+    // 대역 서버 스레드를 뺀 스레드 수
+    private static int clientThreads() {
+        int n = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (!t.getName().startsWith("fake-rosbridge")) n++;
+        }
+        return n;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static String arg(String[] args, String name, String def) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return def;
+    }
+}
@@ -0,0 +1,294 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// LatencyHarness: 앱 수신/송신 경로 종단 간 측정 (JVM)
+//  - FakeRosbridgeServer 를 같은 프로세스에서 띄우거나 --uri 로 실제 rosbridge 에 연결
+//  - 앱과 같은 클래스 사용: SubscriptionManager, CommandPublisher, TelemetryPipeline,
+//    RosbridgeDispatcher, 토픽 디코더, TelemetrySlot (WebSocket 만 JDK 클라이언트로 대체)
+//  - UI 는 60Hz vsync 대역 스레드: 슬롯에서 최신 값만 가져감 (UiFlushScheduler 와 같은 합치기)
+//  - 측정: 토픽별 수신 msg/s, UI 반영 /s, header.stamp -> UI 반영 지연 p50/p99/max,
+//          /cmd_vel 루프백 왕복 지연 (publishCmdVel 호출 -> 같은 토픽 구독으로 되돌아올 때까지)
+//  - 외부 rosbridge 로 잴 때는 양쪽 시계가 동기화되어 있어야 telemetry 지연이 의미 있음
+//
+// 실행 (org.json 필요: Subscription/CommandPublisher):
+//   javac -encoding UTF-8 -cp json.jar -d out $(grep -L "^import \(android\|okhttp3\)" *.java) \
+//        $(ls bench/*.java | grep -v FleetHarness)
+//   java -cp out:json.jar com.cookandroid.aidriveexample.LatencyHarness --duration 20 --warmup 3 --cmd-hz 10 \
+//        [--camera-compression cbor] [--fragment-size 65536] [--uri ws://192.168.0.3:9090] [FakeRosbridgeServer 옵션...]
+// ============================================================
+public final class LatencyHarness {
+
+    // MainActivity 와 같은 구독 옵션
+    private static final int BATTERY_THROTTLE_MS = 1000;
+    private static final int ODOM_THROTTLE_MS = 100;
+    private static final int IMU_THROTTLE_MS = 100;
+    private static final int CAMERA_THROTTLE_MS = 66;
+    private static final int DECODE_QUEUE_CAPACITY = 32;
+    private static final long VSYNC_NANOS = 16_666_667L; // 60Hz
+
+    private static final String[] STAMP_SEC = {"header", "stamp", "sec"};
+    private static final String[] STAMP_NANOSEC = {"header", "stamp", "nanosec"};
+    private static final String[] LINEAR_X = {"linear", "x"};
+
+    private static volatile double sink; // 디코드 결과를 버리지 않도록
+    private static volatile boolean measuring; // 워밍업(JIT, 연결 직후) 이후에만 기록
+
+    // ----------------------------------------------------------
+    // 토픽 하나의 측정값
+    // ----------------------------------------------------------
+    private static final class Probe {
+        final String topic;
+        final TelemetrySlot slot = new TelemetrySlot(1); // 마지막 메시지의 stamp (초)
+        final AtomicLong received = new AtomicLong(); // 디코드 워커에서 증가
+        final LongList uiLatency = new LongList(); // vsync 스레드 전용
+        long uiUpdates;
+
+        Probe(String topic) {
+            this.topic = topic;
+        }
+
+        // 실제 디코더를 감싸서 디코드 후 stamp 를 슬롯에 기록
+        TopicDecoder wrap(TopicDecoder decoder) {
+            return msg -> {
+                decoder.decode(msg);
+                double stamp = msg.getDouble(STAMP_SEC, 0) + msg.getDouble(STAMP_NANOSEC, 0) * 1e-9;
+                if (measuring) received.incrementAndGet();
+                slot.set(stamp);
+            };
+        }
+    }
+
+    // 할당을 줄인 long 목록 (백분위 계산용)
+    private static final class LongList {
+        long[] values = new long[1024];
+        int size;
+
+        synchronized void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String uri = arg(args, "--uri", null);
+        int durationSec = Integer.parseInt(arg(args, "--duration", "20"));
+        int warmupSec = Integer.parseInt(arg(args, "--warmup", "3"));
+        double cmdHz = Double.parseDouble(arg(args, "--cmd-hz", "10"));
+        String cameraCompression = arg(args, "--camera-compression", "none");
+        int fragmentSize = Integer.parseInt(arg(args, "--fragment-size", "0")); // 카메라 op "fragment" 조각 크기
+
+        FakeRosbridgeServer server = null;
+        if (uri == null) {
+            FakeRosbridgeServer.Config config = FakeRosbridgeServer.Config.parse(args);
+            if (arg(args, "--port", null) == null) config.port = 0; // 임의 포트
+            server = new FakeRosbridgeServer(config);
+            server.start();
+            uri = "ws://127.0.0.1:" + server.port();
+        }
+
+        // --- 수신 경로: 앱과 같은 디스패처/디코더/파이프라인 ---
+        final Probe battery = new Probe("/battery_state");
+        final Probe odom = new Probe("/odom");
+        final Probe imu = new Probe("/imu");
+        final Probe camera = new Probe("/lane_image_raw");
+        final Probe[] probes = {battery, odom, imu, camera};
+        final int[][] pixels = {new int[0]};
+
+        RosbridgeDispatcher dispatcher = new RosbridgeDispatcher();
+        dispatcher.register("sub_battery", battery.topic, battery.wrap(new BatteryDecoder((pct, volts) -> sink += pct)));
+        dispatcher.register("sub_odom", odom.topic, odom.wrap(new OdomDecoder((t, x, y, yaw, vx, wz) -> sink += vx + x)));
+        dispatcher.register("sub_imu", imu.topic, imu.wrap(new ImuDecoder((r, p, y) -> sink += r + p + y)));
+        dispatcher.register("sub_camera", camera.topic, camera.wrap(new CameraDecoder((w, h, enc, data, len) -> {
+            if (pixels[0].length < w * h) pixels[0] = new int[w * h];
+            PixelConverter.convert(enc, data, len, w, h, pixels[0]); // CameraFrameDecoder 의 변환 비용
+            sink += pixels[0][0];
+        })));
+
+        // --- /cmd_vel 루프백: linear.x 에 보낸 순번을 실어 왕복 시간 측정 ---
+        final int maxCommands = (int) ((warmupSec + durationSec) * cmdHz) + 16;
+        final long[] commandSentNanos = new long[maxCommands];
+        final LongList commandRtt = new LongList();
+        dispatcher.register("sub_cmd_echo", CommandPublisher.TOPIC_CMD_VEL, msg -> {
+            int seq = (int) msg.getDouble(LINEAR_X, -1);
+            if (measuring && seq >= 0 && seq < maxCommands && commandSentNanos[seq] != 0) {
+                commandRtt.add(System.nanoTime() - commandSentNanos[seq]);
+            }
+        });
+
+        TelemetryPipeline pipeline = new TelemetryPipeline(DECODE_QUEUE_CAPACITY, new TelemetryPipeline.FrameHandler() {
+            @Override public void onText(String text) { dispatcher.dispatch(text); }
+            @Override public void onBinary(ByteBuffer frame) { dispatcher.dispatch(frame); }
+        });
+        pipeline.start();
+
+        // --- JDK WebSocket 클라이언트 (OkHttp 대신) ---
+        WebSocket ws = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(URI.create(uri), new FrameCollector(pipeline)).join();
+        MessageSender sender = new MessageSender() {
+            @Override public synchronized boolean send(String text) { // JDK WebSocket 은 동시 전송 불가
+                try {
+                    ws.sendText(text, true).join();
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+        };
+
+        SubscriptionManager subscriptions = new SubscriptionManager();
+        subscriptions.subscribe(new Subscription("sub_battery", battery.topic, "sensor_msgs/msg/BatteryState")
+                .throttleRate(BATTERY_THROTTLE_MS).queueLength(1));
+        subscriptions.subscribe(new Subscription("sub_odom", odom.topic, "nav_msgs/msg/Odometry")
+                .throttleRate(ODOM_THROTTLE_MS).queueLength(1));
+        subscriptions.subscribe(new Subscription("sub_imu", imu.topic, "sensor_msgs/msg/Imu")
+                .throttleRate(IMU_THROTTLE_MS).queueLength(1));
+        subscriptions.subscribe(new Subscription("sub_camera", camera.topic, "sensor_msgs/msg/Image")
+                .compression(cameraCompression).fragmentSize(fragmentSize).throttleRate(CAMERA_THROTTLE_MS).queueLength(1));
+        subscriptions.subscribe(new Subscription("sub_cmd_echo", CommandPublisher.TOPIC_CMD_VEL,
+                "geometry_msgs/msg/Twist"));
+        subscriptions.setSender(sender);
+        subscriptions.resubscribeAll();
+
+        CommandPublisher commands = new CommandPublisher(50, 200); // MainActivity 와 같은 간격
+        commands.setSender(sender);
+
+        // --- vsync 대역 스레드 + 명령 타이머 ---
+        ScheduledExecutorService timers = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "harness-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        final double[] stamp = new double[1];
+        timers.scheduleAtFixedRate(() -> {
+            for (Probe p : probes) {
+                if (!p.slot.take(stamp) || !measuring) continue;
+                p.uiUpdates++;
+                if (stamp[0] > 0) p.uiLatency.add(FakeRosbridgeServer.epochNanos() - (long) (stamp[0] * 1e9));
+            }
+        }, VSYNC_NANOS, VSYNC_NANOS, TimeUnit.NANOSECONDS);
+        final int[] commandSeq = {0};
+        timers.scheduleAtFixedRate(() -> {
+            int seq = commandSeq[0];
+            if (seq >= maxCommands) return;
+            commandSeq[0]++;
+            commandSentNanos[seq] = System.nanoTime();
+            commands.publishCmdVel(seq, 0.0);
+        }, 500, (long) (1000 / cmdHz), TimeUnit.MILLISECONDS);
+
+        System.out.printf(Locale.US, "connected to %s, warmup %d s, measuring %d s ...%n", uri, warmupSec, durationSec);
+        Thread.sleep(warmupSec * 1000L);
+        long decodedBefore = pipeline.decodedCount();
+        int commandsBefore = commandSeq[0];
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationSec * 1000L);
+        measuring = false;
+        double elapsed = (System.nanoTime() - start) * 1e-9;
+        timers.shutdownNow();
+
+        // --- 결과 ---
+        System.out.printf(Locale.US, "%-16s %10s %10s | %10s %10s %10s%n",
+                "topic", "recv/s", "ui/s", "p50 ms", "p99 ms", "max ms");
+        for (Probe p : probes) {
+            long[] lat = p.uiLatency.sorted();
+            System.out.printf(Locale.US, "%-16s %10.1f %10.1f | %10.2f %10.2f %10.2f%n",
+                    p.topic, p.received.get() / elapsed, p.uiUpdates / elapsed,
+                    percentileMs(lat, 0.50), percentileMs(lat, 0.99), percentileMs(lat, 1.0));
+        }
+        long[] rtt = commandRtt.sorted();
+        System.out.printf(Locale.US, "%-16s sent %d, echoed %d | %10.2f %10.2f %10.2f%n",
+                "cmd_vel rtt", commandSeq[0] - commandsBefore, rtt.length,
+                percentileMs(rtt, 0.50), percentileMs(rtt, 0.99), percentileMs(rtt, 1.0));
+        System.out.printf(Locale.US, "pipeline %.1f frames/s (decoded=%d dropped=%d bulk=%d), fragments completed=%d dropped=%d%n",
+                (pipeline.decodedCount() - decodedBefore) / elapsed, pipeline.decodedCount(), pipeline.droppedCount(),
+                pipeline.bulkDroppedCount(), dispatcher.fragments().completedCount(), dispatcher.fragments().droppedCount());
+        System.out.printf(Locale.US, "commands sent=%d coalesced=%d dropped=%d%n",
+                commands.sentCount(), commands.coalescedCount(), commands.droppedCount());
+        if (server != null) {
+            System.out.printf(Locale.US, "server frames sent=%d dropped=%d%n",
+                    server.framesSent(), server.framesDropped());
+        }
+
+        commands.shutdown();
+        subscriptions.unsubscribeAll();
+        ws.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+        pipeline.stop();
+        if (server != null) server.close();
+    }
+
+    // ----------------------------------------------------------
+    // JDK WebSocket 수신: 조각 프레임을 모아서 파이프라인으로 (소켓 스레드는 바로 반환)
+    //  (CameraPathBenchmark 도 사용)
+    // ----------------------------------------------------------
+    static final class FrameCollector implements WebSocket.Listener {
+        final AtomicLong wireBytes = new AtomicLong(); // 수신 페이로드 (텍스트는 문자 수)
+        private final TelemetryPipeline pipeline;
+        private final StringBuilder text = new StringBuilder();
+        private final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        FrameCollector(TelemetryPipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            wireBytes.addAndGet(data.length());
+            text.append(data);
+            if (last) {
+                pipeline.submit(text.toString());
+                text.setLength(0);
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+            wireBytes.addAndGet(data.remaining());
+            byte[] chunk = new byte[data.remaining()]; // data 는 반환 후 재사용되므로 복사
+            data.get(chunk);
+            binary.write(chunk, 0, chunk.length);
+            if (last) {
+                pipeline.submit(ByteBuffer.wrap(binary.toByteArray()));
+                binary.reset();
+            }
+            ws.request(1);
+            return null;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 도우미
+    // ----------------------------------------------------------
+    private static double percentileMs(long[] sorted, double q) {
+        if (sorted.length == 0) return Double.NaN;
+        int i = (int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1);
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+
+    private static String arg(String[] args, String name, String def) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return def;
+    }
+}
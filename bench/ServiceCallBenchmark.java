@@ -0,0 +1,277 @@
+package com.cookandroid.aidriveexample; // 이 자바 파일의 패키지 선언
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// ============================================================
+// ServiceCallBenchmark: call_service 파이프라인 측정/검증 (JVM, 같은 프로세스의 대역 서버)
+//  - 앱과 같은 ServiceClient / RosParameters 사용 (WebSocket 만 JDK 클라이언트로 대체)
+//  - 대역 서버는 --service-delay-ms 로 서비스 처리 시간을 흉내 (요청마다 따로 예약)
+//  - 측정: 한 번에 하나씩(응답 받고 다음 요청) vs 파이프라인(MAX_IN_FLIGHT 까지 연달아) 처리량/왕복 p50/p99,
+//          게인 5개를 요청 하나로 vs 이름마다 따로
+//  - 검증: set -> get 으로 값 확인, 타입이 다르거나 선언 안 된 파라미터 거절, 시간 초과, 취소 후 늦은 응답 무시, 끊김
+//  - --telemetry: odom/imu/카메라 구독을 디코드 큐로 흘려보내며 측정 (응답은 큐를 거치지 않음)
+//
+// 실행 (org.json 필요: ServiceClient/RosParameters/Subscription):
+//   javac -encoding UTF-8 -cp json.jar -d out $(grep -L "^import \(android\|okhttp3\)" *.java) \
+//        $(ls bench/*.java | grep -v FleetHarness)
+//   java -cp out:json.jar com.cookandroid.aidriveexample.ServiceCallBenchmark --calls 500 --service-delay-ms 20 \
+//        [--telemetry true] [FakeRosbridgeServer 옵션...]
+// ============================================================
+public final class ServiceCallBenchmark {
+
+    private static final String NODE = FakeRosbridgeServer.MOTOR_NODE;
+    private static final String[] GAINS = {"k_angle", "k_deg", "max_angular", "target_speed", "speed_step"};
+    private static final long TIMEOUT_MS = 2000;
+    private static final int DECODE_QUEUE_CAPACITY = 32; // RosBridgeClient 와 같은 값 (벤치는 OkHttp 없이 컴파일)
+
+    private static volatile double sink; // 디코드 결과를 버리지 않도록
+
+    public static void main(String[] args) throws Exception {
+        int calls = Integer.parseInt(arg(args, "--calls", "500"));
+        boolean telemetry = Boolean.parseBoolean(arg(args, "--telemetry", "false"));
+
+        FakeRosbridgeServer.Config config = FakeRosbridgeServer.Config.parse(args);
+        config.port = 0;
+        if (arg(args, "--service-delay-ms", null) == null) config.serviceDelayMs = 20;
+        FakeRosbridgeServer server = new FakeRosbridgeServer(config);
+        server.start();
+
+        // --- 앱과 같은 요청/응답 짝짓기 + 디코드 큐 ---
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "service-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        ServiceClient services = new ServiceClient((task, delayMs) -> timer.schedule(task, delayMs, TimeUnit.MILLISECONDS));
+        LatencyHistogram roundTrip = new LatencyHistogram("service");
+        services.setHistogram(roundTrip);
+        RosbridgeDispatcher dispatcher = new RosbridgeDispatcher();
+        dispatcher.register("sub_odom", "/odom", new OdomDecoder((t, x, y, yaw, vx, wz) -> sink += vx));
+        dispatcher.register("sub_imu", "/imu", new ImuDecoder((r, p, y) -> sink += r));
+        dispatcher.register("sub_camera", "/lane_image_raw", new CameraDecoder((w, h, enc, data, len) -> sink += len));
+        TelemetryPipeline pipeline = new TelemetryPipeline(DECODE_QUEUE_CAPACITY, new TelemetryPipeline.FrameHandler() {
+            @Override public void onText(String text) { dispatcher.dispatch(text); }
+            @Override public void onBinary(ByteBuffer frame) { dispatcher.dispatch(frame); }
+        });
+        pipeline.start();
+
+        WebSocket ws = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(URI.create("ws://127.0.0.1:" + server.port()), new Router(services, pipeline)).join();
+        MessageSender sender = new MessageSender() {
+            @Override public synchronized boolean send(String text) { // JDK WebSocket 은 동시 전송 불가
+                try {
+                    ws.sendText(text, true).join();
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+        };
+        services.setSender(sender);
+        SubscriptionManager subscriptions = new SubscriptionManager();
+        if (telemetry) {
+            // MainActivity 와 같은 throttle (응답은 같은 소켓에서 앞선 프레임 뒤에 오므로 전송량을 앱과 맞춤)
+            subscriptions.subscribe(new Subscription("sub_odom", "/odom", "nav_msgs/msg/Odometry")
+                    .throttleRate(100).queueLength(1));
+            subscriptions.subscribe(new Subscription("sub_imu", "/imu", "sensor_msgs/msg/Imu")
+                    .throttleRate(10).queueLength(1));
+            subscriptions.subscribe(new Subscription("sub_camera", "/lane_image_raw", "sensor_msgs/msg/Image")
+                    .throttleRate(66).queueLength(1));
+            subscriptions.setSender(sender);
+            subscriptions.resubscribeAll();
+        }
+        System.out.printf(Locale.US, "fake rosbridge service delay %d ms, %d calls%s%n",
+                config.serviceDelayMs, calls, telemetry ? ", with telemetry (odom/imu/camera)" : "");
+
+        // 워밍업 (JIT, 연결)
+        pipelined(services, Math.min(calls, 100));
+        sequential(services, Math.min(calls, 20));
+
+        // --- 1. 한 번에 하나씩 vs 파이프라인 ---
+        System.out.printf(Locale.US, "%-22s %10s %10s %10s %10s%n", "mode", "calls/s", "total ms", "p50 ms", "p99 ms");
+        LatencyHistogram.Snapshot before = roundTrip.snapshot();
+        long start = System.nanoTime();
+        int ok = sequential(services, Math.min(calls, 100)); // 지연 x 호출 수라 적게
+        report("sequential", ok, start, roundTrip.snapshot().minus(before));
+        before = roundTrip.snapshot();
+        start = System.nanoTime();
+        ok = pipelined(services, calls);
+        report("pipelined (" + ServiceClient.MAX_IN_FLIGHT + " in flight)", ok, start, roundTrip.snapshot().minus(before));
+
+        // --- 2. 게인 5개: 요청 하나 vs 이름마다 ---
+        start = System.nanoTime();
+        Map<String, Object> bulk = RosParameters.values(get(services, GAINS).get(), GAINS);
+        double bulkMs = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        List<ServiceCall> each = new ArrayList<>();
+        for (String g : GAINS) each.add(get(services, g));
+        for (ServiceCall c : each) c.get();
+        double eachMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf(Locale.US, "gains x%d: one request %.1f ms, one per name (pipelined) %.1f ms -> %s%n",
+                GAINS.length, bulkMs, eachMs, bulk);
+
+        // --- 3. set -> get 확인, 타입 거절 ---
+        Map<String, Object> gains = new LinkedHashMap<>();
+        gains.put("k_angle", 0.003);
+        gains.put("k_deg", 0.01);
+        gains.put("target_speed", 0.12);
+        ServiceCall set = services.call(NODE + RosParameters.SET, RosParameters.setArgs(gains), TIMEOUT_MS);
+        Map<String, String> rejected = RosParameters.failures(set.get(), gains);
+        Map<String, Object> read = RosParameters.values(get(services, GAINS).get(), GAINS);
+        boolean applied = rejected.isEmpty();
+        for (Map.Entry<String, Object> e : gains.entrySet()) applied &= e.getValue().equals(read.get(e.getKey()));
+        check("set -> get", applied, "read " + read + ", rejected " + rejected);
+        Map<String, Object> wrong = new LinkedHashMap<>();
+        wrong.put("k_angle", 1L); // 정수: ROS 2 는 double 파라미터에 거절
+        wrong.put("no_such_gain", 1.0);
+        rejected = RosParameters.failures(services.call(NODE + RosParameters.SET, RosParameters.setArgs(wrong), TIMEOUT_MS).get(), wrong);
+        check("type/undeclared rejected", rejected.size() == 2 && server.motorParam("k_angle") == 0.003, rejected.toString());
+        ServiceCall missing = services.call("/no_such_node/get_parameters", RosParameters.getArgs("x"), TIMEOUT_MS);
+        check("missing service", !missing.get().ok && missing.failureMessage() != null, missing.failureMessage());
+
+        // --- 4. 시간 초과, 취소 (늦은 응답은 무시) ---
+        long lateBefore = services.lateCount();
+        ServiceCall slow = services.call(NODE + RosParameters.GET, RosParameters.getArgs(GAINS), Math.max(1, config.serviceDelayMs / 4));
+        boolean timedOut = false;
+        try {
+            slow.get();
+        } catch (ExecutionException e) {
+            timedOut = e.getCause() instanceof TimeoutException;
+        }
+        ServiceCall cancelled = get(services, GAINS);
+        boolean cancelOk = cancelled.cancel(false) && cancelled.isCancelled() && cancelled.response() == null;
+        try {
+            cancelled.get();
+            cancelOk = false;
+        } catch (CancellationException expected) {
+            // 취소된 호출의 get
+        }
+        Thread.sleep(config.serviceDelayMs * 3 + 50); // 늦은 응답 도착
+        check("timeout", timedOut && config.serviceDelayMs > 0, slow.failureMessage());
+        check("cancel", cancelOk && services.lateCount() - lateBefore == 2 && services.inFlight() == 0,
+                "late responses ignored " + (services.lateCount() - lateBefore));
+
+        // --- 5. 끊김: 대기 중인 호출 모두 실패 ---
+        List<ServiceCall> pending = new ArrayList<>();
+        for (int i = 0; i < 8; i++) pending.add(get(services, GAINS));
+        services.setSender(null);
+        int failed = 0;
+        for (ServiceCall c : pending) {
+            if (c.isDone() && c.failure() != null) failed++;
+        }
+        ServiceCall offline = get(services, GAINS); // 연결 없음: 보내지 않고 바로 실패
+        check("disconnect fails pending", failed == pending.size() && offline.failure() != null,
+                failed + "/" + pending.size() + ", then " + offline.failureMessage());
+
+        System.out.printf(Locale.US, "client sent=%d completed=%d timedOut=%d cancelled=%d late=%d failed=%d, server calls=%d%n",
+                services.sentCount(), services.completedCount(), services.timedOutCount(), services.cancelledCount(),
+                services.lateCount(), services.failedCount(), server.serviceCalls());
+        if (telemetry) {
+            System.out.printf(Locale.US, "telemetry decoded=%d dropped=%d (service responses bypass the decode queue)%n",
+                    pipeline.decodedCount(), pipeline.droppedCount());
+        }
+
+        subscriptions.unsubscribeAll();
+        ws.sendClose(WebSocket.NORMAL_CLOSURE, "done").join();
+        pipeline.stop();
+        timer.shutdownNow();
+        server.close();
+    }
+
+    // ----------------------------------------------------------
+    // 호출 방식
+    // ----------------------------------------------------------
+    private static ServiceCall get(ServiceClient services, String... names) {
+        return services.call(NODE + RosParameters.GET, RosParameters.getArgs(names), TIMEOUT_MS);
+    }
+
+    // 응답을 받고 다음 요청 (토픽 왕복처럼 하나씩), 성공한 호출 수
+    private static int sequential(ServiceClient services, int calls) throws InterruptedException {
+        int ok = 0;
+        for (int i = 0; i < calls; i++) {
+            if (succeeded(get(services, "target_speed"))) ok++;
+        }
+        return ok;
+    }
+
+    // MAX_IN_FLIGHT 까지 연달아 보내고, 가장 오래된 호출이 끝나면 다음 요청
+    private static int pipelined(ServiceClient services, int calls) throws InterruptedException {
+        ServiceCall[] window = new ServiceCall[ServiceClient.MAX_IN_FLIGHT];
+        int ok = 0;
+        for (int i = 0; i < calls + window.length; i++) {
+            int slot = i % window.length;
+            if (window[slot] != null && succeeded(window[slot])) ok++;
+            window[slot] = i < calls ? get(services, "target_speed") : null;
+        }
+        return ok;
+    }
+
+    private static boolean succeeded(ServiceCall call) throws InterruptedException {
+        try {
+            return call.get().ok;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    // ----------------------------------------------------------
+    // 출력
+    // ----------------------------------------------------------
+    private static void report(String mode, int ok, long start, LatencyHistogram.Snapshot h) {
+        double ms = (System.nanoTime() - start) / 1e6;
+        System.out.printf(Locale.US, "%-22s %10.0f %10.1f %10.2f %10.2f%n",
+                mode, ok * 1000.0 / ms, ms, h.percentileNanos(0.50) / 1e6, h.percentileNanos(0.99) / 1e6);
+    }
+
+    private static void check(String name, boolean pass, String detail) {
+        System.out.printf(Locale.US, "%-26s %s  %s%n", name, pass ? "ok" : "FAIL", detail);
+    }
+
+    // ----------------------------------------------------------
+    // JDK WebSocket 수신: 서비스 응답은 리더 스레드에서 바로 완료, 나머지는 디코드 큐로 (RosBridgeClient 와 같은 분기)
+    // ----------------------------------------------------------
+    private static final class Router implements WebSocket.Listener {
+        private final ServiceClient services;
+        private final TelemetryPipeline pipeline;
+        private final StringBuilder text = new StringBuilder();
+
+        Router(ServiceClient services, TelemetryPipeline pipeline) {
+            this.services = services;
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                String frame = text.toString();
+                text.setLength(0);
+                if (!services.onText(frame)) pipeline.submit(frame);
+            }
+            ws.request(1);
+            return null;
+        }
+    }
+
+    private static String arg(String[] args, String name, String def) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return def;
+    }
+}
@@ -1,6 +1,8 @@
 #!/usr/bin/env python3
 import rclpy
 from rclpy.node import Node
+from rclpy.parameter import Parameter
+from rcl_interfaces.msg import SetParametersResult
 from geometry_msgs.msg import Twist
 from std_msgs.msg import Float32, Bool, String
 from collections import deque
@@ -49,6 +51,15 @@ class MotorControl(Node):
         self.k_deg = 0.008
         self.max_angular = 16.0
 
+        # --------------------------
+        # 튜닝 파라미터 (앱에서 rosbridge get/set_parameters 로 읽고 변경)
+        #  target_speed = 주행 속도 (정지 중 변경하면 다음 start 때 적용)
+        # --------------------------
+        for name in self.PARAM_LIMITS:
+            setattr(self, name, self.declare_parameter(name, float(getattr(self, name))).value) # --ros-args -p 값 반영
+        self.saved_speed = self.target_speed
+        self.add_on_set_parameters_callback(self.parameters_callback)
+
         # 딜레이 큐
         self.z_queue = deque(maxlen=3)
         self.z_filtered = 0.0
@@ -67,6 +78,41 @@ class MotorControl(Node):
         # --------------------------
         self.create_timer(0.03, self.control_callback)
 
+    # 파라미터 허용 범위 (범위 밖 값은 거절)
+    PARAM_LIMITS = {
+        'k_angle': (0.0, 0.1),
+        'k_deg': (0.0, 0.1),
+        'max_angular': (0.1, 16.0),
+        'target_speed': (0.02, 0.25),
+        'speed_step': (0.001, 0.1),
+    }
+
+    # --------------------------
+    # 파라미터 변경 (값마다 호출, 거절하면 파라미터 값도 그대로)
+    # --------------------------
+    def parameters_callback(self, params):
+        for p in params:
+            if p.name not in self.PARAM_LIMITS:
+                continue
+            if p.type_ != Parameter.Type.DOUBLE:
+                return SetParametersResult(successful=False, reason=f"{p.name}: double 값 필요")
+            lo, hi = self.PARAM_LIMITS[p.name]
+            if not lo <= p.value <= hi:
+                return SetParametersResult(successful=False, reason=f"{p.name}: {lo} ~ {hi} 범위 밖")
+        for p in params:
+            if p.name == 'target_speed':
+                self.saved_speed = p.value
+                if not self.stop_flag and not self.emergency_flag:
+                    self.target_speed = p.value
+            elif p.name in self.PARAM_LIMITS:
+                setattr(self, p.name, p.value)
+            self.get_logger().info(f"🔧 {p.name} = {p.value}")
+        return SetParametersResult(successful=True)
+
+    # /speed_cmd up/down 으로 바뀐 속도를 파라미터에도 반영 (앱에서 읽어 확인)
+    def sync_speed_parameter(self):
+        self.set_parameters([Parameter('target_speed', Parameter.Type.DOUBLE, float(self.saved_speed))])
+
     # --------------------------
     # 센서 콜백
     # --------------------------
@@ -89,12 +135,14 @@ class MotorControl(Node):
             self.saved_speed = self.target_speed
             self.stop_flag = False
             self.get_logger().info(f"⏫ 속도 증가 → {self.target_speed:.3f}")
+            self.sync_speed_parameter()
 
         elif cmd == "down":
             self.target_speed = max(self.target_speed - 0.02, 0.02)
             self.saved_speed = self.target_speed
             self.stop_flag = False
             self.get_logger().info(f"⏬ 속도 감소 → {self.target_speed:.3f}")
+            self.sync_speed_parameter()
 
         elif cmd == "stop":
             self.stop_flag = True